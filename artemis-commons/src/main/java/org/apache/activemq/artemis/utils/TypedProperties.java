@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.utils;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -25,6 +26,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQPropertyConversionException;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.logs.ActiveMQUtilBundle;
@@ -55,6 +57,13 @@ public final class TypedProperties {
 
    private Map<SimpleString, PropertyValue> properties;
 
+   /**
+    * The encoded properties, when they were decoded lazily and not decoded into {@link #properties} yet.
+    */
+   private byte[] encoded;
+
+   private int encodedCount;
+
    private volatile int size;
 
    private boolean internalProperties;
@@ -67,12 +76,22 @@ public final class TypedProperties {
       // Note we don't include the attributes or anything else since they already included in the memory estimate
       // of the ServerMessage
 
-      return properties == null ? 0 : size + 2 * DataConstants.SIZE_INT * properties.size();
+      synchronized (this) {
+         if (encoded != null) {
+            return size + 2 * DataConstants.SIZE_INT * encodedCount;
+         }
+         return properties == null ? 0 : size + 2 * DataConstants.SIZE_INT * properties.size();
+      }
    }
 
    public TypedProperties(final TypedProperties other) {
-      properties = other.properties == null ? null : new HashMap<SimpleString, PropertyValue>(other.properties);
-      size = other.size;
+      synchronized (other) {
+         properties = other.properties == null ? null : new HashMap<SimpleString, PropertyValue>(other.properties);
+         // the encoded properties are never modified, so they can be shared
+         encoded = other.encoded;
+         encodedCount = other.encodedCount;
+         size = other.size;
+      }
    }
 
    public boolean hasInternalProperties() {
@@ -135,7 +154,13 @@ public final class TypedProperties {
    }
 
    public void putTypedProperties(final TypedProperties otherProps) {
-      if (otherProps == null || otherProps.properties == null) {
+      if (otherProps == null) {
+         return;
+      }
+
+      otherProps.decodeEncoded();
+
+      if (otherProps.properties == null) {
          return;
       }
 
@@ -348,17 +373,21 @@ public final class TypedProperties {
       return doRemoveProperty(key);
    }
 
-   public boolean containsProperty(final SimpleString key) {
+   public synchronized boolean containsProperty(final SimpleString key) {
       if (size == 0) {
          return false;
 
       }
+      else if (encoded != null) {
+         return findEncoded(key) >= 0;
+      }
       else {
          return properties.containsKey(key);
       }
    }
 
    public Set<SimpleString> getPropertyNames() {
+      decodeEncoded();
       if (size == 0) {
          return Collections.emptySet();
       }
@@ -367,94 +396,121 @@ public final class TypedProperties {
       }
    }
 
-   public synchronized void decode(final ActiveMQBuffer buffer) {
+   public void decode(final ActiveMQBuffer buffer) {
+      decode(buffer, false);
+   }
+
+   /**
+    * @param lazy whether the properties are only copied from the buffer, and looked up in their encoded form until
+    *             they are modified or listed. Most messages only have a few of their properties read by the server,
+    *             and are then encoded again unchanged.
+    */
+   public synchronized void decode(final ActiveMQBuffer buffer, final boolean lazy) {
       byte b = buffer.readByte();
 
+      encoded = null;
+
       if (b == DataConstants.NULL) {
          properties = null;
       }
       else {
          int numHeaders = buffer.readInt();
 
-         properties = new HashMap<SimpleString, PropertyValue>(numHeaders);
-         size = 0;
+         if (lazy && buffer.byteBuf() != null && buffer.byteBuf().order() == ByteOrder.BIG_ENDIAN) {
+            copyEncoded(buffer, numHeaders);
+         }
+         else {
+            decodeEntries(buffer, numHeaders);
+         }
+      }
+   }
 
-         for (int i = 0; i < numHeaders; i++) {
-            int len = buffer.readInt();
-            byte[] data = new byte[len];
-            buffer.readBytes(data);
-            SimpleString key = new SimpleString(data);
+   private void decodeEntries(final ActiveMQBuffer buffer, final int numHeaders) {
+      properties = new HashMap<SimpleString, PropertyValue>(numHeaders);
+      size = 0;
 
-            byte type = buffer.readByte();
+      for (int i = 0; i < numHeaders; i++) {
+         int len = buffer.readInt();
+         byte[] data = new byte[len];
+         buffer.readBytes(data);
+         SimpleString key = new SimpleString(data);
 
-            PropertyValue val;
+         byte type = buffer.readByte();
 
-            switch (type) {
-               case NULL: {
-                  val = new NullValue();
-                  doPutValue(key, val);
-                  break;
-               }
-               case CHAR: {
-                  val = new CharValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case BOOLEAN: {
-                  val = new BooleanValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case BYTE: {
-                  val = new ByteValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case BYTES: {
-                  val = new BytesValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case SHORT: {
-                  val = new ShortValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case INT: {
-                  val = new IntValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case LONG: {
-                  val = new LongValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case FLOAT: {
-                  val = new FloatValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case DOUBLE: {
-                  val = new DoubleValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               case STRING: {
-                  val = new StringValue(buffer);
-                  doPutValue(key, val);
-                  break;
-               }
-               default: {
-                  throw ActiveMQUtilBundle.BUNDLE.invalidType(type);
-               }
+         PropertyValue val;
+
+         switch (type) {
+            case NULL: {
+               val = new NullValue();
+               doPutValue(key, val);
+               break;
+            }
+            case CHAR: {
+               val = new CharValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case BOOLEAN: {
+               val = new BooleanValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case BYTE: {
+               val = new ByteValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case BYTES: {
+               val = new BytesValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case SHORT: {
+               val = new ShortValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case INT: {
+               val = new IntValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case LONG: {
+               val = new LongValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case FLOAT: {
+               val = new FloatValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case DOUBLE: {
+               val = new DoubleValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            case STRING: {
+               val = new StringValue(buffer);
+               doPutValue(key, val);
+               break;
+            }
+            default: {
+               throw ActiveMQUtilBundle.BUNDLE.invalidType(type);
             }
          }
       }
    }
 
    public synchronized void encode(final ActiveMQBuffer buffer) {
-      if (properties == null) {
+      if (encoded != null) {
+         buffer.writeByte(DataConstants.NOT_NULL);
+
+         buffer.writeInt(encodedCount);
+
+         buffer.writeBytes(encoded);
+      }
+      else if (properties == null) {
          buffer.writeByte(DataConstants.NULL);
       }
       else {
@@ -473,8 +529,8 @@ public final class TypedProperties {
       }
    }
 
-   public int getEncodeSize() {
-      if (properties == null) {
+   public synchronized int getEncodeSize() {
+      if (properties == null && encoded == null) {
          return DataConstants.SIZE_BYTE;
       }
       else {
@@ -483,6 +539,7 @@ public final class TypedProperties {
    }
 
    public void clear() {
+      decodeEncoded();
       if (properties != null) {
          properties.clear();
       }
@@ -490,6 +547,8 @@ public final class TypedProperties {
 
    @Override
    public String toString() {
+      decodeEncoded();
+
       StringBuilder sb = new StringBuilder("TypedProperties[");
 
       if (properties != null) {
@@ -544,12 +603,196 @@ public final class TypedProperties {
 
    // Private ------------------------------------------------------------------------------------
 
-   private void checkCreateProperties() {
-      if (properties == null) {
+   private synchronized void checkCreateProperties() {
+      if (encoded != null) {
+         decodeEncoded();
+      }
+      else if (properties == null) {
          properties = new HashMap<SimpleString, PropertyValue>();
       }
    }
 
+   /**
+    * Skips over the encoded properties, only checking whether there are internal properties, and keeps a copy of them.
+    */
+   private void copyEncoded(final ActiveMQBuffer buffer, final int numHeaders) {
+      byte[] internalPrefix = AMQ_PROPNAME.getData();
+
+      int start = buffer.readerIndex();
+
+      boolean internal = false;
+
+      for (int i = 0; i < numHeaders; i++) {
+         int len = buffer.readInt();
+         if (!internal && len >= internalPrefix.length) {
+            int keyStart = buffer.readerIndex();
+            internal = true;
+            for (int j = 0; j < internalPrefix.length; j++) {
+               if (buffer.getByte(keyStart + j) != internalPrefix[j]) {
+                  internal = false;
+                  break;
+               }
+            }
+         }
+         buffer.skipBytes(len);
+
+         byte type = buffer.readByte();
+
+         switch (type) {
+            case NULL:
+               break;
+            case BOOLEAN:
+            case BYTE:
+               buffer.skipBytes(DataConstants.SIZE_BYTE);
+               break;
+            case CHAR:
+            case SHORT:
+               buffer.skipBytes(DataConstants.SIZE_SHORT);
+               break;
+            case INT:
+            case FLOAT:
+               buffer.skipBytes(DataConstants.SIZE_INT);
+               break;
+            case LONG:
+            case DOUBLE:
+               buffer.skipBytes(DataConstants.SIZE_LONG);
+               break;
+            case BYTES:
+            case STRING:
+               buffer.skipBytes(buffer.readInt());
+               break;
+            default:
+               throw ActiveMQUtilBundle.BUNDLE.invalidType(type);
+         }
+      }
+
+      byte[] data = new byte[buffer.readerIndex() - start];
+      buffer.getBytes(start, data);
+
+      if (internal) {
+         internalProperties = true;
+      }
+      properties = null;
+      encoded = data;
+      encodedCount = numHeaders;
+      size = data.length;
+   }
+
+   private synchronized void decodeEncoded() {
+      if (encoded != null) {
+         ActiveMQBuffer buffer = ActiveMQBuffers.wrappedBuffer(encoded);
+         int numHeaders = encodedCount;
+         encoded = null;
+         decodeEntries(buffer, numHeaders);
+      }
+   }
+
+   /**
+    * @return the position of the type of the value of the key in {@link #encoded}, or -1
+    */
+   private int findEncoded(final SimpleString key) {
+      byte[] data = encoded;
+      byte[] keyData = key.getData();
+
+      int pos = 0;
+
+      for (int i = 0; i < encodedCount; i++) {
+         int len = readInt(data, pos);
+         pos += DataConstants.SIZE_INT;
+
+         boolean found = len == keyData.length;
+         for (int j = 0; found && j < len; j++) {
+            found = data[pos + j] == keyData[j];
+         }
+         pos += len;
+
+         if (found) {
+            return pos;
+         }
+
+         byte type = data[pos++];
+
+         switch (type) {
+            case NULL:
+               break;
+            case BOOLEAN:
+            case BYTE:
+               pos += DataConstants.SIZE_BYTE;
+               break;
+            case CHAR:
+            case SHORT:
+               pos += DataConstants.SIZE_SHORT;
+               break;
+            case INT:
+            case FLOAT:
+               pos += DataConstants.SIZE_INT;
+               break;
+            case LONG:
+            case DOUBLE:
+               pos += DataConstants.SIZE_LONG;
+               break;
+            case BYTES:
+            case STRING:
+               pos += DataConstants.SIZE_INT + readInt(data, pos);
+               break;
+            default:
+               throw ActiveMQUtilBundle.BUNDLE.invalidType(type);
+         }
+      }
+
+      return -1;
+   }
+
+   /**
+    * @return the value at pos in {@link #encoded}, as {@link PropertyValue#getValue()} would return it
+    */
+   private Object readEncoded(final int pos) {
+      byte[] data = encoded;
+      byte type = data[pos];
+
+      switch (type) {
+         case NULL:
+            return null;
+         case BOOLEAN:
+            return data[pos + 1] != 0;
+         case BYTE:
+            return data[pos + 1];
+         case CHAR:
+            return (char) readShort(data, pos + 1);
+         case SHORT:
+            return readShort(data, pos + 1);
+         case INT:
+            return readInt(data, pos + 1);
+         case FLOAT:
+            return Float.intBitsToFloat(readInt(data, pos + 1));
+         case LONG:
+            return readLong(data, pos + 1);
+         case DOUBLE:
+            return Double.longBitsToDouble(readLong(data, pos + 1));
+         case BYTES:
+         case STRING: {
+            int len = readInt(data, pos + 1);
+            byte[] bytes = new byte[len];
+            System.arraycopy(data, pos + 1 + DataConstants.SIZE_INT, bytes, 0, len);
+            return type == BYTES ? bytes : new SimpleString(bytes);
+         }
+         default:
+            throw ActiveMQUtilBundle.BUNDLE.invalidType(type);
+      }
+   }
+
+   private static short readShort(final byte[] data, final int pos) {
+      return (short) ((data[pos] << 8) | (data[pos + 1] & 0xFF));
+   }
+
+   private static int readInt(final byte[] data, final int pos) {
+      return (data[pos] << 24) | ((data[pos + 1] & 0xFF) << 16) | ((data[pos + 2] & 0xFF) << 8) | (data[pos + 3] & 0xFF);
+   }
+
+   private static long readLong(final byte[] data, final int pos) {
+      return ((long) readInt(data, pos) << 32) | (readInt(data, pos + 4) & 0xFFFFFFFFL);
+   }
+
    private synchronized void doPutValue(final SimpleString key, final PropertyValue value) {
       if (key.startsWith(AMQ_PROPNAME)) {
          internalProperties = true;
@@ -565,6 +808,13 @@ public final class TypedProperties {
    }
 
    private synchronized Object doRemoveProperty(final SimpleString key) {
+      if (encoded != null && findEncoded(key) < 0) {
+         // nothing to remove, e.g. the route headers of most messages, so they stay encoded
+         return null;
+      }
+
+      decodeEncoded();
+
       if (properties == null) {
          return null;
       }
@@ -586,6 +836,11 @@ public final class TypedProperties {
          return null;
       }
 
+      if (encoded != null) {
+         int pos = key instanceof SimpleString ? findEncoded((SimpleString) key) : -1;
+         return pos < 0 ? null : readEncoded(pos);
+      }
+
       PropertyValue val = properties.get(key);
 
       if (val == null) {
@@ -930,11 +1185,15 @@ public final class TypedProperties {
       }
    }
 
-   public boolean isEmpty() {
+   public synchronized boolean isEmpty() {
+      if (encoded != null) {
+         return encodedCount == 0;
+      }
       return properties.isEmpty();
    }
 
    public Map<String, Object> getMap() {
+      decodeEncoded();
       Map<String, Object> m = new HashMap<String, Object>();
       for (Entry<SimpleString, PropertyValue> entry : properties.entrySet()) {
          Object val = entry.getValue().getValue();
@@ -136,6 +136,9 @@ public final class ActiveMQDefaultConfiguration {
    // Maximum number of threads to use for the thread pool. -1 means 'no limits'.
    private static int DEFAULT_THREAD_POOL_MAX_SIZE = 30;
 
+   // number of queues from which a message is added to its queues in parallel, -1 means never
+   private static int DEFAULT_PARALLEL_FAN_OUT_THRESHOLD = -1;
+
    // true means that security is enabled
    private static boolean DEFAULT_SECURITY_ENABLED = true;
 
@@ -148,6 +151,9 @@ public final class ActiveMQDefaultConfiguration {
    // how long (in ms) to wait before invalidating the security cache
    private static long DEFAULT_SECURITY_INVALIDATION_INTERVAL = 10000;
 
+   // the maximum number of user and address pairs kept in the security cache
+   private static int DEFAULT_SECURITY_CACHE_MAX_SIZE = 100000;
+
    // how long (in ms) to wait to acquire a file lock on the journal
    private static long DEFAULT_JOURNAL_LOCK_ACQUISITION_TIMEOUT = -1;
 
@@ -205,6 +211,12 @@ public final class ActiveMQDefaultConfiguration {
    // the size of the cache for pre-creating message ID's
    private static int DEFAULT_ID_CACHE_SIZE = 20000;
 
+   // the minimum time in milliseconds a duplicate ID is kept in the cache, -1 means the ID's are only bounded by the cache size
+   private static long DEFAULT_ID_CACHE_TTL = -1;
+
+   // true means that a Bloom filter is checked before looking up a duplicate ID in the cache
+   private static boolean DEFAULT_ID_CACHE_BLOOM_FILTER = false;
+
    // true means that ID's are persisted to the journal
    private static boolean DEFAULT_PERSIST_ID_CACHE = true;
 
@@ -431,6 +443,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_THREAD_POOL_MAX_SIZE;
    }
 
+   /**
+    * number of queues from which a message is added to its queues in parallel, -1 means never
+    */
+   public static int getDefaultParallelFanOutThreshold() {
+      return DEFAULT_PARALLEL_FAN_OUT_THRESHOLD;
+   }
+
    /**
     * true means that security is enabled
     */
@@ -459,6 +478,13 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_SECURITY_INVALIDATION_INTERVAL;
    }
 
+   /**
+    * the maximum number of user and address pairs kept in the security cache
+    */
+   public static int getDefaultSecurityCacheMaxSize() {
+      return DEFAULT_SECURITY_CACHE_MAX_SIZE;
+   }
+
    /**
     * how long (in ms) to wait to acquire a file lock on the journal
     */
@@ -592,6 +618,20 @@ public final class ActiveMQDefaultConfiguration {
       return DEFAULT_ID_CACHE_SIZE;
    }
 
+   /**
+    * the minimum time in milliseconds a duplicate ID is kept in the cache, -1 means the ID's are only bounded by the cache size
+    */
+   public static long getDefaultIdCacheTtl() {
+      return DEFAULT_ID_CACHE_TTL;
+   }
+
+   /**
+    * true means that a Bloom filter is checked before looking up a duplicate ID in the cache
+    */
+   public static boolean isDefaultIdCacheBloomFilter() {
+      return DEFAULT_ID_CACHE_BLOOM_FILTER;
+   }
+
    /**
     * true means that ID's are persisted to the journal
     */
@@ -72,6 +72,12 @@ public final class ActiveMQClient {
 
    public static final int DEFAULT_CONSUMER_MAX_RATE = -1;
 
+   public static final boolean DEFAULT_CONSUMER_OFF_HEAP_BUFFER = false;
+
+   public static final int DEFAULT_CONSUMER_MIN_WINDOW_SIZE = -1;
+
+   public static final int DEFAULT_CONSUMER_MAX_WINDOW_SIZE = -1;
+
    public static final int DEFAULT_CONFIRMATION_WINDOW_SIZE = -1;
 
    public static final int DEFAULT_PRODUCER_WINDOW_SIZE = 64 * 1024;
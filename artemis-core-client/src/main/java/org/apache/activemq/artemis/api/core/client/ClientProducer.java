@@ -16,6 +16,9 @@
  */
 package org.apache.activemq.artemis.api.core.client;
 
+import java.util.List;
+import java.util.concurrent.Future;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -119,6 +122,64 @@ public interface ClientProducer extends AutoCloseable {
     */
    void send(String address, Message message) throws ActiveMQException;
 
+   /**
+    * Sends a message to the ClientProducer's address without blocking, whatever the blocking semantics set on the
+    * {@link ServerLocator}. <br>
+    * <br>
+    * The returned future completes with the message once the server has confirmed its reception through the
+    * confirmation window (see {@link ServerLocator#setConfirmationWindowSize(int)}). It completes with an
+    * {@link java.util.concurrent.ExecutionException} if the session fails before then and can't be recovered. If the
+    * confirmation window is disabled, it completes as soon as the message has been sent.
+    * <p>
+    * The unconfirmed sends of a producer are bounded to twice the confirmation window size (in bytes): this method
+    * blocks until earlier sends are confirmed when that many bytes are still in flight.
+    *
+    * @param message the message to send
+    * @return a future of the reception of the message by the server
+    * @throws ActiveMQException if an exception occurs while sending the message
+    */
+   Future<Message> sendAsync(Message message) throws ActiveMQException;
+
+   /**
+    * Sends a message to the specified address instead of the ClientProducer's address, without blocking.
+    *
+    * @param address the address where the message will be sent
+    * @param message the message to send
+    * @return a future of the reception of the message by the server
+    * @throws ActiveMQException if an exception occurs while sending the message
+    * @see #sendAsync(Message)
+    */
+   Future<Message> sendAsync(SimpleString address, Message message) throws ActiveMQException;
+
+   /**
+    * Sends several messages to the ClientProducer's address in one packet. <br>
+    * <br>
+    * The server routes the messages of the batch in order. If the session isn't transacted, it routes them in a
+    * single internal transaction: its durable messages are stored with one journal sync, and either all or none of
+    * them are routed. <br>
+    * <br>
+    * This will block once for the whole batch until confirmation that the messages have reached the server has been
+    * received if {@link ServerLocator#setBlockOnDurableSend(boolean)} or
+    * {@link ServerLocator#setBlockOnNonDurableSend(boolean)} are set to <code>true</code> for any of the messages.
+    * <br>
+    * <br>
+    * The messages are sent one by one if the server doesn't support batches or if any of them is a large message.
+    *
+    * @param messages the messages to send
+    * @throws ActiveMQException if an exception occurs while sending the messages
+    */
+   void sendBatch(List<? extends Message> messages) throws ActiveMQException;
+
+   /**
+    * Sends several messages to the specified address instead of the ClientProducer's address in one packet.
+    *
+    * @param address  the address where the messages will be sent
+    * @param messages the messages to send
+    * @throws ActiveMQException if an exception occurs while sending the messages
+    * @see #sendBatch(List)
+    */
+   void sendBatch(SimpleString address, List<? extends Message> messages) throws ActiveMQException;
+
    /**
     * Closes the ClientProducer. If already closed nothing is done.
     *
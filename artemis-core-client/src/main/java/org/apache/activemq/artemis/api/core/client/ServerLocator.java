@@ -273,6 +273,68 @@ public interface ServerLocator extends AutoCloseable {
     */
    ServerLocator setConsumerMaxRate(int consumerMaxRate);
 
+   /**
+    * When <code>true</code>, the messages buffered by consumers created through this factory are kept encoded in
+    * pooled direct buffers and only decoded when they are received or delivered to a message handler.
+    * <p>
+    * This keeps the buffers of consumers with large consumer windows out of the heap. Large messages are always
+    * buffered on heap.
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_CONSUMER_OFF_HEAP_BUFFER}.
+    *
+    * @return <code>true</code> if the consumers buffer their messages off heap, <code>false</code> else
+    */
+   boolean isConsumerOffHeapBuffer();
+
+   /**
+    * Sets whether the consumers created through this factory buffer their messages off heap.
+    *
+    * @param consumerOffHeapBuffer <code>true</code> to buffer the messages of consumers off heap
+    * @return this ServerLocator
+    */
+   ServerLocator setConsumerOffHeapBuffer(boolean consumerOffHeapBuffer);
+
+   /**
+    * Returns the lower bound of the window of consumers with an adaptive window size (in bytes).
+    * <p>
+    * When both the minimum and the maximum window sizes are set (&gt; 0), the consumers created through this factory
+    * start with the consumer window size and grow or shrink their window between these bounds, according to the
+    * rate at which they consume their messages: the window of a consumer that runs out of buffered messages grows,
+    * the window of a consumer whose buffer would take too long to drain shrinks so that the messages are left on the
+    * server for the other consumers of the queue. The window of consumers with a window size of 0 or -1 never adapts.
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_CONSUMER_MIN_WINDOW_SIZE}.
+    *
+    * @return the lower bound of adaptive consumer windows
+    */
+   int getConsumerMinWindowSize();
+
+   /**
+    * Sets the lower bound of the window of consumers with an adaptive window size (in bytes).
+    *
+    * @param consumerMinWindowSize lower bound of adaptive consumer windows, -1 to disable the adaptive window
+    * @return this ServerLocator
+    */
+   ServerLocator setConsumerMinWindowSize(int consumerMinWindowSize);
+
+   /**
+    * Returns the upper bound of the window of consumers with an adaptive window size (in bytes).
+    * <p>
+    * Default value is {@link ActiveMQClient#DEFAULT_CONSUMER_MAX_WINDOW_SIZE}.
+    *
+    * @return the upper bound of adaptive consumer windows
+    * @see #getConsumerMinWindowSize()
+    */
+   int getConsumerMaxWindowSize();
+
+   /**
+    * Sets the upper bound of the window of consumers with an adaptive window size (in bytes).
+    *
+    * @param consumerMaxWindowSize upper bound of adaptive consumer windows, -1 to disable the adaptive window
+    * @return this ServerLocator
+    */
+   ServerLocator setConsumerMaxWindowSize(int consumerMaxWindowSize);
+
    /**
     * Returns the size for the confirmation window of clients using this factory.
     * <p>
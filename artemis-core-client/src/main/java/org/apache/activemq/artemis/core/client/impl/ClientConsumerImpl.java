@@ -53,6 +53,12 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
    private static final int NUM_PRIORITIES = 10;
 
+   // An adaptive window shrinks when it would take longer than this to consume it
+   private static final long ADAPTIVE_WINDOW_MAX_DRAIN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+   // An adaptive window grows when the consumer runs out of messages and would consume it quicker than this
+   private static final long ADAPTIVE_WINDOW_MIN_DRAIN_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
    public static final SimpleString FORCED_DELIVERY_MESSAGE = new SimpleString("_hornetq.forced.delivery.seq");
 
    // Attributes
@@ -88,6 +94,21 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
    private final PriorityLinkedList<ClientMessageInternal> buffer = new PriorityLinkedListImpl<ClientMessageInternal>(ClientConsumerImpl.NUM_PRIORITIES);
 
+   // The regular messages in the buffer are kept encoded in pooled direct buffers until they're consumed
+   private final boolean offHeapBuffer;
+
+   // The bounds of the adaptive window, -1 when the window doesn't adapt
+   private final int minWindowSize;
+
+   private final int maxWindowSize;
+
+   // The window granted to the server when it adapts, the credits are sent back every half window
+   private int windowSize;
+
+   private long windowStart;
+
+   private volatile boolean starved;
+
    private final Runner runner = new Runner();
 
    private LargeMessageControllerImpl currentLargeMessageController;
@@ -170,6 +191,23 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
       this.flowControlExecutor = flowControlExecutor;
 
+      ServerLocator locator = session.getSessionFactory().getServerLocator();
+
+      this.offHeapBuffer = locator.isConsumerOffHeapBuffer();
+
+      if (clientWindowSize > 1 && locator.getConsumerMinWindowSize() > 0 && locator.getConsumerMaxWindowSize() >= locator.getConsumerMinWindowSize()) {
+         this.minWindowSize = locator.getConsumerMinWindowSize();
+         this.maxWindowSize = locator.getConsumerMaxWindowSize();
+      }
+      else {
+         this.minWindowSize = -1;
+         this.maxWindowSize = -1;
+      }
+
+      this.windowSize = clientWindowSize << 1;
+
+      this.windowStart = System.nanoTime();
+
       if (logger.isTraceEnabled()) {
          logger.trace(this + ":: being created at", new Exception("trace"));
       }
@@ -273,6 +311,10 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
                }
             }
 
+            if (m != null) {
+               moveToHeap(m);
+            }
+
             if (failedOver) {
                if (m == null) {
                   if (logger.isTraceEnabled()) {
@@ -522,6 +564,11 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
 
       creditsToSend = 0;
 
+      // the consumer is recreated on the server with the client window size as its credits
+      windowSize = clientWindowSize;
+
+      windowStart = System.nanoTime();
+
       failedOver = true;
 
       ackIndividually = false;
@@ -591,6 +638,14 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
          ackIndividually = true;
       }
 
+      if (offHeapBuffer && !message.isLargeMessage()) {
+         ((ClientMessageImpl) message).moveOffHeap();
+      }
+
+      if (maxWindowSize > 0 && buffer.isEmpty()) {
+         starved = true;
+      }
+
       // Add it to the buffer
       buffer.addTail(message, message.getPriority());
 
@@ -814,7 +869,7 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       if (clientWindowSize >= 0) {
          creditsToSend += messageBytes;
 
-         if (creditsToSend >= clientWindowSize) {
+         if (creditsToSend >= (maxWindowSize > 0 ? windowSize >> 1 : clientWindowSize)) {
             if (clientWindowSize == 0 && discountSlowConsumer) {
                if (logger.isTraceEnabled()) {
                   logger.trace(this + "::FlowControl::Sending " + creditsToSend + " -1, for slow consumer");
@@ -835,9 +890,10 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
                   logger.debug("Sending " + messageBytes + " from flow-control");
                }
 
-               final int credits = creditsToSend;
+               final int credits = maxWindowSize > 0 ? creditsToSend + adaptWindow(creditsToSend) : creditsToSend;
 
-               creditsToSend = 0;
+               // a window shrinking by more than the consumed bytes withholds the difference from the next credits
+               creditsToSend = Math.min(credits, 0);
 
                if (credits > 0) {
                   sendCredits(credits);
@@ -915,6 +971,49 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
       sessionExecutor.execute(runner);
    }
 
+   /**
+    * Grows the window of a consumer that runs out of buffered messages while it consumes them quickly, and shrinks the
+    * window of a consumer that would take too long to consume it, so the messages are left on the server for the other
+    * consumers of the queue.
+    *
+    * @return the difference between the new and the previous window sizes
+    */
+   private int adaptWindow(final int consumedBytes) {
+      if (consumedBytes <= 0) {
+         return 0;
+      }
+
+      final long now = System.nanoTime();
+
+      // the time to consume a whole window at the rate the last credits were consumed
+      final long drainTime = (long) ((double) (now - windowStart) * windowSize / consumedBytes);
+
+      windowStart = now;
+
+      long newWindowSize = windowSize;
+
+      if (drainTime > ADAPTIVE_WINDOW_MAX_DRAIN_NANOS) {
+         newWindowSize = windowSize >> 1;
+      }
+      else if (starved && drainTime < ADAPTIVE_WINDOW_MIN_DRAIN_NANOS) {
+         newWindowSize = (long) windowSize << 1;
+      }
+
+      starved = false;
+
+      newWindowSize = Math.max(minWindowSize, Math.min(maxWindowSize, newWindowSize));
+
+      final int delta = (int) newWindowSize - windowSize;
+
+      if (delta != 0 && logger.isDebugEnabled()) {
+         logger.debug(this + "::FlowControl::window size adapted from " + windowSize + " to " + newWindowSize + " bytes");
+      }
+
+      windowSize = (int) newWindowSize;
+
+      return delta;
+   }
+
    /**
     * @param credits
     */
@@ -989,6 +1088,8 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
          }
 
          if (message != null) {
+            moveToHeap(message);
+
             if (message.containsProperty(ClientConsumerImpl.FORCED_DELIVERY_MESSAGE)) {
                //Ignore, this could be a relic from a previous receiveImmediate();
                return;
@@ -1111,7 +1212,27 @@ public final class ClientConsumerImpl implements ClientConsumerInternal {
    }
 
    private void clearBuffer() {
-      buffer.clear();
+      synchronized (this) {
+         if (offHeapBuffer) {
+            Iterator<ClientMessageInternal> iter = buffer.iterator();
+
+            while (iter.hasNext()) {
+               ClientMessageInternal message = iter.next();
+
+               if (!message.isLargeMessage()) {
+                  ((ClientMessageImpl) message).releaseOffHeap();
+               }
+            }
+         }
+
+         buffer.clear();
+      }
+   }
+
+   private void moveToHeap(final ClientMessageInternal message) {
+      if (offHeapBuffer && !message.isLargeMessage()) {
+         ((ClientMessageImpl) message).moveToHeap();
+      }
    }
 
    private void doAck(final ClientMessageInternal message) throws ActiveMQException {
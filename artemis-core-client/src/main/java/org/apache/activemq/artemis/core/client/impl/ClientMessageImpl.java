@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
+import io.netty.buffer.ByteBuf;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -30,7 +31,9 @@ import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.core.message.BodyEncoder;
 import org.apache.activemq.artemis.core.message.impl.MessageImpl;
+import org.apache.activemq.artemis.core.remoting.impl.netty.PartialPooledByteBufAllocator;
 import org.apache.activemq.artemis.reader.MessageUtil;
+import org.apache.activemq.artemis.utils.TypedProperties;
 
 /**
  * A ClientMessageImpl
@@ -51,6 +54,11 @@ public class ClientMessageImpl extends MessageImpl implements ClientMessageInter
     */
    private InputStream bodyInputStream;
 
+   /**
+    * The encoded message while it's buffered by a consumer with an off heap buffer
+    */
+   private ByteBuf offHeapBuffer;
+
    /*
     * Constructor for when reading from remoting
     */
@@ -121,6 +129,53 @@ public class ClientMessageImpl extends MessageImpl implements ClientMessageInter
       this.flowControlSize = flowControlSize;
    }
 
+   /**
+    * Copies the encoded message to a pooled direct buffer and drops its heap buffer and decoded properties, only the
+    * headers stay readable until {@link #moveToHeap()} is called.
+    */
+   void moveOffHeap() {
+      final int size = getEndOfMessagePosition();
+
+      offHeapBuffer = PartialPooledByteBufAllocator.INSTANCE.directBuffer(size, size);
+      offHeapBuffer.writeBytes(buffer.byteBuf(), 0, size);
+
+      buffer = null;
+      bodyBuffer = null;
+      properties = null;
+   }
+
+   /**
+    * Decodes the message again from its pooled direct buffer, and releases it.
+    */
+   void moveToHeap() {
+      final SimpleString address = this.address;
+
+      final ActiveMQBuffer heapBuffer = ActiveMQBuffers.fixedBuffer(offHeapBuffer.readableBytes());
+      heapBuffer.byteBuf().writeBytes(offHeapBuffer);
+
+      releaseOffHeap();
+
+      properties = new TypedProperties();
+
+      decodeFromBuffer(heapBuffer);
+
+      // positioned as SessionReceiveMessage leaves the buffer of a received message
+      heapBuffer.setIndex(BODY_OFFSET, getEndOfBodyPosition());
+
+      // the consumer may have set a transient address
+      this.address = address;
+   }
+
+   /**
+    * Releases the pooled direct buffer of a message dropped from the buffer of a consumer.
+    */
+   void releaseOffHeap() {
+      if (offHeapBuffer != null) {
+         offHeapBuffer.release();
+         offHeapBuffer = null;
+      }
+   }
+
    /**
     * @return the largeMessage
     */
@@ -141,7 +196,7 @@ public class ClientMessageImpl extends MessageImpl implements ClientMessageInter
 
    @Override
    public String toString() {
-      return getClass().getSimpleName() + "[messageID=" + messageID + ", durable=" + durable + ", address=" + getAddress() + ",userID=" + (getUserID() != null ? getUserID() : "null") + ",properties=" + properties.toString() + "]";
+      return getClass().getSimpleName() + "[messageID=" + messageID + ", durable=" + durable + ", address=" + getAddress() + ",userID=" + (getUserID() != null ? getUserID() : "null") + ",properties=" + properties + "]";
    }
 
    @Override
@@ -18,11 +18,17 @@ package org.apache.activemq.artemis.core.client.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
@@ -30,6 +36,7 @@ import org.apache.activemq.artemis.core.client.ActiveMQClientMessageBundle;
 import org.apache.activemq.artemis.core.message.BodyEncoder;
 import org.apache.activemq.artemis.core.message.impl.MessageInternal;
 import org.apache.activemq.artemis.spi.core.remoting.SessionContext;
+import org.apache.activemq.artemis.utils.ConcurrentHashSet;
 import org.apache.activemq.artemis.utils.DeflaterReader;
 import org.apache.activemq.artemis.utils.ActiveMQBufferInputStream;
 import org.apache.activemq.artemis.utils.TokenBucketLimiter;
@@ -65,6 +72,13 @@ public class ClientProducerImpl implements ClientProducerInternal {
 
    private final ClientProducerCredits producerCredits;
 
+   // The bytes of the async sends that can be in flight, -1 when they're not bounded
+   private final int asyncSendWindowSize;
+
+   private final Semaphore asyncSendWindow;
+
+   private final Set<SendFuture> pendingAsyncSends = new ConcurrentHashSet<SendFuture>();
+
    // Static ---------------------------------------------------------------------------------------
 
    // Constructors ---------------------------------------------------------------------------------
@@ -105,6 +119,18 @@ public class ClientProducerImpl implements ClientProducerInternal {
       else {
          producerCredits = null;
       }
+
+      // the server confirms the sends when it has received a confirmation window of them, a bound of twice the window
+      // leaves room for the sends still on their way to the server
+      int confirmationWindowSize = session.getSessionFactory().getServerLocator().getConfirmationWindowSize();
+      if (confirmationWindowSize > 0) {
+         asyncSendWindowSize = (int) Math.min(Integer.MAX_VALUE, 2L * confirmationWindowSize);
+         asyncSendWindow = new Semaphore(asyncSendWindowSize);
+      }
+      else {
+         asyncSendWindowSize = -1;
+         asyncSendWindow = null;
+      }
    }
 
    // ClientProducer implementation ----------------------------------------------------------------
@@ -139,7 +165,7 @@ public class ClientProducerImpl implements ClientProducerInternal {
          doSend(address1, message, handler, true);
       }
       else {
-         doSend(address1, message, null, true);
+         doSend(address1, message, null, false);
          if (handler != null) {
             session.scheduleConfirmation(handler, message);
          }
@@ -151,6 +177,80 @@ public class ClientProducerImpl implements ClientProducerInternal {
       send(null, message, handler);
    }
 
+   @Override
+   public Future<Message> sendAsync(final Message message) throws ActiveMQException {
+      return sendAsync(null, message);
+   }
+
+   @Override
+   public Future<Message> sendAsync(final SimpleString address1, final Message message) throws ActiveMQException {
+      checkClosed();
+
+      final int inFlightBytes = asyncSendWindow == null ? 0 : Math.min(message.getEncodeSize(), asyncSendWindowSize);
+
+      if (inFlightBytes > 0) {
+         try {
+            asyncSendWindow.acquire(inFlightBytes);
+         }
+         catch (InterruptedException e) {
+            throw new ActiveMQInterruptedException(e);
+         }
+      }
+
+      final SendFuture future = new SendFuture(message, asyncSendWindow, inFlightBytes, pendingAsyncSends);
+
+      boolean sent = false;
+      try {
+         if (asyncSendWindow != null) {
+            doSend(address1, message, future, true);
+         }
+         else {
+            // without a confirmation window the server never confirms the send, so it's done once sent
+            doSend(address1, message, null, true);
+            session.scheduleConfirmation(future, message);
+         }
+         sent = true;
+      }
+      finally {
+         if (!sent) {
+            // gives back the window, the caller gets the exception of the send
+            future.fail(ActiveMQClientMessageBundle.BUNDLE.producerClosed());
+         }
+      }
+
+      return future;
+   }
+
+   @Override
+   public void sendBatch(final List<? extends Message> messages) throws ActiveMQException {
+      sendBatch(null, messages);
+   }
+
+   @Override
+   public void sendBatch(final SimpleString address1, final List<? extends Message> messages) throws ActiveMQException {
+      checkClosed();
+
+      boolean batch = messages.size() > 1 && sessionContext.supportsBatchSend();
+
+      if (batch) {
+         for (Message message : messages) {
+            if (isLarge((MessageInternal) message)) {
+               batch = false;
+               break;
+            }
+         }
+      }
+
+      if (batch) {
+         doSendBatch(address1, messages);
+      }
+      else {
+         for (Message message : messages) {
+            doSend(address1, message, null, false);
+         }
+      }
+   }
+
    public synchronized void close() throws ActiveMQException {
       if (closed) {
          return;
@@ -165,6 +265,11 @@ public class ClientProducerImpl implements ClientProducerInternal {
       }
 
       doCleanup();
+
+      // the session is gone, the sends that weren't confirmed yet never will be
+      for (SendFuture future : new ArrayList<SendFuture>(pendingAsyncSends)) {
+         future.fail(ActiveMQClientMessageBundle.BUNDLE.producerClosed());
+      }
    }
 
    public boolean isClosed() {
@@ -213,17 +318,7 @@ public class ClientProducerImpl implements ClientProducerInternal {
 
          ClientProducerCredits theCredits;
 
-         boolean isLarge;
-         // a note about the second check on the writerIndexSize,
-         // If it's a server's message, it means this is being done through the bridge or some special consumer on the
-         // server's on which case we can't' convert the message into large at the servers
-         if (sessionContext.supportsLargeMessage() && (msgI.getBodyInputStream() != null || msgI.isLargeMessage() ||
-            msgI.getBodyBuffer().writerIndex() > minLargeMessageSize && !msgI.isServerMessage())) {
-            isLarge = true;
-         }
-         else {
-            isLarge = false;
-         }
+         boolean isLarge = isLarge(msgI);
 
          if (!isLarge) {
             session.setAddress(msg, sendingAddress);
@@ -246,7 +341,7 @@ public class ClientProducerImpl implements ClientProducerInternal {
          }
 
          final boolean sendBlockingConfig = msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
-         final boolean forceAsyncOverride = handler != null;
+         final boolean forceAsyncOverride = handler != null || forceAsync;
          final boolean sendBlocking = sendBlockingConfig && !forceAsyncOverride;
 
          session.workDone();
@@ -263,6 +358,69 @@ public class ClientProducerImpl implements ClientProducerInternal {
       }
    }
 
+   private boolean isLarge(final MessageInternal msgI) {
+      // a note about the second check on the writerIndexSize,
+      // If it's a server's message, it means this is being done through the bridge or some special consumer on the
+      // server's on which case we can't' convert the message into large at the servers
+      return sessionContext.supportsLargeMessage() && (msgI.getBodyInputStream() != null || msgI.isLargeMessage() ||
+         msgI.getBodyBuffer().writerIndex() > minLargeMessageSize && !msgI.isServerMessage());
+   }
+
+   private void doSendBatch(SimpleString sendingAddress,
+                            final List<? extends Message> messages) throws ActiveMQException {
+      if (sendingAddress == null) {
+         sendingAddress = this.address;
+      }
+      session.startCall();
+
+      try {
+         List<MessageInternal> batch = new ArrayList<MessageInternal>(messages.size());
+
+         boolean sendBlocking = false;
+
+         int creditSize = 0;
+
+         for (Message msg : messages) {
+            MessageInternal msgI = (MessageInternal) msg;
+
+            session.setAddress(msg, sendingAddress);
+
+            if (rateLimiter != null) {
+               // Rate flow control
+
+               rateLimiter.limit();
+            }
+
+            if (groupID != null) {
+               msgI.putStringProperty(Message.HDR_GROUP_ID, groupID);
+            }
+
+            sendBlocking |= msgI.isDurable() ? blockOnDurableSend : blockOnNonDurableSend;
+
+            creditSize += sessionContext.getCreditsOnSendingFull(msgI);
+
+            batch.add(msgI);
+         }
+
+         // Anonymous
+         ClientProducerCredits theCredits = session.getCredits(sendingAddress, true);
+
+         session.workDone();
+
+         logger.tracef("sendBatch::%s messages, Blocking=%s", batch.size(), sendBlocking);
+
+         // This will block if credits are not available, once for the whole batch
+         theCredits.acquireCredits(creditSize);
+
+         session.checkDefaultAddress(sendingAddress);
+
+         sessionContext.sendBatch(batch, sendBlocking, null);
+      }
+      finally {
+         session.endCall();
+      }
+   }
+
    private void sendRegularMessage(final SimpleString sendingAddress,
                                    final MessageInternal msgI,
                                    final boolean sendBlocking,
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.client.impl;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+
+/**
+ * The outcome of a {@link ClientProducerImpl#sendAsync(Message)}, completed when the server confirms the message.
+ * <p>
+ * Completing it gives back the bytes it took from the producer's window of in flight sends.
+ */
+final class SendFuture implements Future<Message>, SendAcknowledgementHandler {
+
+   private final Message message;
+
+   private final Semaphore inFlight;
+
+   private final int inFlightBytes;
+
+   private final Set<SendFuture> pending;
+
+   private final AtomicBoolean completed = new AtomicBoolean(false);
+
+   private final CountDownLatch done = new CountDownLatch(1);
+
+   private volatile ActiveMQException exception;
+
+   SendFuture(final Message message, final Semaphore inFlight, final int inFlightBytes, final Set<SendFuture> pending) {
+      this.message = message;
+      this.inFlight = inFlight;
+      this.inFlightBytes = inFlightBytes;
+      this.pending = pending;
+      pending.add(this);
+   }
+
+   @Override
+   public void sendAcknowledged(final Message message) {
+      complete(null);
+   }
+
+   void fail(final ActiveMQException e) {
+      complete(e);
+   }
+
+   private void complete(final ActiveMQException e) {
+      if (completed.compareAndSet(false, true)) {
+         exception = e;
+         pending.remove(this);
+         if (inFlightBytes > 0) {
+            inFlight.release(inFlightBytes);
+         }
+         done.countDown();
+      }
+   }
+
+   /**
+    * A send can't be cancelled once it has been written to the session.
+    */
+   @Override
+   public boolean cancel(final boolean mayInterruptIfRunning) {
+      return false;
+   }
+
+   @Override
+   public boolean isCancelled() {
+      return false;
+   }
+
+   @Override
+   public boolean isDone() {
+      return done.getCount() == 0;
+   }
+
+   @Override
+   public Message get() throws InterruptedException, ExecutionException {
+      done.await();
+      return getMessage();
+   }
+
+   @Override
+   public Message get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+      if (!done.await(timeout, unit)) {
+         throw new TimeoutException();
+      }
+      return getMessage();
+   }
+
+   private Message getMessage() throws ExecutionException {
+      if (exception != null) {
+         throw new ExecutionException(exception);
+      }
+      return message;
+   }
+
+   @Override
+   public String toString() {
+      return "SendFuture[message=" + message + ", done=" + isDone() + "]";
+   }
+}
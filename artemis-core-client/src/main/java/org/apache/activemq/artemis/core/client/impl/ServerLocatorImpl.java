@@ -142,6 +142,12 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
    private int consumerMaxRate;
 
+   private boolean consumerOffHeapBuffer;
+
+   private int consumerMinWindowSize;
+
+   private int consumerMaxWindowSize;
+
    private int confirmationWindowSize;
 
    private int producerWindowSize;
@@ -341,6 +347,12 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
 
       consumerMaxRate = ActiveMQClient.DEFAULT_CONSUMER_MAX_RATE;
 
+      consumerOffHeapBuffer = ActiveMQClient.DEFAULT_CONSUMER_OFF_HEAP_BUFFER;
+
+      consumerMinWindowSize = ActiveMQClient.DEFAULT_CONSUMER_MIN_WINDOW_SIZE;
+
+      consumerMaxWindowSize = ActiveMQClient.DEFAULT_CONSUMER_MAX_WINDOW_SIZE;
+
       confirmationWindowSize = ActiveMQClient.DEFAULT_CONFIRMATION_WINDOW_SIZE;
 
       producerWindowSize = ActiveMQClient.DEFAULT_PRODUCER_WINDOW_SIZE;
@@ -492,6 +504,9 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       minLargeMessageSize = locator.minLargeMessageSize;
       consumerWindowSize = locator.consumerWindowSize;
       consumerMaxRate = locator.consumerMaxRate;
+      consumerOffHeapBuffer = locator.consumerOffHeapBuffer;
+      consumerMinWindowSize = locator.consumerMinWindowSize;
+      consumerMaxWindowSize = locator.consumerMaxWindowSize;
       confirmationWindowSize = locator.confirmationWindowSize;
       producerWindowSize = locator.producerWindowSize;
       producerMaxRate = locator.producerMaxRate;
@@ -916,6 +931,36 @@ public final class ServerLocatorImpl implements ServerLocatorInternal, Discovery
       return this;
    }
 
+   public boolean isConsumerOffHeapBuffer() {
+      return consumerOffHeapBuffer;
+   }
+
+   public ServerLocatorImpl setConsumerOffHeapBuffer(final boolean consumerOffHeapBuffer) {
+      checkWrite();
+      this.consumerOffHeapBuffer = consumerOffHeapBuffer;
+      return this;
+   }
+
+   public int getConsumerMinWindowSize() {
+      return consumerMinWindowSize;
+   }
+
+   public ServerLocatorImpl setConsumerMinWindowSize(final int consumerMinWindowSize) {
+      checkWrite();
+      this.consumerMinWindowSize = consumerMinWindowSize;
+      return this;
+   }
+
+   public int getConsumerMaxWindowSize() {
+      return consumerMaxWindowSize;
+   }
+
+   public ServerLocatorImpl setConsumerMaxWindowSize(final int consumerMaxWindowSize) {
+      checkWrite();
+      this.consumerMaxWindowSize = consumerMaxWindowSize;
+      return this;
+   }
+
    public int getConfirmationWindowSize() {
       return confirmationWindowSize;
    }
@@ -226,7 +226,14 @@ public abstract class MessageImpl implements MessageInternal {
       expiration = buffer.readLong();
       timestamp = buffer.readLong();
       priority = buffer.readByte();
-      properties.decode(buffer);
+      properties.decode(buffer, isLazyPropertiesDecode());
+   }
+
+   /**
+    * Whether the properties are kept in their encoded form when the message is decoded, until they are modified.
+    */
+   protected boolean isLazyPropertiesDecode() {
+      return false;
    }
 
    public void copyHeadersAndProperties(final MessageInternal msg) {
@@ -77,6 +77,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionRec
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionRequestProducerCreditsMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendBatchMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendContinuationMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendLargeMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionSendMessage;
@@ -113,6 +114,9 @@ public class ActiveMQSessionContext extends SessionContext {
 
    private static final Logger logger = Logger.getLogger(ActiveMQSessionContext.class);
 
+   // The first version of the server that can receive SESS_SEND_BATCH
+   private static final int BATCH_SEND_VERSION = 127;
+
    private final Channel sessionChannel;
    private final int serverVersion;
    private int confirmationWindow;
@@ -166,6 +170,12 @@ public class ActiveMQSessionContext extends SessionContext {
             SessionSendMessage ssm = (SessionSendMessage) packet;
             callSendAck(ssm.getHandler(), ssm.getMessage());
          }
+         else if (packet.getType() == PacketImpl.SESS_SEND_BATCH) {
+            SessionSendBatchMessage batch = (SessionSendBatchMessage) packet;
+            for (Message message : batch.getMessages()) {
+               callSendAck(batch.getHandler(), message);
+            }
+         }
          else if (packet.getType() == PacketImpl.SESS_SEND_CONTINUATION) {
             SessionSendContinuationMessage scm = (SessionSendContinuationMessage) packet;
             if (!scm.isContinues()) {
@@ -382,6 +392,25 @@ public class ActiveMQSessionContext extends SessionContext {
       }
    }
 
+   @Override
+   public boolean supportsBatchSend() {
+      return serverVersion >= BATCH_SEND_VERSION;
+   }
+
+   @Override
+   public void sendBatch(List<MessageInternal> messages,
+                         boolean sendBlocking,
+                         SendAcknowledgementHandler handler) throws ActiveMQException {
+      SessionSendBatchMessage packet = new SessionSendBatchMessage(messages, sendBlocking, handler);
+
+      if (sendBlocking) {
+         sessionChannel.sendBlocking(packet, PacketImpl.NULL_RESPONSE);
+      }
+      else {
+         sessionChannel.sendBatched(packet);
+      }
+   }
+
    @Override
    public int sendInitialChunkOnLargeMessage(MessageInternal msgI) throws ActiveMQException {
       SessionSendLargeMessage initialChunk = new SessionSendLargeMessage(msgI);
@@ -18,7 +18,6 @@ package org.apache.activemq.artemis.core.protocol.core.impl;
 
 import java.util.EnumSet;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
@@ -45,6 +44,8 @@ public final class ChannelImpl implements Channel {
 
    private static final Logger logger = Logger.getLogger(ChannelImpl.class);
 
+   private static final int INITIAL_RESEND_WINDOW_CAPACITY = 64;
+
    public enum CHANNEL_ID {
       /**
        * Used for core protocol management.
@@ -91,9 +92,7 @@ public final class ChannelImpl implements Channel {
 
    private Packet response;
 
-   private final java.util.Queue<Packet> resendCache;
-
-   private int firstStoredCommandID;
+   private final ResendWindow resendCache;
 
    private final AtomicInteger lastConfirmedCommandID = new AtomicInteger(-1);
 
@@ -111,7 +110,7 @@ public final class ChannelImpl implements Channel {
 
    private final Object sendBlockingLock = new Object();
 
-   private boolean failingOver;
+   private volatile boolean failingOver;
 
    private final int confWindowSize;
 
@@ -134,7 +133,7 @@ public final class ChannelImpl implements Channel {
       this.confWindowSize = confWindowSize;
 
       if (confWindowSize != -1) {
-         resendCache = new ConcurrentLinkedQueue<>();
+         resendCache = new ResendWindow(INITIAL_RESEND_WINDOW_CAPACITY);
       }
       else {
          resendCache = null;
@@ -232,51 +231,34 @@ public final class ChannelImpl implements Channel {
       this.transferring = transferring;
    }
 
-   // This must never called by more than one thread concurrently
+   // Many threads can send concurrently, e.g. several producers sharing a session: the packet is encoded before
+   // taking sendLock, which then only orders the packets in the resend cache with their writes
    private boolean send(final Packet packet, final int reconnectID, final boolean flush, final boolean batch) {
       if (invokeInterceptors(packet, interceptors, connection) != null) {
          return false;
       }
 
-      synchronized (sendLock) {
-         packet.setChannelID(id);
-
-         if (logger.isTraceEnabled()) {
-            logger.trace("Sending packet nonblocking " + packet + " on channeID=" + id);
-         }
+      packet.setChannelID(id);
 
-         ActiveMQBuffer buffer = packet.encode(connection);
+      if (logger.isTraceEnabled()) {
+         logger.trace("Sending packet nonblocking " + packet + " on channeID=" + id);
+      }
 
-         lock.lock();
+      ActiveMQBuffer buffer = packet.encode(connection);
 
-         try {
-            if (failingOver) {
-               try {
-                  if (connection.getBlockingCallFailoverTimeout() < 0) {
-                     failoverCondition.await();
-                  }
-                  else {
-                     if (!failoverCondition.await(connection.getBlockingCallFailoverTimeout(), TimeUnit.MILLISECONDS)) {
-                        logger.debug("timed-out waiting for fail-over condition on non-blocking send");
-                     }
-                  }
-               }
-               catch (InterruptedException e) {
-                  throw new ActiveMQInterruptedException(e);
-               }
-            }
-
-            // Sanity check
-            if (transferring) {
-               throw ActiveMQClientMessageBundle.BUNDLE.cannotSendPacketDuringFailover();
-            }
+      synchronized (sendLock) {
+         // failingOver is only set by lock(), the lock is only taken to wait for unlock()
+         if (failingOver) {
+            waitForFailover();
+         }
 
-            if (resendCache != null && packet.isRequiresConfirmations()) {
-               addResendPacket(packet);
-            }
+         // Sanity check
+         if (transferring) {
+            throw ActiveMQClientMessageBundle.BUNDLE.cannotSendPacketDuringFailover();
          }
-         finally {
-            lock.unlock();
+
+         if (resendCache != null && packet.isRequiresConfirmations()) {
+            addResendPacket(packet);
          }
 
          if (logger.isTraceEnabled()) {
@@ -293,6 +275,29 @@ public final class ChannelImpl implements Channel {
       }
    }
 
+   private void waitForFailover() {
+      lock.lock();
+
+      try {
+         if (failingOver) {
+            if (connection.getBlockingCallFailoverTimeout() < 0) {
+               failoverCondition.await();
+            }
+            else {
+               if (!failoverCondition.await(connection.getBlockingCallFailoverTimeout(), TimeUnit.MILLISECONDS)) {
+                  logger.debug("timed-out waiting for fail-over condition on non-blocking send");
+               }
+            }
+         }
+      }
+      catch (InterruptedException e) {
+         throw new ActiveMQInterruptedException(e);
+      }
+      finally {
+         lock.unlock();
+      }
+   }
+
    private void checkReconnectID(int reconnectID) {
       if (reconnectID >= 0 && reconnectID != this.reconnectID.get()) {
          throw ActiveMQClientMessageBundle.BUNDLE.packetTransmissionInterrupted();
@@ -512,7 +517,7 @@ public final class ChannelImpl implements Channel {
          }
          clearUpTo(otherLastConfirmedCommandID);
 
-         for (final Packet packet : resendCache) {
+         for (final Packet packet : resendCache.toArray()) {
             doWrite(packet);
          }
       }
@@ -591,8 +596,6 @@ public final class ChannelImpl implements Channel {
       if (resendCache != null) {
          lastConfirmedCommandID.set(-1);
 
-         firstStoredCommandID = 0;
-
          resendCache.clear();
       }
    }
@@ -642,11 +645,13 @@ public final class ChannelImpl implements Channel {
       resendCache.add(packet);
 
       if (logger.isTraceEnabled()) {
-         logger.trace("ChannelImpl::addResendPacket adding packet " + packet + " stored commandID=" + firstStoredCommandID + " possible commandIDr=" + (firstStoredCommandID + resendCache.size()));
+         logger.trace("ChannelImpl::addResendPacket adding packet " + packet + " stored commandID=" + resendCache.getFirstCommandID() + " possible commandIDr=" + (resendCache.getFirstCommandID() + resendCache.size()));
       }
    }
 
    private void clearUpTo(final int lastReceivedCommandID) {
+      final int firstStoredCommandID = resendCache.getFirstCommandID();
+
       final int numberToClear = 1 + lastReceivedCommandID - firstStoredCommandID;
 
       if (logger.isTraceEnabled()) {
@@ -655,24 +660,26 @@ public final class ChannelImpl implements Channel {
                                               " number to clear " + numberToClear);
       }
 
-      for (int i = 0; i < numberToClear; i++) {
-         final Packet packet = resendCache.poll();
+      // the packets are only copied out of the window when there's a handler to call, and it's called outside of
+      // the window's lock since it can send
+      final CommandConfirmationHandler confirmationHandler = commandConfirmationHandler;
 
-         if (packet == null) {
-            ActiveMQClientLogger.LOGGER.cannotFindPacketToClear(lastReceivedCommandID, firstStoredCommandID);
-            firstStoredCommandID = lastReceivedCommandID + 1;
-            return;
-         }
+      final Packet[] cleared = confirmationHandler != null && numberToClear > 0 ? new Packet[numberToClear] : null;
 
-         if (logger.isTraceEnabled()) {
-            logger.trace("ChannelImpl::clearUpTo confirming " + packet + " towards " + commandConfirmationHandler);
-         }
-         if (commandConfirmationHandler != null) {
-            commandConfirmationHandler.commandConfirmed(packet);
+      final int numberCleared = resendCache.clearUpTo(lastReceivedCommandID, cleared);
+
+      if (cleared != null) {
+         for (int i = 0; i < numberCleared; i++) {
+            if (logger.isTraceEnabled()) {
+               logger.trace("ChannelImpl::clearUpTo confirming " + cleared[i] + " towards " + confirmationHandler);
+            }
+            confirmationHandler.commandConfirmed(cleared[i]);
          }
       }
 
-      firstStoredCommandID += numberToClear;
+      if (numberToClear > 0 && numberCleared < numberToClear) {
+         ActiveMQClientLogger.LOGGER.cannotFindPacketToClear(lastReceivedCommandID, firstStoredCommandID);
+      }
    }
 
    @Override
@@ -245,6 +245,10 @@ public class PacketImpl implements Packet {
 
    public static final byte REPLICATION_RESPONSE_V2 = -9;
 
+   public static final byte SESS_SEND_BATCH = -10;
+
+   public static final byte REPLICATION_BATCH = -11;
+
    // Static --------------------------------------------------------
 
    public PacketImpl(final byte type) {
@@ -266,7 +270,7 @@ public class PacketImpl implements Packet {
    }
 
    public ActiveMQBuffer encode(final RemotingConnection connection) {
-      ActiveMQBuffer buffer = connection.createTransportBuffer(PacketImpl.INITIAL_PACKET_SIZE);
+      ActiveMQBuffer buffer = connection.createTransportBuffer(expectedEncodeSize());
 
       // The standard header fields
 
@@ -309,6 +313,14 @@ public class PacketImpl implements Packet {
    public void encodeRest(final ActiveMQBuffer buffer) {
    }
 
+   /**
+    * The capacity of the transport buffer {@link #encode(RemotingConnection)} takes from the pool. The packets sent
+    * for every message with a small fixed size (acks, credits...) override it to the size they encode to.
+    */
+   protected int expectedEncodeSize() {
+      return INITIAL_PACKET_SIZE;
+   }
+
    public void decodeRest(final ActiveMQBuffer buffer) {
    }
 
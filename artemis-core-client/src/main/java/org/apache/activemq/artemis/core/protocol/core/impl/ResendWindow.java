@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl;
+
+import java.util.Arrays;
+
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+
+/**
+ * The packets sent on a channel that haven't been confirmed yet, kept in a ring indexed by their command ID.
+ * <p>
+ * The command ID of a packet is implicit: it's the command ID of the first packet in the window plus its offset, so
+ * clearing the packets confirmed by a {@link org.apache.activemq.artemis.core.protocol.core.impl.wireformat.PacketsConfirmedMessage}
+ * only moves the head of the ring. The ring doubles its capacity when it's full.
+ */
+final class ResendWindow {
+
+   private Packet[] packets;
+
+   private int mask;
+
+   private int head;
+
+   private int size;
+
+   private int firstCommandID;
+
+   ResendWindow(final int initialCapacity) {
+      int capacity = Integer.highestOneBit(Math.max(2, initialCapacity) - 1) << 1;
+      packets = new Packet[capacity];
+      mask = capacity - 1;
+   }
+
+   synchronized void add(final Packet packet) {
+      if (size == packets.length) {
+         grow();
+      }
+
+      packets[(head + size) & mask] = packet;
+
+      size++;
+   }
+
+   /**
+    * Removes the packets up to and including {@code lastCommandID}, the next packet expected to be confirmed is then
+    * {@code lastCommandID + 1}.
+    *
+    * @param lastCommandID the last command ID confirmed
+    * @param removed       if not {@code null}, the removed packets are copied to it in order
+    * @return the number of packets removed
+    */
+   synchronized int clearUpTo(final int lastCommandID, final Packet[] removed) {
+      final int count = Math.min(size, Math.max(0, 1 + lastCommandID - firstCommandID));
+
+      for (int i = 0; i < count; i++) {
+         final int index = (head + i) & mask;
+
+         if (removed != null) {
+            removed[i] = packets[index];
+         }
+
+         packets[index] = null;
+      }
+
+      head = (head + count) & mask;
+
+      size -= count;
+
+      firstCommandID = lastCommandID + 1;
+
+      return count;
+   }
+
+   synchronized void clear() {
+      Arrays.fill(packets, null);
+
+      head = 0;
+
+      size = 0;
+
+      firstCommandID = 0;
+   }
+
+   /**
+    * @return the packets that haven't been confirmed yet, in the order they were sent
+    */
+   synchronized Packet[] toArray() {
+      final Packet[] copy = new Packet[size];
+
+      copyTo(copy);
+
+      return copy;
+   }
+
+   synchronized int getFirstCommandID() {
+      return firstCommandID;
+   }
+
+   synchronized int size() {
+      return size;
+   }
+
+   private void grow() {
+      final Packet[] grown = new Packet[packets.length << 1];
+
+      copyTo(grown);
+
+      packets = grown;
+
+      mask = grown.length - 1;
+
+      head = 0;
+   }
+
+   private void copyTo(final Packet[] target) {
+      final int tail = Math.min(size, packets.length - head);
+
+      System.arraycopy(packets, head, target, 0, tail);
+
+      System.arraycopy(packets, 0, target, tail, size - tail);
+   }
+}
@@ -28,4 +28,9 @@ public class NullResponseMessage extends PacketImpl {
    public boolean isResponse() {
       return true;
    }
+
+   @Override
+   protected int expectedEncodeSize() {
+      return PACKET_HEADERS_SIZE;
+   }
 }
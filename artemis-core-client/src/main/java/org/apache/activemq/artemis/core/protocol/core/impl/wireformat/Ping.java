@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
 
 /**
  * Ping is sent on the client side by {@link org.apache.activemq.artemis.core.client.impl.ClientSessionFactoryImpl}. At the server's
@@ -46,6 +47,11 @@ public final class Ping extends PacketImpl {
       buffer.writeLong(connectionTTL);
    }
 
+   @Override
+   protected int expectedEncodeSize() {
+      return PACKET_HEADERS_SIZE + DataConstants.SIZE_LONG;
+   }
+
    @Override
    public void decodeRest(final ActiveMQBuffer buffer) {
       connectionTTL = buffer.readLong();
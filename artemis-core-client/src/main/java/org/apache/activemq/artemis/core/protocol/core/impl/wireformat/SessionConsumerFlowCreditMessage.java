@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
 
 public class SessionConsumerFlowCreditMessage extends PacketImpl {
 
@@ -50,6 +51,11 @@ public class SessionConsumerFlowCreditMessage extends PacketImpl {
       buffer.writeInt(credits);
    }
 
+   @Override
+   protected int expectedEncodeSize() {
+      return PACKET_HEADERS_SIZE + DataConstants.SIZE_LONG + DataConstants.SIZE_INT;
+   }
+
    @Override
    public void decodeRest(final ActiveMQBuffer buffer) {
       consumerID = buffer.readLong();
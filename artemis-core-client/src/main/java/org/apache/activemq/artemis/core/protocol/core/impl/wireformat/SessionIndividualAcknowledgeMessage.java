@@ -18,6 +18,7 @@ package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
 
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
 
 public class SessionIndividualAcknowledgeMessage extends PacketImpl {
    // Constants -----------------------------------------------------
@@ -73,6 +74,11 @@ public class SessionIndividualAcknowledgeMessage extends PacketImpl {
       buffer.writeBoolean(requiresResponse);
    }
 
+   @Override
+   protected int expectedEncodeSize() {
+      return PACKET_HEADERS_SIZE + DataConstants.SIZE_LONG + DataConstants.SIZE_LONG + DataConstants.SIZE_BOOLEAN;
+   }
+
    @Override
    public void decodeRest(final ActiveMQBuffer buffer) {
       consumerID = buffer.readLong();
@@ -19,6 +19,7 @@ package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
 
 public class SessionRequestProducerCreditsMessage extends PacketImpl {
 
@@ -59,6 +60,11 @@ public class SessionRequestProducerCreditsMessage extends PacketImpl {
       buffer.writeSimpleString(address);
    }
 
+   @Override
+   protected int expectedEncodeSize() {
+      return PACKET_HEADERS_SIZE + DataConstants.SIZE_INT + SimpleString.sizeofString(address);
+   }
+
    @Override
    public void decodeRest(final ActiveMQBuffer buffer) {
       credits = buffer.readInt();
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
+import org.apache.activemq.artemis.core.message.impl.MessageImpl;
+import org.apache.activemq.artemis.core.message.impl.MessageInternal;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Several regular messages sent in one packet.
+ * <p>
+ * Every message is encoded as in a {@link SessionSendMessage}, without the packet headers.
+ */
+public class SessionSendBatchMessage extends PacketImpl {
+
+   /**
+    * Creates the messages of a batch being decoded.
+    */
+   public interface MessageFactory {
+
+      MessageInternal createMessage();
+   }
+
+   private final MessageFactory messageFactory;
+
+   private List<MessageInternal> messages;
+
+   private boolean requiresResponse;
+
+   /**
+    * In case, we are using a different handler than the one set on the {@link org.apache.activemq.artemis.api.core.client.ClientSession}
+    * <br>
+    * This field is only used at the client side.
+    */
+   private final transient SendAcknowledgementHandler handler;
+
+   public SessionSendBatchMessage(final List<MessageInternal> messages,
+                                  final boolean requiresResponse,
+                                  final SendAcknowledgementHandler handler) {
+      super(SESS_SEND_BATCH);
+      this.messageFactory = null;
+      this.messages = messages;
+      this.requiresResponse = requiresResponse;
+      this.handler = handler;
+   }
+
+   public SessionSendBatchMessage(final MessageFactory messageFactory) {
+      super(SESS_SEND_BATCH);
+      this.messageFactory = messageFactory;
+      this.handler = null;
+   }
+
+   // Public --------------------------------------------------------
+
+   public List<MessageInternal> getMessages() {
+      return messages;
+   }
+
+   public boolean isRequiresResponse() {
+      return requiresResponse;
+   }
+
+   public SendAcknowledgementHandler getHandler() {
+      return handler;
+   }
+
+   @Override
+   protected int expectedEncodeSize() {
+      int size = PACKET_HEADERS_SIZE + DataConstants.SIZE_BOOLEAN + DataConstants.SIZE_INT;
+      for (MessageInternal message : messages) {
+         size += DataConstants.SIZE_INT + message.getEncodeSize();
+      }
+      return size;
+   }
+
+   @Override
+   public void encodeRest(final ActiveMQBuffer buffer) {
+      buffer.writeBoolean(requiresResponse);
+      buffer.writeInt(messages.size());
+      for (MessageInternal message : messages) {
+         ActiveMQBuffer encoded = message.getEncodedBuffer();
+         int length = message.getEndOfMessagePosition() - MessageImpl.BUFFER_HEADER_SPACE;
+         buffer.writeInt(length);
+         buffer.writeBytes(encoded, MessageImpl.BUFFER_HEADER_SPACE, length);
+      }
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer) {
+      requiresResponse = buffer.readBoolean();
+      int count = buffer.readInt();
+      messages = new ArrayList<MessageInternal>(count);
+      for (int i = 0; i < count; i++) {
+         int length = buffer.readInt();
+
+         // every message gets its own buffer, laid out as the buffer of a message sent on its own
+         ActiveMQBuffer messageBuffer = ActiveMQBuffers.fixedBuffer(MessageImpl.BUFFER_HEADER_SPACE + length);
+         messageBuffer.setIndex(0, MessageImpl.BUFFER_HEADER_SPACE);
+         messageBuffer.writeBytes(buffer, length);
+
+         MessageInternal message = messageFactory.createMessage();
+         message.decodeFromBuffer(messageBuffer);
+         messages.add(message);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return getParentString() + ", messages=" + (messages == null ? 0 : messages.size()) + ", requiresResponse=" + requiresResponse + "]";
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + (requiresResponse ? 1231 : 1237);
+      result = prime * result + (messages == null ? 0 : messages.size());
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (!super.equals(obj))
+         return false;
+      if (!(obj instanceof SessionSendBatchMessage))
+         return false;
+      SessionSendBatchMessage other = (SessionSendBatchMessage) obj;
+      if (requiresResponse != other.requiresResponse)
+         return false;
+      if (messages == null ? other.messages != null : other.messages == null || messages.size() != other.messages.size())
+         return false;
+      return true;
+   }
+}
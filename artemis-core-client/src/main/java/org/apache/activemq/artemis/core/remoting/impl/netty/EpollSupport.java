@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.remoting.impl.netty;
+
+import io.netty.channel.epoll.Epoll;
+import org.apache.activemq.artemis.core.client.ActiveMQClientLogger;
+
+/**
+ * Checks once whether Netty's native epoll transport can be used, which needs Linux and the native library of
+ * netty-transport-native-epoll.
+ */
+public final class EpollSupport {
+
+   private static volatile Boolean available;
+
+   private EpollSupport() {
+   }
+
+   /**
+    * Only called when epoll was asked for, so a warning is logged the first time it turns out to be unavailable.
+    */
+   public static boolean isAvailable() {
+      Boolean result = available;
+
+      if (result == null) {
+         Throwable cause;
+         try {
+            result = Epoll.isAvailable();
+            cause = Epoll.unavailabilityCause();
+         }
+         catch (Throwable e) {
+            result = false;
+            cause = e;
+         }
+         if (!result) {
+            ActiveMQClientLogger.LOGGER.epollUnavailable(cause);
+         }
+         available = result;
+      }
+
+      return result;
+   }
+}
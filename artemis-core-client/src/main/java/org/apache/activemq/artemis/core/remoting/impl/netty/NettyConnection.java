@@ -17,16 +17,21 @@
 package org.apache.activemq.artemis.core.remoting.impl.netty;
 
 import java.net.SocketAddress;
+import java.nio.channels.FileChannel;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelOutboundHandler;
 import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.EventLoop;
 import io.netty.handler.ssl.SslHandler;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
@@ -40,6 +45,7 @@ import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.spi.core.remoting.ConnectionLifeCycleListener;
 import org.apache.activemq.artemis.spi.core.remoting.ReadyListener;
+import org.apache.activemq.artemis.utils.ConfigurationHelper;
 import org.apache.activemq.artemis.utils.IPV6Util;
 
 public class NettyConnection implements Connection {
@@ -59,6 +65,22 @@ public class NettyConnection implements Connection {
 
    private final boolean directDeliver;
 
+   private final boolean writeCoalescing;
+
+   /**
+    * Whether {@link #flushTask} is queued on the event loop, only accessed on the event loop.
+    */
+   private boolean flushScheduled;
+
+   private final Runnable flushTask = new Runnable() {
+      @Override
+      public void run() {
+         if (flushScheduled) {
+            flushCoalesced();
+         }
+      }
+   };
+
    private volatile ActiveMQBuffer batchBuffer;
 
    private final Map<String, Object> configuration;
@@ -91,6 +113,8 @@ public class NettyConnection implements Connection {
       this.batchingEnabled = batchingEnabled;
 
       this.directDeliver = directDeliver;
+
+      this.writeCoalescing = ConfigurationHelper.getBooleanProperty(TransportConstants.WRITE_COALESCING_PROP_NAME, TransportConstants.DEFAULT_WRITE_COALESCING, configuration);
    }
 
    // Public --------------------------------------------------------
@@ -298,7 +322,29 @@ public class NettyConnection implements Connection {
 
             EventLoop eventLoop = channel.eventLoop();
             boolean inEventLoop = eventLoop.inEventLoop();
-            if (!inEventLoop) {
+            if (writeCoalescing && !flush) {
+               // the write is flushed together with the ones queued on the event loop before the flush task runs.
+               // The write and the scheduling of the flush run in one task, so the flush task is always queued
+               // behind the write it has to flush
+               try {
+                  eventLoop.execute(new Runnable() {
+                     @Override
+                     public void run() {
+                        coalescedWrite(buf, promise, futureListener);
+                     }
+                  });
+               }
+               catch (RejectedExecutionException e) {
+                  // the event loop is shutting down, Netty fails the write and releases the buffer
+                  if (futureListener != null) {
+                     channel.writeAndFlush(buf, promise).addListener(futureListener);
+                  }
+                  else {
+                     channel.writeAndFlush(buf, promise);
+                  }
+               }
+            }
+            else if (!inEventLoop) {
                if (futureListener != null) {
                   channel.writeAndFlush(buf, promise).addListener(futureListener);
                }
@@ -352,6 +398,85 @@ public class NettyConnection implements Connection {
       }
    }
 
+   /**
+    * A {@link io.netty.channel.FileRegion} can only be written when no handler of the pipeline transforms the
+    * outbound bytes, e.g. with SSL or HTTP. The {@link ActiveMQChannelHandler} lets the writes through.
+    *
+    * @return whether {@link #writeFileRegion(ActiveMQBuffer, FileChannel, long, long)} can be used
+    */
+   public boolean isFileRegionSupported() {
+      for (Map.Entry<String, ChannelHandler> entry : channel.pipeline()) {
+         if (entry.getValue() instanceof ChannelOutboundHandler && !(entry.getValue() instanceof ActiveMQChannelHandler)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Writes a packet whose last {@code count} bytes are read by the transport straight from the file, e.g. with
+    * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, instead of being copied into
+    * the packet's buffer. The length of the encoded packet must already include them.
+    * <p>
+    * Netty doesn't count file regions in the pending bytes of the channel, so {@link #isWritable} doesn't bound
+    * these writes: the caller has to wait on the returned futures. The file channel isn't closed, the caller can
+    * close it once the futures of all its regions are done.
+    *
+    * @return the future of the write of the region
+    */
+   public ChannelFuture writeFileRegion(final ActiveMQBuffer packet,
+                                        final FileChannel file,
+                                        final long position,
+                                        final long count) {
+      try {
+         writeLock.acquire();
+
+         try {
+            final ActiveMQBuffer batched = batchBuffer;
+            batchBuffer = null;
+
+            final ByteBuf buf = packet.byteBuf();
+            final DefaultFileRegion region = new DefaultFileRegion(file, position, count) {
+               @Override
+               protected void deallocate() {
+                  // the file channel is shared by the regions of the file, it is closed by the caller
+               }
+            };
+            final ChannelPromise promise = channel.newPromise();
+
+            // the packet and its region are written by a single task, so no other write can get between them
+            final Runnable task = new Runnable() {
+               @Override
+               public void run() {
+                  if (batched != null) {
+                     channel.write(batched.byteBuf(), channel.voidPromise());
+                  }
+                  channel.write(buf, channel.voidPromise());
+                  channel.write(region, promise);
+                  flushCoalesced();
+               }
+            };
+
+            try {
+               channel.eventLoop().execute(task);
+            }
+            catch (RejectedExecutionException e) {
+               // the event loop is shutting down, the connection is being closed anyway
+               buf.release();
+               region.release();
+               promise.setFailure(e);
+            }
+            return promise;
+         }
+         finally {
+            writeLock.release();
+         }
+      }
+      catch (InterruptedException e) {
+         throw new ActiveMQInterruptedException(e);
+      }
+   }
+
    @Override
    public String getRemoteAddress() {
       SocketAddress address = channel.remoteAddress();
@@ -408,7 +533,36 @@ public class NettyConnection implements Connection {
 
    // Private -------------------------------------------------------
 
+   /**
+    * Writes without flushing, and makes sure a flush follows: right away if the channel is no longer writable, or else
+    * once the tasks already queued on the event loop have run. Only called on the event loop.
+    */
+   private void coalescedWrite(final ByteBuf buf, final ChannelPromise promise, final ChannelFutureListener futureListener) {
+      if (futureListener != null) {
+         channel.write(buf, promise).addListener(futureListener);
+      }
+      else {
+         channel.write(buf, promise);
+      }
+
+      if (!channel.isWritable()) {
+         flushCoalesced();
+      }
+      else if (!flushScheduled) {
+         flushScheduled = true;
+         channel.eventLoop().execute(flushTask);
+      }
+   }
+
+   private void flushCoalesced() {
+      flushScheduled = false;
+      channel.flush();
+   }
+
    private void closeSSLAndChannel(SslHandler sslHandler, Channel channel) {
+      // the coalesced writes queued before the close are flushed before the channel is closed
+      channel.flush();
+
       if (sslHandler != null) {
          try {
             ChannelFuture sslCloseFuture = sslHandler.close();
@@ -57,6 +57,8 @@ import io.netty.channel.ChannelPipeline;
 import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -213,6 +215,8 @@ public class NettyConnector extends AbstractConnector {
 
    private boolean useNioGlobalWorkerPool;
 
+   private boolean useEpoll;
+
    private ScheduledExecutorService scheduledThreadPool;
 
    private Executor closeExecutor;
@@ -284,6 +288,8 @@ public class NettyConnector extends AbstractConnector {
 
       useNioGlobalWorkerPool = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_NIO_GLOBAL_WORKER_POOL_PROP_NAME, TransportConstants.DEFAULT_USE_NIO_GLOBAL_WORKER_POOL, configuration);
 
+      useEpoll = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_EPOLL_PROP_NAME, TransportConstants.DEFAULT_USE_EPOLL, configuration);
+
       useServlet = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_SERVLET_PROP_NAME, TransportConstants.DEFAULT_USE_SERVLET, configuration);
       host = ConfigurationHelper.getStringProperty(TransportConstants.HOST_PROP_NAME, TransportConstants.DEFAULT_HOST, configuration);
       port = ConfigurationHelper.getIntProperty(TransportConstants.PORT_PROP_NAME, TransportConstants.DEFAULT_PORT, configuration);
@@ -346,6 +352,8 @@ public class NettyConnector extends AbstractConnector {
          sslEnabled +
          ", useNio=" +
          true +
+         ", useEpoll=" +
+         useEpoll +
          "]";
    }
 
@@ -365,7 +373,16 @@ public class NettyConnector extends AbstractConnector {
          threadsToUse = this.nioRemotingThreads;
       }
 
-      if (useNioGlobalWorkerPool) {
+      if (useEpoll && EpollSupport.isAvailable()) {
+         channelClazz = EpollSocketChannel.class;
+         if (useNioGlobalWorkerPool) {
+            group = SharedEpollEventLoopGroup.getInstance(threadsToUse);
+         }
+         else {
+            group = new EpollEventLoopGroup(threadsToUse);
+         }
+      }
+      else if (useNioGlobalWorkerPool) {
          channelClazz = NioSocketChannel.class;
          group = SharedNioEventLoopGroup.getInstance(threadsToUse);
       }
@@ -996,6 +1013,7 @@ public class NettyConnector extends AbstractConnector {
 
    public static void clearThreadPools() {
       SharedNioEventLoopGroup.forceShutdown();
+      SharedEpollEventLoopGroup.forceShutdown();
    }
 
    private static ClassLoader getThisClassLoader() {
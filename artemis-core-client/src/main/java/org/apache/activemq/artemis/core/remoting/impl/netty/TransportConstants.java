@@ -53,6 +53,17 @@ public class TransportConstants {
 
    public static final String USE_INVM_PROP_NAME = "useInvm";
 
+   /**
+    * Use Netty's native epoll transport instead of NIO, when it is available (Linux only).
+    */
+   public static final String USE_EPOLL_PROP_NAME = "useEpoll";
+
+   /**
+    * The number of sockets an acceptor listens on with SO_REUSEPORT, each with its own share of the remoting threads.
+    * Only used with {@link #USE_EPOLL_PROP_NAME}.
+    */
+   public static final String REUSE_PORT_LISTENERS_PROP_NAME = "reusePortListeners";
+
    /**
     * @deprecated use PROTOCOLS_PROP_NAME
     */
@@ -111,8 +122,20 @@ public class TransportConstants {
 
    public static final String BATCH_DELAY = "batchDelay";
 
+   /**
+    * Flush the writes that don't have to be flushed right away together, once the writes already queued on the event
+    * loop are done, or when the unflushed bytes reach the high water mark of the channel.
+    */
+   public static final String WRITE_COALESCING_PROP_NAME = "writeCoalescing";
+
    public static final String DIRECT_DELIVER = "directDeliver";
 
+   /**
+    * Run the deliveries of the queues consumed only by the consumers of one connection on the event loop of that
+    * connection.
+    */
+   public static final String DELIVERY_AFFINITY = "deliveryAffinity";
+
    public static final String CLUSTER_CONNECTION = "clusterConnection";
 
    public static final String STOMP_CONSUMERS_CREDIT = "stompConsumerCredits";
@@ -125,6 +148,12 @@ public class TransportConstants {
 
    public static final boolean DEFAULT_USE_INVM = false;
 
+   public static final boolean DEFAULT_USE_EPOLL = false;
+
+   public static final boolean DEFAULT_WRITE_COALESCING = false;
+
+   public static final int DEFAULT_REUSE_PORT_LISTENERS = 1;
+
    public static final boolean DEFAULT_USE_SERVLET = false;
 
    public static final String DEFAULT_HOST = "localhost";
@@ -181,6 +210,8 @@ public class TransportConstants {
 
    public static final boolean DEFAULT_DIRECT_DELIVER = true;
 
+   public static final boolean DEFAULT_DELIVERY_AFFINITY = false;
+
    public static final Set<String> ALLOWABLE_CONNECTOR_KEYS;
 
    public static final Set<String> ALLOWABLE_ACCEPTOR_KEYS;
@@ -207,6 +238,8 @@ public class TransportConstants {
       allowableAcceptorKeys.add(TransportConstants.HTTP_UPGRADE_ENABLED_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.USE_NIO_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.USE_INVM_PROP_NAME);
+      allowableAcceptorKeys.add(TransportConstants.USE_EPOLL_PROP_NAME);
+      allowableAcceptorKeys.add(TransportConstants.REUSE_PORT_LISTENERS_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.PROTOCOL_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.PROTOCOLS_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.HOST_PROP_NAME);
@@ -225,7 +258,9 @@ public class TransportConstants {
       allowableAcceptorKeys.add(TransportConstants.TCP_RECEIVEBUFFER_SIZE_PROPNAME);
       allowableAcceptorKeys.add(TransportConstants.NIO_REMOTING_THREADS_PROPNAME);
       allowableAcceptorKeys.add(TransportConstants.BATCH_DELAY);
+      allowableAcceptorKeys.add(TransportConstants.WRITE_COALESCING_PROP_NAME);
       allowableAcceptorKeys.add(TransportConstants.DIRECT_DELIVER);
+      allowableAcceptorKeys.add(TransportConstants.DELIVERY_AFFINITY);
       allowableAcceptorKeys.add(TransportConstants.CLUSTER_CONNECTION);
       allowableAcceptorKeys.add(TransportConstants.STOMP_CONSUMERS_CREDIT);
       allowableAcceptorKeys.add(TransportConstants.STOMP_MIN_LARGE_MESSAGE_SIZE);
@@ -250,6 +285,7 @@ public class TransportConstants {
       allowableConnectorKeys.add(TransportConstants.SERVLET_PATH);
       allowableConnectorKeys.add(TransportConstants.USE_NIO_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.USE_NIO_GLOBAL_WORKER_POOL_PROP_NAME);
+      allowableConnectorKeys.add(TransportConstants.USE_EPOLL_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.HOST_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.PORT_PROP_NAME);
       allowableConnectorKeys.add(TransportConstants.LOCAL_ADDRESS_PROP_NAME);
@@ -267,6 +303,7 @@ public class TransportConstants {
       allowableConnectorKeys.add(TransportConstants.TCP_RECEIVEBUFFER_SIZE_PROPNAME);
       allowableConnectorKeys.add(TransportConstants.NIO_REMOTING_THREADS_PROPNAME);
       allowableConnectorKeys.add(TransportConstants.BATCH_DELAY);
+      allowableConnectorKeys.add(TransportConstants.WRITE_COALESCING_PROP_NAME);
       allowableConnectorKeys.add(ActiveMQDefaultConfiguration.getPropMaskPassword());
       allowableConnectorKeys.add(ActiveMQDefaultConfiguration.getPropPasswordCodec());
       allowableConnectorKeys.add(TransportConstants.NETTY_CONNECT_TIMEOUT);
@@ -17,5 +17,11 @@
 package org.apache.activemq.artemis.core.settings.impl;
 
 public enum AddressFullMessagePolicy {
-   DROP, PAGE, BLOCK, FAIL;
+   DROP, PAGE, BLOCK, FAIL,
+
+   /**
+    * Messages keep being routed to the queues in memory, but their bodies are written to the large-messages
+    * directory, keeping only headers and properties on the heap. The body is read back from disk on delivery.
+    */
+   SPILL;
 }
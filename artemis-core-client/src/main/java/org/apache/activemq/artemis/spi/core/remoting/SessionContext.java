@@ -19,6 +19,7 @@ package org.apache.activemq.artemis.spi.core.remoting;
 import javax.transaction.xa.XAException;
 import javax.transaction.xa.Xid;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
@@ -133,6 +134,18 @@ public abstract class SessionContext {
                                         SendAcknowledgementHandler handler,
                                         SimpleString defaultAddress) throws ActiveMQException;
 
+   /**
+    * @return <code>true</code> if the server can receive several regular messages in one packet
+    */
+   public abstract boolean supportsBatchSend();
+
+   /**
+    * Sends several regular messages in one packet, the handler is called for each of them.
+    */
+   public abstract void sendBatch(List<MessageInternal> messages,
+                                  boolean sendBlocking,
+                                  SendAcknowledgementHandler handler) throws ActiveMQException;
+
    /**
     * it should return the number of credits (or bytes) used to send this packet
     *
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl;
+
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResendWindowTest extends Assert {
+
+   @Test
+   public void testClearUpTo() throws Exception {
+      ResendWindow window = new ResendWindow(4);
+      Packet[] sent = packets(10);
+
+      for (int i = 0; i < 3; i++) {
+         window.add(sent[i]);
+      }
+
+      Packet[] cleared = new Packet[2];
+      assertEquals(2, window.clearUpTo(1, cleared));
+      assertSame(sent[0], cleared[0]);
+      assertSame(sent[1], cleared[1]);
+      assertEquals(2, window.getFirstCommandID());
+      assertEquals(1, window.size());
+
+      // wraps around the end of the ring
+      for (int i = 3; i < 6; i++) {
+         window.add(sent[i]);
+      }
+      assertArrayEquals(new Packet[]{sent[2], sent[3], sent[4], sent[5]}, window.toArray());
+
+      assertEquals(4, window.clearUpTo(5, null));
+      assertEquals(6, window.getFirstCommandID());
+      assertEquals(0, window.size());
+
+      // a confirmation that was already received doesn't clear anything
+      window.add(sent[6]);
+      assertEquals(0, window.clearUpTo(4, null));
+      assertArrayEquals(new Packet[]{sent[6]}, window.toArray());
+   }
+
+   @Test
+   public void testGrow() throws Exception {
+      ResendWindow window = new ResendWindow(2);
+      Packet[] sent = packets(100);
+
+      window.add(sent[0]);
+      window.add(sent[1]);
+      assertEquals(1, window.clearUpTo(0, null));
+
+      for (int i = 2; i < sent.length; i++) {
+         window.add(sent[i]);
+      }
+
+      Packet[] cleared = new Packet[99];
+      assertEquals(99, window.clearUpTo(99, cleared));
+      for (int i = 0; i < cleared.length; i++) {
+         assertSame(sent[i + 1], cleared[i]);
+      }
+      assertEquals(0, window.size());
+   }
+
+   @Test
+   public void testClearUpToMissingPackets() throws Exception {
+      ResendWindow window = new ResendWindow(4);
+      Packet[] sent = packets(2);
+
+      window.add(sent[0]);
+      window.add(sent[1]);
+
+      Packet[] cleared = new Packet[5];
+      assertEquals(2, window.clearUpTo(4, cleared));
+      assertEquals(5, window.getFirstCommandID());
+      assertEquals(0, window.size());
+   }
+
+   @Test
+   public void testClear() throws Exception {
+      ResendWindow window = new ResendWindow(4);
+
+      for (Packet packet : packets(3)) {
+         window.add(packet);
+      }
+      window.clearUpTo(0, null);
+
+      window.clear();
+
+      assertEquals(0, window.getFirstCommandID());
+      assertEquals(0, window.size());
+      assertEquals(0, window.toArray().length);
+   }
+
+   private static Packet[] packets(final int count) {
+      Packet[] packets = new Packet[count];
+      for (int i = 0; i < count; i++) {
+         packets[i] = new PacketImpl(PacketImpl.SESS_COMMIT);
+      }
+      return packets;
+   }
+}
@@ -223,6 +223,115 @@ public class TypedPropertiesTest {
       TypedPropertiesTest.assertEqualsTypeProperties(emptyProps, decodedProps);
    }
 
+   @Test
+   public void testLazyDecode() throws Exception {
+      SimpleString[] keys = new SimpleString[13];
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = RandomUtil.randomSimpleString();
+      }
+      props.putByteProperty(keys[0], RandomUtil.randomByte());
+      props.putBytesProperty(keys[1], RandomUtil.randomBytes());
+      props.putBytesProperty(keys[2], null);
+      props.putBooleanProperty(keys[3], RandomUtil.randomBoolean());
+      props.putShortProperty(keys[4], RandomUtil.randomShort());
+      props.putIntProperty(keys[5], RandomUtil.randomInt());
+      props.putLongProperty(keys[6], RandomUtil.randomLong());
+      props.putFloatProperty(keys[7], RandomUtil.randomFloat());
+      props.putDoubleProperty(keys[8], RandomUtil.randomDouble());
+      props.putCharProperty(keys[9], RandomUtil.randomChar());
+      props.putSimpleStringProperty(keys[10], RandomUtil.randomSimpleString());
+      props.putSimpleStringProperty(keys[11], null);
+      props.putLongProperty(keys[12], -1L);
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(1024);
+      props.encode(buffer);
+      buffer.writeInt(42);
+
+      TypedProperties decodedProps = new TypedProperties();
+      decodedProps.decode(buffer, true);
+
+      Assert.assertEquals(42, buffer.readInt());
+      Assert.assertEquals(props.getEncodeSize(), decodedProps.getEncodeSize());
+      Assert.assertEquals(props.getMemoryOffset(), decodedProps.getMemoryOffset());
+      Assert.assertFalse(decodedProps.hasInternalProperties());
+
+      // looked up before the properties are decoded
+      for (SimpleString k : keys) {
+         Assert.assertTrue(decodedProps.containsProperty(k));
+         Object expectedValue = props.getProperty(k);
+         Object actualValue = decodedProps.getProperty(k);
+         if (expectedValue instanceof byte[]) {
+            Assert.assertArrayEquals((byte[]) expectedValue, (byte[]) actualValue);
+         }
+         else {
+            Assert.assertEquals(expectedValue, actualValue);
+         }
+      }
+      Assert.assertFalse(decodedProps.containsProperty(key));
+      Assert.assertNull(decodedProps.getProperty(key));
+      Assert.assertNull(decodedProps.removeProperty(key));
+
+      // encoded again without being decoded
+      ActiveMQBuffer reencoded = ActiveMQBuffers.dynamicBuffer(1024);
+      decodedProps.encode(reencoded);
+      byte[] expected = new byte[props.getEncodeSize()];
+      buffer.getBytes(0, expected);
+      byte[] actual = new byte[reencoded.readableBytes()];
+      reencoded.readBytes(actual);
+      Assert.assertArrayEquals(expected, actual);
+
+      TypedProperties copy = new TypedProperties(decodedProps);
+
+      decodedProps.putIntProperty(key, 10);
+      decodedProps.removeProperty(keys[0]);
+
+      Assert.assertEquals(10, (int) decodedProps.getIntProperty(key));
+      Assert.assertFalse(decodedProps.containsProperty(keys[0]));
+      Assert.assertEquals(props.getProperty(keys[6]), decodedProps.getProperty(keys[6]));
+      Assert.assertEquals(keys.length, decodedProps.getPropertyNames().size());
+
+      // the copy isn't changed by the original
+      Assert.assertFalse(copy.containsProperty(key));
+      TypedPropertiesTest.assertEqualsTypeProperties(props, copy);
+   }
+
+   @Test
+   public void testLazyDecodeInternalProperties() throws Exception {
+      props.putSimpleStringProperty(key, RandomUtil.randomSimpleString());
+      props.putSimpleStringProperty(new SimpleString("_AMQ_DUPL_ID"), RandomUtil.randomSimpleString());
+
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(1024);
+      props.encode(buffer);
+
+      TypedProperties decodedProps = new TypedProperties();
+      decodedProps.decode(buffer, true);
+
+      Assert.assertTrue(decodedProps.hasInternalProperties());
+      Assert.assertEquals(props.getProperty(new SimpleString("_AMQ_DUPL_ID")), decodedProps.getProperty(new SimpleString("_AMQ_DUPL_ID")));
+   }
+
+   @Test
+   public void testLazyDecodeEmpty() throws Exception {
+      ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(1024);
+      props.encode(buffer);
+
+      TypedProperties decodedProps = new TypedProperties();
+      decodedProps.decode(buffer, true);
+      Assert.assertEquals(props.getEncodeSize(), decodedProps.getEncodeSize());
+      Assert.assertNull(decodedProps.getProperty(key));
+
+      props.putIntProperty(key, 1);
+      buffer.clear();
+      props.encode(buffer);
+      props.removeProperty(key);
+      buffer.readerIndex(0);
+
+      decodedProps.decode(buffer, true);
+      decodedProps.removeProperty(key);
+      Assert.assertTrue(decodedProps.isEmpty());
+      Assert.assertEquals(props.getEncodeSize(), decodedProps.getEncodeSize());
+   }
+
    @Before
    public void setUp() throws Exception {
       props = new TypedProperties();
@@ -470,6 +470,33 @@ public class ActiveMQConnectionFactory implements ConnectionFactoryOptions, Exte
       serverLocator.setConsumerMaxRate(consumerMaxRate);
    }
 
+   public synchronized boolean isConsumerOffHeapBuffer() {
+      return serverLocator.isConsumerOffHeapBuffer();
+   }
+
+   public synchronized void setConsumerOffHeapBuffer(final boolean consumerOffHeapBuffer) {
+      checkWrite();
+      serverLocator.setConsumerOffHeapBuffer(consumerOffHeapBuffer);
+   }
+
+   public synchronized int getConsumerMinWindowSize() {
+      return serverLocator.getConsumerMinWindowSize();
+   }
+
+   public synchronized void setConsumerMinWindowSize(final int consumerMinWindowSize) {
+      checkWrite();
+      serverLocator.setConsumerMinWindowSize(consumerMinWindowSize);
+   }
+
+   public synchronized int getConsumerMaxWindowSize() {
+      return serverLocator.getConsumerMaxWindowSize();
+   }
+
+   public synchronized void setConsumerMaxWindowSize(final int consumerMaxWindowSize) {
+      checkWrite();
+      serverLocator.setConsumerMaxWindowSize(consumerMaxWindowSize);
+   }
+
    public synchronized int getConfirmationWindowSize() {
       return serverLocator.getConfirmationWindowSize();
    }
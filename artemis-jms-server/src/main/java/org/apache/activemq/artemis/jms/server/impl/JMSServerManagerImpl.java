@@ -1573,7 +1573,7 @@ public class JMSServerManagerImpl implements JMSServerManager, ActivateCallback
 
       @Override
       public boolean create(SimpleString address) throws Exception {
-         AddressSettings settings = server.getAddressSettingsRepository().getMatch(address.toString());
+         AddressSettings settings = server.getAddressSettingsRepository().getMatch(address);
          if (address.startsWith(PREFIX) && settings.isAutoCreateJmsQueues()) {
             // stopped here... finish here
             JMSServerManagerImpl.this.internalCreateJMSQueue(false, address.toString().substring(PREFIX.toString().length() + 1), null, true, true);
@@ -48,6 +48,11 @@ public class HornetQClientSessionContext extends ActiveMQSessionContext {
       super(name, remotingConnection, sessionChannel, serverVersion, confirmationWindow);
    }
 
+   @Override
+   public boolean supportsBatchSend() {
+      return false;
+   }
+
 
    public ClientSession.QueueQuery queueQuery(final SimpleString queueName) throws ActiveMQException {
       SessionQueueQueryMessage request = new SessionQueueQueryMessage(queueName);
@@ -112,6 +112,17 @@ public interface Configuration {
     */
    Configuration setThreadPoolMaxSize(int maxSize);
 
+   /**
+    * Returns the number of queues from which a routed message is added to its queues in parallel. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_PARALLEL_FAN_OUT_THRESHOLD}.
+    */
+   int getParallelFanOutThreshold();
+
+   /**
+    * Sets the number of queues from which a routed message is added to its queues in parallel, -1 disables it.
+    */
+   Configuration setParallelFanOutThreshold(int threshold);
+
    /**
     * Returns the maximum number of threads in the <em>scheduled</em> thread pool of this server. <br>
     * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_SCHEDULED_THREAD_POOL_MAX_SIZE}.
@@ -134,6 +145,17 @@ public interface Configuration {
     */
    Configuration setSecurityInvalidationInterval(long interval);
 
+   /**
+    * Returns the maximum number of user and address pairs kept in the security cache. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_SECURITY_CACHE_MAX_SIZE}.
+    */
+   int getSecurityCacheMaxSize();
+
+   /**
+    * Sets the maximum number of user and address pairs kept in the security cache.
+    */
+   Configuration setSecurityCacheMaxSize(int securityCacheMaxSize);
+
    /**
     * Returns whether security is enabled for this server. <br>
     * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_SECURITY_ENABLED}.
@@ -428,6 +450,29 @@ public interface Configuration {
     */
    Configuration setIDCacheSize(int idCacheSize);
 
+   /**
+    * Returns the minimum time in milliseconds a duplicate ID is kept in the cache, even after more than
+    * {@link #getIDCacheSize()} IDs were added to the cache. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_ID_CACHE_TTL}.
+    */
+   long getIDCacheTTL();
+
+   /**
+    * Sets the minimum time in milliseconds a duplicate ID is kept in the cache, -1 to disable it.
+    */
+   Configuration setIDCacheTTL(long idCacheTTL);
+
+   /**
+    * Returns whether a Bloom filter is checked before looking up a duplicate ID in the cache. <br>
+    * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_ID_CACHE_BLOOM_FILTER}.
+    */
+   boolean isIDCacheBloomFilter();
+
+   /**
+    * Sets whether a Bloom filter is checked before looking up a duplicate ID in the cache.
+    */
+   Configuration setIDCacheBloomFilter(boolean idCacheBloomFilter);
+
    /**
     * Returns whether message ID cache is persisted. <br>
     * Default value is {@link org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration#DEFAULT_PERSIST_ID_CACHE}.
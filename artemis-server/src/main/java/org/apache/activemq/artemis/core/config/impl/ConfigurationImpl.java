@@ -76,8 +76,12 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    private int threadPoolMaxSize = ActiveMQDefaultConfiguration.getDefaultThreadPoolMaxSize();
 
+   private int parallelFanOutThreshold = ActiveMQDefaultConfiguration.getDefaultParallelFanOutThreshold();
+
    private long securityInvalidationInterval = ActiveMQDefaultConfiguration.getDefaultSecurityInvalidationInterval();
 
+   private int securityCacheMaxSize = ActiveMQDefaultConfiguration.getDefaultSecurityCacheMaxSize();
+
    private boolean securityEnabled = ActiveMQDefaultConfiguration.isDefaultSecurityEnabled();
 
    private boolean gracefulShutdownEnabled = ActiveMQDefaultConfiguration.isDefaultGracefulShutdownEnabled();
@@ -98,6 +102,10 @@ public class ConfigurationImpl implements Configuration, Serializable {
 
    protected int idCacheSize = ActiveMQDefaultConfiguration.getDefaultIdCacheSize();
 
+   private long idCacheTTL = ActiveMQDefaultConfiguration.getDefaultIdCacheTtl();
+
+   private boolean idCacheBloomFilter = ActiveMQDefaultConfiguration.isDefaultIdCacheBloomFilter();
+
    private boolean persistIDCache = ActiveMQDefaultConfiguration.isDefaultPersistIdCache();
 
    private List<String> incomingInterceptorClassNames = new ArrayList<String>();
@@ -282,6 +290,15 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   public int getParallelFanOutThreshold() {
+      return parallelFanOutThreshold;
+   }
+
+   public ConfigurationImpl setParallelFanOutThreshold(final int threshold) {
+      parallelFanOutThreshold = threshold;
+      return this;
+   }
+
    public long getSecurityInvalidationInterval() {
       return securityInvalidationInterval;
    }
@@ -291,6 +308,15 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   public int getSecurityCacheMaxSize() {
+      return securityCacheMaxSize;
+   }
+
+   public ConfigurationImpl setSecurityCacheMaxSize(final int securityCacheMaxSize) {
+      this.securityCacheMaxSize = securityCacheMaxSize;
+      return this;
+   }
+
    public long getConnectionTTLOverride() {
       return connectionTTLOverride;
    }
@@ -501,6 +527,24 @@ public class ConfigurationImpl implements Configuration, Serializable {
       return this;
    }
 
+   public long getIDCacheTTL() {
+      return idCacheTTL;
+   }
+
+   public ConfigurationImpl setIDCacheTTL(final long idCacheTTL) {
+      this.idCacheTTL = idCacheTTL;
+      return this;
+   }
+
+   public boolean isIDCacheBloomFilter() {
+      return idCacheBloomFilter;
+   }
+
+   public ConfigurationImpl setIDCacheBloomFilter(final boolean idCacheBloomFilter) {
+      this.idCacheBloomFilter = idCacheBloomFilter;
+      return this;
+   }
+
    public boolean isPersistIDCache() {
       return persistIDCache;
    }
@@ -1114,6 +1158,8 @@ public class ConfigurationImpl implements Configuration, Serializable {
       result = prime * result + (int) (fileDeploymentScanPeriod ^ (fileDeploymentScanPeriod >>> 32));
       result = prime * result + ((groupingHandlerConfiguration == null) ? 0 : groupingHandlerConfiguration.hashCode());
       result = prime * result + idCacheSize;
+      result = prime * result + (int) (idCacheTTL ^ (idCacheTTL >>> 32));
+      result = prime * result + (idCacheBloomFilter ? 1231 : 1237);
       result = prime * result + ((incomingInterceptorClassNames == null) ? 0 : incomingInterceptorClassNames.hashCode());
       result = prime * result + ((jmxDomain == null) ? 0 : jmxDomain.hashCode());
       result = prime * result + (jmxManagementEnabled ? 1231 : 1237);
@@ -1156,9 +1202,11 @@ public class ConfigurationImpl implements Configuration, Serializable {
       result = prime * result + scheduledThreadPoolMaxSize;
       result = prime * result + (securityEnabled ? 1231 : 1237);
       result = prime * result + (int) (securityInvalidationInterval ^ (securityInvalidationInterval >>> 32));
+      result = prime * result + securityCacheMaxSize;
       result = prime * result + ((securitySettings == null) ? 0 : securitySettings.hashCode());
       result = prime * result + (int) (serverDumpInterval ^ (serverDumpInterval >>> 32));
       result = prime * result + threadPoolMaxSize;
+      result = prime * result + parallelFanOutThreshold;
       result = prime * result + (int) (transactionTimeout ^ (transactionTimeout >>> 32));
       result = prime * result + (int) (transactionTimeoutScanPeriod ^ (transactionTimeoutScanPeriod >>> 32));
       result = prime * result + (wildcardRoutingEnabled ? 1231 : 1237);
@@ -1269,6 +1317,10 @@ public class ConfigurationImpl implements Configuration, Serializable {
          return false;
       if (idCacheSize != other.idCacheSize)
          return false;
+      if (idCacheTTL != other.idCacheTTL)
+         return false;
+      if (idCacheBloomFilter != other.idCacheBloomFilter)
+         return false;
       if (incomingInterceptorClassNames == null) {
          if (other.incomingInterceptorClassNames != null)
             return false;
@@ -1394,6 +1446,8 @@ public class ConfigurationImpl implements Configuration, Serializable {
          return false;
       if (securityInvalidationInterval != other.securityInvalidationInterval)
          return false;
+      if (securityCacheMaxSize != other.securityCacheMaxSize)
+         return false;
       if (securitySettings == null) {
          if (other.securitySettings != null)
             return false;
@@ -1404,6 +1458,8 @@ public class ConfigurationImpl implements Configuration, Serializable {
          return false;
       if (threadPoolMaxSize != other.threadPoolMaxSize)
          return false;
+      if (parallelFanOutThreshold != other.parallelFanOutThreshold)
+         return false;
       if (transactionTimeout != other.transactionTimeout)
          return false;
       if (transactionTimeoutScanPeriod != other.transactionTimeoutScanPeriod)
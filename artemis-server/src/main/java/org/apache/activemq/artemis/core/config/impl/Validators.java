@@ -131,7 +131,8 @@ public final class Validators {
          if (val == null || !val.equals(AddressFullMessagePolicy.PAGE.toString()) &&
             !val.equals(AddressFullMessagePolicy.DROP.toString()) &&
             !val.equals(AddressFullMessagePolicy.BLOCK.toString()) &&
-            !val.equals(AddressFullMessagePolicy.FAIL.toString())) {
+            !val.equals(AddressFullMessagePolicy.FAIL.toString()) &&
+            !val.equals(AddressFullMessagePolicy.SPILL.toString())) {
             throw ActiveMQMessageBundle.BUNDLE.invalidAddressFullPolicyType(val);
          }
       }
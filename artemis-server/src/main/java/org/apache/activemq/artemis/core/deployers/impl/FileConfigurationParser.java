@@ -153,6 +153,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
    private static final String MAX_QUEUES_NODE_NAME = "max-queues";
 
+   private static final String PAGE_COUNTER_SNAPSHOT = "page-counter-snapshot";
+
    // Attributes ----------------------------------------------------
 
    private boolean validateAIO = false;
@@ -210,6 +212,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setThreadPoolMaxSize(getInteger(e, "thread-pool-max-size", config.getThreadPoolMaxSize(), Validators.MINUS_ONE_OR_GT_ZERO));
 
+      config.setParallelFanOutThreshold(getInteger(e, "parallel-fan-out-threshold", config.getParallelFanOutThreshold(), Validators.MINUS_ONE_OR_GT_ZERO));
+
       config.setSecurityEnabled(getBoolean(e, "security-enabled", config.isSecurityEnabled()));
 
       config.setGracefulShutdownEnabled(getBoolean(e, "graceful-shutdown-enabled", config.isGracefulShutdownEnabled()));
@@ -222,6 +226,8 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setSecurityInvalidationInterval(getLong(e, "security-invalidation-interval", config.getSecurityInvalidationInterval(), Validators.GT_ZERO));
 
+      config.setSecurityCacheMaxSize(getInteger(e, "security-cache-max-size", config.getSecurityCacheMaxSize(), Validators.GT_ZERO));
+
       config.setConnectionTTLOverride(getLong(e, "connection-ttl-override", config.getConnectionTTLOverride(), Validators.MINUS_ONE_OR_GT_ZERO));
 
       config.setEnabledAsyncConnectionExecution(getBoolean(e, "async-connection-execution-enabled", config.isAsyncConnectionExecutionEnabled()));
@@ -236,6 +242,10 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
 
       config.setIDCacheSize(getInteger(e, "id-cache-size", config.getIDCacheSize(), Validators.GT_ZERO));
 
+      config.setIDCacheTTL(getLong(e, "id-cache-ttl", config.getIDCacheTTL(), Validators.MINUS_ONE_OR_GT_ZERO));
+
+      config.setIDCacheBloomFilter(getBoolean(e, "id-cache-bloom-filter", config.isIDCacheBloomFilter()));
+
       config.setPersistIDCache(getBoolean(e, "persist-id-cache", config.isPersistIDCache()));
 
       config.setManagementAddress(new SimpleString(getString(e, "management-address", config.getManagementAddress().toString(), Validators.NOT_NULL_OR_EMPTY)));
@@ -735,6 +745,9 @@ public final class FileConfigurationParser extends XMLConfigurationUtil {
          else if (AUTO_DELETE_JMS_QUEUES.equalsIgnoreCase(name)) {
             addressSettings.setAutoDeleteJmsQueues(XMLUtil.parseBoolean(child));
          }
+         else if (PAGE_COUNTER_SNAPSHOT.equalsIgnoreCase(name)) {
+            addressSettings.setPageCounterSnapshot(XMLUtil.parseBoolean(child));
+         }
       }
       return setting;
    }
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.filter.impl;
+
+import org.apache.activemq.artemis.api.core.FilterConstants;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.selector.filter.BooleanExpression;
+import org.apache.activemq.artemis.selector.filter.ComparisonExpression;
+import org.apache.activemq.artemis.selector.filter.ConstantExpression;
+import org.apache.activemq.artemis.selector.filter.Expression;
+import org.apache.activemq.artemis.selector.filter.FilterException;
+import org.apache.activemq.artemis.selector.filter.Filterable;
+import org.apache.activemq.artemis.selector.filter.LogicExpression;
+import org.apache.activemq.artemis.selector.filter.PropertyExpression;
+import org.apache.activemq.artemis.selector.filter.UnaryExpression;
+
+/**
+ * Rebuilds the expression tree parsed by the SelectorParser into a tree specialised for server messages:
+ * <ul>
+ * <li>the property names are converted into {@link SimpleString} keys once, instead of on every evaluation</li>
+ * <li>{@code property = 'literal'} compares the {@link SimpleString} property value directly with the literal,
+ * without decoding the property into a String</li>
+ * </ul>
+ * Only the logical, NOT and comparison expressions are rebuilt, any other expression is kept as parsed.
+ * The parsed tree itself is never modified, as it is shared through the SelectorParser cache.
+ */
+final class FilterCompiler {
+
+   private FilterCompiler() {
+   }
+
+   static BooleanExpression compile(final BooleanExpression expression) {
+      Expression compiled = compile((Expression) expression);
+      return compiled instanceof BooleanExpression ? (BooleanExpression) compiled : expression;
+   }
+
+   /**
+    * @return a {@code property = 'literal'} term that has to be true for the expression to be true, or null if there is
+    * no such term
+    */
+   static StringEqualsExpression findEqualsTerm(final Expression expression) {
+      if (expression instanceof StringEqualsExpression) {
+         return (StringEqualsExpression) expression;
+      }
+      else if (expression instanceof LogicExpression && "AND".equals(((LogicExpression) expression).getExpressionSymbol())) {
+         StringEqualsExpression term = findEqualsTerm(((LogicExpression) expression).getLeft());
+         return term != null ? term : findEqualsTerm(((LogicExpression) expression).getRight());
+      }
+      return null;
+   }
+
+   private static Expression compile(final Expression expression) {
+      if (expression instanceof ServerPropertyExpression) {
+         return expression;
+      }
+      else if (expression instanceof PropertyExpression) {
+         return new ServerPropertyExpression(((PropertyExpression) expression).getName());
+      }
+      else if (expression instanceof LogicExpression) {
+         return compileLogic((LogicExpression) expression);
+      }
+      else if (expression instanceof ComparisonExpression) {
+         return compileComparison((ComparisonExpression) expression);
+      }
+      else if (expression instanceof UnaryExpression && "NOT".equals(((UnaryExpression) expression).getExpressionSymbol())) {
+         Expression right = compile(((UnaryExpression) expression).getRight());
+         if (right instanceof BooleanExpression) {
+            return UnaryExpression.createNOT((BooleanExpression) right);
+         }
+      }
+      return expression;
+   }
+
+   private static Expression compileLogic(final LogicExpression expression) {
+      Expression left = compile(expression.getLeft());
+      Expression right = compile(expression.getRight());
+
+      if (!(left instanceof BooleanExpression) || !(right instanceof BooleanExpression)) {
+         return expression;
+      }
+
+      String symbol = expression.getExpressionSymbol();
+
+      if ("AND".equals(symbol)) {
+         return LogicExpression.createAND((BooleanExpression) left, (BooleanExpression) right);
+      }
+      else if ("OR".equals(symbol)) {
+         return LogicExpression.createOR((BooleanExpression) left, (BooleanExpression) right);
+      }
+      return expression;
+   }
+
+   private static Expression compileComparison(final ComparisonExpression expression) {
+      Expression left = compile(expression.getLeft());
+      Expression right = compile(expression.getRight());
+
+      String symbol = expression.getExpressionSymbol();
+
+      if ("=".equals(symbol)) {
+         if (isNull(right)) {
+            return ComparisonExpression.createIsNull(left);
+         }
+         BooleanExpression equal = ComparisonExpression.createEqual(left, right);
+         if (left instanceof ServerPropertyExpression && isString(right)) {
+            return new StringEqualsExpression((ServerPropertyExpression) left, (String) ((ConstantExpression) right).getValue(), equal);
+         }
+         else if (right instanceof ServerPropertyExpression && isString(left)) {
+            return new StringEqualsExpression((ServerPropertyExpression) right, (String) ((ConstantExpression) left).getValue(), equal);
+         }
+         return equal;
+      }
+      else if (">".equals(symbol)) {
+         return ComparisonExpression.createGreaterThan(left, right);
+      }
+      else if (">=".equals(symbol)) {
+         return ComparisonExpression.createGreaterThanEqual(left, right);
+      }
+      else if ("<".equals(symbol)) {
+         return ComparisonExpression.createLessThan(left, right);
+      }
+      else if ("<=".equals(symbol)) {
+         return ComparisonExpression.createLessThanEqual(left, right);
+      }
+      return expression;
+   }
+
+   private static boolean isNull(final Expression expression) {
+      return expression instanceof ConstantExpression && ((ConstantExpression) expression).getValue() == null;
+   }
+
+   private static boolean isString(final Expression expression) {
+      return expression instanceof ConstantExpression && ((ConstantExpression) expression).getValue() instanceof String;
+   }
+
+   /**
+    * A property with its {@link SimpleString} key resolved when the filter is created.
+    */
+   static final class ServerPropertyExpression extends PropertyExpression {
+
+      private final SimpleString key;
+
+      private final boolean header;
+
+      ServerPropertyExpression(final String name) {
+         super(name);
+         this.key = new SimpleString(name);
+         this.header = key.startsWith(FilterConstants.ACTIVEMQ_PREFIX);
+      }
+
+      SimpleString getKey() {
+         return key;
+      }
+
+      boolean isHeader() {
+         return header;
+      }
+
+      @Override
+      public Object evaluate(final Filterable message) throws FilterException {
+         if (message instanceof FilterImpl.FilterableServerMessage) {
+            return ((FilterImpl.FilterableServerMessage) message).getProperty(this);
+         }
+         return super.evaluate(message);
+      }
+   }
+
+   /**
+    * {@code property = 'literal'}, comparing the {@link SimpleString} value of the property without decoding it.
+    * Any other type of value is evaluated by the regular equal expression.
+    */
+   static final class StringEqualsExpression implements BooleanExpression {
+
+      private final ServerPropertyExpression property;
+
+      private final SimpleString value;
+
+      private final BooleanExpression equal;
+
+      StringEqualsExpression(final ServerPropertyExpression property,
+                             final String value,
+                             final BooleanExpression equal) {
+         this.property = property;
+         this.value = new SimpleString(value);
+         this.equal = equal;
+      }
+
+      ServerPropertyExpression getProperty() {
+         return property;
+      }
+
+      SimpleString getValue() {
+         return value;
+      }
+
+      @Override
+      public Object evaluate(final Filterable message) throws FilterException {
+         if (message instanceof FilterImpl.FilterableServerMessage) {
+            Object propertyValue = ((FilterImpl.FilterableServerMessage) message).getRawProperty(property);
+            if (propertyValue == null) {
+               return Boolean.FALSE;
+            }
+            if (propertyValue instanceof SimpleString) {
+               return value.equals(propertyValue) ? Boolean.TRUE : Boolean.FALSE;
+            }
+         }
+         return equal.evaluate(message);
+      }
+
+      @Override
+      public boolean matches(final Filterable message) throws FilterException {
+         return evaluate(message) == Boolean.TRUE;
+      }
+
+      @Override
+      public String toString() {
+         return equal.toString();
+      }
+   }
+}
@@ -27,6 +27,7 @@ import org.apache.activemq.artemis.selector.filter.BooleanExpression;
 import org.apache.activemq.artemis.selector.filter.FilterException;
 import org.apache.activemq.artemis.selector.filter.Filterable;
 import org.apache.activemq.artemis.selector.impl.SelectorParser;
+import org.jboss.logging.Logger;
 
 /**
  * This class implements an ActiveMQ Artemis filter
@@ -50,6 +51,10 @@ public class FilterImpl implements Filter {
 
    // Constants -----------------------------------------------------
 
+   private static final Logger logger = Logger.getLogger(FilterImpl.class);
+
+   private static final String CONVERT_STRING_EXPRESSIONS = "convert_string_expressions:";
+
    private final SimpleString sfilterString;
 
    private final BooleanExpression booleanExpression;
@@ -81,7 +86,22 @@ public class FilterImpl implements Filter {
          ActiveMQServerLogger.LOGGER.invalidFilter(e, filterStr);
          throw ActiveMQMessageBundle.BUNDLE.invalidFilter(e, filterStr);
       }
-      return new FilterImpl(filterStr, booleanExpression);
+      return new FilterImpl(filterStr, compile(filterStr, booleanExpression));
+   }
+
+   private static BooleanExpression compile(final SimpleString filterStr, final BooleanExpression booleanExpression) {
+      // the string conversions are decided when the comparisons are created, so these are kept as parsed
+      if (filterStr.toString().contains(CONVERT_STRING_EXPRESSIONS)) {
+         return booleanExpression;
+      }
+
+      try {
+         return FilterCompiler.compile(booleanExpression);
+      }
+      catch (Exception e) {
+         logger.debug("Could not compile filter " + filterStr + ", using the parsed expression", e);
+         return booleanExpression;
+      }
    }
 
    // Constructors ---------------------------------------------------
@@ -97,7 +117,11 @@ public class FilterImpl implements Filter {
       return sfilterString;
    }
 
-   public synchronized boolean match(final ServerMessage message) {
+   BooleanExpression getBooleanExpression() {
+      return booleanExpression;
+   }
+
+   public boolean match(final ServerMessage message) {
       try {
          boolean result = booleanExpression.matches(new FilterableServerMessage(message));
          return result;
@@ -166,14 +190,38 @@ public class FilterImpl implements Filter {
       }
    }
 
-   private static class FilterableServerMessage implements Filterable {
+   static class FilterableServerMessage implements Filterable {
 
       private final ServerMessage message;
 
-      public FilterableServerMessage(ServerMessage message) {
+      FilterableServerMessage(ServerMessage message) {
          this.message = message;
       }
 
+      Object getProperty(final FilterCompiler.ServerPropertyExpression property) {
+         Object result = getRawProperty(property);
+         if (result != null) {
+            if (result.getClass() == SimpleString.class) {
+               result = result.toString();
+            }
+         }
+         return result;
+      }
+
+      /**
+       * @return the value of the property, without converting a SimpleString into a String
+       */
+      Object getRawProperty(final FilterCompiler.ServerPropertyExpression property) {
+         Object result = null;
+         if (property.isHeader()) {
+            result = getHeaderFieldValue(message, property.getKey());
+         }
+         if (result == null) {
+            result = message.getObjectProperty(property.getKey());
+         }
+         return result;
+      }
+
       @Override
       public Object getProperty(String id) {
          Object result = null;
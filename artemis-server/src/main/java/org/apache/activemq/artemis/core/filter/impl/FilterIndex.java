@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.filter.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+
+/**
+ * An index of many filters by one of their {@code property = 'literal'} terms.
+ * <p>
+ * A filter is indexed when it is a {@code property = 'literal'} term, or a conjunction (AND) with at least one of these
+ * terms. A message only needs to be matched against the filters whose indexed term has the same value as the message,
+ * as every other filter is already false. The value of each indexed property is read once per message, no matter
+ * how many filters share it.
+ * <p>
+ * The index is immutable once built and it can be used by many threads.
+ */
+public final class FilterIndex<T> {
+
+   private final Map<SimpleString, Term<T>> terms = new HashMap<SimpleString, Term<T>>();
+
+   private final Term<T>[] termArray;
+
+   private final int size;
+
+   /**
+    * @param filters the filters to index, each one with the value returned when it matches a message.
+    *                Every filter must be {@link #isIndexable(Filter) indexable}.
+    */
+   @SuppressWarnings("unchecked")
+   public FilterIndex(final Map<T, Filter> filters) {
+      for (Map.Entry<T, Filter> entry : filters.entrySet()) {
+         FilterCompiler.StringEqualsExpression expression = FilterCompiler.findEqualsTerm(((FilterImpl) entry.getValue()).getBooleanExpression());
+
+         Term<T> term = terms.get(expression.getProperty().getKey());
+         if (term == null) {
+            term = new Term<T>(expression.getProperty());
+            terms.put(expression.getProperty().getKey(), term);
+         }
+         term.add(expression.getValue(), entry.getValue(), entry.getKey());
+      }
+      termArray = terms.values().toArray(new Term[terms.size()]);
+      size = filters.size();
+   }
+
+   /**
+    * @return true if the filter has a {@code property = 'literal'} term that can be indexed
+    */
+   public static boolean isIndexable(final Filter filter) {
+      return filter instanceof FilterImpl && FilterCompiler.findEqualsTerm(((FilterImpl) filter).getBooleanExpression()) != null;
+   }
+
+   /**
+    * @return the values of every filter matching the message
+    */
+   public List<T> match(final ServerMessage message) {
+      FilterImpl.FilterableServerMessage filterable = new FilterImpl.FilterableServerMessage(message);
+
+      List<T> result = null;
+
+      for (Term<T> term : termArray) {
+         Object value = filterable.getRawProperty(term.property);
+
+         if (value == null) {
+            continue;
+         }
+
+         if (value instanceof SimpleString) {
+            result = term.match(message, term.values.get(value), result);
+         }
+         else {
+            // only a SimpleString is compared directly, the filter will decide about any other type
+            for (List<Candidate<T>> candidates : term.values.values()) {
+               result = term.match(message, candidates, result);
+            }
+         }
+      }
+
+      return result == null ? Collections.<T>emptyList() : result;
+   }
+
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public String toString() {
+      return "FilterIndex{size=" + size + ", properties=" + terms.keySet() + "}";
+   }
+
+   private static final class Term<T> {
+
+      private final FilterCompiler.ServerPropertyExpression property;
+
+      private final Map<SimpleString, List<Candidate<T>>> values = new HashMap<SimpleString, List<Candidate<T>>>();
+
+      private Term(final FilterCompiler.ServerPropertyExpression property) {
+         this.property = property;
+      }
+
+      private void add(final SimpleString value, final Filter filter, final T target) {
+         List<Candidate<T>> candidates = values.get(value);
+         if (candidates == null) {
+            candidates = new ArrayList<Candidate<T>>();
+            values.put(value, candidates);
+         }
+         candidates.add(new Candidate<T>(filter, target));
+      }
+
+      private List<T> match(final ServerMessage message, final List<Candidate<T>> candidates, List<T> result) {
+         if (candidates != null) {
+            for (Candidate<T> candidate : candidates) {
+               // the rest of the filter still has to be evaluated
+               if (candidate.filter.match(message)) {
+                  if (result == null) {
+                     result = new ArrayList<T>();
+                  }
+                  result.add(candidate.target);
+               }
+            }
+         }
+         return result;
+      }
+   }
+
+   private static final class Candidate<T> {
+
+      private final Filter filter;
+
+      private final T target;
+
+      private Candidate(final Filter filter, final T target) {
+         this.filter = filter;
+         this.target = target;
+      }
+   }
+}
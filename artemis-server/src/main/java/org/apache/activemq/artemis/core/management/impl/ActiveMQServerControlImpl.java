@@ -1336,7 +1336,7 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       settings.put("redistributionDelay", addressSettings.getRedistributionDelay());
       settings.put("lastValueQueue", addressSettings.isLastValueQueue());
       settings.put("sendToDLAOnNoRoute", addressSettings.isSendToDLAOnNoRoute());
-      String policy = addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.PAGE ? "PAGE" : addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.BLOCK ? "BLOCK" : addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.DROP ? "DROP" : "FAIL";
+      String policy = addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.PAGE ? "PAGE" : addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.BLOCK ? "BLOCK" : addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.DROP ? "DROP" : addressSettings.getAddressFullMessagePolicy() == AddressFullMessagePolicy.SPILL ? "SPILL" : "FAIL";
       settings.put("addressFullMessagePolicy", policy);
       settings.put("slowConsumerThreshold", addressSettings.getSlowConsumerThreshold());
       settings.put("slowConsumerCheckPeriod", addressSettings.getSlowConsumerCheckPeriod());
@@ -1409,6 +1409,9 @@ public class ActiveMQServerControlImpl extends AbstractControl implements Active
       else if (addressFullMessagePolicy.equalsIgnoreCase("FAIL")) {
          addressSettings.setAddressFullMessagePolicy(AddressFullMessagePolicy.FAIL);
       }
+      else if (addressFullMessagePolicy.equalsIgnoreCase("SPILL")) {
+         addressSettings.setAddressFullMessagePolicy(AddressFullMessagePolicy.SPILL);
+      }
       addressSettings.setSlowConsumerThreshold(slowConsumerThreshold);
       addressSettings.setSlowConsumerCheckPeriod(slowConsumerCheckPeriod);
       if (slowConsumerPolicy == null) {
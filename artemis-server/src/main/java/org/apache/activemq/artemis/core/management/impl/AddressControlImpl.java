@@ -116,7 +116,7 @@ public class AddressControlImpl extends AbstractControl implements AddressContro
    public Object[] getRoles() throws Exception {
       clearIO();
       try {
-         Set<Role> roles = securityRepository.getMatch(address.toString());
+         Set<Role> roles = securityRepository.getMatch(address);
 
          Object[] objRoles = new Object[roles.size()];
 
@@ -135,7 +135,7 @@ public class AddressControlImpl extends AbstractControl implements AddressContro
       clearIO();
       try {
          JSONArray json = new JSONArray();
-         Set<Role> roles = securityRepository.getMatch(address.toString());
+         Set<Role> roles = securityRepository.getMatch(address);
 
          for (Role role : roles) {
             json.put(new JSONObject(role));
@@ -70,6 +70,12 @@ public interface PagingStore extends ActiveMQComponent {
 
    boolean isPaging();
 
+   /**
+    * @return true if the policy is {@link AddressFullMessagePolicy#SPILL} and the address is full,
+    * meaning the bodies of new messages should be moved out of memory.
+    */
+   boolean isSpilling();
+
    /**
     * Schedules sync to the file storage.
     */
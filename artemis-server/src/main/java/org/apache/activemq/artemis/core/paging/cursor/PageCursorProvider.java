@@ -51,6 +51,12 @@ public interface PageCursorProvider {
 
    void scheduleCleanup();
 
+   /**
+    * To be called by the subscription whenever its first incomplete page may have changed,
+    * so the cleanup only revisits the subscriptions that actually moved.
+    */
+   void onFirstPageChanged(PageSubscription subscription);
+
    void disableCleanup();
 
    void resumeCleanup();
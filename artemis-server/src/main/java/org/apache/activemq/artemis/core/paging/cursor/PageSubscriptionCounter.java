@@ -56,4 +56,15 @@ public interface PageSubscriptionCounter {
 
    void cleanupNonTXCounters(final long pageID) throws Exception;
 
+   /**
+    * Snapshot mode only: replaces the value loaded from the journal by the value recalculated
+    * from the page files, and stores it as the new snapshot.
+    */
+   void rebuild(long value) throws Exception;
+
+   /**
+    * Snapshot mode only: replaces the journal records of this counter by a single record with the current value.
+    */
+   void snapshot();
+
 }
\ No newline at end of file
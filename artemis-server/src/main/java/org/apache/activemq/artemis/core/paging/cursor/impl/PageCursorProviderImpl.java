@@ -18,13 +18,18 @@ package org.apache.activemq.artemis.core.paging.cursor.impl;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.paging.PageTransactionInfo;
 import org.apache.activemq.artemis.core.paging.PagedMessage;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.paging.cursor.NonExistentPage;
@@ -39,6 +44,7 @@ import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
+import org.apache.activemq.artemis.utils.ConcurrentHashSet;
 import org.apache.activemq.artemis.utils.FutureLatch;
 import org.apache.activemq.artemis.utils.SoftValueHashMap;
 import org.jboss.logging.Logger;
@@ -72,8 +78,22 @@ public class PageCursorProviderImpl implements PageCursorProvider {
 
    private final SoftValueHashMap<Long, PageCache> softCache;
 
+   // when true the subscription counters are kept in memory and rebuilt from the pages on reload
+   private final boolean counterSnapshot;
+
    private final ConcurrentMap<Long, PageSubscription> activeCursors = new ConcurrentHashMap<Long, PageSubscription>();
 
+   /**
+    * The first incomplete page of every subscription, used by cleanup instead of scanning all the subscriptions.
+    * Guarded by this.
+    */
+   private final PageSubscriptionWatermark watermark = new PageSubscriptionWatermark();
+
+   /**
+    * IDs of the subscriptions whose first page may have changed since the last cleanup
+    */
+   private final ConcurrentHashSet<Long> changedCursors = new ConcurrentHashSet<Long>();
+
    // Static --------------------------------------------------------
 
    // Constructors --------------------------------------------------
@@ -82,10 +102,19 @@ public class PageCursorProviderImpl implements PageCursorProvider {
                                  final StorageManager storageManager,
                                  final Executor executor,
                                  final int maxCacheSize) {
+      this(pagingStore, storageManager, executor, maxCacheSize, false);
+   }
+
+   public PageCursorProviderImpl(final PagingStore pagingStore,
+                                 final StorageManager storageManager,
+                                 final Executor executor,
+                                 final int maxCacheSize,
+                                 final boolean counterSnapshot) {
       this.pagingStore = pagingStore;
       this.storageManager = storageManager;
       this.executor = executor;
       this.softCache = new SoftValueHashMap<>(maxCacheSize);
+      this.counterSnapshot = counterSnapshot;
    }
 
    // Public --------------------------------------------------------
@@ -100,8 +129,9 @@ public class PageCursorProviderImpl implements PageCursorProvider {
          throw new IllegalStateException("Cursor " + cursorID + " had already been created");
       }
 
-      PageSubscription activeCursor = new PageSubscriptionImpl(this, pagingStore, storageManager, executor, filter, cursorID, persistent);
+      PageSubscription activeCursor = new PageSubscriptionImpl(this, pagingStore, storageManager, executor, filter, cursorID, persistent, counterSnapshot);
       activeCursors.put(cursorID, activeCursor);
+      changedCursors.add(cursorID);
       return activeCursor;
    }
 
@@ -222,12 +252,67 @@ public class PageCursorProviderImpl implements PageCursorProvider {
                }
             }
          }
+
+         if (counterSnapshot) {
+            rebuildCounters(cursorList);
+         }
       }
 
       cleanup();
 
    }
 
+   /**
+    * The counters on snapshot mode are not journaled on every increment, so after a restart
+    * the value is recalculated from the messages still on the page files, minus the acknowledgements reloaded.
+    */
+   private void rebuildCounters(Collection<PageSubscription> cursorList) throws Exception {
+      Map<Long, PageSubscription> cursors = new HashMap<Long, PageSubscription>();
+      Map<Long, AtomicLong> values = new HashMap<Long, AtomicLong>();
+
+      for (PageSubscription cursor : cursorList) {
+         cursors.put(cursor.getId(), cursor);
+         values.put(cursor.getId(), new AtomicLong(0));
+      }
+
+      for (long pageNr = pagingStore.getFirstPage(); pageNr <= pagingStore.getCurrentWritingPage(); pageNr++) {
+         PageCache cache = getPageCache(pageNr);
+
+         if (cache == null) {
+            continue;
+         }
+
+         for (int messageNr = 0; messageNr < cache.getNumberOfMessages(); messageNr++) {
+            PagedMessage message = cache.getMessage(messageNr);
+
+            if (message.getTransactionID() >= 0) {
+               PageTransactionInfo txInfo = pagingStore.getPagingManager().getTransaction(message.getTransactionID());
+               // prepared transactions will apply their increments when committed
+               if (txInfo == null || !txInfo.isCommit()) {
+                  continue;
+               }
+            }
+
+            PagePosition position = new PagePositionImpl(pageNr, messageNr);
+
+            for (long queueID : message.getQueueIDs()) {
+               PageSubscription cursor = cursors.get(queueID);
+               if (cursor != null && cursor.contains(newReference(position, message, cursor))) {
+                  values.get(queueID).incrementAndGet();
+               }
+            }
+         }
+      }
+
+      for (PageSubscription cursor : cursorList) {
+         long value = values.get(cursor.getId()).get();
+         if (logger.isDebugEnabled()) {
+            logger.debug(pagingStore.getAddress() + " rebuilt counter for " + cursor + " with value=" + value);
+         }
+         cursor.getCounter().rebuild(value);
+      }
+   }
+
    public void stop() {
       for (PageSubscription cursor : activeCursors.values()) {
          cursor.stop();
@@ -255,10 +340,16 @@ public class PageCursorProviderImpl implements PageCursorProvider {
 
    public void close(PageSubscription cursor) {
       activeCursors.remove(cursor.getId());
+      changedCursors.add(cursor.getId());
 
       scheduleCleanup();
    }
 
+   @Override
+   public void onFirstPageChanged(PageSubscription cursor) {
+      changedCursors.add(cursor.getId());
+   }
+
    @Override
    public void scheduleCleanup() {
 
@@ -350,15 +441,15 @@ public class PageCursorProviderImpl implements PageCursorProvider {
                return;
             }
 
-            ArrayList<PageSubscription> cursorList = cloneSubscriptions();
-
-            long minPage = checkMinPage(cursorList);
+            long minPage = updateWatermark();
 
             logger.debugf("Asserting cleanup for address %s, firstPage=%d", pagingStore.getAddress(), minPage);
 
             // if the current page is being written...
             // on that case we need to move to verify it in a different way
             if (minPage == pagingStore.getCurrentWritingPage() && pagingStore.getCurrentPage().getNumberOfMessages() > 0) {
+               ArrayList<PageSubscription> cursorList = cloneSubscriptions();
+
                boolean complete = checkPageCompletion(cursorList, minPage);
 
                if (!pagingStore.isStarted()) {
@@ -372,10 +463,9 @@ public class PageCursorProviderImpl implements PageCursorProvider {
                }
             }
 
+            // minPage is the lowest first incomplete page across all the subscriptions,
+            // so every page before it is complete on every subscription
             for (long i = pagingStore.getFirstPage(); i < minPage; i++) {
-               if (!checkPageCompletion(cursorList, i)) {
-                  break;
-               }
                Page page = pagingStore.depage();
                if (page == null) {
                   break;
@@ -569,6 +659,36 @@ public class PageCursorProviderImpl implements PageCursorProvider {
 
    // Private -------------------------------------------------------
 
+   /**
+    * Applies the pending first page changes to the watermark.
+    * Each changed subscription costs O(log n), the unchanged ones are not visited at all.
+    *
+    * @return the lowest first page across all the subscriptions, or Long.MAX_VALUE if there are no pending pages
+    */
+   private synchronized long updateWatermark() {
+      if (!changedCursors.isEmpty()) {
+         Iterator<Long> iterator = changedCursors.iterator();
+         while (iterator.hasNext()) {
+            Long cursorID = iterator.next();
+            // removing before reading the first page, so a concurrent change will be caught on the next cleanup
+            iterator.remove();
+            PageSubscription cursor = activeCursors.get(cursorID);
+            if (cursor == null) {
+               watermark.remove(cursorID);
+            }
+            else {
+               watermark.update(cursorID, cursor.getFirstPage());
+            }
+         }
+      }
+
+      if (logger.isDebugEnabled()) {
+         logger.debug(this.pagingStore.getAddress() + " has minPage=" + watermark.getMinPage() + " on " + watermark);
+      }
+
+      return watermark.getMinPage();
+   }
+
    /**
     * This method is synchronized because we want it to be atomic with the cursors being used
     */
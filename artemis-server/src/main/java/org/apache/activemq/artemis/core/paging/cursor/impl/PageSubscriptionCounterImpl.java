@@ -39,6 +39,10 @@ import org.jboss.logging.Logger;
 
 /**
  * This class will encapsulate the persistent counters for the PagingSubscription
+ * <p>
+ * On snapshot mode the increments are only kept in memory (except for XA transactions, which need to survive a restart
+ * while prepared). A single record with the value is written every {@link #FLUSH_COUNTER} increments or when a page is
+ * closed, and the exact value is recalculated from the page files when the server is restarted.
  */
 public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
 
@@ -53,6 +57,11 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
 
    private boolean persistent;
 
+   private final boolean snapshot;
+
+   // number of increments since the last snapshot was written
+   private int incrementsSinceSnapshot;
+
    private final PageSubscription subscription;
 
    private final StorageManager storage;
@@ -81,16 +90,32 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
       }
    };
 
+   private final Runnable snapshotTask = new Runnable() {
+      public void run() {
+         snapshot();
+      }
+   };
+
    public PageSubscriptionCounterImpl(final StorageManager storage,
                                       final PageSubscription subscription,
                                       final Executor executor,
                                       final boolean persistent,
                                       final long subscriptionID) {
+      this(storage, subscription, executor, persistent, subscriptionID, false);
+   }
+
+   public PageSubscriptionCounterImpl(final StorageManager storage,
+                                      final PageSubscription subscription,
+                                      final Executor executor,
+                                      final boolean persistent,
+                                      final long subscriptionID,
+                                      final boolean snapshot) {
       this.subscriptionID = subscriptionID;
       this.executor = executor;
       this.storage = storage;
       this.persistent = persistent;
       this.subscription = subscription;
+      this.snapshot = snapshot;
    }
 
    @Override
@@ -116,6 +141,14 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
          return; // nothing to be done
       }
 
+      if (snapshot) {
+         // the page is recounted on restart, there's no need for the pending record.
+         // we only want to know when the page is closed, to write the snapshot
+         incrementProcessed(-1, increment);
+         page.addPendingCounter(this);
+         return;
+      }
+
       Pair<Long, AtomicInteger> pendingInfo = pendingCounters.get((long) page.getPageId());
       if (pendingInfo == null) {
          // We have to make sure this is sync here
@@ -140,6 +173,11 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
     * @param pageID
     */
    public void cleanupNonTXCounters(final long pageID) throws Exception {
+      if (snapshot) {
+         executor.execute(snapshotTask);
+         return;
+      }
+
       Pair<Long, AtomicInteger> pendingInfo;
       synchronized (this) {
          pendingInfo = pendingCounters.remove(pageID);
@@ -166,6 +204,16 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
 
    @Override
    public void increment(Transaction tx, int add) throws Exception {
+      if (snapshot && (tx == null || tx.getXid() == null)) {
+         if (tx == null) {
+            incrementProcessed(-1, add);
+         }
+         else {
+            applyIncrementOnTX(tx, -1, add);
+         }
+         return;
+      }
+
       if (tx == null) {
          if (persistent) {
             long id = storage.storePageCounterInc(this.subscriptionID, add);
@@ -218,12 +266,54 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
 
    public synchronized void incrementProcessed(long id, int add) {
       addInc(id, add);
-      if (incrementRecords.size() > FLUSH_COUNTER) {
+      if (snapshot) {
+         if (persistent && ++incrementsSinceSnapshot == FLUSH_COUNTER) {
+            executor.execute(snapshotTask);
+         }
+      }
+      else if (incrementRecords.size() > FLUSH_COUNTER) {
          executor.execute(cleanupCheck);
       }
 
    }
 
+   @Override
+   public void rebuild(final long newValue) throws Exception {
+      synchronized (this) {
+         if (subscription != null && newValue > 0) {
+            // it could be null on testcases
+            subscription.notEmpty();
+         }
+         value.set(newValue);
+         added.set(newValue);
+         pendingValue.set(0);
+         // forcing the snapshot to be written
+         incrementsSinceSnapshot = FLUSH_COUNTER;
+      }
+      snapshot();
+   }
+
+   /**
+    * This method should always be called from a single threaded executor, or during reload.
+    */
+   @Override
+   public void snapshot() {
+      ArrayList<Long> deleteList;
+
+      long valueReplace;
+      synchronized (this) {
+         if (!persistent || incrementsSinceSnapshot == 0) {
+            return;
+         }
+         incrementsSinceSnapshot = 0;
+         valueReplace = value.get();
+         deleteList = new ArrayList<Long>(incrementRecords);
+         incrementRecords.clear();
+      }
+
+      replaceRecords(deleteList, valueReplace);
+   }
+
    public void delete() throws Exception {
       Transaction tx = new TransactionImpl(storage);
 
@@ -316,6 +406,10 @@ public class PageSubscriptionCounterImpl implements PageSubscriptionCounter {
          incrementRecords.clear();
       }
 
+      replaceRecords(deleteList, valueReplace);
+   }
+
+   private void replaceRecords(final ArrayList<Long> deleteList, final long valueReplace) {
       long newRecordID = -1;
 
       long txCleanup = storage.generateID();
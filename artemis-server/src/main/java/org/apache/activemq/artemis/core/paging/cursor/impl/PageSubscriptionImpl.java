@@ -90,6 +90,10 @@ final class PageSubscriptionImpl implements PageSubscription {
 
    private final SortedMap<Long, PageCursorInfo> consumedPages = new TreeMap<Long, PageCursorInfo>();
 
+   // no page before this one is incomplete, so getFirstPage starts looking from it.
+   // It only moves back when a page before it may have become incomplete again
+   private final AtomicLong firstPageHint = new AtomicLong(-1);
+
    private final PageSubscriptionCounter counter;
 
    private final Executor executor;
@@ -102,7 +106,8 @@ final class PageSubscriptionImpl implements PageSubscription {
                         final Executor executor,
                         final Filter filter,
                         final long cursorId,
-                        final boolean persistent) {
+                        final boolean persistent,
+                        final boolean counterSnapshot) {
       this.pageStore = pageStore;
       this.store = store;
       this.cursorProvider = cursorProvider;
@@ -110,7 +115,7 @@ final class PageSubscriptionImpl implements PageSubscription {
       this.executor = executor;
       this.filter = filter;
       this.persistent = persistent;
-      this.counter = new PageSubscriptionCounterImpl(store, this, executor, persistent, cursorId);
+      this.counter = new PageSubscriptionCounterImpl(store, this, executor, persistent, cursorId, counterSnapshot);
    }
 
    // Public --------------------------------------------------------
@@ -146,8 +151,10 @@ final class PageSubscriptionImpl implements PageSubscription {
    public void notEmpty() {
       synchronized (consumedPages) {
          this.empty = false;
+         // the pages without info are no longer complete
+         firstPageHint.set(-1);
       }
-
+      cursorProvider.onFirstPageChanged(this);
    }
 
    public void bookmark(PagePosition position) throws Exception {
@@ -191,6 +198,7 @@ final class PageSubscriptionImpl implements PageSubscription {
       synchronized (consumedPages) {
          consumedPages.put(Long.valueOf(position.getPageNr()), info);
       }
+      cursorProvider.onFirstPageChanged(this);
    }
 
    public void scheduleCleanupCheck() {
@@ -228,6 +236,8 @@ final class PageSubscriptionImpl implements PageSubscription {
          counter.delete(tx);
       }
       this.empty = true;
+      firstPageHint.set(-1);
+      cursorProvider.onFirstPageChanged(this);
    }
 
    /**
@@ -479,22 +489,60 @@ final class PageSubscriptionImpl implements PageSubscription {
       });
    }
 
+   /**
+    * The first page not complete on this subscription, as {@link #isComplete(long)} sees it: a page without info is
+    * only complete while the subscription is empty. The pages before the store's first page are gone, and the ones
+    * before {@link #firstPageHint} were complete on the last call, so only the pages after them are visited.
+    */
    @Override
    public long getFirstPage() {
       synchronized (consumedPages) {
          if (empty && consumedPages.isEmpty()) {
             return -1;
          }
-         long lastPageSeen = 0;
-         for (Map.Entry<Long, PageCursorInfo> info : consumedPages.entrySet()) {
-            lastPageSeen = info.getKey();
+
+         long hint = firstPageHint.get();
+         long page = Math.max(hint, pageStore.getFirstPage());
+         long lastPageSeen = page;
+         boolean found = false;
+
+         for (Map.Entry<Long, PageCursorInfo> info : consumedPages.tailMap(page).entrySet()) {
+            if (!empty && info.getKey() > page) {
+               // the subscription hasn't read this page yet
+               found = true;
+               break;
+            }
+            page = info.getKey();
+            lastPageSeen = page;
             if (!info.getValue().isDone() && !info.getValue().isPendingDelete()) {
-               return info.getKey();
+               found = true;
+               break;
             }
+            page++;
+         }
+
+         // a page moved back concurrently keeps the hint
+         firstPageHint.compareAndSet(hint, page);
+
+         if (!found && empty) {
+            return lastPageSeen;
          }
-         return lastPageSeen;
+
+         // the current page is verified by the cleanup on its own
+         return Math.min(page, pageStore.getCurrentWritingPage());
       }
+   }
 
+   /**
+    * Called when the page may have become incomplete again, so {@link #getFirstPage()} looks at it again.
+    */
+   private void firstPageMovedBack(final long page) {
+      while (true) {
+         long hint = firstPageHint.get();
+         if (hint <= page || firstPageHint.compareAndSet(hint, page)) {
+            return;
+         }
+      }
    }
 
    public void addPendingDelivery(final PagePosition position) {
@@ -658,6 +706,7 @@ final class PageSubscriptionImpl implements PageSubscription {
          recoveredACK.clear();
          recoveredACK = null;
       }
+      cursorProvider.onFirstPageChanged(this);
    }
 
    public void flushExecutors() {
@@ -689,6 +738,7 @@ final class PageSubscriptionImpl implements PageSubscription {
          info = consumedPages.remove(Long.valueOf(deletedPage.getPageId()));
       }
       if (info != null) {
+         cursorProvider.onFirstPageChanged(this);
          PagePosition completeInfo = info.getCompleteInfo();
          if (completeInfo != null) {
             try {
@@ -736,6 +786,8 @@ final class PageSubscriptionImpl implements PageSubscription {
             }
             pageInfo = new PageCursorInfo(pageNr, cache.getNumberOfMessages(), cache);
             consumedPages.put(pageNr, pageInfo);
+            firstPageMovedBack(pageNr);
+            cursorProvider.onFirstPageChanged(this);
          }
          return pageInfo;
       }
@@ -834,6 +886,7 @@ final class PageSubscriptionImpl implements PageSubscription {
     * @param info
     */
    private void onPageDone(final PageCursorInfo info) {
+      cursorProvider.onFirstPageChanged(this);
       if (autoCleanup) {
          scheduleCleanupCheck();
       }
@@ -957,7 +1010,11 @@ final class PageSubscriptionImpl implements PageSubscription {
       }
 
       public void incrementPendingTX() {
-         pendingTX.incrementAndGet();
+         if (pendingTX.getAndIncrement() == 0) {
+            // a done page may become incomplete again
+            firstPageMovedBack(pageId);
+            cursorProvider.onFirstPageChanged(PageSubscriptionImpl.this);
+         }
       }
 
       public void decrementPendingTX() {
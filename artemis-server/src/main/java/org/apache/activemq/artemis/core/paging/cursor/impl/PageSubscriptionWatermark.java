@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.paging.cursor.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The low watermark of the first incomplete page across all the subscriptions of an address.
+ * <p>
+ * This is an indexed binary min-heap keyed by the subscription ID, so updating the first page of a single
+ * subscription costs O(log n) and the watermark itself is read in O(1), instead of scanning every subscription
+ * on each cleanup.
+ * <p>
+ * A subscription with no pending pages (first page = -1) does not hold the watermark back.
+ * <p>
+ * The first page of a subscription includes the pages it has no info for yet, e.g. the pages before its first
+ * recovered ack after a restart, so every page below the watermark is complete on every subscription.
+ * <p>
+ * This class is not thread safe, the caller is supposed to synchronize the access.
+ */
+public final class PageSubscriptionWatermark {
+
+   private static final long NO_PAGE = Long.MAX_VALUE;
+
+   private final Map<Long, Entry> entries = new HashMap<Long, Entry>();
+
+   private Entry[] heap = new Entry[16];
+
+   private int size;
+
+   /**
+    * Adds or updates the first page for the subscription.
+    *
+    * @param subscriptionID the subscription (or cursor) ID
+    * @param firstPage      the first incomplete page for the subscription, or -1 if the subscription has nothing pending
+    */
+   public void update(final long subscriptionID, final long firstPage) {
+      long page = firstPage < 0 ? NO_PAGE : firstPage;
+
+      Entry entry = entries.get(subscriptionID);
+
+      if (entry == null) {
+         entry = new Entry(subscriptionID, page);
+         entries.put(subscriptionID, entry);
+         if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+         }
+         entry.index = size;
+         heap[size++] = entry;
+         siftUp(entry.index);
+      }
+      else if (page != entry.page) {
+         long oldPage = entry.page;
+         entry.page = page;
+         if (page < oldPage) {
+            siftUp(entry.index);
+         }
+         else {
+            siftDown(entry.index);
+         }
+      }
+   }
+
+   public void remove(final long subscriptionID) {
+      Entry entry = entries.remove(subscriptionID);
+
+      if (entry == null) {
+         return;
+      }
+
+      int index = entry.index;
+      Entry last = heap[--size];
+      heap[size] = null;
+
+      if (last != entry) {
+         heap[index] = last;
+         last.index = index;
+         siftDown(index);
+         siftUp(last.index);
+      }
+   }
+
+   /**
+    * @return the lowest first page across all the subscriptions, or {@link Long#MAX_VALUE} if there are no pending pages
+    */
+   public long getMinPage() {
+      return size == 0 ? NO_PAGE : heap[0].page;
+   }
+
+   public int size() {
+      return size;
+   }
+
+   public void clear() {
+      entries.clear();
+      Arrays.fill(heap, 0, size, null);
+      size = 0;
+   }
+
+   private void siftUp(int index) {
+      Entry entry = heap[index];
+      while (index > 0) {
+         int parent = (index - 1) >>> 1;
+         Entry parentEntry = heap[parent];
+         if (parentEntry.page <= entry.page) {
+            break;
+         }
+         heap[index] = parentEntry;
+         parentEntry.index = index;
+         index = parent;
+      }
+      heap[index] = entry;
+      entry.index = index;
+   }
+
+   private void siftDown(int index) {
+      Entry entry = heap[index];
+      int half = size >>> 1;
+      while (index < half) {
+         int child = (index << 1) + 1;
+         int right = child + 1;
+         if (right < size && heap[right].page < heap[child].page) {
+            child = right;
+         }
+         Entry childEntry = heap[child];
+         if (entry.page <= childEntry.page) {
+            break;
+         }
+         heap[index] = childEntry;
+         childEntry.index = index;
+         index = child;
+      }
+      heap[index] = entry;
+      entry.index = index;
+   }
+
+   @Override
+   public String toString() {
+      return "PageSubscriptionWatermark{minPage=" + getMinPage() + ", subscriptions=" + size + "}";
+   }
+
+   private static final class Entry {
+
+      private final long subscriptionID;
+
+      private long page;
+
+      private int index;
+
+      private Entry(final long subscriptionID, final long page) {
+         this.subscriptionID = subscriptionID;
+         this.page = page;
+      }
+
+      @Override
+      public String toString() {
+         return "Entry{subscriptionID=" + subscriptionID + ", page=" + page + "}";
+      }
+   }
+}
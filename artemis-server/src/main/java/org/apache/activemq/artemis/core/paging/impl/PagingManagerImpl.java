@@ -76,7 +76,7 @@ public final class PagingManagerImpl implements PagingManager {
 
    private void reaplySettings() {
       for (PagingStore store : stores.values()) {
-         AddressSettings settings = this.addressSettingsRepository.getMatch(store.getAddress().toString());
+         AddressSettings settings = this.addressSettingsRepository.getMatch(store.getAddress());
          store.applySetting(settings);
       }
    }
@@ -249,7 +249,7 @@ public final class PagingManagerImpl implements PagingManager {
       try {
          PagingStore store = stores.get(address);
          if (store == null) {
-            store = pagingStoreFactory.newStore(address, addressSettingsRepository.getMatch(address.toString()));
+            store = pagingStoreFactory.newStore(address, addressSettingsRepository.getMatch(address));
             store.start();
             if (!cleanupEnabled) {
                store.disableCleanup();
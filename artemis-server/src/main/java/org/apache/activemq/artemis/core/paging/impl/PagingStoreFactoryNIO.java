@@ -96,7 +96,7 @@ public class PagingStoreFactoryNIO implements PagingStoreFactory {
 
    @Override
    public PageCursorProvider newCursorProvider(PagingStore store, StorageManager storageManager, AddressSettings addressSettings, Executor executor) {
-      return new PageCursorProviderImpl(store, storageManager, executor, addressSettings.getPageCacheMaxSize());
+      return new PageCursorProviderImpl(store, storageManager, executor, addressSettings.getPageCacheMaxSize(), addressSettings.isPageCounterSnapshot());
    }
 
    public synchronized PagingStore newStore(final SimpleString address, final AddressSettings settings) {
@@ -172,7 +172,7 @@ public class PagingStoreFactoryNIO implements PagingStoreFactory {
 
             SequentialFileFactory factory = newFileFactory(guid);
 
-            AddressSettings settings = addressSettingsRepository.getMatch(address.toString());
+            AddressSettings settings = addressSettingsRepository.getMatch(address);
 
             PagingStore store = new PagingStoreImpl(address, scheduledExecutor, syncTimeout, pagingManager, storageManager, factory, this, address, settings, executorFactory.getExecutor(), syncNonTransactional);
 
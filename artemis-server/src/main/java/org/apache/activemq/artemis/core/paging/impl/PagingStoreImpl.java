@@ -265,6 +265,9 @@ public class PagingStoreImpl implements PagingStore {
          if (addressFullMessagePolicy == AddressFullMessagePolicy.DROP) {
             return isFull();
          }
+         if (addressFullMessagePolicy == AddressFullMessagePolicy.SPILL) {
+            return false;
+         }
          return paging;
       }
       finally {
@@ -272,6 +275,10 @@ public class PagingStoreImpl implements PagingStore {
       }
    }
 
+   public boolean isSpilling() {
+      return addressFullMessagePolicy == AddressFullMessagePolicy.SPILL && isFull();
+   }
+
    public int getNumberOfPages() {
       return numberOfPages;
    }
@@ -704,7 +711,7 @@ public class PagingStoreImpl implements PagingStore {
 
          return;
       }
-      else if (addressFullMessagePolicy == AddressFullMessagePolicy.DROP || addressFullMessagePolicy == AddressFullMessagePolicy.FAIL) {
+      else if (addressFullMessagePolicy == AddressFullMessagePolicy.DROP || addressFullMessagePolicy == AddressFullMessagePolicy.FAIL || addressFullMessagePolicy == AddressFullMessagePolicy.SPILL) {
          sizeInBytes.addAndGet(size);
       }
 
@@ -745,7 +752,8 @@ public class PagingStoreImpl implements PagingStore {
             return false;
          }
       }
-      else if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK) {
+      else if (addressFullMessagePolicy == AddressFullMessagePolicy.BLOCK || addressFullMessagePolicy == AddressFullMessagePolicy.SPILL) {
+         // when spilling the message is still routed to the queues, only its body is moved out of memory (by the PostOffice)
          return false;
       }
 
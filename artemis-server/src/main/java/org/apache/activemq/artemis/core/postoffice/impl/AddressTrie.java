@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+
+/**
+ * A tree of addresses keyed by their words (split by '.').
+ * <p>
+ * It can hold either concrete addresses or wildcard addresses, and it will find the entries matching an address
+ * by walking the tree one word at a time, instead of comparing the address against every entry:
+ * <ul>
+ * <li>{@link #matchWildcards(SimpleString, Collection)} finds the wildcard addresses on this tree matching a concrete address</li>
+ * <li>{@link #matchAddresses(SimpleString, Collection)} finds the concrete addresses on this tree matching a wildcard address</li>
+ * </ul>
+ * '#' matches any sequence of zero or more words and '*' matches a single word.
+ * <p>
+ * This class is not thread safe, the caller is supposed to synchronize the access.
+ */
+public final class AddressTrie {
+
+   private final Node root = new Node(null, null);
+
+   private int size;
+
+   /**
+    * @return true if the address was not on the tree yet
+    */
+   public boolean add(final SimpleString address) {
+      Node node = root;
+      for (SimpleString word : address.split(WildcardAddressManager.DELIM)) {
+         node = node.getOrCreateChild(word);
+      }
+      if (node.address != null) {
+         return false;
+      }
+      node.address = address;
+      size++;
+      return true;
+   }
+
+   /**
+    * @return true if the address was on the tree
+    */
+   public boolean remove(final SimpleString address) {
+      Node node = find(address);
+      if (node == null || node.address == null) {
+         return false;
+      }
+      node.address = null;
+      size--;
+
+      // pruning the branch that is now empty
+      while (node.parent != null && node.address == null && node.isLeaf()) {
+         node.parent.children.remove(node.word);
+         node = node.parent;
+      }
+      return true;
+   }
+
+   public boolean contains(final SimpleString address) {
+      Node node = find(address);
+      return node != null && node.address != null;
+   }
+
+   public int size() {
+      return size;
+   }
+
+   public boolean isEmpty() {
+      return size == 0;
+   }
+
+   public void clear() {
+      root.children = null;
+      size = 0;
+   }
+
+   /**
+    * Adds to the result the wildcard addresses on this tree that match the concrete address.
+    */
+   public void matchWildcards(final SimpleString address, final Collection<SimpleString> result) {
+      matchWildcards(root, address.split(WildcardAddressManager.DELIM), 0, result);
+   }
+
+   /**
+    * Adds to the result the concrete addresses on this tree that match the wildcard address.
+    */
+   public void matchAddresses(final SimpleString wildcard, final Collection<SimpleString> result) {
+      matchAddresses(root, wildcard.split(WildcardAddressManager.DELIM), 0, result);
+   }
+
+   private Node find(final SimpleString address) {
+      Node node = root;
+      for (SimpleString word : address.split(WildcardAddressManager.DELIM)) {
+         node = node.getChild(word);
+         if (node == null) {
+            return null;
+         }
+      }
+      return node;
+   }
+
+   private static void matchWildcards(final Node node,
+                                      final SimpleString[] words,
+                                      final int pos,
+                                      final Collection<SimpleString> result) {
+      Node anyWords = node.getChild(WildcardAddressManager.ANY_WORDS_SIMPLESTRING);
+      if (anyWords != null) {
+         // '#' can take any number of the remaining words, including none
+         for (int i = pos; i <= words.length; i++) {
+            matchWildcards(anyWords, words, i, result);
+         }
+      }
+
+      if (pos == words.length) {
+         if (node.address != null) {
+            result.add(node.address);
+         }
+         return;
+      }
+
+      Node child = node.getChild(words[pos]);
+      if (child != null) {
+         matchWildcards(child, words, pos + 1, result);
+      }
+
+      Node singleWord = node.getChild(WildcardAddressManager.SINGLE_WORD_SIMPLESTRING);
+      if (singleWord != null) {
+         matchWildcards(singleWord, words, pos + 1, result);
+      }
+   }
+
+   private static void matchAddresses(final Node node,
+                                      final SimpleString[] words,
+                                      final int pos,
+                                      final Collection<SimpleString> result) {
+      if (pos == words.length) {
+         if (node.address != null) {
+            result.add(node.address);
+         }
+         return;
+      }
+
+      SimpleString word = words[pos];
+
+      if (word.equals(WildcardAddressManager.ANY_WORDS_SIMPLESTRING)) {
+         // '#' either stops here or takes one more word
+         matchAddresses(node, words, pos + 1, result);
+         if (node.children != null) {
+            for (Node child : node.children.values()) {
+               matchAddresses(child, words, pos, result);
+            }
+         }
+      }
+      else if (word.equals(WildcardAddressManager.SINGLE_WORD_SIMPLESTRING)) {
+         if (node.children != null) {
+            for (Node child : node.children.values()) {
+               matchAddresses(child, words, pos + 1, result);
+            }
+         }
+      }
+      else {
+         Node child = node.getChild(word);
+         if (child != null) {
+            matchAddresses(child, words, pos + 1, result);
+         }
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "AddressTrie{size=" + size + "}";
+   }
+
+   private static final class Node {
+
+      private final Node parent;
+
+      private final SimpleString word;
+
+      private Map<SimpleString, Node> children;
+
+      // the address ending on this node, if any
+      private SimpleString address;
+
+      private Node(final Node parent, final SimpleString word) {
+         this.parent = parent;
+         this.word = word;
+      }
+
+      private Node getChild(final SimpleString word) {
+         return children == null ? null : children.get(word);
+      }
+
+      private Node getOrCreateChild(final SimpleString word) {
+         if (children == null) {
+            children = new HashMap<SimpleString, Node>();
+         }
+         Node child = children.get(word);
+         if (child == null) {
+            child = new Node(this, word);
+            children.put(word, child);
+         }
+         return child;
+      }
+
+      private boolean isLeaf() {
+         return children == null || children.isEmpty();
+      }
+   }
+}
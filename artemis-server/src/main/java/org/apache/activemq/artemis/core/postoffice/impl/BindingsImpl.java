@@ -21,15 +21,18 @@ import java.io.StringWriter;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterIndex;
 import org.apache.activemq.artemis.core.message.impl.MessageImpl;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.postoffice.Binding;
@@ -68,6 +71,18 @@ public final class BindingsImpl implements Bindings {
 
    private final SimpleString name;
 
+   /**
+    * Incremented on every binding added or removed, so a cached route is only used while it matches the bindings
+    */
+   private final AtomicInteger epoch = new AtomicInteger(0);
+
+   private volatile RouteCache routeCache;
+
+   /**
+    * Below this number of filters the index costs more than evaluating each filter
+    */
+   private static final int MIN_INDEXED_FILTERS = 4;
+
    public BindingsImpl(final SimpleString name, final GroupingHandler groupingHandler, final PagingStore pageStore) {
       this.groupingHandler = groupingHandler;
       this.pageStore = pageStore;
@@ -117,6 +132,8 @@ public final class BindingsImpl implements Bindings {
 
       bindingsMap.put(binding.getID(), binding);
 
+      epoch.incrementAndGet();
+
       if (logger.isTraceEnabled()) {
          logger.trace("Adding binding " + binding + " into " + this + " bindingTable: " + debugBindings());
       }
@@ -143,6 +160,8 @@ public final class BindingsImpl implements Bindings {
 
       bindingsMap.remove(binding.getID());
 
+      epoch.incrementAndGet();
+
       if (logger.isTraceEnabled()) {
          logger.trace("Removing binding " + binding + " from " + this + " bindingTable: " + debugBindings());
       }
@@ -286,6 +305,14 @@ public final class BindingsImpl implements Bindings {
             if (logger.isTraceEnabled()) {
                logger.trace("Routing message " + message + " on binding=" + this);
             }
+
+            RouteCache cache = getRouteCache();
+
+            if (cache.isCached()) {
+               cache.route(message, context);
+               return;
+            }
+
             for (Map.Entry<SimpleString, List<Binding>> entry : routingNameBindingMap.entrySet()) {
                SimpleString routingName = entry.getKey();
 
@@ -312,6 +339,67 @@ public final class BindingsImpl implements Bindings {
       return "BindingsImpl [name=" + name + "]";
    }
 
+   private RouteCache getRouteCache() {
+      int currentEpoch = epoch.get();
+
+      RouteCache cache = routeCache;
+
+      if (cache == null || cache.epoch != currentEpoch) {
+         // if the bindings change while this is calculated the epoch will not match on the next route
+         cache = calculateRoute(currentEpoch);
+         routeCache = cache;
+      }
+
+      return cache;
+   }
+
+   /**
+    * The route can be cached when every routing name has a single binding, so there's no load balancing.
+    */
+   private RouteCache calculateRoute(final int currentEpoch) {
+      if (!exclusiveBindings.isEmpty()) {
+         return new RouteCache(currentEpoch);
+      }
+
+      List<Binding> unfiltered = new ArrayList<Binding>();
+      List<Binding> filtered = new ArrayList<Binding>();
+      Map<Binding, Filter> indexed = new HashMap<Binding, Filter>();
+
+      for (List<Binding> bindings : routingNameBindingMap.values()) {
+         Object[] array = bindings.toArray();
+
+         // more than one binding per routing name means load balancing
+         if (array.length != 1 || array[0] instanceof RemoteQueueBinding) {
+            return new RouteCache(currentEpoch);
+         }
+
+         Binding binding = (Binding) array[0];
+
+         Filter filter = binding.getFilter();
+
+         if (filter == null) {
+            unfiltered.add(binding);
+         }
+         else if (FilterIndex.isIndexable(filter)) {
+            indexed.put(binding, filter);
+         }
+         else {
+            filtered.add(binding);
+         }
+      }
+
+      FilterIndex<Binding> index = null;
+
+      if (indexed.size() >= MIN_INDEXED_FILTERS) {
+         index = new FilterIndex<Binding>(indexed);
+      }
+      else {
+         filtered.addAll(indexed.keySet());
+      }
+
+      return new RouteCache(currentEpoch, unfiltered.toArray(new Binding[unfiltered.size()]), filtered.toArray(new Binding[filtered.size()]), index);
+   }
+
    /**
     * This code has a race on the assigned value to routing names.
     * <p>
@@ -609,4 +697,52 @@ public final class BindingsImpl implements Bindings {
    public Map<SimpleString, List<Binding>> getRoutingNameBindingMap() {
       return routingNameBindingMap;
    }
+
+   private static final class RouteCache {
+
+      private final int epoch;
+
+      // null if the route can't be cached
+      private final Binding[] unfiltered;
+
+      private final Binding[] filtered;
+
+      private final FilterIndex<Binding> index;
+
+      private RouteCache(final int epoch) {
+         this(epoch, null, null, null);
+      }
+
+      private RouteCache(final int epoch,
+                         final Binding[] unfiltered,
+                         final Binding[] filtered,
+                         final FilterIndex<Binding> index) {
+         this.epoch = epoch;
+         this.unfiltered = unfiltered;
+         this.filtered = filtered;
+         this.index = index;
+      }
+
+      private boolean isCached() {
+         return unfiltered != null;
+      }
+
+      private void route(final ServerMessage message, final RoutingContext context) throws Exception {
+         for (Binding binding : unfiltered) {
+            binding.route(message, context);
+         }
+
+         for (Binding binding : filtered) {
+            if (binding.getFilter().match(message)) {
+               binding.route(message, context);
+            }
+         }
+
+         if (index != null) {
+            for (Binding binding : index.match(message)) {
+               binding.route(message, context);
+            }
+         }
+      }
+   }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A counting Bloom filter of hash codes, with 4 bit counters.
+ * <p>
+ * {@link #mightContain(int)} never returns false for a hash that was added and not removed since, so it can
+ * be used to skip looking up a key that was never seen. A counter that reaches its maximum is never decremented
+ * again, so an overflow can only cause false positives.
+ * <p>
+ * {@link #mightContain(int)} can be called by any thread, the other methods must be called by one thread at a time.
+ */
+public final class CountingBloomFilter {
+
+   private static final int HASHES = 3;
+
+   /**
+    * Counters per expected element, about a 3% false positive rate with 3 hashes.
+    */
+   private static final int COUNTERS_PER_ELEMENT = 8;
+
+   private static final int COUNTERS_PER_WORD = 8;
+
+   private static final int MAX_COUNT = 0xF;
+
+   private final AtomicIntegerArray counters;
+
+   private final int mask;
+
+   /**
+    * @param expectedSize the number of elements the filter is sized for
+    */
+   public CountingBloomFilter(final int expectedSize) {
+      int size = Math.max(64, Integer.highestOneBit(Math.max(1, expectedSize) * COUNTERS_PER_ELEMENT - 1) << 1);
+      counters = new AtomicIntegerArray(size / COUNTERS_PER_WORD);
+      mask = size - 1;
+   }
+
+   public boolean mightContain(final int hash) {
+      int h1 = mix(hash);
+      int h2 = mix(hash + 0x9E3779B9) | 1;
+      for (int i = 0; i < HASHES; i++) {
+         if (count((h1 + i * h2) & mask) == 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   public void add(final int hash) {
+      int h1 = mix(hash);
+      int h2 = mix(hash + 0x9E3779B9) | 1;
+      for (int i = 0; i < HASHES; i++) {
+         int index = (h1 + i * h2) & mask;
+         int count = count(index);
+         if (count < MAX_COUNT) {
+            set(index, count + 1);
+         }
+      }
+   }
+
+   public void remove(final int hash) {
+      int h1 = mix(hash);
+      int h2 = mix(hash + 0x9E3779B9) | 1;
+      for (int i = 0; i < HASHES; i++) {
+         int index = (h1 + i * h2) & mask;
+         int count = count(index);
+         // an overflown counter doesn't know how many elements it has anymore
+         if (count > 0 && count < MAX_COUNT) {
+            set(index, count - 1);
+         }
+      }
+   }
+
+   public void clear() {
+      for (int i = 0; i < counters.length(); i++) {
+         counters.set(i, 0);
+      }
+   }
+
+   private int count(final int index) {
+      return (counters.get(index / COUNTERS_PER_WORD) >>> ((index % COUNTERS_PER_WORD) * 4)) & MAX_COUNT;
+   }
+
+   private void set(final int index, final int count) {
+      int word = index / COUNTERS_PER_WORD;
+      int shift = (index % COUNTERS_PER_WORD) * 4;
+      counters.set(word, (counters.get(word) & ~(MAX_COUNT << shift)) | (count << shift));
+   }
+
+   private static int mix(int hash) {
+      // murmur3 finalizer
+      hash ^= hash >>> 16;
+      hash *= 0x85EBCA6B;
+      hash ^= hash >>> 13;
+      hash *= 0xC2B2AE35;
+      hash ^= hash >>> 16;
+      return hash;
+   }
+}
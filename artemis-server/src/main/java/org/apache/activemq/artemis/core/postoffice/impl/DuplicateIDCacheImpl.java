@@ -152,7 +152,7 @@ public class DuplicateIDCacheImpl implements DuplicateIDCache {
 
    }
 
-   private String describeID(byte[] duplicateID, long id) {
+   static String describeID(byte[] duplicateID, long id) {
       if (id != 0) {
          return ByteUtil.bytesToHex(duplicateID, 4) + ", simpleString=" + ByteUtil.toSimpleString(duplicateID);
       }
@@ -361,7 +361,7 @@ public class DuplicateIDCacheImpl implements DuplicateIDCache {
       }
    }
 
-   private static final class ByteArrayHolder {
+   static final class ByteArrayHolder {
 
       ByteArrayHolder(final byte[] bytes) {
          this.bytes = bytes;
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.core.server.MessageReference;
+
+/**
+ * Adds the references of a routed message to their queues, splitting them across a {@link ForkJoinPool} when the
+ * message goes to at least {@code threshold} queues.
+ * <p>
+ * The calling thread adds one part of the references itself and waits for the others, so all the references are
+ * added when {@link #addReferences(List, boolean, boolean)} returns, in the same order relative to the other messages
+ * as when they are added by one thread.
+ */
+public final class ParallelFanOut {
+
+   /**
+    * The smallest number of references worth handing to another thread.
+    */
+   private static final int MIN_REFERENCES_PER_TASK = 64;
+
+   private final int threshold;
+
+   private final int parallelism;
+
+   private volatile ForkJoinPool pool;
+
+   /**
+    * @param threshold the number of references from which they are added in parallel, -1 to never add them in parallel
+    */
+   public ParallelFanOut(final int threshold) {
+      this(threshold, Runtime.getRuntime().availableProcessors());
+   }
+
+   public ParallelFanOut(final int threshold, final int parallelism) {
+      this.threshold = threshold;
+      this.parallelism = parallelism;
+   }
+
+   public synchronized void start() {
+      // with a single core the other threads would only take turns with the routing thread
+      if (threshold > 0 && parallelism > 1 && pool == null) {
+         pool = new ForkJoinPool(parallelism, new FanOutThreadFactory(), null, false);
+      }
+   }
+
+   public synchronized void stop() {
+      if (pool != null) {
+         pool.shutdown();
+         pool = null;
+      }
+   }
+
+   /**
+    * @param direct    passed to {@link org.apache.activemq.artemis.core.server.Queue#addTail(MessageReference, boolean)}
+    * @param skipAcked whether the references that are already acknowledged are left out
+    */
+   public void addReferences(final List<MessageReference> refs, final boolean direct, final boolean skipAcked) {
+      ForkJoinPool currentPool = pool;
+      int size = refs.size();
+
+      if (currentPool == null || size < threshold) {
+         addReferences(refs, 0, size, direct, skipAcked);
+         return;
+      }
+
+      int parts = Math.max(1, Math.min(currentPool.getParallelism() + 1, size / MIN_REFERENCES_PER_TASK));
+
+      ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[parts - 1];
+
+      for (int i = 1; i < parts; i++) {
+         final int from = (int) ((long) size * i / parts);
+         final int to = (int) ((long) size * (i + 1) / parts);
+         Runnable task = new Runnable() {
+            @Override
+            public void run() {
+               addReferences(refs, from, to, direct, skipAcked);
+            }
+         };
+         try {
+            tasks[i - 1] = currentPool.submit(task);
+         }
+         catch (RejectedExecutionException e) {
+            // the post office is stopping
+            task.run();
+         }
+      }
+
+      addReferences(refs, 0, size / parts, direct, skipAcked);
+
+      for (ForkJoinTask<?> task : tasks) {
+         if (task != null) {
+            task.join();
+         }
+      }
+   }
+
+   private static void addReferences(final List<MessageReference> refs,
+                                     final int from,
+                                     final int to,
+                                     final boolean direct,
+                                     final boolean skipAcked) {
+      for (int i = from; i < to; i++) {
+         MessageReference ref = refs.get(i);
+         if (!skipAcked || !ref.isAlreadyAcked()) {
+            ref.getQueue().addTail(ref, direct);
+         }
+      }
+   }
+
+   private static final class FanOutThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+      private final AtomicInteger threadCount = new AtomicInteger(0);
+
+      @Override
+      public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+         ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {
+         };
+         thread.setName("activemq-fan-out-thread-" + threadCount.getAndIncrement());
+         thread.setDaemon(true);
+         return thread;
+      }
+   }
+}
@@ -32,6 +32,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.activemq.artemis.api.core.ActiveMQAddressFullException;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQDuplicateIdException;
 import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
 import org.apache.activemq.artemis.api.core.ActiveMQNonExistentQueueException;
@@ -131,8 +132,14 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
    private final int idCacheSize;
 
+   private final long idCacheTTL;
+
+   private final boolean idCacheBloomFilter;
+
    private final boolean persistIDCache;
 
+   private final ParallelFanOut fanOut;
+
    private final Map<SimpleString, QueueInfo> queueInfos = new HashMap<>();
 
    private final Object notificationLock = new Object();
@@ -150,7 +157,10 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                          final int reaperPriority,
                          final boolean enableWildCardRouting,
                          final int idCacheSize,
+                         final long idCacheTTL,
+                         final boolean idCacheBloomFilter,
                          final boolean persistIDCache,
+                         final int parallelFanOutThreshold,
                          final HierarchicalRepository<AddressSettings> addressSettingsRepository) {
       this.storageManager = storageManager;
 
@@ -173,8 +183,14 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
       this.idCacheSize = idCacheSize;
 
+      this.idCacheTTL = idCacheTTL;
+
+      this.idCacheBloomFilter = idCacheBloomFilter;
+
       this.persistIDCache = persistIDCache;
 
+      this.fanOut = new ParallelFanOut(parallelFanOutThreshold);
+
       this.addressSettingsRepository = addressSettingsRepository;
 
       this.server = server;
@@ -192,6 +208,8 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       // Injecting the postoffice (itself) on queueFactory for paging-control
       queueFactory.setPostOffice(this);
 
+      fanOut.start();
+
       // The flag started needs to be set before starting the Reaper Thread
       // This is to avoid thread leakages where the Reaper would run beyond the life cycle of the
       // PostOffice
@@ -216,6 +234,8 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       addressManager.clear();
 
       queueInfos.clear();
+
+      fanOut.stop();
    }
 
    @Override
@@ -351,7 +371,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
                      // We have a local queue
                      Queue queue = (Queue) binding.getBindable();
 
-                     AddressSettings addressSettings = addressSettingsRepository.getMatch(binding.getAddress().toString());
+                     AddressSettings addressSettings = addressSettingsRepository.getMatch(binding.getAddress());
 
                      long redistributionDelay = addressSettings.getRedistributionDelay();
 
@@ -414,7 +434,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
                      Queue queue = (Queue) binding.getBindable();
 
-                     AddressSettings addressSettings = addressSettingsRepository.getMatch(binding.getAddress().toString());
+                     AddressSettings addressSettings = addressSettingsRepository.getMatch(binding.getAddress());
 
                      long redistributionDelay = addressSettings.getRedistributionDelay();
 
@@ -678,7 +698,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       if (context.getQueueCount() == 0) {
          // Send to DLA if appropriate
 
-         AddressSettings addressSettings = addressSettingsRepository.getMatch(address.toString());
+         AddressSettings addressSettings = addressSettingsRepository.getMatch(address);
 
          boolean sendToDLA = addressSettings.isSendToDLAOnNoRoute();
 
@@ -717,8 +737,9 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
          }
       }
       else {
+         ServerMessage routedMessage = spillBody(message, context);
          try {
-            processRoute(message, context, direct);
+            processRoute(routedMessage, context, direct);
          }
          catch (ActiveMQAddressFullException e) {
             if (startedTX.get()) {
@@ -727,6 +748,11 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
             else if (context.getTransaction() != null) {
                context.getTransaction().markAsRollbackOnly(e);
             }
+            discardSpilledBody(message, routedMessage);
+            throw e;
+         }
+         catch (Exception e) {
+            discardSpilledBody(message, routedMessage);
             throw e;
          }
       }
@@ -739,7 +765,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
    // HORNETQ-1029
    private void applyExpiryDelay(ServerMessage message, SimpleString address) {
-      long expirationOverride = addressSettingsRepository.getMatch(address.toString()).getExpiryDelay();
+      long expirationOverride = addressSettingsRepository.getMatch(address).getExpiryDelay();
 
       // A -1 <expiry-delay> means don't do anything
       if (expirationOverride >= 0) {
@@ -813,7 +839,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       DuplicateIDCache cache = duplicateIDCaches.get(address);
 
       if (cache == null) {
-         cache = new DuplicateIDCacheImpl(address, idCacheSize, storageManager, persistIDCache);
+         cache = new StripedDuplicateIDCache(address, idCacheSize, storageManager, persistIDCache, idCacheTTL, idCacheBloomFilter);
 
          DuplicateIDCache oldCache = duplicateIDCaches.putIfAbsent(address, cache);
 
@@ -1092,7 +1118,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       }
 
       if (tx != null) {
-         tx.addOperation(new AddOperation(refs));
+         tx.addOperation(new AddOperation(refs, fanOut));
       }
       else {
          // This will use the same thread if there are no pending operations
@@ -1111,6 +1137,80 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
       }
    }
 
+   /**
+    * If any of the addresses the message is going to is full under {@link org.apache.activemq.artemis.core.settings.impl.AddressFullMessagePolicy#SPILL},
+    * the body is moved into a large message file and only the headers and properties will be kept in memory
+    * with the references. The large message will use the same messageID.
+    */
+   private ServerMessage spillBody(final ServerMessage message, final RoutingContext context) throws Exception {
+      if (message.isLargeMessage()) {
+         return message;
+      }
+
+      boolean spill = false;
+
+      for (SimpleString address : context.getContexListing().keySet()) {
+         if (pagingManager.getPageStore(address).isSpilling()) {
+            spill = true;
+            break;
+         }
+      }
+
+      if (!spill) {
+         return message;
+      }
+
+      LargeServerMessage largeMessage = storageManager.createLargeMessage(message.getMessageID(), message);
+
+      try {
+         ActiveMQBuffer body = message.getBodyBufferDuplicate();
+         body.readerIndex(MessageImpl.BODY_OFFSET);
+         byte[] bytes = new byte[message.getEndOfBodyPosition() - MessageImpl.BODY_OFFSET];
+         body.readBytes(bytes);
+         largeMessage.addBytes(bytes);
+         largeMessage.releaseResources();
+         largeMessage.putLongProperty(Message.HDR_LARGE_BODY_SIZE, bytes.length);
+      }
+      catch (Exception e) {
+         largeMessage.deleteFile();
+         throw e;
+      }
+
+      setPagingStore(largeMessage);
+
+      if (logger.isTraceEnabled()) {
+         logger.trace("Spilled body of " + message + " into " + largeMessage);
+      }
+
+      return largeMessage;
+   }
+
+   /**
+    * Undoes {@link #spillBody(ServerMessage, RoutingContext)} for a message that failed to be routed. The file is kept
+    * while references of a transaction not rolled back yet hold it, the rollback deletes it then.
+    */
+   private void discardSpilledBody(final ServerMessage message, final ServerMessage routedMessage) {
+      if (routedMessage == message) {
+         return;
+      }
+
+      LargeServerMessage largeMessage = (LargeServerMessage) routedMessage;
+
+      try {
+         if (largeMessage.getPendingRecordID() >= 0) {
+            storageManager.confirmPendingLargeMessage(largeMessage.getPendingRecordID());
+            largeMessage.setPendingRecordID(-1);
+         }
+
+         if (largeMessage.getRefCount() == 0) {
+            largeMessage.deleteFile();
+         }
+      }
+      catch (Exception e) {
+         ActiveMQServerLogger.LOGGER.warn(e.getMessage(), e);
+      }
+   }
+
    /**
     * @param tx
     * @param message
@@ -1249,9 +1349,7 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
     * @param refs
     */
    private void addReferences(final List<MessageReference> refs, final boolean direct) {
-      for (MessageReference ref : refs) {
-         ref.getQueue().addTail(ref, direct);
-      }
+      fanOut.addReferences(refs, direct, false);
    }
 
    /**
@@ -1337,12 +1435,23 @@ public class PostOfficeImpl implements PostOffice, NotificationListener, Binding
 
       private final List<MessageReference> refs;
 
+      private final ParallelFanOut fanOut;
+
       AddOperation(final List<MessageReference> refs) {
+         this(refs, null);
+      }
+
+      AddOperation(final List<MessageReference> refs, final ParallelFanOut fanOut) {
          this.refs = refs;
+         this.fanOut = fanOut;
       }
 
       @Override
       public void afterCommit(final Transaction tx) {
+         if (fanOut != null) {
+            fanOut.addReferences(refs, false, true);
+            return;
+         }
          for (MessageReference ref : refs) {
             if (!ref.isAlreadyAcked()) {
                ref.getQueue().addTail(ref, false);
@@ -0,0 +1,497 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.postoffice.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.activemq.artemis.api.core.ActiveMQDuplicateIdException;
+import org.apache.activemq.artemis.api.core.Pair;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
+import org.apache.activemq.artemis.core.postoffice.impl.DuplicateIDCacheImpl.ByteArrayHolder;
+import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.core.transaction.Transaction;
+import org.apache.activemq.artemis.core.transaction.TransactionOperationAbstract;
+import org.jboss.logging.Logger;
+
+/**
+ * A duplicate ID cache split in stripes by the hash of the ID.
+ * <p>
+ * Each stripe has its own lock and keeps its share of the last X duplicate ids in the order they were added,
+ * so concurrent senders to the same address only contend when their ids fall on the same stripe.
+ * Looking up an id doesn't take any lock.
+ * <p>
+ * When a TTL is set, an id older than the last X ids is only removed once it's also older than the TTL,
+ * so a burst of messages can't push out the ids that may still be resent.
+ * <p>
+ * When the filter is enabled, each stripe keeps a {@link CountingBloomFilter} of its ids, so most new ids are
+ * rejected by a few reads of the filter instead of probing the map.
+ * <p>
+ * The ids are stored with the same records as {@link DuplicateIDCacheImpl}.
+ */
+public class StripedDuplicateIDCache implements DuplicateIDCache {
+
+   private static final Logger logger = Logger.getLogger(StripedDuplicateIDCache.class);
+
+   /**
+    * A cache is only split when each stripe has at least this number of ids,
+    * smaller caches keep the exact order of a single stripe.
+    */
+   static final int MIN_STRIPE_SIZE = 1024;
+
+   static final int MAX_STRIPES = 16;
+
+   private final SimpleString address;
+
+   private final StorageManager storageManager;
+
+   private final boolean persist;
+
+   private final long ttl;
+
+   private final Stripe[] stripes;
+
+   private final int shift;
+
+   public StripedDuplicateIDCache(final SimpleString address,
+                                  final int size,
+                                  final StorageManager storageManager,
+                                  final boolean persist) {
+      this(address, size, storageManager, persist, -1, false);
+   }
+
+   /**
+    * @param ttl    the minimum time in milliseconds an id is kept in the cache, -1 to only bound the cache by its size
+    * @param filter true to check a Bloom filter before looking up an id
+    */
+   public StripedDuplicateIDCache(final SimpleString address,
+                                  final int size,
+                                  final StorageManager storageManager,
+                                  final boolean persist,
+                                  final long ttl,
+                                  final boolean filter) {
+      this.address = address;
+
+      this.storageManager = storageManager;
+
+      this.persist = persist;
+
+      this.ttl = ttl;
+
+      int numberOfStripes = stripes(size);
+
+      shift = 32 - Integer.numberOfTrailingZeros(numberOfStripes);
+
+      stripes = new Stripe[numberOfStripes];
+
+      for (int i = 0; i < numberOfStripes; i++) {
+         // the first stripes take the remainder, so the capacity of the cache is still the size
+         stripes[i] = new Stripe(size / numberOfStripes + (i < size % numberOfStripes ? 1 : 0), filter);
+      }
+   }
+
+   static int stripes(final int size) {
+      int stripes = 1;
+      while (stripes < MAX_STRIPES && size / (stripes * 2) >= MIN_STRIPE_SIZE) {
+         stripes *= 2;
+      }
+      return stripes;
+   }
+
+   private Stripe stripe(final ByteArrayHolder holder) {
+      return stripes[index(holder)];
+   }
+
+   private int index(final ByteArrayHolder holder) {
+      if (stripes.length == 1) {
+         return 0;
+      }
+      // the stripe is taken from the high bits of the mixed hash, the low bits are used by the map of the stripe
+      return (holder.hashCode() * 0x9E3779B9) >>> shift;
+   }
+
+   @Override
+   public boolean contains(final byte[] duplID) {
+      ByteArrayHolder holder = new ByteArrayHolder(duplID);
+
+      boolean contains = stripe(holder).contains(holder);
+
+      if (contains && logger.isTraceEnabled()) {
+         logger.trace("StripedDuplicateIDCache(" + this.address + ")::contains found a duplicate " + DuplicateIDCacheImpl.describeID(duplID, 0));
+      }
+      return contains;
+   }
+
+   @Override
+   public boolean atomicVerify(final byte[] duplID, final Transaction tx) throws Exception {
+      ByteArrayHolder holder = new ByteArrayHolder(duplID);
+
+      Stripe stripe = stripe(holder);
+
+      synchronized (stripe) {
+         if (stripe.contains(holder)) {
+            if (tx != null) {
+               tx.markAsRollbackOnly(new ActiveMQDuplicateIdException());
+            }
+            return false;
+         }
+         else {
+            addToCache(stripe, holder, tx, true);
+            return true;
+         }
+      }
+   }
+
+   @Override
+   public void addToCache(final byte[] duplID) throws Exception {
+      addToCache(duplID, null, false);
+   }
+
+   @Override
+   public void addToCache(final byte[] duplID, final Transaction tx) throws Exception {
+      addToCache(duplID, tx, false);
+   }
+
+   @Override
+   public void addToCache(final byte[] duplID, final Transaction tx, final boolean instantAdd) throws Exception {
+      ByteArrayHolder holder = new ByteArrayHolder(duplID);
+
+      Stripe stripe = stripe(holder);
+
+      synchronized (stripe) {
+         addToCache(stripe, holder, tx, instantAdd);
+      }
+   }
+
+   private void addToCache(final Stripe stripe,
+                           final ByteArrayHolder holder,
+                           final Transaction tx,
+                           final boolean instantAdd) throws Exception {
+      long recordID = -1;
+
+      if (tx == null) {
+         if (persist) {
+            recordID = storageManager.generateID();
+            storageManager.storeDuplicateID(address, holder.bytes, recordID);
+         }
+
+         stripe.add(holder, recordID);
+      }
+      else {
+         if (persist) {
+            recordID = storageManager.generateID();
+            storageManager.storeDuplicateIDTransactional(tx.getID(), address, holder.bytes, recordID);
+
+            tx.setContainsPersistent();
+         }
+
+         if (instantAdd) {
+            stripe.add(holder, recordID);
+         }
+         else {
+            if (logger.isTraceEnabled()) {
+               logger.trace("StripedDuplicateIDCache(" + this.address + ")::addToCache Adding duplicateID TX operation for " + DuplicateIDCacheImpl.describeID(holder.bytes, recordID) + ", tx=" + tx);
+            }
+            // For a tx, it's important that the entry is not added to the cache until commit
+            // since if the client fails then resends them tx we don't want it to get rejected
+            tx.afterStore(new AddDuplicateIDOperation(holder.bytes, recordID));
+         }
+      }
+   }
+
+   @Override
+   public void deleteFromCache(final byte[] duplicateID) throws Exception {
+      if (logger.isTraceEnabled()) {
+         logger.trace("StripedDuplicateIDCache(" + this.address + ")::deleteFromCache deleting id=" + DuplicateIDCacheImpl.describeID(duplicateID, 0));
+      }
+
+      ByteArrayHolder holder = new ByteArrayHolder(duplicateID);
+
+      Stripe stripe = stripe(holder);
+
+      synchronized (stripe) {
+         Entry entry = stripe.cache.remove(holder);
+
+         if (entry != null) {
+            stripe.removeFromFilter(holder);
+
+            // the entry keeps its place until it's evicted, as the ring of DuplicateIDCacheImpl does
+            entry.deleted = true;
+
+            if (entry.recordID != null) {
+               storageManager.deleteDuplicateID(entry.recordID);
+               entry.recordID = null;
+            }
+         }
+      }
+   }
+
+   @Override
+   public void load(final List<Pair<byte[], Long>> theIds) throws Exception {
+      List<List<Pair<byte[], Long>>> idsPerStripe = new ArrayList<>(stripes.length);
+
+      for (int i = 0; i < stripes.length; i++) {
+         idsPerStripe.add(new ArrayList<Pair<byte[], Long>>());
+      }
+
+      for (Pair<byte[], Long> id : theIds) {
+         idsPerStripe.get(index(new ByteArrayHolder(id.getA()))).add(id);
+      }
+
+      long txID = -1;
+
+      for (int i = 0; i < stripes.length; i++) {
+         List<Pair<byte[], Long>> ids = idsPerStripe.get(i);
+
+         // If we have more IDs than the stripe can take, we shrink the first ones.
+         // With a TTL they're all kept, as the time they were added is not known
+         int deleteCount = ttl > 0 ? 0 : ids.size() - stripes[i].capacity;
+
+         synchronized (stripes[i]) {
+            for (Pair<byte[], Long> id : ids) {
+               if (deleteCount > 0) {
+                  if (txID == -1) {
+                     txID = storageManager.generateID();
+                  }
+                  if (logger.isTraceEnabled()) {
+                     logger.trace("StripedDuplicateIDCache::load deleting id=" + DuplicateIDCacheImpl.describeID(id.getA(), id.getB()));
+                  }
+
+                  storageManager.deleteDuplicateIDTransactional(txID, id.getB());
+                  deleteCount--;
+               }
+               else {
+                  if (logger.isTraceEnabled()) {
+                     logger.trace("StripedDuplicateIDCache::load loading id=" + DuplicateIDCacheImpl.describeID(id.getA(), id.getB()));
+                  }
+
+                  stripes[i].add(new ByteArrayHolder(id.getA()), id.getB() == null ? -1 : id.getB());
+               }
+            }
+         }
+      }
+
+      if (txID != -1) {
+         storageManager.commit(txID);
+      }
+   }
+
+   @Override
+   public void load(final Transaction tx, final byte[] duplID) {
+      tx.addOperation(new AddDuplicateIDOperation(duplID, tx.getID()));
+   }
+
+   @Override
+   public void clear() throws Exception {
+      logger.debug("StripedDuplicateIDCache(" + this.address + ")::clear removing duplicate ID data");
+
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            long tx = -1;
+
+            for (Entry entry : stripe.entries) {
+               if (entry.recordID != null) {
+                  if (tx == -1) {
+                     tx = storageManager.generateID();
+                  }
+                  storageManager.deleteDuplicateIDTransactional(tx, entry.recordID);
+               }
+            }
+
+            if (tx != -1) {
+               storageManager.commit(tx);
+            }
+
+            stripe.entries.clear();
+            stripe.cache.clear();
+
+            if (stripe.filter != null) {
+               stripe.filter.clear();
+            }
+         }
+      }
+   }
+
+   @Override
+   public List<Pair<byte[], Long>> getMap() {
+      List<Pair<byte[], Long>> list = new ArrayList<>();
+      for (Stripe stripe : stripes) {
+         synchronized (stripe) {
+            for (Entry entry : stripe.entries) {
+               if (!entry.deleted) {
+                  list.add(new Pair<>(entry.holder.bytes, entry.recordID));
+               }
+            }
+         }
+      }
+      return list;
+   }
+
+   /**
+    * The ids of a stripe, oldest first. Anything but the lookups happens while holding the stripe's monitor.
+    */
+   private final class Stripe {
+
+      private final int capacity;
+
+      private final ConcurrentHashMap<ByteArrayHolder, Entry> cache;
+
+      private final ArrayDeque<Entry> entries;
+
+      // a superset of the keys of the cache: an id is added to the filter before the cache, and removed after
+      private final CountingBloomFilter filter;
+
+      private Stripe(final int capacity, final boolean filter) {
+         this.capacity = Math.max(1, capacity);
+         this.cache = new ConcurrentHashMap<>(this.capacity);
+         this.entries = new ArrayDeque<>(this.capacity);
+         this.filter = filter ? new CountingBloomFilter(this.capacity) : null;
+      }
+
+      private boolean contains(final ByteArrayHolder holder) {
+         if (filter != null && !filter.mightContain(holder.hashCode())) {
+            return false;
+         }
+         return cache.containsKey(holder);
+      }
+
+      private void removeFromFilter(final ByteArrayHolder holder) {
+         if (filter != null) {
+            filter.remove(holder.hashCode());
+         }
+      }
+
+      private void add(final ByteArrayHolder holder, final long recordID) {
+         if (logger.isTraceEnabled()) {
+            logger.trace("StripedDuplicateIDCache(" + address + ")::add Adding " + DuplicateIDCacheImpl.describeID(holder.bytes, recordID));
+         }
+
+         long now = ttl > 0 ? System.currentTimeMillis() : 0;
+
+         // The recordID could be negative if the duplicateCache is configured to not persist,
+         // -1 would mean null on this case
+         Entry entry = new Entry(holder, recordID >= 0 ? recordID : null, now);
+
+         if (filter != null && !cache.containsKey(holder)) {
+            filter.add(holder.hashCode());
+         }
+
+         cache.put(holder, entry);
+
+         entries.addLast(entry);
+
+         while (entries.size() > capacity) {
+            Entry oldest = entries.peekFirst();
+
+            if (ttl > 0 && now - oldest.timestamp < ttl) {
+               break;
+            }
+
+            entries.pollFirst();
+
+            evict(oldest);
+         }
+      }
+
+      private void evict(final Entry entry) {
+         if (entry.deleted) {
+            return;
+         }
+
+         if (logger.isTraceEnabled()) {
+            logger.trace("StripedDuplicateIDCache(" + address + ")::evict removing excess duplicateDetection " + DuplicateIDCacheImpl.describeID(entry.holder.bytes, entry.recordID == null ? 0 : entry.recordID));
+         }
+
+         // the same id could have been added again since
+         if (cache.remove(entry.holder, entry)) {
+            removeFromFilter(entry.holder);
+         }
+
+         // Record already exists - we delete the old one
+         // Note we can't use update since journal update doesn't let older records get
+         // reclaimed
+         if (entry.recordID != null) {
+            try {
+               storageManager.deleteDuplicateID(entry.recordID);
+            }
+            catch (Exception e) {
+               ActiveMQServerLogger.LOGGER.errorDeletingDuplicateCache(e);
+            }
+         }
+      }
+   }
+
+   private static final class Entry {
+
+      private final ByteArrayHolder holder;
+
+      private final long timestamp;
+
+      private Long recordID;
+
+      private boolean deleted;
+
+      private Entry(final ByteArrayHolder holder, final Long recordID, final long timestamp) {
+         this.holder = holder;
+         this.recordID = recordID;
+         this.timestamp = timestamp;
+      }
+   }
+
+   private final class AddDuplicateIDOperation extends TransactionOperationAbstract {
+
+      final byte[] duplID;
+
+      final long recordID;
+
+      volatile boolean done;
+
+      AddDuplicateIDOperation(final byte[] duplID, final long recordID) {
+         this.duplID = duplID;
+         this.recordID = recordID;
+      }
+
+      private void process() {
+         if (!done) {
+            ByteArrayHolder holder = new ByteArrayHolder(duplID);
+
+            Stripe stripe = stripe(holder);
+
+            synchronized (stripe) {
+               stripe.add(holder, recordID);
+            }
+
+            done = true;
+         }
+      }
+
+      @Override
+      public void afterCommit(final Transaction tx) {
+         process();
+      }
+
+      @Override
+      public List<MessageReference> getRelatedMessageReferences() {
+         return null;
+      }
+   }
+}
@@ -16,13 +16,12 @@
  */
 package org.apache.activemq.artemis.core.postoffice.impl;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
-import org.apache.activemq.artemis.core.postoffice.Address;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.Bindings;
 import org.apache.activemq.artemis.core.postoffice.BindingsFactory;
@@ -30,6 +29,9 @@ import org.apache.activemq.artemis.core.transaction.Transaction;
 
 /**
  * extends the simple manager to allow wildcard addresses to be used.
+ * <p>
+ * The concrete addresses and the wildcard addresses are kept on two {@link AddressTrie}s, so finding the addresses
+ * linked to a new address only walks the words of the address instead of matching it against every other address.
  */
 public class WildcardAddressManager extends SimpleAddressManager {
 
@@ -44,12 +46,16 @@ public class WildcardAddressManager extends SimpleAddressManager {
    static final SimpleString ANY_WORDS_SIMPLESTRING = new SimpleString("#");
 
    /**
-    * These are all the addresses, we use this so we can link back from the actual address to its linked wilcard addresses
-    * or vice versa
+    * These are all the concrete addresses with a mapping, we use this so we can link a wildcard address to its
+    * matching addresses
     */
-   private final Map<SimpleString, Address> addresses = new ConcurrentHashMap<SimpleString, Address>();
+   private final AddressTrie addresses = new AddressTrie();
 
-   private final Map<SimpleString, Address> wildCardAddresses = new ConcurrentHashMap<SimpleString, Address>();
+   /**
+    * These are all the wildcard addresses with a binding, we use this so we can link an address to its matching
+    * wildcard addresses
+    */
+   private final AddressTrie wildCardAddresses = new AddressTrie();
 
    public WildcardAddressManager(final BindingsFactory bindingsFactory) {
       super(bindingsFactory);
@@ -60,20 +66,8 @@ public class WildcardAddressManager extends SimpleAddressManager {
       Bindings bindings = super.getBindingsForRoutingAddress(address);
 
       // this should only happen if we're routing to an address that has no mappings when we're running checkAllowable
-      if (bindings == null && !wildCardAddresses.isEmpty()) {
-         Address add = addAndUpdateAddressMap(address);
-         if (!add.containsWildCard()) {
-            for (Address destAdd : add.getLinkedAddresses()) {
-               Bindings b = super.getBindingsForRoutingAddress(destAdd.getAddress());
-               if (b != null) {
-                  Collection<Binding> theBindings = b.getBindings();
-                  for (Binding theBinding : theBindings) {
-                     super.addMappingInternal(address, theBinding);
-                  }
-               }
-            }
-         }
-         bindings = super.getBindingsForRoutingAddress(address);
+      if (bindings == null) {
+         bindings = addRoutingAddress(address);
       }
       return bindings;
    }
@@ -86,22 +80,18 @@ public class WildcardAddressManager extends SimpleAddressManager {
     * @return true if the address was a new mapping
     */
    @Override
-   public boolean addBinding(final Binding binding) throws Exception {
+   public synchronized boolean addBinding(final Binding binding) throws Exception {
       boolean exists = super.addBinding(binding);
       if (!exists) {
-         Address add = addAndUpdateAddressMap(binding.getAddress());
-         if (add.containsWildCard()) {
-            for (Address destAdd : add.getLinkedAddresses()) {
-               super.addMappingInternal(destAdd.getAddress(), binding);
+         SimpleString address = binding.getAddress();
+         if (isWildCard(address)) {
+            wildCardAddresses.add(address);
+            for (SimpleString destAdd : matchAddresses(address)) {
+               super.addMappingInternal(destAdd, binding);
             }
          }
-         else {
-            for (Address destAdd : add.getLinkedAddresses()) {
-               Bindings bindings = super.getBindingsForRoutingAddress(destAdd.getAddress());
-               for (Binding b : bindings.getBindings()) {
-                  super.addMappingInternal(binding.getAddress(), b);
-               }
-            }
+         else if (addresses.add(address)) {
+            linkWildCards(address);
          }
       }
       return exists;
@@ -115,103 +105,77 @@ public class WildcardAddressManager extends SimpleAddressManager {
     * @return true if this was the last mapping for a specific address
     */
    @Override
-   public Binding removeBinding(final SimpleString uniqueName, Transaction tx) throws Exception {
+   public synchronized Binding removeBinding(final SimpleString uniqueName, Transaction tx) throws Exception {
       Binding binding = super.removeBinding(uniqueName, tx);
       if (binding != null) {
-         Address add = getAddress(binding.getAddress());
-         if (add.containsWildCard()) {
-            for (Address theAddress : add.getLinkedAddresses()) {
-               super.removeBindingInternal(theAddress.getAddress(), uniqueName);
+         SimpleString address = binding.getAddress();
+         if (isWildCard(address)) {
+            for (SimpleString destAdd : matchAddresses(address)) {
+               super.removeBindingInternal(destAdd, uniqueName);
+               removeIfUnbound(addresses, destAdd);
             }
+            removeIfUnbound(wildCardAddresses, address);
+         }
+         else {
+            removeIfUnbound(addresses, address);
          }
-         removeAndUpdateAddressMap(add);
       }
       return binding;
    }
 
    @Override
-   public void clear() {
+   public synchronized void clear() {
       super.clear();
       addresses.clear();
       wildCardAddresses.clear();
    }
 
-   private Address getAddress(final SimpleString address) {
-      Address add = new AddressImpl(address);
-      Address actualAddress;
-      if (add.containsWildCard()) {
-         actualAddress = wildCardAddresses.get(address);
-      }
-      else {
-         actualAddress = addresses.get(address);
-      }
-      return actualAddress != null ? actualAddress : add;
-   }
+   private synchronized Bindings addRoutingAddress(final SimpleString address) throws Exception {
+      Bindings bindings = super.getBindingsForRoutingAddress(address);
 
-   private synchronized Address addAndUpdateAddressMap(final SimpleString address) {
-      Address add = new AddressImpl(address);
-      Address actualAddress;
-      if (add.containsWildCard()) {
-         actualAddress = wildCardAddresses.get(address);
-      }
-      else {
-         actualAddress = addresses.get(address);
-      }
-      if (actualAddress == null) {
-         actualAddress = add;
-         addAddress(address, actualAddress);
-      }
-      if (actualAddress.containsWildCard()) {
-         for (Address destAdd : addresses.values()) {
-            if (destAdd.matches(actualAddress)) {
-               destAdd.addLinkedAddress(actualAddress);
-               actualAddress.addLinkedAddress(destAdd);
-            }
+      if (bindings == null && !wildCardAddresses.isEmpty() && !isWildCard(address)) {
+         if (linkWildCards(address)) {
+            addresses.add(address);
          }
+         bindings = super.getBindingsForRoutingAddress(address);
       }
-      else {
-         for (Address destAdd : wildCardAddresses.values()) {
-            if (actualAddress.matches(destAdd)) {
-               destAdd.addLinkedAddress(actualAddress);
-               actualAddress.addLinkedAddress(destAdd);
+      return bindings;
+   }
 
+   /**
+    * Copies the bindings of every wildcard address matching the address into its mappings.
+    *
+    * @return true if any wildcard address matched
+    */
+   private boolean linkWildCards(final SimpleString address) throws Exception {
+      Set<SimpleString> matches = new HashSet<SimpleString>();
+      wildCardAddresses.matchWildcards(address, matches);
+      for (SimpleString wildCard : matches) {
+         Bindings bindings = super.getBindingsForRoutingAddress(wildCard);
+         if (bindings != null) {
+            for (Binding binding : bindings.getBindings()) {
+               super.addMappingInternal(address, binding);
             }
          }
       }
-      return actualAddress;
+      return !matches.isEmpty();
    }
 
-   private void addAddress(final SimpleString address, final Address actualAddress) {
-      if (actualAddress.containsWildCard()) {
-         wildCardAddresses.put(address, actualAddress);
-      }
-      else {
-         addresses.put(address, actualAddress);
-      }
+   private List<SimpleString> matchAddresses(final SimpleString wildCard) {
+      Set<SimpleString> matches = new HashSet<SimpleString>();
+      addresses.matchAddresses(wildCard, matches);
+      return new ArrayList<SimpleString>(matches);
    }
 
-   private synchronized void removeAndUpdateAddressMap(final Address address) throws Exception {
+   private void removeIfUnbound(final AddressTrie trie, final SimpleString address) throws Exception {
       // we only remove if there are no bindings left
-      Bindings bindings = super.getBindingsForRoutingAddress(address.getAddress());
+      Bindings bindings = super.getBindingsForRoutingAddress(address);
       if (bindings == null || bindings.getBindings().size() == 0) {
-         List<Address> addresses = address.getLinkedAddresses();
-         for (Address address1 : addresses) {
-            address1.removeLinkedAddress(address);
-            Bindings linkedBindings = super.getBindingsForRoutingAddress(address1.getAddress());
-            if (linkedBindings == null || linkedBindings.getBindings().size() == 0) {
-               removeAddress(address1);
-            }
-         }
-         removeAddress(address);
+         trie.remove(address);
       }
    }
 
-   private void removeAddress(final Address add) {
-      if (add.containsWildCard()) {
-         wildCardAddresses.remove(add.getAddress());
-      }
-      else {
-         addresses.remove(add.getAddress());
-      }
+   private static boolean isWildCard(final SimpleString address) {
+      return address.contains(SINGLE_WORD) || address.contains(ANY_WORDS);
    }
 }
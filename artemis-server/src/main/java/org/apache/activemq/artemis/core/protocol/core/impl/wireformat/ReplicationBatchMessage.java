@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.protocol.core.impl.wireformat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketDecoder;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.utils.DataConstants;
+
+/**
+ * Several replicated journal operations sent in one packet, and answered with a single response.
+ * <p>
+ * Every packet of the batch is encoded as it would be on its own, without its length. The live server encodes them
+ * into the batch's buffer as they are replicated, so it doesn't hold on to their records until the batch is sent.
+ */
+public final class ReplicationBatchMessage extends PacketImpl {
+
+   private static final int BATCH_HEADERS_SIZE = PACKET_HEADERS_SIZE + DataConstants.SIZE_INT;
+
+   private final PacketDecoder decoder;
+
+   private int count;
+
+   private ActiveMQBuffer buffer;
+
+   private List<Packet> packets;
+
+   public ReplicationBatchMessage(final int count, final ActiveMQBuffer buffer) {
+      super(REPLICATION_BATCH);
+      this.decoder = null;
+      this.count = count;
+      this.buffer = buffer;
+   }
+
+   public ReplicationBatchMessage(final PacketDecoder decoder) {
+      super(REPLICATION_BATCH);
+      this.decoder = decoder;
+   }
+
+   /**
+    * @return the buffer of a new batch, its headers are written when it is sent
+    */
+   public static ActiveMQBuffer createBuffer(final RemotingConnection connection) {
+      ActiveMQBuffer buffer = connection.createTransportBuffer(BATCH_HEADERS_SIZE + 1024);
+      buffer.writerIndex(BATCH_HEADERS_SIZE);
+      return buffer;
+   }
+
+   public static void encodePacket(final ActiveMQBuffer buffer, final PacketImpl packet, final long channelID) {
+      buffer.writeByte(packet.getType());
+      buffer.writeLong(channelID);
+      packet.encodeRest(buffer);
+   }
+
+   // Public --------------------------------------------------------
+
+   public int getCount() {
+      return count;
+   }
+
+   public List<Packet> getPackets() {
+      return packets;
+   }
+
+   @Override
+   public ActiveMQBuffer encode(final RemotingConnection connection) {
+      buffer.setInt(0, buffer.writerIndex() - DataConstants.SIZE_INT);
+      buffer.setByte(DataConstants.SIZE_INT, getType());
+      buffer.setLong(DataConstants.SIZE_INT + DataConstants.SIZE_BYTE, channelID);
+      buffer.setInt(PACKET_HEADERS_SIZE, count);
+
+      size = buffer.writerIndex();
+
+      return buffer;
+   }
+
+   @Override
+   public void decodeRest(final ActiveMQBuffer buffer) {
+      count = buffer.readInt();
+      packets = new ArrayList<Packet>(count);
+      for (int i = 0; i < count; i++) {
+         packets.add(decoder.decode(buffer));
+      }
+   }
+
+   @Override
+   public String toString() {
+      return getParentString() + ", count=" + count + "]";
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = super.hashCode();
+      result = prime * result + count;
+      return result;
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (!super.equals(obj))
+         return false;
+      if (!(obj instanceof ReplicationBatchMessage))
+         return false;
+      ReplicationBatchMessage other = (ReplicationBatchMessage) obj;
+      if (count != other.count)
+         return false;
+      return true;
+   }
+}
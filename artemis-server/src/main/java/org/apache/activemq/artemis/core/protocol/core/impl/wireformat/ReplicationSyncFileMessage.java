@@ -25,6 +25,7 @@ import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.persistence.impl.journal.JournalStorageManager.JournalContent;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 
 /**
  * Message is used to sync {@link org.apache.activemq.artemis.core.journal.SequentialFile}s to a backup server. The {@link FileType} controls
@@ -88,6 +89,16 @@ public final class ReplicationSyncFileMessage extends PacketImpl {
       determineType();
    }
 
+   /**
+    * The {@code size} bytes of data aren't encoded with the packet, the transport writes them from the file right
+    * after it.
+    *
+    * @see org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection#writeFileRegion
+    */
+   public ReplicationSyncFileMessage(JournalContent content, SimpleString storeName, long id, int size) {
+      this(content, storeName, id, size, null);
+   }
+
    private void determineType() {
       if (journalType != null) {
          fileType = FileType.JOURNAL;
@@ -100,6 +111,16 @@ public final class ReplicationSyncFileMessage extends PacketImpl {
       }
    }
 
+   @Override
+   public ActiveMQBuffer encode(final RemotingConnection connection) {
+      ActiveMQBuffer buffer = super.encode(connection);
+      if (byteBuffer == null && dataSize > 0) {
+         // the length of the packet includes the data that follows it
+         buffer.setInt(0, buffer.getInt(0) + dataSize);
+      }
+      return buffer;
+   }
+
    @Override
    public void encodeRest(final ActiveMQBuffer buffer) {
       buffer.writeLong(fileId);
@@ -125,7 +146,7 @@ public final class ReplicationSyncFileMessage extends PacketImpl {
        * sending -1 will close the file in case of a journal, but not in case of a largeMessage
        * (which might receive appends)
        */
-      if (dataSize > 0) {
+      if (dataSize > 0 && byteBuffer != null) {
          buffer.writeBytes(byteBuffer);
       }
    }
@@ -41,6 +41,9 @@ import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
@@ -98,7 +101,10 @@ public class NettyAcceptor implements Acceptor {
    private final ClusterConnection clusterConnection;
 
    private Class<? extends ServerChannel> channelClazz;
-   private EventLoopGroup eventLoopGroup;
+   /**
+    * One group, or one per listening socket when the acceptor listens on several sockets with SO_REUSEPORT.
+    */
+   private volatile EventLoopGroup[] eventLoopGroups;
 
    private volatile ChannelGroup serverChannelGroup;
 
@@ -114,6 +120,10 @@ public class NettyAcceptor implements Acceptor {
 
    private final boolean useInvm;
 
+   private final boolean useEpoll;
+
+   private final int reusePortListeners;
+
    private final ProtocolHandler protocolHandler;
 
    private final String host;
@@ -166,6 +176,8 @@ public class NettyAcceptor implements Acceptor {
 
    private final boolean directDeliver;
 
+   private final boolean deliveryAffinity;
+
    private final boolean httpUpgradeEnabled;
 
    private final long connectionsAllowed;
@@ -192,6 +204,8 @@ public class NettyAcceptor implements Acceptor {
       nioRemotingThreads = ConfigurationHelper.getIntProperty(TransportConstants.NIO_REMOTING_THREADS_PROPNAME, -1, configuration);
       backlog = ConfigurationHelper.getIntProperty(TransportConstants.BACKLOG_PROP_NAME, -1, configuration);
       useInvm = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_INVM_PROP_NAME, TransportConstants.DEFAULT_USE_INVM, configuration);
+      useEpoll = ConfigurationHelper.getBooleanProperty(TransportConstants.USE_EPOLL_PROP_NAME, TransportConstants.DEFAULT_USE_EPOLL, configuration);
+      reusePortListeners = ConfigurationHelper.getIntProperty(TransportConstants.REUSE_PORT_LISTENERS_PROP_NAME, TransportConstants.DEFAULT_REUSE_PORT_LISTENERS, configuration);
 
       this.protocolHandler = new ProtocolHandler(protocolMap, this, configuration, scheduledThreadPool);
 
@@ -240,6 +254,8 @@ public class NettyAcceptor implements Acceptor {
 
       directDeliver = ConfigurationHelper.getBooleanProperty(TransportConstants.DIRECT_DELIVER, TransportConstants.DEFAULT_DIRECT_DELIVER, configuration);
 
+      deliveryAffinity = ConfigurationHelper.getBooleanProperty(TransportConstants.DELIVERY_AFFINITY, TransportConstants.DEFAULT_DELIVERY_AFFINITY, configuration);
+
       httpUpgradeEnabled = ConfigurationHelper.getBooleanProperty(TransportConstants.HTTP_UPGRADE_ENABLED_PROP_NAME, TransportConstants.DEFAULT_HTTP_UPGRADE_ENABLED, configuration);
 
       connectionsAllowed = ConfigurationHelper.getLongProperty(TransportConstants.CONNECTIONS_ALLOWED, TransportConstants.DEFAULT_CONNECTIONS_ALLOWED, configuration);
@@ -251,9 +267,11 @@ public class NettyAcceptor implements Acceptor {
          return;
       }
 
+      boolean reusePort = false;
+
       if (useInvm) {
          channelClazz = LocalServerChannel.class;
-         eventLoopGroup = new LocalEventLoopGroup();
+         eventLoopGroups = new EventLoopGroup[]{new LocalEventLoopGroup()};
       }
       else {
          int threadsToUse;
@@ -266,17 +284,37 @@ public class NettyAcceptor implements Acceptor {
          else {
             threadsToUse = this.nioRemotingThreads;
          }
-         channelClazz = NioServerSocketChannel.class;
-         eventLoopGroup = new NioEventLoopGroup(threadsToUse, AccessController.doPrivileged(new PrivilegedAction<ActiveMQThreadFactory>() {
+         ActiveMQThreadFactory threadFactory = AccessController.doPrivileged(new PrivilegedAction<ActiveMQThreadFactory>() {
             @Override
             public ActiveMQThreadFactory run() {
                return new ActiveMQThreadFactory("activemq-netty-threads", true, ClientSessionFactoryImpl.class.getClassLoader());
             }
-         }));
+         });
+
+         if (useEpoll && EpollSupport.isAvailable()) {
+            channelClazz = EpollServerSocketChannel.class;
+
+            // the kernel spreads the incoming connections over the sockets, and each socket accepts them and handles
+            // their I/O on its own threads
+            int listeners = Math.max(1, Math.min(reusePortListeners, threadsToUse));
+            reusePort = listeners > 1;
+            eventLoopGroups = new EventLoopGroup[listeners];
+            for (int i = 0; i < listeners; i++) {
+               int threads = threadsToUse / listeners + (i < threadsToUse % listeners ? 1 : 0);
+               eventLoopGroups[i] = new EpollEventLoopGroup(threads, threadFactory);
+            }
+         }
+         else {
+            if (reusePortListeners > 1) {
+               ActiveMQServerLogger.LOGGER.reusePortListenersIgnored(name, reusePortListeners);
+            }
+            channelClazz = NioServerSocketChannel.class;
+            eventLoopGroups = new EventLoopGroup[]{new NioEventLoopGroup(threadsToUse, threadFactory)};
+         }
       }
 
+      // the group is set when binding, see startServerChannels()
       bootstrap = new ServerBootstrap();
-      bootstrap.group(eventLoopGroup);
       bootstrap.channel(channelClazz);
       final SSLContext context;
       if (sslEnabled) {
@@ -377,6 +415,9 @@ public class NettyAcceptor implements Acceptor {
          bootstrap.option(ChannelOption.SO_BACKLOG, backlog);
       }
       bootstrap.option(ChannelOption.SO_REUSEADDR, true);
+      if (reusePort) {
+         bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+      }
       bootstrap.childOption(ChannelOption.SO_REUSEADDR, true);
       bootstrap.childOption(ChannelOption.SO_KEEPALIVE, true);
       bootstrap.childOption(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
@@ -423,7 +464,7 @@ public class NettyAcceptor implements Acceptor {
     * @param channel A Netty channel created outside this NettyAcceptor.
     */
    public void transfer(Channel channel) {
-      if (paused || eventLoopGroup == null) {
+      if (paused || eventLoopGroups == null) {
          throw ActiveMQMessageBundle.BUNDLE.acceptorUnavailable();
       }
       channel.pipeline().addLast(protocolHandler.getProtocolDecoder());
@@ -439,8 +480,10 @@ public class NettyAcceptor implements Acceptor {
          else {
             address = new InetSocketAddress(h, port);
          }
-         Channel serverChannel = bootstrap.bind(address).syncUninterruptibly().channel();
-         serverChannelGroup.add(serverChannel);
+         for (EventLoopGroup eventLoopGroup : eventLoopGroups) {
+            Channel serverChannel = bootstrap.clone().group(eventLoopGroup).bind(address).syncUninterruptibly().channel();
+            serverChannelGroup.add(serverChannel);
+         }
       }
    }
 
@@ -489,8 +532,10 @@ public class NettyAcceptor implements Acceptor {
 
       // Shutdown the EventLoopGroup if no new task was added for 100ms or if
       // 3000ms elapsed.
-      eventLoopGroup.shutdownGracefully(100, 3000, TimeUnit.MILLISECONDS);
-      eventLoopGroup = null;
+      for (EventLoopGroup eventLoopGroup : eventLoopGroups) {
+         eventLoopGroup.shutdownGracefully(100, 3000, TimeUnit.MILLISECONDS);
+      }
+      eventLoopGroups = null;
 
       channelClazz = null;
 
@@ -609,7 +654,7 @@ public class NettyAcceptor implements Acceptor {
             super.channelActive(ctx);
             Listener connectionListener = new Listener();
 
-            NettyServerConnection nc = new NettyServerConnection(configuration, ctx.channel(), connectionListener, !httpEnabled && batchDelay > 0, directDeliver);
+            NettyServerConnection nc = new NettyServerConnection(configuration, ctx.channel(), connectionListener, !httpEnabled && batchDelay > 0, directDeliver, deliveryAffinity);
 
             connectionListener.connectionCreated(NettyAcceptor.this, nc, protocol);
 
@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.remoting.impl.netty;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 import io.netty.channel.Channel;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
@@ -25,16 +26,28 @@ import org.apache.activemq.artemis.spi.core.remoting.ConnectionLifeCycleListener
 
 public class NettyServerConnection extends NettyConnection {
 
+   private final boolean deliveryAffinity;
+
    public NettyServerConnection(Map<String, Object> configuration,
                                 Channel channel,
                                 ConnectionLifeCycleListener listener,
                                 boolean batchingEnabled,
-                                boolean directDeliver) {
+                                boolean directDeliver,
+                                boolean deliveryAffinity) {
       super(configuration, channel, listener, batchingEnabled, directDeliver);
+      this.deliveryAffinity = deliveryAffinity;
    }
 
    @Override
    public ActiveMQBuffer createTransportBuffer(int size) {
       return new ChannelBufferWrapper(channel.alloc().directBuffer(size), true);
    }
+
+   /**
+    * @return the event loop of this connection when the acceptor has {@link TransportConstants#DELIVERY_AFFINITY}
+    * set, {@code null} otherwise
+    */
+   public Executor getDeliveryExecutor() {
+      return deliveryAffinity ? channel.eventLoop() : null;
+   }
 }
@@ -57,6 +57,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ActiveMQEx
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.BackupReplicationStartFailedMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationAddMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationAddTXMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationBatchMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationCommitMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationDeleteMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationDeleteTXMessage;
@@ -170,7 +171,10 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
             return;
          }
 
-         if (type == PacketImpl.REPLICATION_APPEND) {
+         if (type == PacketImpl.REPLICATION_BATCH) {
+            response = handleBatch((ReplicationBatchMessage) packet);
+         }
+         else if (type == PacketImpl.REPLICATION_APPEND) {
             handleAppendAddRecord((ReplicationAddMessage) packet);
          }
          else if (type == PacketImpl.REPLICATION_APPEND_TX) {
@@ -230,6 +234,49 @@ public final class ReplicationEndpoint implements ChannelHandler, ActiveMQCompon
       channel.send(response);
    }
 
+   /**
+    * Handles the journal operations of a batch in order. They are answered with a single response, or with the
+    * exception of the last one that failed.
+    */
+   private PacketImpl handleBatch(final ReplicationBatchMessage batch) {
+      PacketImpl response = new ReplicationResponseMessage();
+      for (Packet packet : batch.getPackets()) {
+         final byte type = packet.getType();
+         try {
+            if (type == PacketImpl.REPLICATION_APPEND) {
+               handleAppendAddRecord((ReplicationAddMessage) packet);
+            }
+            else if (type == PacketImpl.REPLICATION_APPEND_TX) {
+               handleAppendAddTXRecord((ReplicationAddTXMessage) packet);
+            }
+            else if (type == PacketImpl.REPLICATION_DELETE) {
+               handleAppendDelete((ReplicationDeleteMessage) packet);
+            }
+            else if (type == PacketImpl.REPLICATION_DELETE_TX) {
+               handleAppendDeleteTX((ReplicationDeleteTXMessage) packet);
+            }
+            else if (type == PacketImpl.REPLICATION_PREPARE) {
+               handlePrepare((ReplicationPrepareMessage) packet);
+            }
+            else if (type == PacketImpl.REPLICATION_COMMIT_ROLLBACK) {
+               handleCommitRollback((ReplicationCommitMessage) packet);
+            }
+            else {
+               ActiveMQServerLogger.LOGGER.invalidPacketForReplication(packet);
+            }
+         }
+         catch (ActiveMQException e) {
+            ActiveMQServerLogger.LOGGER.errorHandlingReplicationPacket(e, packet);
+            response = new ActiveMQExceptionMessage(e);
+         }
+         catch (Exception e) {
+            ActiveMQServerLogger.LOGGER.errorHandlingReplicationPacket(e, packet);
+            response = new ActiveMQExceptionMessage(ActiveMQMessageBundle.BUNDLE.replicationUnhandledError(e));
+         }
+      }
+      return response;
+   }
+
    /**
     * @param packet
     */
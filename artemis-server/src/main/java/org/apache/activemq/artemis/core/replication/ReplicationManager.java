@@ -17,16 +17,22 @@
 package org.apache.activemq.artemis.core.replication;
 
 import java.io.FileInputStream;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.netty.channel.ChannelFuture;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQExceptionType;
@@ -49,6 +55,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.ChannelImpl.CHANNEL_I
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationAddMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationAddTXMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationBatchMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationCommitMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationDeleteMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationDeleteTXMessage;
@@ -63,6 +70,7 @@ import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Replicatio
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationResponseMessageV2;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationStartSyncMessage;
 import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationSyncFileMessage;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
@@ -105,6 +113,34 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
       }
    }
 
+   /**
+    * The size of the chunks of the files synchronized with {@link NettyConnection#writeFileRegion}. They aren't
+    * copied on the live server, so they can be larger than the ones read into a buffer.
+    */
+   private static final int FILE_REGION_CHUNK_SIZE = 1 << 20;
+
+   /**
+    * The transport doesn't count the file regions in the writability of the connection, so at most this many chunks
+    * of a file are queued on it at once.
+    */
+   private static final int MAX_FILE_REGIONS_IN_FLIGHT = 4;
+
+   /**
+    * Setting this system property to {@code false} makes the synchronization read the files into buffers even when
+    * the transport could send them straight from the disk.
+    */
+   public static final String ZERO_COPY_SYNC_PROPERTY = "org.apache.activemq.artemis.replication.zeroCopySync";
+
+   /**
+    * The version of the backups that understand {@link ReplicationBatchMessage}.
+    */
+   private static final int REPLICATION_BATCH_VERSION = 128;
+
+   /**
+    * A batch of journal operations is sent as soon as it reaches this size, without waiting for the flush task.
+    */
+   private static final int MAX_BATCH_SIZE = 100 * 1024;
+
    private final ResponseHandler responseHandler = new ResponseHandler();
 
    private final Channel replicatingChannel;
@@ -119,6 +155,11 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
 
    private final Queue<OperationContext> pendingTokens = new ConcurrentLinkedQueue<OperationContext>();
 
+   /**
+    * The number of pending tokens every response completes, one per packet sent: the size of a batch or 1.
+    */
+   private final Queue<Integer> pendingResponses = new ConcurrentLinkedQueue<Integer>();
+
    private final ExecutorFactory executorFactory;
 
    private SessionFailureListener failureListener;
@@ -131,6 +172,27 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
 
    private final ReusableLatch synchronizationIsFinishedAcknowledgement = new ReusableLatch(0);
 
+   private final boolean batching;
+
+   private final Executor batchExecutor;
+
+   // the journal operations replicated since the last packet was sent, guarded by replicationLock
+   private ActiveMQBuffer batchBuffer;
+
+   private int batchCount;
+
+   private boolean batchFlushScheduled;
+
+   private final Runnable flushBatchTask = new Runnable() {
+      @Override
+      public void run() {
+         synchronized (replicationLock) {
+            batchFlushScheduled = false;
+            flushBatch();
+         }
+      }
+   };
+
    /**
     * @param remotingConnection
     */
@@ -139,6 +201,8 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
       this.replicatingChannel = remotingConnection.getChannel(CHANNEL_ID.REPLICATION.id, -1);
       this.remotingConnection = remotingConnection;
       this.timeout = timeout;
+      this.batching = remotingConnection.getClientVersion() >= REPLICATION_BATCH_VERSION;
+      this.batchExecutor = batching ? executorFactory.getExecutor() : null;
    }
 
    public void appendUpdateRecord(final byte journalID,
@@ -147,13 +211,13 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
                                   final byte recordType,
                                   final EncodingSupport record) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationAddMessage(journalID, operation, id, recordType, record));
+         replicateJournalOperation(new ReplicationAddMessage(journalID, operation, id, recordType, record), true);
       }
    }
 
    public void appendDeleteRecord(final byte journalID, final long id) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationDeleteMessage(journalID, id));
+         replicateJournalOperation(new ReplicationDeleteMessage(journalID, id), true);
       }
    }
 
@@ -164,7 +228,7 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
                                             final byte recordType,
                                             final EncodingSupport record) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationAddTXMessage(journalID, operation, txID, id, recordType, record));
+         replicateJournalOperation(new ReplicationAddTXMessage(journalID, operation, txID, id, recordType, record), true);
       }
    }
 
@@ -173,7 +237,7 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
                                   boolean sync,
                                   final boolean lineUp) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationCommitMessage(journalID, false, txID), lineUp);
+         replicateJournalOperation(new ReplicationCommitMessage(journalID, false, txID), lineUp);
       }
    }
 
@@ -182,13 +246,13 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
                                                final long id,
                                                final EncodingSupport record) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationDeleteTXMessage(journalID, txID, id, record));
+         replicateJournalOperation(new ReplicationDeleteTXMessage(journalID, txID, id, record), true);
       }
    }
 
    public void appendDeleteRecordTransactional(final byte journalID, final long txID, final long id) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationDeleteTXMessage(journalID, txID, id, NullEncoding.instance));
+         replicateJournalOperation(new ReplicationDeleteTXMessage(journalID, txID, id, NullEncoding.instance), true);
       }
    }
 
@@ -196,13 +260,13 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
                                    final long txID,
                                    final EncodingSupport transactionData) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationPrepareMessage(journalID, txID, transactionData));
+         replicateJournalOperation(new ReplicationPrepareMessage(journalID, txID, transactionData), true);
       }
    }
 
    public void appendRollbackRecord(final byte journalID, final long txID) throws Exception {
       if (enabled) {
-         sendReplicatePacket(new ReplicationCommitMessage(journalID, true, txID));
+         replicateJournalOperation(new ReplicationCommitMessage(journalID, true, txID), true);
       }
    }
 
@@ -305,6 +369,12 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
       logger.trace("clearReplicationTokens initiating");
       synchronized (replicationLock) {
          logger.trace("clearReplicationTokens entered the lock");
+         if (batchBuffer != null) {
+            batchBuffer.byteBuf().release();
+            batchBuffer = null;
+            batchCount = 0;
+         }
+         pendingResponses.clear();
          while (!pendingTokens.isEmpty()) {
             OperationContext ctx = pendingTokens.poll();
             logger.trace("Calling ctx.replicationDone()");
@@ -342,6 +412,13 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
    }
 
    private OperationContext sendReplicatePacket(final Packet packet, boolean lineUp) {
+      return sendReplicatePacket(packet, lineUp, null);
+   }
+
+   /**
+    * @param fileRegion the part of a file written as the last bytes of the packet, or {@code null}
+    */
+   private OperationContext sendReplicatePacket(final Packet packet, boolean lineUp, final FileRegionChunk fileRegion) {
       if (!enabled)
          return null;
       boolean runItNow = false;
@@ -352,12 +429,26 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
       }
 
       synchronized (replicationLock) {
+         if (enabled) {
+            // the journal operations replicated before this packet go first
+            flushBatch();
+         }
          if (enabled) {
             pendingTokens.add(repliToken);
+            pendingResponses.add(1);
             if (!flowControl()) {
                return repliToken;
             }
-            replicatingChannel.send(packet);
+            if (fileRegion == null) {
+               replicatingChannel.send(packet);
+            }
+            else {
+               // the packet doesn't go through the channel, only ReplicationManager sends on it and it has no
+               // confirmation window, so nothing but the channel ID is missing
+               packet.setChannelID(replicatingChannel.getID());
+               NettyConnection connection = (NettyConnection) replicatingChannel.getConnection().getTransportConnection();
+               fileRegion.written = connection.writeFileRegion(packet.encode(replicatingChannel.getConnection()), fileRegion.file, fileRegion.position, fileRegion.count);
+            }
          }
          else {
             // Already replicating channel failed, so just play the action now
@@ -374,6 +465,85 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
       return repliToken;
    }
 
+   /**
+    * Replicates a journal operation in the batch that is sent by the next run of the flush task, which is scheduled
+    * by the first operation of the batch. The operations replicated while the previous packets are being sent are
+    * coalesced into a single packet, with a single response from the backup.
+    */
+   private void replicateJournalOperation(final PacketImpl packet, final boolean lineUp) {
+      if (!batching) {
+         sendReplicatePacket(packet, lineUp);
+         return;
+      }
+      if (!enabled)
+         return;
+      boolean runItNow = false;
+
+      OperationContext repliToken = OperationContextImpl.getContext(executorFactory);
+      if (lineUp) {
+         repliToken.replicationLineUp();
+      }
+
+      synchronized (replicationLock) {
+         if (enabled) {
+            pendingTokens.add(repliToken);
+            if (batchBuffer == null) {
+               batchBuffer = ReplicationBatchMessage.createBuffer(replicatingChannel.getConnection());
+            }
+            ReplicationBatchMessage.encodePacket(batchBuffer, packet, replicatingChannel.getID());
+            batchCount++;
+            if (batchBuffer.writerIndex() >= MAX_BATCH_SIZE) {
+               flushBatch();
+            }
+            else if (!batchFlushScheduled) {
+               scheduleBatchFlush();
+            }
+         }
+         else {
+            runItNow = true;
+         }
+      }
+
+      if (runItNow) {
+         repliToken.replicationDone();
+      }
+   }
+
+   /**
+    * In case you refactor this in any way, this method must hold a lock on replication lock.
+    */
+   private void scheduleBatchFlush() {
+      try {
+         batchExecutor.execute(flushBatchTask);
+         batchFlushScheduled = true;
+      }
+      catch (RejectedExecutionException e) {
+         // the server is stopping, don't keep the operation waiting for a task that won't run
+         flushBatch();
+      }
+   }
+
+   /**
+    * In case you refactor this in any way, this method must hold a lock on replication lock.
+    */
+   private void flushBatch() {
+      if (batchBuffer == null) {
+         return;
+      }
+      final ActiveMQBuffer buffer = batchBuffer;
+      final int count = batchCount;
+      batchBuffer = null;
+      batchCount = 0;
+
+      if (!flowControl()) {
+         // the replication was stopped and its tokens completed
+         buffer.byteBuf().release();
+         return;
+      }
+      pendingResponses.add(count);
+      replicatingChannel.send(new ReplicationBatchMessage(count, buffer));
+   }
+
    /** This was written as a refactoring of sendReplicatePacket.
     *  In case you refactor this in any way, this method must hold a lock on replication lock. .*/
    private boolean flowControl() {
@@ -425,13 +595,21 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
     *                               packets were not sent with {@link #sendReplicatePacket(Packet)}.
     */
    private void replicated() {
-      OperationContext ctx = pendingTokens.poll();
+      Integer count = pendingResponses.poll();
 
-      if (ctx == null) {
+      if (count == null) {
          throw new IllegalStateException("Missing replication token on the queue.");
       }
 
-      ctx.replicationDone();
+      for (int i = 0; i < count; i++) {
+         OperationContext ctx = pendingTokens.poll();
+
+         if (ctx == null) {
+            throw new IllegalStateException("Missing replication token on the queue.");
+         }
+
+         ctx.replicationDone();
+      }
    }
 
    // Inner classes -------------------------------------------------
@@ -481,6 +659,23 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
 
    }
 
+   private static final class FileRegionChunk {
+
+      final FileChannel file;
+
+      final long position;
+
+      final int count;
+
+      ChannelFuture written;
+
+      FileRegionChunk(final FileChannel file, final long position, final int count) {
+         this.file = file;
+         this.position = position;
+         this.count = count;
+      }
+   }
+
    private static final class NullEncoding implements EncodingSupport {
 
       static final NullEncoding instance = new NullEncoding();
@@ -549,6 +744,10 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
          file.open();
       }
       try {
+         if (isFileRegionSupported()) {
+            sendFileRegions(content, pageStore, id, file, maxBytesToSend);
+            return;
+         }
          final FileInputStream fis = new FileInputStream(file.getJavaFile());
          try {
             final FileChannel channel = fis.getChannel();
@@ -593,6 +792,82 @@ public final class ReplicationManager implements ActiveMQComponent, ReadyListene
       }
    }
 
+   private boolean isFileRegionSupported() {
+      if (!Boolean.parseBoolean(System.getProperty(ZERO_COPY_SYNC_PROPERTY, "true"))) {
+         return false;
+      }
+      Object connection = replicatingChannel.getConnection().getTransportConnection();
+      return connection instanceof NettyConnection && ((NettyConnection) connection).isFileRegionSupported();
+   }
+
+   /**
+    * Sends the file like the buffered loop of {@link #sendLargeFile}, except that the transport writes every chunk
+    * straight from the file. Up to {@link #MAX_FILE_REGIONS_IN_FLIGHT} chunks are queued on the connection before
+    * waiting for the oldest one to be written.
+    */
+   private void sendFileRegions(JournalContent content,
+                                SimpleString pageStore,
+                                final long id,
+                                SequentialFile file,
+                                long maxBytesToSend) throws Exception {
+      final long fileSize = file.getJavaFile().length();
+      final RandomAccessFile randomAccessFile = new RandomAccessFile(file.getJavaFile(), "r");
+      final Deque<ChannelFuture> inFlight = new ArrayDeque<ChannelFuture>(MAX_FILE_REGIONS_IN_FLIGHT);
+      try {
+         final FileChannel channel = randomAccessFile.getChannel();
+         long position = 0;
+         while (position < fileSize && maxBytesToSend > 0) {
+            if (inFlight.size() == MAX_FILE_REGIONS_IN_FLIGHT && !awaitFileRegion(inFlight.poll())) {
+               return;
+            }
+            final int toSend = (int) Math.min(FILE_REGION_CHUNK_SIZE, Math.min(fileSize - position, maxBytesToSend));
+            final FileRegionChunk region = new FileRegionChunk(channel, position, toSend);
+            sendReplicatePacket(new ReplicationSyncFileMessage(content, pageStore, id, toSend), true, region);
+            if (region.written == null) {
+               // the replication was stopped
+               return;
+            }
+            inFlight.add(region.written);
+            position += toSend;
+            maxBytesToSend -= toSend;
+         }
+         if (maxBytesToSend > 0) {
+            // sending -1 bytes will close the file at the backup, a large message with all its bytes sent stays open
+            sendReplicatePacket(new ReplicationSyncFileMessage(content, pageStore, id, -1, null));
+         }
+      }
+      finally {
+         // the file is read by the transport until all its regions are written
+         for (ChannelFuture written : inFlight) {
+            written.awaitUninterruptibly(timeout);
+         }
+         randomAccessFile.close();
+      }
+   }
+
+   /**
+    * @return whether the region was written, replication is stopped if it wasn't written in time
+    */
+   private boolean awaitFileRegion(final ChannelFuture written) {
+      try {
+         if (!written.await(timeout)) {
+            ActiveMQServerLogger.LOGGER.slowReplicationResponse();
+            try {
+               stop();
+            }
+            catch (Exception e) {
+               logger.warn(e.getMessage(), e);
+            }
+            return false;
+         }
+      }
+      catch (InterruptedException e) {
+         throw new ActiveMQInterruptedException(e);
+      }
+      // a failed write fails the connection, and so stops the replication
+      return written.isSuccess();
+   }
+
    /**
     * Reserve the following fileIDs in the backup server.
     *
@@ -16,10 +16,15 @@
  */
 package org.apache.activemq.artemis.core.security.impl;
 
+import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.activemq.artemis.api.config.ActiveMQDefaultConfiguration;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.management.CoreNotificationType;
 import org.apache.activemq.artemis.api.core.management.ManagementHelper;
@@ -33,7 +38,6 @@ import org.apache.activemq.artemis.core.server.management.NotificationService;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepository;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepositoryChangeListener;
 import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManager;
-import org.apache.activemq.artemis.utils.ConcurrentHashSet;
 import org.apache.activemq.artemis.utils.TypedProperties;
 import org.jboss.logging.Logger;
 
@@ -46,6 +50,9 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
    // Constants -----------------------------------------------------
 
+   // the key of the permissions of a session without user, as the cache can't have null keys
+   private static final String NO_USER = new String("\u0000");
+
    // Static --------------------------------------------------------
 
    // Attributes ----------------------------------------------------
@@ -54,7 +61,19 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
    private final ActiveMQSecurityManager securityManager;
 
-   private final ConcurrentMap<String, ConcurrentHashSet<SimpleString>> cache = new ConcurrentHashMap<String, ConcurrentHashSet<SimpleString>>();
+   // user -> address -> granted permissions, so a check doesn't need to build a key
+   private final ConcurrentMap<String, ConcurrentMap<SimpleString, Permissions>> cache = new ConcurrentHashMap<String, ConcurrentMap<SimpleString, Permissions>>();
+
+   // the number of user and address pairs in the cache
+   private final AtomicInteger cacheSize = new AtomicInteger();
+
+   // the entries are added under the read lock and evicted under the write lock, so cacheSize counts the live maps
+   private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
+
+   private final int maxCacheSize;
+
+   // only the permissions granted on the current generation are valid
+   private final AtomicInteger generation = new AtomicInteger();
 
    private final long invalidationInterval;
 
@@ -80,9 +99,25 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
                             final String managementClusterUser,
                             final String managementClusterPassword,
                             final NotificationService notificationService) {
+      this(securityRepository, securityManager, invalidationInterval, ActiveMQDefaultConfiguration.getDefaultSecurityCacheMaxSize(), securityEnabled, managementClusterUser, managementClusterPassword, notificationService);
+   }
+
+   /**
+    * @param maxCacheSize        the maximum number of user and address pairs kept in the cache
+    * @param notificationService can be <code>null</code>
+    */
+   public SecurityStoreImpl(final HierarchicalRepository<Set<Role>> securityRepository,
+                            final ActiveMQSecurityManager securityManager,
+                            final long invalidationInterval,
+                            final int maxCacheSize,
+                            final boolean securityEnabled,
+                            final String managementClusterUser,
+                            final String managementClusterPassword,
+                            final NotificationService notificationService) {
       this.securityRepository = securityRepository;
       this.securityManager = securityManager;
       this.invalidationInterval = invalidationInterval;
+      this.maxCacheSize = maxCacheSize;
       this.securityEnabled = securityEnabled;
       this.managementClusterUser = managementClusterUser;
       this.managementClusterPassword = managementClusterPassword;
@@ -153,7 +188,7 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
          String saddress = address.toString();
 
-         Set<Role> roles = securityRepository.getMatch(saddress);
+         Set<Role> roles = securityRepository.getMatch(address);
 
          // bypass permission checks for management cluster user
          if (managementClusterUser.equals(user) && session.getPassword().equals(managementClusterPassword)) {
@@ -176,13 +211,7 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
             throw ActiveMQMessageBundle.BUNDLE.userNoPermissions(session.getUsername(), checkType, saddress);
          }
          // if we get here we're granted, add to the cache
-         ConcurrentHashSet<SimpleString> set = new ConcurrentHashSet<SimpleString>();
-         ConcurrentHashSet<SimpleString> act = cache.putIfAbsent(user + "." + checkType.name(), set);
-         if (act != null) {
-            set = act;
-         }
-         set.add(address);
-
+         addToCache(address, user, checkType);
       }
    }
 
@@ -198,7 +227,8 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
 
    // Private -------------------------------------------------------
    private void invalidateCache() {
-      cache.clear();
+      // the permissions of the older generations are replaced as they're granted again, or removed when the cache is full
+      generation.incrementAndGet();
    }
 
    private boolean checkCached(final SimpleString dest, final String user, final CheckType checkType) {
@@ -212,15 +242,111 @@ public class SecurityStoreImpl implements SecurityStore, HierarchicalRepositoryC
          lastCheck = now;
       }
       else {
-         ConcurrentHashSet<SimpleString> act = cache.get(user + "." + checkType.name());
-         if (act != null) {
-            granted = act.contains(dest);
+         ConcurrentMap<SimpleString, Permissions> permissions = cache.get(user == null ? NO_USER : user);
+         if (permissions != null) {
+            Permissions act = permissions.get(dest);
+            granted = act != null && act.generation == generation.get() && act.isGranted(checkType);
          }
       }
 
       return granted;
    }
 
+   private void addToCache(final SimpleString dest, final String user, final CheckType checkType) {
+      String key = user == null ? NO_USER : user;
+
+      boolean full;
+
+      cacheLock.readLock().lock();
+      try {
+         ConcurrentMap<SimpleString, Permissions> permissions = cache.get(key);
+         if (permissions == null) {
+            permissions = new ConcurrentHashMap<SimpleString, Permissions>();
+            ConcurrentMap<SimpleString, Permissions> act = cache.putIfAbsent(key, permissions);
+            if (act != null) {
+               permissions = act;
+            }
+         }
+
+         int currentGeneration = generation.get();
+
+         Permissions act = permissions.get(dest);
+
+         int granted = Permissions.mask(checkType);
+         if (act != null && act.generation == currentGeneration) {
+            // a permission granted concurrently could be lost, it'd only be checked again
+            granted |= act.granted;
+         }
+
+         full = permissions.put(dest, new Permissions(currentGeneration, granted)) == null && cacheSize.incrementAndGet() > maxCacheSize;
+      }
+      finally {
+         cacheLock.readLock().unlock();
+      }
+
+      if (full) {
+         evictCache();
+      }
+   }
+
+   private void evictCache() {
+      cacheLock.writeLock().lock();
+      try {
+         if (cacheSize.get() <= maxCacheSize) {
+            return;
+         }
+
+         int currentGeneration = generation.get();
+
+         for (Iterator<ConcurrentMap<SimpleString, Permissions>> users = cache.values().iterator(); users.hasNext(); ) {
+            ConcurrentMap<SimpleString, Permissions> permissions = users.next();
+            for (Iterator<Permissions> addresses = permissions.values().iterator(); addresses.hasNext(); ) {
+               if (addresses.next().generation != currentGeneration) {
+                  addresses.remove();
+                  cacheSize.decrementAndGet();
+               }
+            }
+            if (permissions.isEmpty()) {
+               users.remove();
+            }
+         }
+
+         // there is no room left for the current generation either
+         if (cacheSize.get() > maxCacheSize * 3 / 4) {
+            if (logger.isDebugEnabled()) {
+               logger.debug("security cache is full with " + cacheSize.get() + " entries, clearing it");
+            }
+            cache.clear();
+            cacheSize.set(0);
+         }
+      }
+      finally {
+         cacheLock.writeLock().unlock();
+      }
+   }
+
    // Inner class ---------------------------------------------------
 
+   /**
+    * The permissions granted to a user on an address, one bit per {@link CheckType}.
+    */
+   private static final class Permissions {
+
+      private final int generation;
+
+      private final int granted;
+
+      private Permissions(final int generation, final int granted) {
+         this.generation = generation;
+         this.granted = granted;
+      }
+
+      private static int mask(final CheckType checkType) {
+         return 1 << checkType.ordinal();
+      }
+
+      private boolean isGranted(final CheckType checkType) {
+         return (granted & mask(checkType)) != 0;
+      }
+   }
 }
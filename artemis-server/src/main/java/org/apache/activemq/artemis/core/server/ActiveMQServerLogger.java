@@ -1211,6 +1211,12 @@ public interface ActiveMQServerLogger extends BasicLogger {
       format = Message.Format.MESSAGE_FORMAT)
    void negativeAddressSize(long size, String destination);
 
+   @LogMessage(level = Logger.Level.WARN)
+   @Message(id = 222215,
+      value = "Acceptor {0} can only listen on {1} sockets with the native epoll transport, listening on one socket.",
+      format = Message.Format.MESSAGE_FORMAT)
+   void reusePortListenersIgnored(String acceptor, int listeners);
+
    @LogMessage(level = Logger.Level.ERROR)
    @Message(id = 224000, value = "Failure in initialisation", format = Message.Format.MESSAGE_FORMAT)
    void initializationError(@Cause Throwable e);
@@ -17,6 +17,7 @@
 package org.apache.activemq.artemis.core.server;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.activemq.artemis.core.transaction.Transaction;
 
@@ -79,6 +80,12 @@ public interface ServerConsumer extends Consumer {
    String getSessionID();
 
    void promptDelivery();
+
+   /**
+    * The executor the queue may run its deliveries on when this consumer's connection is the only one consuming
+    * from it, {@code null} if the queue should use its own executor.
+    */
+   Executor getDeliveryExecutor();
 }
 
 
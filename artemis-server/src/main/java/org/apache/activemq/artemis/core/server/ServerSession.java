@@ -111,6 +111,12 @@ public interface ServerSession extends SecurityAuth {
 
    void send(ServerMessage message, boolean direct) throws Exception;
 
+   /**
+    * Sends several messages at once. When the session doesn't have a transaction of its own they are routed in a
+    * transaction of their own, so either all or none of them are routed.
+    */
+   void send(List<ServerMessage> messages, boolean direct) throws Exception;
+
    void sendLarge(MessageInternal msg) throws Exception;
 
    void forceConsumerDelivery(long consumerID, long sequence) throws Exception;
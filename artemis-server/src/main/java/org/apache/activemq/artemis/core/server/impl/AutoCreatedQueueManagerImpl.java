@@ -38,7 +38,7 @@ public class AutoCreatedQueueManagerImpl implements AutoCreatedQueueManager {
             Queue queue = server.locateQueue(queueName);
             long consumerCount = queue.getConsumerCount();
             long messageCount = queue.getMessageCount();
-            boolean isAutoDeleteJmsQueues = server.getAddressSettingsRepository().getMatch(queueName.toString()).isAutoDeleteJmsQueues();
+            boolean isAutoDeleteJmsQueues = server.getAddressSettingsRepository().getMatch(queueName).isAutoDeleteJmsQueues();
 
             if (server.locateQueue(queueName).getMessageCount() == 0 && isAutoDeleteJmsQueues) {
                if (logger.isDebugEnabled()) {
@@ -73,7 +73,7 @@ public class QueueFactoryImpl implements QueueFactory {
                             final boolean durable,
                             final boolean temporary,
                             final boolean autoCreated) {
-      AddressSettings addressSettings = addressSettingsRepository.getMatch(address.toString());
+      AddressSettings addressSettings = addressSettingsRepository.getMatch(address);
 
       Queue queue;
       if (addressSettings.isLastValueQueue()) {
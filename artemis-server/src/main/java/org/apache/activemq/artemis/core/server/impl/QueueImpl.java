@@ -39,6 +39,9 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.netty.util.concurrent.EventExecutor;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Message;
@@ -68,6 +71,7 @@ import org.apache.activemq.artemis.core.server.MessageReference;
 import org.apache.activemq.artemis.core.server.Queue;
 import org.apache.activemq.artemis.core.server.RoutingContext;
 import org.apache.activemq.artemis.core.server.ScheduledDeliveryHandler;
+import org.apache.activemq.artemis.core.server.ServerConsumer;
 import org.apache.activemq.artemis.core.server.ServerMessage;
 import org.apache.activemq.artemis.core.server.cluster.RemoteQueueBinding;
 import org.apache.activemq.artemis.core.server.cluster.impl.Redistributor;
@@ -185,6 +189,11 @@ public class QueueImpl implements Queue {
 
    private final Runnable deliverRunner = new DeliverRunner();
 
+   /**
+    * Keeps two delivery passes from running at once, e.g. while they move between executors.
+    */
+   private final ReentrantLock deliverLock = new ReentrantLock();
+
    private volatile boolean depagePending = false;
 
    private final StorageManager storageManager;
@@ -215,6 +224,17 @@ public class QueueImpl implements Queue {
 
    private final Executor executor;
 
+   /**
+    * The event loop of the connection all the consumers of this queue belong to, when its acceptor has delivery
+    * affinity.
+    */
+   private volatile Executor deliveryAffinityExecutor;
+
+   /**
+    * The last event loop a delivery pass was scheduled on, so the flushes still wait for it once the affinity is gone.
+    */
+   private volatile Executor lastDeliveryAffinityExecutor;
+
    private boolean internalQueue;
 
    private volatile long lastDirectDeliveryCheck = 0;
@@ -559,9 +579,16 @@ public class QueueImpl implements Queue {
                messageReferences.isEmpty() &&
                !pageIterator.hasNext() &&
                !pageSubscription.isPaging()) {
-               // We must block on the executor to ensure any async deliveries have completed or we might get out of order
-               // deliveries
-               if (flushExecutor() && flushDeliveriesInTransit()) {
+               if (deliveryAffinityExecutor != null || lastDeliveryAffinityExecutor != null) {
+                  // This runs on the producer's event loop, which must never block on the consumers' one: the
+                  // switch only happens once no delivery is pending anywhere
+                  if (scheduledRunners.get() == 0 && deliveriesInTransit.getCount() == 0) {
+                     directDeliver = true;
+                  }
+               }
+               else if (flushExecutor() && flushDeliveriesInTransit()) {
+                  // We must block on the executor to ensure any async deliveries have completed or we might get out of
+                  // order deliveries
                   // Go into direct delivery mode
                   directDeliver = true;
                }
@@ -638,7 +665,7 @@ public class QueueImpl implements Queue {
       if (scheduledRunners.get() < MAX_SCHEDULED_RUNNERS) {
          scheduledRunners.incrementAndGet();
          try {
-            getExecutor().execute(deliverRunner);
+            getDeliveryExecutor().execute(deliverRunner);
          }
          catch (RejectedExecutionException ignored) {
             // no-op
@@ -685,6 +712,41 @@ public class QueueImpl implements Queue {
       }
    }
 
+   /**
+    * The deliveries run on the event loop of the consumers' connection when all the consumers share it, the queue
+    * isn't paging and the acceptor has delivery affinity. The {@link #deliverLock} keeps a switch between executors
+    * from running two deliveries at once.
+    */
+   private Executor getDeliveryExecutor() {
+      Executor affinity = deliveryAffinityExecutor;
+
+      if (affinity != null && (pageSubscription == null || !pageSubscription.isPaging())) {
+         lastDeliveryAffinityExecutor = affinity;
+         return affinity;
+      }
+      else {
+         return getExecutor();
+      }
+   }
+
+   // this must be called with a lock on the queue, every time the consumers change
+   private void updateDeliveryAffinity() {
+      Executor affinity = null;
+
+      for (ConsumerHolder holder : consumerList) {
+         Executor consumerExecutor = holder.consumer instanceof ServerConsumer ? ((ServerConsumer) holder.consumer).getDeliveryExecutor() : null;
+
+         if (consumerExecutor == null || affinity != null && affinity != consumerExecutor) {
+            affinity = null;
+            break;
+         }
+
+         affinity = consumerExecutor;
+      }
+
+      deliveryAffinityExecutor = affinity;
+   }
+
    /* Only used on tests */
    public void deliverNow() {
       deliverAsync();
@@ -708,7 +770,7 @@ public class QueueImpl implements Queue {
 
       getExecutor().execute(future);
 
-      boolean result = future.await(timeout);
+      boolean result = future.await(timeout) && flushDeliveryAffinityExecutor(timeout);
 
       if (!result) {
          ActiveMQServerLogger.LOGGER.queueBusy(this.name.toString(), timeout);
@@ -716,6 +778,34 @@ public class QueueImpl implements Queue {
       return result;
    }
 
+   /**
+    * Waits for the delivery passes scheduled on the consumers' event loop. From that event loop itself nothing else
+    * runs meanwhile, and the passes still queued on it can't be waited for.
+    */
+   private boolean flushDeliveryAffinityExecutor(long timeout) {
+      Executor affinity = lastDeliveryAffinityExecutor;
+
+      if (affinity == null || isOnEventLoop(affinity)) {
+         return true;
+      }
+
+      FutureLatch future = new FutureLatch();
+
+      try {
+         affinity.execute(future);
+      }
+      catch (RejectedExecutionException e) {
+         // the connection is gone, and its event loop with it
+         return true;
+      }
+
+      return future.await(timeout);
+   }
+
+   private static boolean isOnEventLoop(final Executor executor) {
+      return executor instanceof EventExecutor && ((EventExecutor) executor).inEventLoop();
+   }
+
    @Override
    public void addConsumer(final Consumer consumer) throws Exception {
       if (logger.isDebugEnabled()) {
@@ -733,6 +823,8 @@ public class QueueImpl implements Queue {
 
          consumerSet.add(consumer);
 
+         updateDeliveryAffinity();
+
          if (refCountForConsumers != null) {
             refCountForConsumers.increment();
          }
@@ -761,6 +853,8 @@ public class QueueImpl implements Queue {
 
          consumerSet.remove(consumer);
 
+         updateDeliveryAffinity();
+
          LinkedList<SimpleString> groupsToRemove = null;
 
          for (SimpleString groupID : groups.keySet()) {
@@ -1151,7 +1245,7 @@ public class QueueImpl implements Queue {
       SimpleString expiryAddress = null;
 
       if (messageAddress != null) {
-         AddressSettings addressSettings = addressSettingsRepository.getMatch(messageAddress.toString());
+         AddressSettings addressSettings = addressSettingsRepository.getMatch(messageAddress);
 
          expiryAddress = addressSettings.getExpiryAddress();
       }
@@ -2181,6 +2275,8 @@ public class QueueImpl implements Queue {
 
          consumerList.add(new ConsumerHolder(redistributor));
 
+         updateDeliveryAffinity();
+
          consumersChanged = true;
 
          redistributor.start();
@@ -2207,7 +2303,7 @@ public class QueueImpl implements Queue {
          storageManager.updateDeliveryCount(reference);
       }
 
-      AddressSettings addressSettings = addressSettingsRepository.getMatch(address.toString());
+      AddressSettings addressSettings = addressSettingsRepository.getMatch(address);
 
       int maxDeliveries = addressSettings.getMaxDeliveryAttempts();
       long redeliveryDelay = addressSettings.getRedeliveryDelay();
@@ -2415,7 +2511,7 @@ public class QueueImpl implements Queue {
    }
 
    private void expire(final Transaction tx, final MessageReference ref) throws Exception {
-      SimpleString expiryAddress = addressSettingsRepository.getMatch(address.toString()).getExpiryAddress();
+      SimpleString expiryAddress = addressSettingsRepository.getMatch(address).getExpiryAddress();
 
       if (expiryAddress != null) {
          Bindings bindingList = postOffice.getBindingsForAddress(expiryAddress);
@@ -2439,7 +2535,7 @@ public class QueueImpl implements Queue {
    }
 
    private void sendToDeadLetterAddress(final Transaction tx, final MessageReference ref) throws Exception {
-      sendToDeadLetterAddress(tx, ref, addressSettingsRepository.getMatch(address.toString()).getDeadLetterAddress());
+      sendToDeadLetterAddress(tx, ref, addressSettingsRepository.getMatch(address).getDeadLetterAddress());
    }
 
    private void sendToDeadLetterAddress(final Transaction tx, final MessageReference ref,
@@ -2803,20 +2899,31 @@ public class QueueImpl implements Queue {
 
       @Override
       public void run() {
-         try {
-            // during the transition between paging and nonpaging, we could have this using a different executor
-            // and at this short period we could have more than one delivery thread running in async mode
-            // this will avoid that possibility
-            // We will be using the deliverRunner instance as the guard object to avoid multiple threads executing
-            // an asynchronous delivery
-            synchronized (QueueImpl.this.deliverRunner) {
-               deliver();
+         // during the transition between paging and nonpaging, or between the queue executor and the consumers'
+         // event loop, we could have this using a different executor and at this short period we could have more
+         // than one delivery thread running in async mode
+         // the deliverLock will avoid that possibility
+         if (!deliverLock.tryLock()) {
+            if (isOnEventLoop(lastDeliveryAffinityExecutor)) {
+               // an event loop must not wait for the pass running elsewhere, the queue executor waits for it instead
+               try {
+                  executor.execute(this);
+                  return;
+               }
+               catch (RejectedExecutionException ignored) {
+                  // the server is stopping, wait here
+               }
             }
+            deliverLock.lock();
+         }
+         try {
+            deliver();
          }
          catch (Exception e) {
             ActiveMQServerLogger.LOGGER.errorDelivering(e);
          }
          finally {
+            deliverLock.unlock();
             scheduledRunners.decrementAndGet();
          }
       }
@@ -3021,7 +3128,7 @@ public class QueueImpl implements Queue {
 
       @Override
       public void onChange() {
-         AddressSettings settings = addressSettingsRepository.getMatch(address.toString());
+         AddressSettings settings = addressSettingsRepository.getMatch(address);
          configureExpiry(settings);
          configureSlowConsumerReaper(settings);
       }
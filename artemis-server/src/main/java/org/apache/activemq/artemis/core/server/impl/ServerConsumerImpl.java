@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -39,6 +40,7 @@ import org.apache.activemq.artemis.core.message.BodyEncoder;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.QueueBinding;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyServerConnection;
 import org.apache.activemq.artemis.core.server.ActiveMQMessageBundle;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.server.HandleStatus;
@@ -52,9 +54,9 @@ import org.apache.activemq.artemis.core.server.management.ManagementService;
 import org.apache.activemq.artemis.core.server.management.Notification;
 import org.apache.activemq.artemis.core.transaction.Transaction;
 import org.apache.activemq.artemis.core.transaction.impl.TransactionImpl;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.spi.core.protocol.SessionCallback;
 import org.apache.activemq.artemis.spi.core.remoting.ReadyListener;
-import org.apache.activemq.artemis.utils.FutureLatch;
 import org.apache.activemq.artemis.utils.LinkedListIterator;
 import org.apache.activemq.artemis.utils.TypedProperties;
 import org.jboss.logging.Logger;
@@ -131,6 +133,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
    private final long creationTime;
 
+   private final Executor deliveryExecutor;
+
    private AtomicLong consumerRateCheckTime = new AtomicLong(System.currentTimeMillis());
 
    private AtomicLong messageConsumedSnapshot = new AtomicLong(0);
@@ -194,6 +198,8 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
       this.creationTime = System.currentTimeMillis();
 
+      this.deliveryExecutor = getDeliveryExecutor(session);
+
       if (browseOnly) {
          browserDeliverer = new BrowserDeliverer(messageQueue.totalIterator());
       }
@@ -217,9 +223,25 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
       promptDelivery();
    }
 
+   private static Executor getDeliveryExecutor(final ServerSession session) {
+      RemotingConnection remotingConnection = session.getRemotingConnection();
+
+      if (remotingConnection != null && remotingConnection.getTransportConnection() instanceof NettyServerConnection) {
+         return ((NettyServerConnection) remotingConnection.getTransportConnection()).getDeliveryExecutor();
+      }
+      else {
+         return null;
+      }
+   }
+
    // ServerConsumer implementation
    // ----------------------------------------------------------------------
 
+   @Override
+   public Executor getDeliveryExecutor() {
+      return deliveryExecutor;
+   }
+
    public Object getProtocolContext() {
       return protocolContext;
    }
@@ -576,15 +598,10 @@ public class ServerConsumerImpl implements ServerConsumer, ReadyListener {
 
       // Outside the lock
       if (transferring) {
-         // And we must wait for any force delivery to be executed - this is executed async so we add a future to the
-         // executor and
-         // wait for it to complete
-
-         FutureLatch future = new FutureLatch();
-
-         messageQueue.getExecutor().execute(future);
+         // And we must wait for any force delivery to be executed - this is executed async, on the queue's executor
+         // or on the consumers' event loop, so we flush the queue and wait for it to complete
 
-         boolean ok = future.await(10000);
+         boolean ok = messageQueue.flushExecutor();
 
          if (!ok) {
             ActiveMQServerLogger.LOGGER.errorTransferringConsumer();
@@ -90,6 +90,15 @@ public class ServerMessageImpl extends MessageImpl implements ServerMessage {
       return true;
    }
 
+   /**
+    * The server usually reads a few properties of a message, such as the duplicate ID or the group ID, and then
+    * encodes it again unchanged, so the properties are only decoded when they are modified or listed.
+    */
+   @Override
+   protected boolean isLazyPropertiesDecode() {
+      return true;
+   }
+
    @Override
    public ServerMessageImpl setMessageID(final long id) {
       messageID = id;
@@ -44,6 +44,7 @@ import org.apache.activemq.artemis.core.exception.ActiveMQXAException;
 import org.apache.activemq.artemis.core.filter.Filter;
 import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
 import org.apache.activemq.artemis.core.io.IOCallback;
+import org.apache.activemq.artemis.core.message.impl.MessageImpl;
 import org.apache.activemq.artemis.core.message.impl.MessageInternal;
 import org.apache.activemq.artemis.core.paging.PagingStore;
 import org.apache.activemq.artemis.core.persistence.OperationContext;
@@ -119,6 +120,11 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
 
    protected Transaction tx;
 
+   /**
+    * The transaction routing the messages of a batch sent on a session that auto commits its sends.
+    */
+   private Transaction batchTx;
+
    protected boolean xa;
 
    protected final StorageManager storageManager;
@@ -608,7 +614,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
    }
 
    public QueueQueryResult executeQueueQuery(final SimpleString name) throws Exception {
-      boolean autoCreateJmsQueues = name.toString().startsWith(ResourceNames.JMS_QUEUE) && server.getAddressSettingsRepository().getMatch(name.toString()).isAutoCreateJmsQueues();
+      boolean autoCreateJmsQueues = name.toString().startsWith(ResourceNames.JMS_QUEUE) && server.getAddressSettingsRepository().getMatch(name).isAutoCreateJmsQueues();
 
       if (name == null) {
          throw ActiveMQMessageBundle.BUNDLE.queueNameIsNull();
@@ -642,7 +648,7 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
    }
 
    public BindingQueryResult executeBindingQuery(final SimpleString address) throws Exception {
-      boolean autoCreateJmsQueues = address.toString().startsWith(ResourceNames.JMS_QUEUE) && server.getAddressSettingsRepository().getMatch(address.toString()).isAutoCreateJmsQueues();
+      boolean autoCreateJmsQueues = address.toString().startsWith(ResourceNames.JMS_QUEUE) && server.getAddressSettingsRepository().getMatch(address).isAutoCreateJmsQueues();
 
       if (address == null) {
          throw ActiveMQMessageBundle.BUNDLE.addressIsNull();
@@ -1291,6 +1297,81 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
       }
    }
 
+   public void send(final List<ServerMessage> messages, final boolean direct) throws Exception {
+      if (messages.size() > 1 && (tx == null || autoCommitSends) && !containsBridgeDuplicateID(messages)) {
+         // route the whole batch in one transaction, so it is stored in one journal record and synced once
+         List<ServerMessage> duplicates = null;
+         Map<SimpleString, Set<SimpleString>> batchDuplicateIDs = new HashMap<SimpleString, Set<SimpleString>>();
+         batchTx = newTransaction();
+         try {
+            for (ServerMessage message : messages) {
+               if (isDuplicate(message, batchDuplicateIDs)) {
+                  if (duplicates == null) {
+                     duplicates = new ArrayList<ServerMessage>();
+                  }
+                  duplicates.add(message);
+               }
+               else {
+                  send(message, direct);
+               }
+            }
+            batchTx.commit();
+         }
+         catch (Exception e) {
+            batchTx.rollback();
+            throw e;
+         }
+         finally {
+            batchTx = null;
+         }
+
+         // a duplicate would mark the batch transaction as rollback only and so reject the whole batch,
+         // sent on its own it is just dropped as for any send without a transaction
+         if (duplicates != null) {
+            for (ServerMessage duplicate : duplicates) {
+               send(duplicate, direct);
+            }
+         }
+      }
+      else {
+         for (ServerMessage message : messages) {
+            send(message, direct);
+         }
+      }
+   }
+
+   private boolean containsBridgeDuplicateID(final List<ServerMessage> messages) {
+      for (ServerMessage message : messages) {
+         if (message.containsProperty(MessageImpl.HDR_BRIDGE_DUPLICATE_ID)) {
+            // a bridge duplicate rolls back the transaction it is routed in, these are only sent one by one
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private boolean isDuplicate(final ServerMessage message,
+                               final Map<SimpleString, Set<SimpleString>> batchDuplicateIDs) {
+      byte[] duplicateID = message.getDuplicateIDBytes();
+      SimpleString address = message.getAddress() != null ? message.getAddress() : defaultAddress;
+
+      if (duplicateID == null || address == null) {
+         return false;
+      }
+
+      if (postOffice.getDuplicateIDCache(address).contains(duplicateID)) {
+         return true;
+      }
+
+      // the IDs of the batch are only added to the cache when it commits
+      Set<SimpleString> ids = batchDuplicateIDs.get(address);
+      if (ids == null) {
+         ids = new HashSet<SimpleString>();
+         batchDuplicateIDs.put(address, ids);
+      }
+      return !ids.add(new SimpleString(duplicateID));
+   }
+
    public void sendContinuations(final int packetSize,
                                  final long messageBodySize,
                                  final byte[] body,
@@ -1568,7 +1649,10 @@ public class ServerSessionImpl implements ServerSession, FailureListener {
          throw e;
       }
 
-      if (tx == null || autoCommitSends) {
+      if (batchTx != null) {
+         routingContext.setTransaction(batchTx);
+      }
+      else if (tx == null || autoCommitSends) {
       }
       else {
          routingContext.setTransaction(tx);
@@ -18,6 +18,8 @@ package org.apache.activemq.artemis.core.settings;
 
 import java.util.List;
 
+import org.apache.activemq.artemis.api.core.SimpleString;
+
 /**
  * allows objects to be mapped against a regex pattern and held in order in a list
  */
@@ -45,6 +47,15 @@ public interface HierarchicalRepository<T> {
     */
    T getMatch(String match);
 
+   /**
+    * return the value held against the nearest match, this is the variant to use on the hot paths as the
+    * resolved values are cached by {@link SimpleString}
+    *
+    * @param match the match to look for
+    * @return the value
+    */
+   T getMatch(SimpleString match);
+
    /**
     * Return a list of Values being added
     *
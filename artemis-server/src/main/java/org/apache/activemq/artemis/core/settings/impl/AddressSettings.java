@@ -68,6 +68,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    public static final SlowConsumerPolicy DEFAULT_SLOW_CONSUMER_POLICY = SlowConsumerPolicy.NOTIFY;
 
+   public static final boolean DEFAULT_PAGE_COUNTER_SNAPSHOT = false;
+
    private AddressFullMessagePolicy addressFullMessagePolicy = null;
 
    private Long maxSizeBytes = null;
@@ -110,6 +112,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
 
    private Boolean autoDeleteJmsQueues = null;
 
+   private Boolean pageCounterSnapshot = null;
+
    public AddressSettings(AddressSettings other) {
       this.addressFullMessagePolicy = other.addressFullMessagePolicy;
       this.maxSizeBytes = other.maxSizeBytes;
@@ -132,11 +136,21 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       this.slowConsumerPolicy = other.slowConsumerPolicy;
       this.autoCreateJmsQueues = other.autoCreateJmsQueues;
       this.autoDeleteJmsQueues = other.autoDeleteJmsQueues;
+      this.pageCounterSnapshot = other.pageCounterSnapshot;
    }
 
    public AddressSettings() {
    }
 
+   public boolean isPageCounterSnapshot() {
+      return pageCounterSnapshot != null ? pageCounterSnapshot : AddressSettings.DEFAULT_PAGE_COUNTER_SNAPSHOT;
+   }
+
+   public AddressSettings setPageCounterSnapshot(final boolean pageCounterSnapshot) {
+      this.pageCounterSnapshot = pageCounterSnapshot;
+      return this;
+   }
+
    public boolean isAutoCreateJmsQueues() {
       return autoCreateJmsQueues != null ? autoCreateJmsQueues : AddressSettings.DEFAULT_AUTO_CREATE_QUEUES;
    }
@@ -385,6 +399,9 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       if (autoDeleteJmsQueues == null) {
          autoDeleteJmsQueues = merged.autoDeleteJmsQueues;
       }
+      if (pageCounterSnapshot == null) {
+         pageCounterSnapshot = merged.pageCounterSnapshot;
+      }
    }
 
    @Override
@@ -444,6 +461,10 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       autoCreateJmsQueues = BufferHelper.readNullableBoolean(buffer);
 
       autoDeleteJmsQueues = BufferHelper.readNullableBoolean(buffer);
+
+      if (buffer.readableBytes() > 0) {
+         pageCounterSnapshot = BufferHelper.readNullableBoolean(buffer);
+      }
    }
 
    @Override
@@ -469,7 +490,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          BufferHelper.sizeOfNullableLong(slowConsumerThreshold) +
          BufferHelper.sizeOfNullableSimpleString(slowConsumerPolicy != null ? slowConsumerPolicy.toString() : null) +
          BufferHelper.sizeOfNullableBoolean(autoCreateJmsQueues) +
-         BufferHelper.sizeOfNullableBoolean(autoDeleteJmsQueues);
+         BufferHelper.sizeOfNullableBoolean(autoDeleteJmsQueues) +
+         BufferHelper.sizeOfNullableBoolean(pageCounterSnapshot);
    }
 
    @Override
@@ -515,6 +537,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       BufferHelper.writeNullableBoolean(buffer, autoCreateJmsQueues);
 
       BufferHelper.writeNullableBoolean(buffer, autoDeleteJmsQueues);
+
+      BufferHelper.writeNullableBoolean(buffer, pageCounterSnapshot);
    }
 
    /* (non-Javadoc)
@@ -545,6 +569,7 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       result = prime * result + ((slowConsumerPolicy == null) ? 0 : slowConsumerPolicy.hashCode());
       result = prime * result + ((autoCreateJmsQueues == null) ? 0 : autoCreateJmsQueues.hashCode());
       result = prime * result + ((autoDeleteJmsQueues == null) ? 0 : autoDeleteJmsQueues.hashCode());
+      result = prime * result + ((pageCounterSnapshot == null) ? 0 : pageCounterSnapshot.hashCode());
       return result;
    }
 
@@ -686,6 +711,12 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
       }
       else if (!autoDeleteJmsQueues.equals(other.autoDeleteJmsQueues))
          return false;
+      if (pageCounterSnapshot == null) {
+         if (other.pageCounterSnapshot != null)
+            return false;
+      }
+      else if (!pageCounterSnapshot.equals(other.pageCounterSnapshot))
+         return false;
       return true;
    }
 
@@ -735,6 +766,8 @@ public class AddressSettings implements Mergeable<AddressSettings>, Serializable
          autoCreateJmsQueues +
          ", autoDeleteJmsQueues=" +
          autoDeleteJmsQueues +
+         ", pageCounterSnapshot=" +
+         pageCounterSnapshot +
          "]";
    }
 }
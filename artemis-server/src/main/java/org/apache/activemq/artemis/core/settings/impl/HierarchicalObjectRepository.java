@@ -23,13 +23,14 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.server.ActiveMQServerLogger;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepository;
 import org.apache.activemq.artemis.core.settings.HierarchicalRepositoryChangeListener;
@@ -43,6 +44,13 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
 
    private static final Logger logger = Logger.getLogger(HierarchicalObjectRepository.class);
 
+   public static final int DEFAULT_MAX_CACHE_SIZE = 10000;
+
+   /**
+    * Characters that make a match a regular expression, these matches can't be indexed by their prefix.
+    */
+   private static final String REGEX_CHARACTERS = "\\^$|?+()[]{}";
+
    private boolean listenersEnabled = true;
    /**
     * The default Match to fall back to
@@ -63,15 +71,22 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
     */
    private final Set<String> immutables = new HashSet<String>();
 
+   /**
+    * all the matches indexed by their literal prefix, that is the part before the first wildcard
+    */
+   private PrefixNode<T> matchTree = new PrefixNode<T>();
+
    /**
     * a regex comparator
     */
    private final MatchComparator matchComparator = new MatchComparator();
 
    /**
-    * a cache
+    * a cache, bounded by {@link #maxCacheSize}
     */
-   private final Map<String, T> cache = new ConcurrentHashMap<String, T>();
+   private final Map<SimpleString, T> cache = new ConcurrentHashMap<SimpleString, T>();
+
+   private final int maxCacheSize;
 
    /**
     * Need a lock instead of using multiple {@link ConcurrentHashMap}s.
@@ -94,6 +109,17 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
     */
    private final ArrayList<HierarchicalRepositoryChangeListener> listeners = new ArrayList<HierarchicalRepositoryChangeListener>();
 
+   public HierarchicalObjectRepository() {
+      this(DEFAULT_MAX_CACHE_SIZE);
+   }
+
+   /**
+    * @param maxCacheSize the maximum number of resolved matches to keep in the cache
+    */
+   public HierarchicalObjectRepository(final int maxCacheSize) {
+      this.maxCacheSize = Math.max(1, maxCacheSize);
+   }
+
    @Override
    public void disableListeners() {
       lock.writeLock().lock();
@@ -154,7 +180,11 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          Match.verify(match);
          Match<T> match1 = new Match<T>(match);
          match1.setValue(value);
-         matches.put(match, match1);
+         Match<T> previous = matches.put(match, match1);
+         if (previous != null) {
+            matchTree.remove(previous);
+         }
+         matchTree.add(match1);
       }
       finally {
          lock.writeLock().unlock();
@@ -175,6 +205,10 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
     * @return the value
     */
    public T getMatch(final String match) {
+      return getMatch(SimpleString.toSimpleString(match));
+   }
+
+   public T getMatch(final SimpleString match) {
       T cacheResult = cache.get(match);
       if (cacheResult != null) {
          return cacheResult;
@@ -182,12 +216,12 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
       lock.readLock().lock();
       try {
          T actualMatch;
-         Map<String, Match<T>> possibleMatches = getPossibleMatches(match);
+         List<Match<T>> possibleMatches = getPossibleMatches(match.toString());
          Collection<Match<T>> orderedMatches = sort(possibleMatches);
          actualMatch = merge(orderedMatches);
          T value = actualMatch != null ? actualMatch : defaultmatch;
          if (value != null) {
-            cache.put(match, value);
+            addToCache(match, value);
          }
          return value;
       }
@@ -196,6 +230,15 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
       }
    }
 
+   private void addToCache(final SimpleString match, final T value) {
+      if (cache.size() >= maxCacheSize) {
+         // removing only some entries would always remove the same hash buckets, while the ones still in use
+         // are resolved again right away after a clear
+         cache.clear();
+      }
+      cache.put(match, value);
+   }
+
    /**
     * merge all the possible matches, if the values implement Mergeable then a full merge is done
     *
@@ -225,14 +268,16 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
     * @param possibleMatches
     * @return
     */
-   private List<Match<T>> sort(final Map<String, Match<T>> possibleMatches) {
-      List<String> keys = new ArrayList<String>(possibleMatches.keySet());
-      Collections.sort(keys, matchComparator);
-      List<Match<T>> matches1 = new ArrayList<Match<T>>(possibleMatches.size());
-      for (String key : keys) {
-         matches1.add(possibleMatches.get(key));
+   private List<Match<T>> sort(final List<Match<T>> possibleMatches) {
+      if (possibleMatches.size() > 1) {
+         Collections.sort(possibleMatches, new Comparator<Match<T>>() {
+            @Override
+            public int compare(final Match<T> o1, final Match<T> o2) {
+               return matchComparator.compare(o1.getMatch(), o2.getMatch());
+            }
+         });
       }
-      return matches1;
+      return possibleMatches;
    }
 
    /**
@@ -253,7 +298,10 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
              * {@link #getMatch(String)} to get the lock to recompute.
              */
             clearCache();
-            matches.remove(match);
+            Match<T> removed = matches.remove(match);
+            if (removed != null) {
+               matchTree.remove(removed);
+            }
             onChange();
          }
       }
@@ -301,6 +349,7 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
          clearCache();
          listeners.clear();
          matches.clear();
+         matchTree = new PrefixNode<T>();
       }
       finally {
          lock.writeLock().unlock();
@@ -336,22 +385,96 @@ public class HierarchicalObjectRepository<T> implements HierarchicalRepository<T
 
    /**
     * return any possible matches
+    * <p>
+    * Only the matches whose literal prefix is a prefix of the match are evaluated, instead of every match in the
+    * repository.
     *
     * @param match
     * @return
     */
-   private Map<String, Match<T>> getPossibleMatches(final String match) {
-      HashMap<String, Match<T>> possibleMatches = new HashMap<String, Match<T>>();
-
-      for (Entry<String, Match<T>> entry : matches.entrySet()) {
-         Match<T> entryMatch = entry.getValue();
-         if (entryMatch.getPattern().matcher(match).matches()) {
-            possibleMatches.put(entry.getKey(), entryMatch);
+   private List<Match<T>> getPossibleMatches(final String match) {
+      List<Match<T>> possibleMatches = new ArrayList<Match<T>>();
+
+      PrefixNode<T> node = matchTree;
+      int position = 0;
+      while (node != null) {
+         for (Match<T> entryMatch : node.matches) {
+            if (entryMatch.getPattern().matcher(match).matches()) {
+               possibleMatches.add(entryMatch);
+            }
          }
+         if (position == match.length() || node.children == null) {
+            break;
+         }
+         node = node.children.get(match.charAt(position++));
       }
       return possibleMatches;
    }
 
+   /**
+    * The part of a match that any matching address starts with.
+    */
+   static String literalPrefix(final String match) {
+      for (int i = 0; i < match.length(); i++) {
+         char c = match.charAt(i);
+         if (Match.WORD_WILDCARD.charAt(0) == c) {
+            return match.substring(0, i);
+         }
+         else if (Match.WILDCARD.charAt(0) == c) {
+            // a.# matches a as well
+            return match.substring(0, i > 0 && match.charAt(i - 1) == '.' ? i - 1 : i);
+         }
+         else if (REGEX_CHARACTERS.indexOf(c) >= 0) {
+            return "";
+         }
+      }
+      return match;
+   }
+
+   /**
+    * A node of a character tree holding the matches by their literal prefix.
+    */
+   private static final class PrefixNode<T> {
+
+      private Map<Character, PrefixNode<T>> children;
+
+      private final List<Match<T>> matches = new ArrayList<Match<T>>(1);
+
+      void add(final Match<T> match) {
+         String prefix = literalPrefix(match.getMatch());
+         PrefixNode<T> node = this;
+         for (int i = 0; i < prefix.length(); i++) {
+            if (node.children == null) {
+               node.children = new HashMap<Character, PrefixNode<T>>();
+            }
+            PrefixNode<T> child = node.children.get(prefix.charAt(i));
+            if (child == null) {
+               child = new PrefixNode<T>();
+               node.children.put(prefix.charAt(i), child);
+            }
+            node = child;
+         }
+         node.matches.add(match);
+      }
+
+      void remove(final Match<T> match) {
+         String prefix = literalPrefix(match.getMatch());
+         PrefixNode<T> node = this;
+         for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children == null ? null : node.children.get(prefix.charAt(i));
+         }
+         if (node != null) {
+            // Match equality is on the match string, so look for this instance
+            for (Iterator<Match<T>> iterator = node.matches.iterator(); iterator.hasNext(); ) {
+               if (iterator.next() == match) {
+                  iterator.remove();
+                  break;
+               }
+            }
+         }
+      }
+   }
+
    /**
     * Compares to matches to see which one is more specific.
     */
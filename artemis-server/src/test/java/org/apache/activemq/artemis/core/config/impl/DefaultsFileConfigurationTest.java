@@ -36,8 +36,12 @@ public class DefaultsFileConfigurationTest extends ConfigurationImplTest {
 
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultThreadPoolMaxSize(), conf.getThreadPoolMaxSize());
 
+      Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultParallelFanOutThreshold(), conf.getParallelFanOutThreshold());
+
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultSecurityInvalidationInterval(), conf.getSecurityInvalidationInterval());
 
+      Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultSecurityCacheMaxSize(), conf.getSecurityCacheMaxSize());
+
       Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultSecurityEnabled(), conf.isSecurityEnabled());
 
       Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultJmxManagementEnabled(), conf.isJMXManagementEnabled());
@@ -74,6 +78,10 @@ public class DefaultsFileConfigurationTest extends ConfigurationImplTest {
 
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultIdCacheSize(), conf.getIDCacheSize());
 
+      Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultIdCacheTtl(), conf.getIDCacheTTL());
+
+      Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultIdCacheBloomFilter(), conf.isIDCacheBloomFilter());
+
       Assert.assertEquals(ActiveMQDefaultConfiguration.isDefaultPersistIdCache(), conf.isPersistIDCache());
 
       Assert.assertEquals(ActiveMQDefaultConfiguration.getDefaultBindingsDirectory(), conf.getBindingsDirectory());
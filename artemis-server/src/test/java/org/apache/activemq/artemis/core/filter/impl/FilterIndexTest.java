@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.core.filter.impl;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.tests.util.SilentTestCase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FilterIndexTest extends SilentTestCase {
+
+   @Test
+   public void testIndexable() throws Exception {
+      Assert.assertTrue(FilterIndex.isIndexable(FilterImpl.createFilter("color = 'RED'")));
+      Assert.assertTrue(FilterIndex.isIndexable(FilterImpl.createFilter("weight > 10 AND color = 'RED'")));
+      Assert.assertTrue(FilterIndex.isIndexable(FilterImpl.createFilter("'RED' = color AND (weight > 10 OR size < 3)")));
+
+      Assert.assertFalse(FilterIndex.isIndexable(FilterImpl.createFilter("color = 'RED' OR color = 'BLUE'")));
+      Assert.assertFalse(FilterIndex.isIndexable(FilterImpl.createFilter("NOT color = 'RED'")));
+      Assert.assertFalse(FilterIndex.isIndexable(FilterImpl.createFilter("color <> 'RED'")));
+      Assert.assertFalse(FilterIndex.isIndexable(FilterImpl.createFilter("weight = 10")));
+   }
+
+   @Test
+   public void testMatch() throws Exception {
+      Map<String, Filter> filters = new LinkedHashMap<String, Filter>();
+      filters.put("red", FilterImpl.createFilter("color = 'RED'"));
+      filters.put("heavyRed", FilterImpl.createFilter("color = 'RED' AND weight > 10"));
+      filters.put("blue", FilterImpl.createFilter("color = 'BLUE'"));
+      filters.put("small", FilterImpl.createFilter("size = 'S' AND color <> 'GREEN'"));
+
+      FilterIndex<String> index = new FilterIndex<String>(filters);
+      Assert.assertEquals(4, index.size());
+
+      ServerMessage message = new ServerMessageImpl(1, 100);
+      Assert.assertTrue(index.match(message).isEmpty());
+
+      message.putStringProperty(new SimpleString("color"), new SimpleString("RED"));
+      message.putIntProperty(new SimpleString("weight"), 5);
+      assertMatch(index, message, "red");
+
+      message.putIntProperty(new SimpleString("weight"), 50);
+      message.putStringProperty(new SimpleString("size"), new SimpleString("S"));
+      assertMatch(index, message, "red", "heavyRed", "small");
+
+      message.putStringProperty(new SimpleString("color"), new SimpleString("GREEN"));
+      assertMatch(index, message);
+
+      // any other type will be evaluated by the filters
+      message.putIntProperty(new SimpleString("color"), 1);
+      assertMatch(index, message, "small");
+   }
+
+   private void assertMatch(FilterIndex<String> index, ServerMessage message, String... expected) {
+      HashSet<String> set = new HashSet<String>();
+      for (String value : expected) {
+         set.add(value);
+      }
+      Assert.assertEquals(set, new HashSet<String>(index.match(message)));
+   }
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.activemq.artemis.core.filter.impl;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.ActiveMQInvalidFilterExpressionException;
 import org.apache.activemq.artemis.api.core.SimpleString;
@@ -233,6 +235,66 @@ public class FilterTest extends SilentTestCase {
 
    }
 
+   @Test
+   public void testStringEqualsOtherTypes() throws Exception {
+      filter = FilterImpl.createFilter(new SimpleString("MyProp = 'astring' OR 'astring' = MyProp"));
+
+      Assert.assertFalse(filter.match(message));
+
+      message.putIntProperty(new SimpleString("MyProp"), 1);
+      Assert.assertFalse(filter.match(message));
+
+      message.putBooleanProperty(new SimpleString("MyProp"), true);
+      Assert.assertFalse(filter.match(message));
+
+      doPutStringProperty("MyProp", "astring");
+      Assert.assertTrue(filter.match(message));
+
+      filter = FilterImpl.createFilter(new SimpleString("NOT (MyProp = 'astring') AND MyProp IS NOT NULL"));
+      Assert.assertFalse(filter.match(message));
+
+      doPutStringProperty("MyProp", "NOTastring");
+      Assert.assertTrue(filter.match(message));
+   }
+
+   @Test
+   public void testConcurrentMatch() throws Exception {
+      filter = FilterImpl.createFilter(new SimpleString("color = 'RED' AND weight > 2500"));
+
+      final Filter theFilter = filter;
+
+      final ServerMessage red = new ServerMessageImpl(1, 1000);
+      red.putStringProperty(new SimpleString("color"), new SimpleString("RED"));
+      red.putIntProperty(new SimpleString("weight"), 3000);
+
+      final ServerMessage blue = new ServerMessageImpl(2, 1000);
+      blue.putStringProperty(new SimpleString("color"), new SimpleString("BLUE"));
+      blue.putIntProperty(new SimpleString("weight"), 3000);
+
+      final AtomicInteger errors = new AtomicInteger(0);
+
+      Thread[] threads = new Thread[10];
+      for (int i = 0; i < threads.length; i++) {
+         threads[i] = new Thread() {
+            @Override
+            public void run() {
+               for (int j = 0; j < 10000; j++) {
+                  if (!theFilter.match(red) || theFilter.match(blue)) {
+                     errors.incrementAndGet();
+                  }
+               }
+            }
+         };
+         threads[i].start();
+      }
+
+      for (Thread t : threads) {
+         t.join();
+      }
+
+      Assert.assertEquals(0, errors.get());
+   }
+
    @Test
    public void testNOT_INWithNullProperty() throws Exception {
       filter = FilterImpl.createFilter(new SimpleString("myNullProp NOT IN ('foo','jms','test')"));
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.security.Role;
 import org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
@@ -230,6 +231,48 @@ public class RepositoryTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testSimpleStringMatch() {
+      HierarchicalRepository<String> repository = new HierarchicalObjectRepository<String>();
+      repository.addMatch("#", "#");
+      repository.addMatch("a.#", "a.#");
+      repository.addMatch("a.*.c", "a.*.c");
+      repository.addMatch("ab", "ab");
+      repository.addMatch("a[bc]", "a[bc]");
+
+      Assert.assertEquals("a.#", repository.getMatch(new SimpleString("a")));
+      Assert.assertEquals("a.*.c", repository.getMatch(new SimpleString("a.b.c")));
+      Assert.assertEquals("ab", repository.getMatch(new SimpleString("ab")));
+      // a.# matches anything starting with a, as documented
+      Assert.assertEquals("a.#", repository.getMatch(new SimpleString("abc")));
+      Assert.assertEquals("a[bc]", repository.getMatch(new SimpleString("ac")));
+      Assert.assertEquals("#", repository.getMatch(new SimpleString("b")));
+      Assert.assertEquals("a.*.c", repository.getMatch("a.b.c"));
+
+      repository.addMatch("a.*.c", "replaced");
+      Assert.assertEquals("replaced", repository.getMatch(new SimpleString("a.b.c")));
+
+      repository.removeMatch("a.*.c");
+      Assert.assertEquals("a.#", repository.getMatch(new SimpleString("a.b.c")));
+
+      repository.clear();
+      Assert.assertNull(repository.getMatch(new SimpleString("a.b.c")));
+   }
+
+   @Test
+   public void testMaxCacheSize() {
+      HierarchicalRepository<String> repository = new HierarchicalObjectRepository<String>(100);
+      repository.addMatch("#", "#");
+      repository.addMatch("queue.1", "queue.1");
+
+      for (int i = 0; i < 1000; i++) {
+         Assert.assertEquals("#", repository.getMatch(new SimpleString("queue.1." + i)));
+         Assert.assertTrue(repository.getCacheSize() <= 100);
+      }
+
+      Assert.assertEquals("queue.1", repository.getMatch(new SimpleString("queue.1")));
+   }
+
    static class DummyMergeable implements Mergeable {
 
       static int timesMerged = 0;
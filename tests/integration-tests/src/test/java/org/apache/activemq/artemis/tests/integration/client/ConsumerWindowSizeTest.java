@@ -473,6 +473,122 @@ public class ConsumerWindowSizeTest extends ActiveMQTestBase {
       Assert.assertEquals(0, getMessageCount(messagingService, queueA.toString()));
    }
 
+   @Test
+   public void testOffHeapBuffer() throws Exception {
+      ActiveMQServer server = createServer(false, isNetty());
+      server.start();
+
+      locator.setConsumerOffHeapBuffer(true);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = sf.createSession(false, true, true);
+      session.createQueue(addressA, queueA, false);
+
+      ClientProducer producer = session.createProducer(addressA);
+      for (int i = 0; i < 20; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.setPriority((byte) (i % 2 == 0 ? 4 : 9));
+         message.putIntProperty("count", i);
+         message.getBodyBuffer().writeString("message " + i);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(queueA);
+      session.start();
+
+      // wait for all the messages to be buffered, so the higher priority ones are received first
+      long timeout = System.currentTimeMillis() + 5000;
+      while (((ClientConsumerInternal) consumer).getBufferSize() < 20 && System.currentTimeMillis() < timeout) {
+         Thread.sleep(10);
+      }
+
+      for (int i = 0; i < 20; i++) {
+         int count = i < 10 ? i * 2 + 1 : (i - 10) * 2;
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(count, message.getIntProperty("count").intValue());
+         Assert.assertEquals("message " + count, message.getBodyBuffer().readString());
+         Assert.assertEquals(addressA, message.getAddress());
+         message.acknowledge();
+      }
+      Assert.assertNull(consumer.receiveImmediate());
+
+      // closing the consumer releases the messages still buffered
+      for (int i = 0; i < 10; i++) {
+         producer.send(session.createMessage(false));
+      }
+      timeout = System.currentTimeMillis() + 5000;
+      while (((ClientConsumerInternal) consumer).getBufferSize() < 10 && System.currentTimeMillis() < timeout) {
+         Thread.sleep(10);
+      }
+      consumer.close();
+
+      consumer = session.createConsumer(queueA);
+      for (int i = 0; i < 10; i++) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         message.acknowledge();
+      }
+
+      session.close();
+
+      Assert.assertEquals(0, getMessageCount(server, queueA.toString()));
+   }
+
+   @Test
+   public void testAdaptiveWindowShrinksForSlowConsumer() throws Exception {
+      ActiveMQServer server = createServer(false, isNetty());
+      server.start();
+
+      final int messageSize = 10 * 1024;
+
+      locator.setConsumerWindowSize(512 * 1024);
+      locator.setConsumerMinWindowSize(64 * 1024);
+      locator.setConsumerMaxWindowSize(1024 * 1024);
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = sf.createSession(false, true, true);
+      session.createQueue(addressA, queueA, false);
+
+      ClientProducer producer = session.createProducer(addressA);
+      for (int i = 0; i < 60; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.getBodyBuffer().writeBytes(new byte[messageSize]);
+         producer.send(message);
+      }
+
+      ClientConsumer consumer = session.createConsumer(queueA);
+      session.start();
+
+      // at 25 milliseconds per message the consumer would take longer than the drain target for any window above the minimum
+      for (int i = 0; i < 60; i++) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         message.acknowledge();
+         Thread.sleep(25);
+      }
+
+      for (int i = 0; i < 60; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.getBodyBuffer().writeBytes(new byte[messageSize]);
+         producer.send(message);
+      }
+
+      Thread.sleep(1000);
+
+      // the initial window would have buffered about 50 of them
+      int bufferSize = ((ClientConsumerInternal) consumer).getBufferSize();
+      Assert.assertTrue("buffered " + bufferSize + " messages", bufferSize > 0 && bufferSize <= 64 * 1024 / messageSize + 2);
+
+      for (int i = 0; i < 60; i++) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         message.acknowledge();
+      }
+
+      session.close();
+
+      Assert.assertEquals(0, getMessageCount(server, queueA.toString()));
+   }
+
    @Test
    public void testSlowConsumerBufferingOne() throws Exception {
       ActiveMQServer server = createServer(false, isNetty());
@@ -5479,6 +5479,93 @@ public class PagingTest extends ActiveMQTestBase {
 
    }
 
+   // The subscription only has infos for the pages with acks after a restart, the pages before those are still pending
+   @Test
+   public void testCleanupAfterRestartWithAcksOnLaterPage() throws Throwable {
+      clearDataRecreateServerDirs();
+
+      Configuration config = createDefaultInVMConfig().setJournalSyncNonTransactional(false);
+
+      server = createServer(true, config, PagingTest.PAGE_SIZE, PagingTest.PAGE_MAX, new HashMap<String, AddressSettings>());
+
+      server.start();
+
+      try {
+         ServerLocator locator = createInVMNonHALocator();
+         ClientSessionFactory sf = locator.createSessionFactory();
+         ClientSession session = sf.createSession(true, true, 0);
+
+         session.createQueue(ADDRESS.toString(), "Q1", true);
+
+         PagingStore store = server.getPagingManager().getPageStore(ADDRESS);
+
+         store.startPaging();
+
+         ClientProducer prod = session.createProducer(ADDRESS);
+
+         for (int i = 0; i < 50; i++) {
+            ClientMessage msg = session.createMessage(true);
+            msg.putIntProperty("count", i);
+            prod.send(msg);
+            if ((i + 1) % 5 == 0) {
+               store.forceAnotherPage();
+            }
+         }
+
+         session.start();
+
+         ClientConsumer cons1 = session.createConsumer("Q1");
+
+         // only the messages of a later page are acked
+         for (int i = 0; i < 50; i++) {
+            ClientMessage msg = cons1.receive(5000);
+            assertNotNull(msg);
+
+            if (i >= 35 && i < 40) {
+               msg.individualAcknowledge();
+            }
+         }
+
+         session.close();
+
+         locator.close();
+
+         server.stop();
+
+         server.start();
+
+         store = server.getPagingManager().getPageStore(ADDRESS);
+
+         store.getCursorProvider().cleanup();
+
+         locator = createInVMNonHALocator();
+
+         sf = locator.createSessionFactory();
+
+         session = sf.createSession(true, true, 0);
+         cons1 = session.createConsumer("Q1");
+         session.start();
+
+         for (int i = 0; i < 50; i++) {
+            if (i >= 35 && i < 40) {
+               continue;
+            }
+            ClientMessage msg = cons1.receive(5000);
+            assertNotNull("message " + i + " was lost", msg);
+            assertEquals(i, msg.getIntProperty("count").intValue());
+            msg.acknowledge();
+         }
+
+         assertNull(cons1.receiveImmediate());
+
+         session.close();
+         waitForNotPaging(store);
+      }
+      finally {
+         server.stop();
+      }
+   }
+
    // Test a scenario where a page was complete and now needs to be cleared
    @Test
    public void testPageCompleteWasLive() throws Throwable {
@@ -16,17 +16,22 @@
  */
 package org.apache.activemq.artemis.tests.integration.client;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientConsumer;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
 import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
 import org.apache.activemq.artemis.api.core.client.ServerLocator;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
 import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
@@ -79,6 +84,168 @@ public class ProducerTest extends ActiveMQTestBase {
       locator.close();
    }
 
+   @Test
+   public void testSendBatch() throws Exception {
+      final AtomicInteger sends = new AtomicInteger();
+      final AtomicInteger batches = new AtomicInteger();
+      server.getRemotingService().addIncomingInterceptor(new Interceptor() {
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException {
+            if (packet.getType() == PacketImpl.SESS_SEND) {
+               sends.incrementAndGet();
+            }
+            else if (packet.getType() == PacketImpl.SESS_SEND_BATCH) {
+               batches.incrementAndGet();
+            }
+            return true;
+         }
+      });
+      server.createQueue(QUEUE, QUEUE, null, true, false);
+
+      ServerLocator locator = createInVMNonHALocator().setBlockOnDurableSend(true);
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession session = cf.createSession(false, true, true);
+      ClientProducer producer = session.createProducer(QUEUE);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 10; i++) {
+         ClientMessage message = session.createMessage(i % 2 == 0);
+         message.putIntProperty("count", i);
+         batch.add(message);
+      }
+      producer.sendBatch(batch);
+
+      Assert.assertEquals(0, sends.get());
+      Assert.assertEquals(1, batches.get());
+
+      session.start();
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      for (int i = 0; i < 10; i++) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(i, message.getIntProperty("count").intValue());
+         Assert.assertEquals(i % 2 == 0, message.isDurable());
+         message.acknowledge();
+      }
+      Assert.assertNull(consumer.receiveImmediate());
+
+      session.close();
+      locator.close();
+   }
+
+   @Test
+   public void testSendBatchWithLargeMessage() throws Exception {
+      final AtomicInteger batches = new AtomicInteger();
+      server.getRemotingService().addIncomingInterceptor(new Interceptor() {
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException {
+            if (packet.getType() == PacketImpl.SESS_SEND_BATCH) {
+               batches.incrementAndGet();
+            }
+            return true;
+         }
+      });
+      server.createQueue(QUEUE, QUEUE, null, true, false);
+
+      ServerLocator locator = createInVMNonHALocator().setMinLargeMessageSize(1024);
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession session = cf.createSession(false, true, true);
+      ClientProducer producer = session.createProducer(QUEUE);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      batch.add(session.createMessage(true));
+      ClientMessage large = session.createMessage(true);
+      large.getBodyBuffer().writeBytes(new byte[10 * 1024]);
+      batch.add(large);
+      producer.sendBatch(batch);
+
+      // a batch with a large message is sent one message at a time
+      Assert.assertEquals(0, batches.get());
+
+      session.start();
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      for (int i = 0; i < 2; i++) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         message.acknowledge();
+      }
+
+      session.close();
+      locator.close();
+   }
+
+   @Test
+   public void testSendBatchWithDuplicate() throws Exception {
+      server.createQueue(QUEUE, QUEUE, null, true, false);
+
+      ServerLocator locator = createInVMNonHALocator().setBlockOnDurableSend(true);
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession session = cf.createSession(false, true, true);
+      ClientProducer producer = session.createProducer(QUEUE);
+
+      ClientMessage sent = session.createMessage(true);
+      sent.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("sent"));
+      producer.send(sent);
+
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 5; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.putIntProperty("count", i);
+         batch.add(message);
+      }
+      // one duplicate of a message already sent, and one of a message earlier in the batch
+      batch.get(1).putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("sent"));
+      batch.get(2).putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("batch"));
+      batch.get(4).putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("batch"));
+      producer.sendBatch(batch);
+
+      session.start();
+      ClientConsumer consumer = session.createConsumer(QUEUE);
+      ClientMessage message = consumer.receive(5000);
+      Assert.assertNotNull(message);
+      Assert.assertFalse(message.containsProperty("count"));
+      message.acknowledge();
+      for (int i : new int[]{0, 2, 3}) {
+         message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(i, message.getIntProperty("count").intValue());
+         message.acknowledge();
+      }
+      Assert.assertNull(consumer.receiveImmediate());
+
+      session.close();
+      locator.close();
+   }
+
+   @Test
+   public void testSendBatchAcknowledgedPerMessage() throws Exception {
+      server.createQueue(QUEUE, QUEUE, null, true, false);
+
+      ServerLocator locator = createInVMNonHALocator().setConfirmationWindowSize(1024).setBlockOnDurableSend(false);
+      ClientSessionFactory cf = createSessionFactory(locator);
+      ClientSession session = cf.createSession(false, true, true);
+
+      final CountDownLatch latch = new CountDownLatch(5);
+      session.setSendAcknowledgementHandler(new SendAcknowledgementHandler() {
+         public void sendAcknowledged(final Message message) {
+            latch.countDown();
+         }
+      });
+
+      ClientProducer producer = session.createProducer(QUEUE);
+      List<ClientMessage> batch = new ArrayList<ClientMessage>();
+      for (int i = 0; i < 5; i++) {
+         // the batch is larger than the confirmation window, so the server confirms it right away
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(new byte[512]);
+         batch.add(message);
+      }
+      producer.sendBatch(batch);
+
+      Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+      session.close();
+      locator.close();
+   }
+
    @Test
    public void testProducerMultiThread() throws Exception {
       final ServerLocator locator = createInVMNonHALocator();
@@ -16,9 +16,17 @@
  */
 package org.apache.activemq.artemis.tests.integration.client;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.ActiveMQInterruptedException;
+import org.apache.activemq.artemis.api.core.ActiveMQNotConnectedException;
+import org.apache.activemq.artemis.api.core.Interceptor;
 import org.apache.activemq.artemis.api.core.Message;
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.api.core.client.ClientMessage;
@@ -27,7 +35,12 @@ import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
 import org.apache.activemq.artemis.api.core.client.SendAcknowledgementHandler;
 import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.client.impl.ClientSessionInternal;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.logs.AssertionLoggerHandler;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
 import org.junit.Assert;
 import org.junit.Before;
@@ -95,6 +108,124 @@ public class SessionSendAcknowledgementHandlerTest extends ActiveMQTestBase {
       verifySendAcknowledgementsProducerOnly(1024);
    }
 
+   @Test
+   public void testSendAsync() throws Exception {
+      ServerLocator locator = createInVMNonHALocator();
+
+      // a window of a few messages, so the producer has to wait for confirmations to send the next ones
+      locator.setConfirmationWindowSize(4 * 1024);
+      locator.setBlockOnDurableSend(true);
+
+      ClientSessionFactory csf = createSessionFactory(locator);
+      ClientSession session = csf.createSession(false, true, true);
+
+      session.createQueue(address, queueName, true);
+
+      ClientProducer prod = session.createProducer(address);
+
+      final int numMessages = 1000;
+
+      List<Future<Message>> futures = new ArrayList<Future<Message>>();
+      List<ClientMessage> messages = new ArrayList<ClientMessage>();
+      for (int i = 0; i < numMessages; i++) {
+         ClientMessage msg = session.createMessage(true);
+         msg.getBodyBuffer().writeBytes(new byte[1024]);
+         messages.add(msg);
+         futures.add(prod.sendAsync(msg));
+      }
+
+      for (int i = 0; i < numMessages; i++) {
+         Assert.assertSame(messages.get(i), futures.get(i).get(5, TimeUnit.SECONDS));
+         Assert.assertTrue(futures.get(i).isDone());
+      }
+
+      Assert.assertEquals(numMessages, getMessageCount(server, queueName.toString()));
+
+      session.close();
+   }
+
+   @Test
+   public void testSendAsyncWithoutConfirmationWindow() throws Exception {
+      final CountDownLatch release = new CountDownLatch(1);
+
+      // the server holds the send, so a blocking send would time out
+      server.getRemotingService().addIncomingInterceptor(new Interceptor() {
+         @Override
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException {
+            if (packet.getType() == PacketImpl.SESS_SEND) {
+               try {
+                  release.await(10, TimeUnit.SECONDS);
+               }
+               catch (InterruptedException e) {
+                  throw new ActiveMQInterruptedException(e);
+               }
+            }
+            return true;
+         }
+      });
+
+      AssertionLoggerHandler.startCapture();
+      try {
+         // the defaults: blockOnDurableSend=true and confirmationWindowSize=-1
+         ServerLocator locator = createInVMNonHALocator();
+         locator.setCallTimeout(1000);
+
+         ClientSessionFactory csf = createSessionFactory(locator);
+         ClientSession session = csf.createSession(false, true, true);
+
+         session.createQueue(address, queueName, true);
+
+         ClientProducer prod = session.createProducer(address);
+
+         ClientMessage msg = session.createMessage(true);
+         Future<Message> future = prod.sendAsync(msg);
+
+         release.countDown();
+
+         Assert.assertSame(msg, future.get(5, TimeUnit.SECONDS));
+         Assert.assertEquals(1, getMessageCount(server, queueName.toString()));
+
+         // the warning about handlers without a confirmation window is not for sendAsync
+         Assert.assertFalse(AssertionLoggerHandler.findText("AMQ212053"));
+
+         session.close();
+      }
+      finally {
+         release.countDown();
+         AssertionLoggerHandler.stopCapture();
+      }
+   }
+
+   @Test
+   public void testSendAsyncFailsOnSessionFailure() throws Exception {
+      ServerLocator locator = createInVMNonHALocator();
+
+      locator.setConfirmationWindowSize(1024 * 1024);
+
+      ClientSessionFactory csf = createSessionFactory(locator);
+      ClientSession session = csf.createSession(false, true, true);
+
+      session.createQueue(address, queueName, false);
+
+      ClientProducer prod = session.createProducer(address);
+
+      List<Future<Message>> futures = new ArrayList<Future<Message>>();
+      for (int i = 0; i < 10; i++) {
+         futures.add(prod.sendAsync(session.createMessage(false)));
+      }
+
+      ((ClientSessionInternal) session).getConnection().fail(new ActiveMQNotConnectedException());
+
+      // the sends the server didn't confirm before the failure must not be left pending
+      for (Future<Message> future : futures) {
+         try {
+            future.get(5, TimeUnit.SECONDS);
+         }
+         catch (ExecutionException expected) {
+         }
+      }
+   }
+
    public void verifySendAcknowledgements(int windowSize) throws Exception {
       ServerLocator locator = createInVMNonHALocator();
 
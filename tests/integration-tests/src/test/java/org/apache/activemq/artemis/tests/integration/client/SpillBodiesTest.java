@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.client;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.settings.impl.AddressFullMessagePolicy;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpillBodiesTest extends ActiveMQTestBase {
+
+   private static final SimpleString ADDRESS = new SimpleString("SpillAddress");
+
+   private static final int MESSAGE_SIZE = 10 * 1024;
+
+   @Test
+   public void testSpillDurable() throws Exception {
+      internalTestSpill(true);
+   }
+
+   @Test
+   public void testSpillNonDurable() throws Exception {
+      internalTestSpill(false);
+   }
+
+   private void internalTestSpill(final boolean durable) throws Exception {
+      HashMap<String, AddressSettings> settings = new HashMap<String, AddressSettings>();
+
+      AddressSettings set = new AddressSettings().setMaxSizeBytes(100 * 1024).setAddressFullMessagePolicy(AddressFullMessagePolicy.SPILL);
+
+      settings.put(ADDRESS.toString(), set);
+
+      ActiveMQServer server = createServer(true, createDefaultInVMConfig(), 10 * 1024, 100 * 1024, settings);
+
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator().setBlockOnNonDurableSend(true).setBlockOnDurableSend(true);
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+
+      ClientSession session = addClientSession(sf.createSession(false, true, true));
+
+      session.createQueue(ADDRESS, ADDRESS, null, true);
+
+      ClientProducer producer = session.createProducer(ADDRESS);
+
+      final int numberOfMessages = 100;
+
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = session.createMessage(durable);
+         message.putIntProperty("count", i);
+         message.putStringProperty("color", i % 2 == 0 ? "red" : "blue");
+         for (int b = 0; b < MESSAGE_SIZE; b++) {
+            message.getBodyBuffer().writeByte(getSamplebyte(b));
+         }
+         producer.send(message);
+      }
+
+      Queue queue = server.locateQueue(ADDRESS);
+
+      // nothing is paged, every message is still in the queue
+      Assert.assertFalse(server.getPagingManager().getPageStore(ADDRESS).isPaging());
+      Assert.assertEquals(numberOfMessages, getMessageCount(queue));
+      Assert.assertTrue(server.getPagingManager().getPageStore(ADDRESS).getAddressSize() < numberOfMessages * MESSAGE_SIZE);
+      Assert.assertTrue(new File(getLargeMessagesDir()).listFiles().length > 0);
+
+      session.start();
+
+      // the selector is still applied to the spilled messages
+      ClientConsumer consumer = session.createConsumer(ADDRESS, "color='blue'");
+
+      for (int i = 1; i < numberOfMessages; i += 2) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(i, message.getIntProperty("count").intValue());
+         validateBody(message);
+         message.acknowledge();
+      }
+      Assert.assertNull(consumer.receiveImmediate());
+      consumer.close();
+
+      consumer = session.createConsumer(ADDRESS);
+
+      for (int i = 0; i < numberOfMessages; i += 2) {
+         ClientMessage message = consumer.receive(5000);
+         Assert.assertNotNull(message);
+         Assert.assertEquals(i, message.getIntProperty("count").intValue());
+         validateBody(message);
+         message.acknowledge();
+      }
+      Assert.assertNull(consumer.receiveImmediate());
+
+      session.close();
+
+      validateNoFilesOnLargeDir();
+   }
+
+   private void validateBody(final ClientMessage message) {
+      Assert.assertEquals(MESSAGE_SIZE, message.getBodySize());
+      for (int b = 0; b < MESSAGE_SIZE; b++) {
+         Assert.assertEquals(getSamplebyte(b), message.getBodyBuffer().readByte());
+      }
+   }
+}
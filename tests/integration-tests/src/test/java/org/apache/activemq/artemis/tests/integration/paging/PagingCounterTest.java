@@ -17,8 +17,13 @@
 package org.apache.activemq.artemis.tests.integration.paging;
 
 import javax.transaction.xa.Xid;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
 import org.apache.activemq.artemis.api.core.client.ClientSession;
 import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
 import org.apache.activemq.artemis.api.core.client.ServerLocator;
@@ -27,6 +32,7 @@ import org.apache.activemq.artemis.core.paging.cursor.PageSubscription;
 import org.apache.activemq.artemis.core.paging.cursor.PageSubscriptionCounter;
 import org.apache.activemq.artemis.core.paging.cursor.impl.PageSubscriptionCounterImpl;
 import org.apache.activemq.artemis.core.persistence.StorageManager;
+import org.apache.activemq.artemis.core.persistence.impl.journal.JournalRecordIds;
 import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContextImpl;
 import org.apache.activemq.artemis.core.server.ActiveMQServer;
 import org.apache.activemq.artemis.core.server.Queue;
@@ -255,6 +261,133 @@ public class PagingCounterTest extends ActiveMQTestBase {
 
    }
 
+   @Test
+   public void testSnapshotCounterRestart() throws Exception {
+      server.stop();
+
+      server = newActiveMQServer(true);
+
+      server.start();
+
+      ClientSessionFactory sf = createSessionFactory(sl);
+      ClientSession session = sf.createSession(false, true, true);
+
+      Queue queue = server.createQueue(new SimpleString("A1"), new SimpleString("A1"), null, true, false);
+
+      ClientProducer producer = session.createProducer("A1");
+
+      final int numberOfMessages = 200;
+
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(new byte[1024]);
+         producer.send(message);
+      }
+
+      assertTrue(server.getPagingManager().getPageStore(new SimpleString("A1")).isPaging());
+
+      session.start();
+
+      ClientConsumer consumer = session.createConsumer("A1");
+
+      for (int i = 0; i < 50; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      session.close();
+      sf.close();
+
+      long expected = getMessageCount(queue);
+
+      assertEquals(numberOfMessages - 50, expected);
+
+      sl.close();
+
+      server.stop();
+
+      server = newActiveMQServer(true);
+
+      server.start();
+
+      queue = server.locateQueue(new SimpleString("A1"));
+
+      assertNotNull(queue);
+
+      // the counter was recalculated from the page files
+      assertEquals(expected, getMessageCount(queue));
+   }
+
+   @Test
+   public void testSnapshotCounterRecords() throws Exception {
+      int records = countCounterRecords(false);
+      int snapshotRecords = countCounterRecords(true);
+
+      // every paged send journals an increment, unless the counter is snapshot
+      assertTrue("records=" + records, records >= 1000);
+      assertTrue("records=" + records + ", snapshotRecords=" + snapshotRecords, snapshotRecords * 4 < records);
+   }
+
+   /**
+    * Sends and consumes paged messages on a new server and counts the counter records appended to its journal.
+    */
+   private int countCounterRecords(final boolean counterSnapshot) throws Exception {
+      server.stop();
+
+      clearDataRecreateServerDirs();
+
+      server = newActiveMQServer(counterSnapshot);
+
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator();
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+      ClientSession session = sf.createSession(false, true, true);
+
+      server.createQueue(new SimpleString("A1"), new SimpleString("A1"), null, true, false);
+
+      ClientProducer producer = session.createProducer("A1");
+
+      final int numberOfMessages = 1000;
+
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = session.createMessage(true);
+         message.getBodyBuffer().writeBytes(new byte[1024]);
+         producer.send(message);
+      }
+
+      assertTrue(server.getPagingManager().getPageStore(new SimpleString("A1")).isPaging());
+
+      session.start();
+
+      ClientConsumer consumer = session.createConsumer("A1");
+
+      for (int i = 0; i < numberOfMessages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+
+      session.close();
+      sf.close();
+      locator.close();
+
+      server.stop();
+
+      HashMap<Integer, AtomicInteger> recordsType = countJournal(server.getConfiguration());
+
+      int records = 0;
+      for (byte type : new byte[]{JournalRecordIds.PAGE_CURSOR_COUNTER_VALUE, JournalRecordIds.PAGE_CURSOR_COUNTER_INC}) {
+         AtomicInteger count = recordsType.get((int) type);
+         if (count != null) {
+            records += count.get();
+         }
+      }
+      return records;
+   }
+
    /**
     * @param queue
     * @return
@@ -330,12 +463,16 @@ public class PagingCounterTest extends ActiveMQTestBase {
    }
 
    private ActiveMQServer newActiveMQServer() throws Exception {
+      return newActiveMQServer(false);
+   }
+
+   private ActiveMQServer newActiveMQServer(final boolean counterSnapshot) throws Exception {
 
       OperationContextImpl.clearContext();
 
       ActiveMQServer server = super.createServer(true, false);
 
-      AddressSettings defaultSetting = new AddressSettings().setPageSizeBytes(10 * 1024).setMaxSizeBytes(20 * 1024);
+      AddressSettings defaultSetting = new AddressSettings().setPageSizeBytes(10 * 1024).setMaxSizeBytes(20 * 1024).setPageCounterSnapshot(counterSnapshot);
 
       server.getAddressSettingsRepository().addMatch("#", defaultSetting);
 
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.integration.remoting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyAcceptorFactory;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.utils.ConcurrentHashSet;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeliveryAffinityTest extends ActiveMQTestBase {
+
+   private static final String NETTY_THREADS = "activemq-netty-threads";
+
+   private final Set<String> deliveryThreads = new ConcurrentHashSet<String>();
+
+   private ActiveMQServer server;
+
+   private ServerLocator locator;
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.DELIVERY_AFFINITY, true);
+
+      TransportConfiguration tc = new TransportConfiguration(NettyAcceptorFactory.class.getName(), params);
+
+      Configuration config = createBasicConfig().addAcceptorConfiguration(tc);
+      server = createServer(false, config);
+      server.start();
+
+      server.getRemotingService().addOutgoingInterceptor(new Interceptor() {
+         public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException {
+            if (packet.getType() == PacketImpl.SESS_RECEIVE_MSG) {
+               deliveryThreads.add(Thread.currentThread().getName());
+            }
+            return true;
+         }
+      });
+
+      locator = createNettyNonHALocator();
+      addServerLocator(locator);
+   }
+
+   @Test
+   public void testDeliveryOnEventLoop() throws Exception {
+      final String foo = "foo";
+
+      ClientSessionFactory sf = createSessionFactory(locator);
+
+      ClientSession session = sf.createSession();
+
+      session.createQueue(foo, foo);
+
+      ClientProducer prod = session.createProducer(foo);
+
+      ClientConsumer cons = session.createConsumer(foo);
+
+      final int numMessages = 100;
+
+      for (int i = 0; i < numMessages; i++) {
+         ClientMessage msg = session.createMessage(true);
+         msg.putIntProperty("count", i);
+         prod.send(msg);
+      }
+
+      // the consumer is not started, so the messages are queued and delivered later
+      session.start();
+
+      for (int i = 0; i < numMessages; i++) {
+         ClientMessage msg = cons.receive(10000);
+
+         assertNotNull(msg);
+
+         assertEquals(i, msg.getIntProperty("count").intValue());
+
+         msg.acknowledge();
+      }
+
+      assertFalse(deliveryThreads.isEmpty());
+
+      for (String thread : deliveryThreads) {
+         assertTrue(thread, thread.contains(NETTY_THREADS));
+      }
+   }
+
+   @Test
+   public void testSharedQueueUsesQueueExecutor() throws Exception {
+      final String foo = "foo";
+
+      ClientSessionFactory sf1 = createSessionFactory(locator);
+
+      ClientSessionFactory sf2 = createSessionFactory(locator);
+
+      ClientSession session1 = sf1.createSession();
+
+      ClientSession session2 = sf2.createSession();
+
+      session1.createQueue(foo, foo);
+
+      ClientProducer prod = session1.createProducer(foo);
+
+      ClientConsumer cons1 = session1.createConsumer(foo);
+
+      ClientConsumer cons2 = session2.createConsumer(foo);
+
+      final int numMessages = 100;
+
+      for (int i = 0; i < numMessages; i++) {
+         prod.send(session1.createMessage(true));
+      }
+
+      session1.start();
+
+      session2.start();
+
+      int received = 0;
+
+      for (ClientConsumer cons : new ClientConsumer[]{cons1, cons2}) {
+         ClientMessage msg = cons.receive(1000);
+         while (msg != null) {
+            msg.acknowledge();
+            received++;
+            msg = cons.receive(1000);
+         }
+      }
+
+      assertEquals(numMessages, received);
+
+      for (String thread : deliveryThreads) {
+         assertFalse(thread, thread.contains(NETTY_THREADS));
+      }
+   }
+}
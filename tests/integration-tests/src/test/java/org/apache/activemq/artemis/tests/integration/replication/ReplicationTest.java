@@ -70,6 +70,8 @@ import org.apache.activemq.artemis.core.persistence.impl.journal.JournalStorageM
 import org.apache.activemq.artemis.core.persistence.impl.journal.OperationContextImpl;
 import org.apache.activemq.artemis.core.protocol.core.CoreRemotingConnection;
 import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationBatchMessage;
 import org.apache.activemq.artemis.core.replication.ReplicatedJournal;
 import org.apache.activemq.artemis.core.replication.ReplicationManager;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
@@ -283,6 +285,31 @@ public final class ReplicationTest extends ActiveMQTestBase {
       Assert.assertEquals(0, store.getNumberOfPages());
    }
 
+   @Test
+   public void testSendJournalOperationsInBatches() throws Exception {
+      final int numberOfOperations = 1000;
+      BatchInterceptor.batches.set(0);
+      BatchInterceptor.operations.set(0);
+      setupServer(true, BatchInterceptor.class.getName());
+
+      StorageManager storage = getStorage();
+
+      manager = liveServer.getReplicationManager();
+      waitForComponent(manager);
+
+      Journal replicatedJournal = new ReplicatedJournal((byte) 1, new FakeJournal(), manager);
+
+      for (int i = 0; i < numberOfOperations; i++) {
+         replicatedJournal.appendAddRecord(i, (byte) 1, new FakeData(), false);
+      }
+
+      blockOnReplication(storage, manager);
+
+      Assert.assertTrue("Expecting no active tokens:" + manager.getActiveTokens(), manager.getActiveTokens().isEmpty());
+      Assert.assertTrue(BatchInterceptor.batches.get() > 0);
+      Assert.assertEquals(numberOfOperations, BatchInterceptor.operations.get());
+   }
+
    @Test
    public void testSendPacketsWithFailure() throws Exception {
       final int nMsg = 100;
@@ -605,6 +632,22 @@ public final class ReplicationTest extends ActiveMQTestBase {
 
    }
 
+   public static final class BatchInterceptor implements Interceptor {
+
+      static AtomicInteger batches = new AtomicInteger();
+
+      static AtomicInteger operations = new AtomicInteger();
+
+      public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException {
+         if (packet.getType() == PacketImpl.REPLICATION_BATCH) {
+            batches.incrementAndGet();
+            operations.addAndGet(((ReplicationBatchMessage) packet).getCount());
+         }
+         return true;
+      }
+
+   }
+
    static final class FakeJournal implements Journal {
 
       public void appendAddRecord(final long id,
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.consumer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.MessageHandler;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the time a fast and a slow consumer sharing a queue take to consume a backlog of messages, and how the
+ * messages are spread between them, with a fixed and with an adaptive consumer window.
+ */
+public class AdaptiveConsumerWindowPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("adaptive");
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   private static final int NUMBER_OF_MESSAGES = 5000;
+
+   private static final long SLOW_CONSUMER_SLEEP_MILLIS = 5;
+
+   @Test
+   public void testFastAndSlowConsumers() throws Exception {
+      for (int i = 0; i < 2; i++) {
+         run(false);
+         run(true);
+      }
+   }
+
+   private void run(final boolean adaptive) throws Exception {
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY)));
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+      if (adaptive) {
+         // the consumers start with a small window, the fast one grows it
+         locator.setConsumerWindowSize(64 * 1024);
+         locator.setConsumerMinWindowSize(16 * 1024);
+         locator.setConsumerMaxWindowSize(8 * 1024 * 1024);
+      }
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, false);
+
+         ClientProducer producer = session.createProducer(QUEUE);
+         byte[] body = new byte[MESSAGE_SIZE];
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            ClientMessage message = session.createMessage(false);
+            message.getBodyBuffer().writeBytes(body);
+            producer.send(message);
+         }
+
+         CountDownLatch done = new CountDownLatch(NUMBER_OF_MESSAGES);
+         ClientSession fastSession = factory.createSession(false, true, true);
+         ClientSession slowSession = factory.createSession(false, true, true);
+         Handler fast = new Handler(done, 0);
+         Handler slow = new Handler(done, SLOW_CONSUMER_SLEEP_MILLIS);
+         ClientConsumer fastConsumer = fastSession.createConsumer(QUEUE);
+         fastConsumer.setMessageHandler(fast);
+         ClientConsumer slowConsumer = slowSession.createConsumer(QUEUE);
+         slowConsumer.setMessageHandler(slow);
+
+         long start = System.nanoTime();
+         slowSession.start();
+         fastSession.start();
+         if (!done.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("the messages weren't consumed in time");
+         }
+         long end = System.nanoTime();
+
+         System.out.println((adaptive ? "adaptive window" : "fixed window") + ": " +
+                               TimeUnit.NANOSECONDS.toMillis(end - start) + " milliseconds to consume " +
+                               NUMBER_OF_MESSAGES + " messages, fast consumer " + fast.count.get() +
+                               ", slow consumer " + slow.count.get());
+
+         slowSession.close();
+         fastSession.close();
+         session.close();
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+
+   private static final class Handler implements MessageHandler {
+
+      private final AtomicInteger count = new AtomicInteger();
+
+      private final CountDownLatch done;
+
+      private final long sleepMillis;
+
+      private Handler(final CountDownLatch done, final long sleepMillis) {
+         this.done = done;
+         this.sleepMillis = sleepMillis;
+      }
+
+      @Override
+      public void onMessage(final ClientMessage message) {
+         try {
+            if (sleepMillis > 0) {
+               Thread.sleep(sleepMillis);
+            }
+            message.acknowledge();
+            count.incrementAndGet();
+            done.countDown();
+         }
+         catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+         catch (ActiveMQException e) {
+            e.printStackTrace();
+         }
+      }
+   }
+}
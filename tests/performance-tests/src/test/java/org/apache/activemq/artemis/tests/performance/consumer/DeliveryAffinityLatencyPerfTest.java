@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.consumer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the latency percentiles of a message going from a producer to a consumer of the same connection, with
+ * the deliveries of the queue run by its executor and by the event loop of the connection.
+ * <p>
+ * Direct delivery is disabled so every message goes through a delivery pass.
+ */
+public class DeliveryAffinityLatencyPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("affinity");
+
+   private static final int WARMUP_MESSAGES = 5000;
+
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   @Test
+   public void testDeliveryLatency() throws Exception {
+      for (int i = 0; i < 2; i++) {
+         run(false);
+         run(true);
+      }
+   }
+
+   private void run(final boolean deliveryAffinity) throws Exception {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.DIRECT_DELIVER, false);
+      params.put(TransportConstants.DELIVERY_AFFINITY, deliveryAffinity);
+
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY, params)));
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, false);
+
+         ClientProducer producer = session.createProducer(QUEUE);
+         ClientConsumer consumer = session.createConsumer(QUEUE);
+         session.start();
+
+         long[] latencies = new long[NUMBER_OF_MESSAGES];
+
+         for (int i = 0; i < WARMUP_MESSAGES + NUMBER_OF_MESSAGES; i++) {
+            long start = System.nanoTime();
+            producer.send(session.createMessage(false));
+            ClientMessage message = consumer.receive(5000);
+            long end = System.nanoTime();
+
+            if (message == null) {
+               throw new IllegalStateException("message " + i + " wasn't received");
+            }
+            message.acknowledge();
+
+            if (i >= WARMUP_MESSAGES) {
+               latencies[i - WARMUP_MESSAGES] = end - start;
+            }
+         }
+
+         Arrays.sort(latencies);
+
+         System.out.println((deliveryAffinity ? "event loop deliveries" : "queue executor deliveries") +
+                               ": p50=" + percentile(latencies, 0.5) + "us, p90=" + percentile(latencies, 0.9) +
+                               "us, p99=" + percentile(latencies, 0.99) + "us, p99.9=" + percentile(latencies, 0.999) +
+                               "us, max=" + TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]) + "us");
+
+         session.close();
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+
+   private static long percentile(final long[] sortedLatencies, final double percentile) {
+      return TimeUnit.NANOSECONDS.toMicros(sortedLatencies[(int) (percentile * (sortedLatencies.length - 1))]);
+   }
+}
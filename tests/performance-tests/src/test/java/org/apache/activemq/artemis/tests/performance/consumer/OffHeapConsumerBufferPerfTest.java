@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.consumer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.client.impl.ClientConsumerInternal;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the heap used by a consumer with a large window once its buffer is full, and the time spent in garbage
+ * collections while receiving messages with a full buffer, with the messages buffered on heap and off heap.
+ */
+public class OffHeapConsumerBufferPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("prefetch");
+
+   private static final int CONSUMER_WINDOW_SIZE = 64 * 1024 * 1024;
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   private static final int NUMBER_OF_BUFFERED_MESSAGES = 40000;
+
+   private static final int NUMBER_OF_MESSAGES = 200000;
+
+   @Test
+   public void testBuffer() throws Exception {
+      for (boolean offHeap : new boolean[]{false, true, false, true}) {
+         run(offHeap);
+      }
+   }
+
+   private void run(final boolean offHeap) throws Exception {
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY)));
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+      locator.setConsumerWindowSize(CONSUMER_WINDOW_SIZE);
+      locator.setConsumerOffHeapBuffer(offHeap);
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, false);
+
+         ClientProducer producer = session.createProducer(QUEUE);
+         ClientConsumer consumer = session.createConsumer(QUEUE);
+
+         byte[] body = new byte[MESSAGE_SIZE];
+
+         send(session, producer, body, NUMBER_OF_BUFFERED_MESSAGES);
+
+         long heapBefore = usedHeap();
+         session.start();
+         while (((ClientConsumerInternal) consumer).getBufferSize() < NUMBER_OF_BUFFERED_MESSAGES) {
+            Thread.sleep(10);
+         }
+         long bufferHeap = usedHeap() - heapBefore;
+
+         // keep the buffer full while receiving
+         long gcTimeBefore = gcTime();
+         long start = System.nanoTime();
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            ClientMessage message = session.createMessage(false);
+            message.getBodyBuffer().writeBytes(body);
+            producer.send(message);
+
+            message = consumer.receive(5000);
+            assertNotNull(message);
+            message.acknowledge();
+         }
+         long end = System.nanoTime();
+         long gcTime = gcTime() - gcTimeBefore;
+
+         System.out.println((offHeap ? "off heap" : "on heap") + ": " + bufferHeap / NUMBER_OF_BUFFERED_MESSAGES +
+                               " heap bytes per buffered message, " + gcTime + " milliseconds of GC and " +
+                               (end - start) / NUMBER_OF_MESSAGES + " nanoseconds per message");
+
+         session.close();
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+
+   private static void send(final ClientSession session,
+                            final ClientProducer producer,
+                            final byte[] body,
+                            final int messages) throws Exception {
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.getBodyBuffer().writeBytes(body);
+         producer.send(message);
+      }
+   }
+
+   private static long usedHeap() {
+      for (int i = 0; i < 3; i++) {
+         System.gc();
+      }
+      return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+   }
+
+   private static long gcTime() {
+      long time = 0;
+      for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+         time += collector.getCollectionTime();
+      }
+      return time;
+   }
+}
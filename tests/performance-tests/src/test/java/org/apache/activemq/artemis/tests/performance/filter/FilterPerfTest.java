@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.filter;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the evaluation of the most common selector shapes against server messages.
+ */
+public class FilterPerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_MATCHES = 5000000;
+
+   private static final int NUMBER_OF_THREADS = 8;
+
+   private static final String[] SELECTORS = {"type = 'order'",
+      "type = 'order' AND region = 'EMEA'",
+      "type = 'order' OR type = 'invoice' OR type = 'refund'",
+      "amount > 100 AND amount <= 1000",
+      "amount BETWEEN 100 AND 1000",
+      "region IN ('EMEA', 'APAC', 'AMER')",
+      "customer LIKE 'acme%'",
+      "missing IS NULL AND type <> 'refund'",
+      "AMQPriority > 3 AND AMQDurable = 'DURABLE'"};
+
+   @Test
+   public void testSelectors() throws Exception {
+      ServerMessage message = createMessage();
+
+      for (String selector : SELECTORS) {
+         Filter filter = FilterImpl.createFilter(new SimpleString(selector));
+
+         // warming up
+         run(filter, message, NUMBER_OF_MATCHES / 10);
+
+         long start = System.nanoTime();
+         run(filter, message, NUMBER_OF_MATCHES);
+         long end = System.nanoTime();
+
+         System.out.println(selector + ": " + (end - start) / NUMBER_OF_MATCHES + " nanoseconds per match");
+      }
+   }
+
+   @Test
+   public void testSharedFilterMultipleThreads() throws Exception {
+      final ServerMessage message = createMessage();
+      final Filter filter = FilterImpl.createFilter(new SimpleString(SELECTORS[1]));
+
+      run(filter, message, NUMBER_OF_MATCHES / 10);
+
+      final CountDownLatch latchStart = new CountDownLatch(1);
+
+      Thread[] threads = new Thread[NUMBER_OF_THREADS];
+
+      for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+         threads[i] = new Thread() {
+            @Override
+            public void run() {
+               try {
+                  latchStart.await();
+                  FilterPerfTest.run(filter, message, NUMBER_OF_MATCHES);
+               }
+               catch (InterruptedException e) {
+                  e.printStackTrace();
+               }
+            }
+         };
+         threads[i].start();
+      }
+
+      long start = System.currentTimeMillis();
+
+      latchStart.countDown();
+
+      for (Thread t : threads) {
+         t.join();
+      }
+
+      long end = System.currentTimeMillis();
+
+      System.out.println(NUMBER_OF_THREADS + " threads sharing one filter: " +
+                            (long) NUMBER_OF_MATCHES * NUMBER_OF_THREADS * 1000 / Math.max(1, end - start) +
+                            " matches per second");
+   }
+
+   private static ServerMessage createMessage() {
+      ServerMessage message = new ServerMessageImpl(1, 1024);
+      message.setDurable(true);
+      message.setPriority((byte) 4);
+      message.putStringProperty(new SimpleString("type"), new SimpleString("order"));
+      message.putStringProperty(new SimpleString("region"), new SimpleString("EMEA"));
+      message.putStringProperty(new SimpleString("customer"), new SimpleString("acme corporation"));
+      message.putIntProperty(new SimpleString("amount"), 500);
+      return message;
+   }
+
+   private static int run(final Filter filter, final ServerMessage message, final int times) {
+      int matches = 0;
+      for (int i = 0; i < times; i++) {
+         if (filter.match(message)) {
+            matches++;
+         }
+      }
+      return matches;
+   }
+}
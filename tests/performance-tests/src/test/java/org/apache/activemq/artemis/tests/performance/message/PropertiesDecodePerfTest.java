@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.message;
+
+import java.lang.management.ManagementFactory;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.postoffice.PostOffice;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.Queue;
+import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.utils.TypedProperties;
+import org.junit.Test;
+
+/**
+ * Measures the memory allocated and the time taken to decode the properties of a routed message, read its duplicate
+ * ID and group ID and encode it again, with the properties decoded eagerly and lazily. The same is measured for
+ * messages decoded and routed by the {@link PostOffice} to a queue.
+ */
+public class PropertiesDecodePerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_PROPERTIES = 10;
+
+   private static final int NUMBER_OF_WARMUP_MESSAGES = 100000;
+
+   private static final int NUMBER_OF_MESSAGES = 1000000;
+
+   @Test
+   public void testDecode() throws Exception {
+      TypedProperties props = new TypedProperties();
+      props.putSimpleStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("duplicate-" + System.nanoTime()));
+      props.putSimpleStringProperty(Message.HDR_GROUP_ID, new SimpleString("group"));
+      for (int i = 0; i < NUMBER_OF_PROPERTIES; i++) {
+         props.putIntProperty(new SimpleString("property" + i), i);
+      }
+
+      ActiveMQBuffer encoded = ActiveMQBuffers.dynamicBuffer(1024);
+      props.encode(encoded);
+
+      for (boolean lazy : new boolean[]{false, true, false, true}) {
+         decode(encoded, lazy, NUMBER_OF_WARMUP_MESSAGES);
+
+         com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+         long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+         long start = System.nanoTime();
+
+         decode(encoded, lazy, NUMBER_OF_MESSAGES);
+
+         long end = System.nanoTime();
+         long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+
+         System.out.println((lazy ? "lazy" : "eager") + ": " + allocated / NUMBER_OF_MESSAGES + " bytes and " +
+                               (end - start) / NUMBER_OF_MESSAGES + " nanoseconds per message");
+      }
+   }
+
+   @Test
+   public void testRoute() throws Exception {
+      ActiveMQServer server = createServer(false);
+      server.start();
+
+      try {
+         SimpleString address = new SimpleString("route");
+         Queue queue = server.createQueue(address, address, null, false, false);
+
+         ServerMessageImpl message = new ServerMessageImpl(1, 1024);
+         message.setAddress(address);
+         message.setDurable(false);
+         message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("duplicate-" + System.nanoTime()));
+         message.putStringProperty(Message.HDR_GROUP_ID, new SimpleString("group"));
+         for (int i = 0; i < NUMBER_OF_PROPERTIES; i++) {
+            message.putIntProperty(new SimpleString("property" + i), i);
+         }
+
+         ActiveMQBuffer encoded = ActiveMQBuffers.dynamicBuffer(1024);
+         message.encode(encoded);
+
+         for (boolean lazy : new boolean[]{false, true, false, true}) {
+            route(server.getPostOffice(), queue, encoded, lazy, NUMBER_OF_WARMUP_MESSAGES);
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            long start = System.nanoTime();
+
+            route(server.getPostOffice(), queue, encoded, lazy, NUMBER_OF_MESSAGES);
+
+            long end = System.nanoTime();
+            long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+
+            System.out.println((lazy ? "lazy" : "eager") + " route: " + allocated / NUMBER_OF_MESSAGES + " bytes and " +
+                                  (end - start) / NUMBER_OF_MESSAGES + " nanoseconds per message");
+         }
+      }
+      finally {
+         server.stop();
+      }
+   }
+
+   private static void route(final PostOffice postOffice,
+                             final Queue queue,
+                             final ActiveMQBuffer encoded,
+                             final boolean lazy,
+                             final int messages) throws Exception {
+      for (int i = 0; i < messages; i++) {
+         encoded.readerIndex(0);
+
+         ServerMessageImpl message = new ServerMessageImpl(i, 1024) {
+            @Override
+            protected boolean isLazyPropertiesDecode() {
+               return lazy;
+            }
+         };
+         message.decode(encoded);
+         postOffice.route(message, null, false);
+
+         if (i % 10000 == 9999) {
+            queue.deleteAllReferences();
+         }
+      }
+      queue.deleteAllReferences();
+   }
+
+   private static void decode(final ActiveMQBuffer encoded, final boolean lazy, final int messages) {
+      ActiveMQBuffer output = ActiveMQBuffers.dynamicBuffer(encoded.writerIndex());
+
+      for (int i = 0; i < messages; i++) {
+         encoded.readerIndex(0);
+         output.clear();
+
+         TypedProperties props = new TypedProperties();
+         props.decode(encoded, lazy);
+         props.getProperty(Message.HDR_DUPLICATE_DETECTION_ID);
+         props.getSimpleStringProperty(Message.HDR_GROUP_ID);
+         props.encode(output);
+      }
+   }
+}
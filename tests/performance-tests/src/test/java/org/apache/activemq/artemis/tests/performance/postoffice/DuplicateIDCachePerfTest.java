@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.postoffice;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.persistence.impl.nullpm.NullStorageManager;
+import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
+import org.apache.activemq.artemis.core.postoffice.impl.DuplicateIDCacheImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.StripedDuplicateIDCache;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures duplicate detection on a single hot address with many concurrent senders.
+ */
+public class DuplicateIDCachePerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_THREADS = 16;
+
+   private static final int NUMBER_OF_IDS = 200000;
+
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   private static final int ID_CACHE_SIZE = 20000;
+
+   private static final SimpleString ADDRESS = new SimpleString("test-adr");
+
+   @Test
+   public void testAtomicVerify() throws Throwable {
+      // warming up
+      verify(new DuplicateIDCacheImpl(ADDRESS, ID_CACHE_SIZE, new NullStorageManager(), false));
+      verify(new StripedDuplicateIDCache(ADDRESS, ID_CACHE_SIZE, new NullStorageManager(), false));
+
+      System.out.println("Synchronized cache: " + verify(new DuplicateIDCacheImpl(ADDRESS, ID_CACHE_SIZE, new NullStorageManager(), false)) + " ids per second");
+      System.out.println("Striped cache: " + verify(new StripedDuplicateIDCache(ADDRESS, ID_CACHE_SIZE, new NullStorageManager(), false)) + " ids per second");
+      System.out.println("Striped cache with TTL: " + verify(new StripedDuplicateIDCache(ADDRESS, ID_CACHE_SIZE, new NullStorageManager(), false, 60000, false)) + " ids per second");
+      System.out.println("Striped cache with filter: " + verify(new StripedDuplicateIDCache(ADDRESS, ID_CACHE_SIZE, new NullStorageManager(), false, -1, true)) + " ids per second");
+   }
+
+   private long verify(final DuplicateIDCache cache) throws Throwable {
+      final CountDownLatch latchStart = new CountDownLatch(1);
+
+      final Throwable[] errors = new Throwable[1];
+
+      Thread[] threads = new Thread[NUMBER_OF_THREADS];
+
+      for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+         final int thread = i;
+         threads[i] = new Thread() {
+            @Override
+            public void run() {
+               try {
+                  latchStart.await();
+                  for (int id = 0; id < NUMBER_OF_IDS; id++) {
+                     cache.atomicVerify(("thread-" + thread + "-" + id).getBytes(), null);
+                  }
+               }
+               catch (Throwable e) {
+                  errors[0] = e;
+               }
+            }
+         };
+         threads[i].start();
+      }
+
+      long start = System.currentTimeMillis();
+
+      latchStart.countDown();
+
+      for (Thread t : threads) {
+         t.join();
+      }
+
+      long end = System.currentTimeMillis();
+
+      if (errors[0] != null) {
+         throw errors[0];
+      }
+
+      return (long) NUMBER_OF_IDS * NUMBER_OF_THREADS * 1000 / Math.max(1, end - start);
+   }
+
+   @Test
+   public void testSendsWithDuplicateID() throws Throwable {
+      ActiveMQServer server = createServer(false, createDefaultInVMConfig().setIDCacheSize(ID_CACHE_SIZE));
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator();
+
+      try {
+         final ClientSessionFactory factory = createSessionFactory(locator);
+
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(ADDRESS, ADDRESS, null, false);
+         session.close();
+
+         final CountDownLatch latchAlign = new CountDownLatch(NUMBER_OF_THREADS);
+
+         final CountDownLatch latchStart = new CountDownLatch(1);
+
+         class Sender extends Thread {
+
+            private final int number;
+
+            private final ClientSession session;
+
+            private final ClientProducer producer;
+
+            Throwable e;
+
+            Sender(final int number) throws Exception {
+               this.number = number;
+               session = factory.createSession(false, true, true);
+               producer = session.createProducer(ADDRESS);
+            }
+
+            public void cleanUp() throws Exception {
+               session.close();
+            }
+
+            @Override
+            public void run() {
+               try {
+                  latchAlign.countDown();
+                  ActiveMQTestBase.waitForLatch(latchStart);
+
+                  for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+                     ClientMessage message = session.createMessage(false);
+                     message.putStringProperty(Message.HDR_DUPLICATE_DETECTION_ID, new SimpleString("sender-" + number + "-" + i));
+                     producer.send(message);
+                  }
+               }
+               catch (Throwable e) {
+                  this.e = e;
+               }
+            }
+         }
+
+         Sender[] senders = new Sender[NUMBER_OF_THREADS];
+
+         for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+            senders[i] = new Sender(i);
+            senders[i].start();
+         }
+
+         ActiveMQTestBase.waitForLatch(latchAlign);
+
+         long timeStart = System.currentTimeMillis();
+
+         latchStart.countDown();
+
+         for (Thread t : senders) {
+            t.join();
+         }
+
+         long timeEnd = System.currentTimeMillis();
+
+         System.out.println(NUMBER_OF_THREADS + " senders with " + Message.HDR_DUPLICATE_DETECTION_ID + ": " +
+                               (long) NUMBER_OF_MESSAGES * NUMBER_OF_THREADS * 1000 / Math.max(1, timeEnd - timeStart) +
+                               " messages per second");
+
+         for (Sender s : senders) {
+            if (s.e != null) {
+               throw s.e;
+            }
+            s.cleanUp();
+         }
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+}
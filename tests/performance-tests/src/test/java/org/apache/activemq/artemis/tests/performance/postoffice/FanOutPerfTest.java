@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.postoffice;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the latency of blocking sends to an address with many queues, with the references added by the routing
+ * thread and with the parallel fan out.
+ */
+public class FanOutPerfTest extends ActiveMQTestBase {
+
+   private static final int[] NUMBER_OF_QUEUES = {1000, 2000, 5000, 10000};
+
+   private static final int PARALLEL_FAN_OUT_THRESHOLD = 500;
+
+   private static final int NUMBER_OF_WARMUP_MESSAGES = 50;
+
+   private static final int NUMBER_OF_MESSAGES = 200;
+
+   private static final SimpleString ADDRESS = new SimpleString("fan-out");
+
+   @Test
+   public void testSendLatency() throws Exception {
+      for (int queues : NUMBER_OF_QUEUES) {
+         System.out.println(queues + " queues, serial: " + sendLatency(queues, -1) + " microseconds per send");
+         System.out.println(queues + " queues, parallel: " + sendLatency(queues, PARALLEL_FAN_OUT_THRESHOLD) + " microseconds per send");
+      }
+   }
+
+   private long sendLatency(final int queues, final int threshold) throws Exception {
+      ActiveMQServer server = createServer(false, createDefaultInVMConfig().setParallelFanOutThreshold(threshold));
+      server.start();
+
+      ServerLocator locator = createInVMNonHALocator().setBlockOnNonDurableSend(true);
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+
+         ClientSession session = factory.createSession(false, true, true);
+         for (int i = 0; i < queues; i++) {
+            session.createQueue(ADDRESS, ADDRESS.concat("." + i), null, false);
+         }
+
+         ClientProducer producer = session.createProducer(ADDRESS);
+
+         for (int i = 0; i < NUMBER_OF_WARMUP_MESSAGES; i++) {
+            producer.send(session.createMessage(false));
+         }
+
+         long start = System.nanoTime();
+
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            producer.send(session.createMessage(false));
+         }
+
+         long end = System.nanoTime();
+
+         session.close();
+
+         return (end - start) / NUMBER_OF_MESSAGES / 1000;
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+}
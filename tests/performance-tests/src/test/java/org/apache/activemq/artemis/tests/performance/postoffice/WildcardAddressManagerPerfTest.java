@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.postoffice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.postoffice.Address;
+import org.apache.activemq.artemis.core.postoffice.Binding;
+import org.apache.activemq.artemis.core.postoffice.BindingType;
+import org.apache.activemq.artemis.core.postoffice.Bindings;
+import org.apache.activemq.artemis.core.postoffice.BindingsFactory;
+import org.apache.activemq.artemis.core.postoffice.impl.AddressImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.BindingsImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.WildcardAddressManager;
+import org.apache.activemq.artemis.core.server.Bindable;
+import org.apache.activemq.artemis.core.server.RoutingContext;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the cost of linking MQTT like topics to wildcard subscriptions.
+ * <p>
+ * The linear numbers are the cost of matching each new address against every wildcard address,
+ * which is what the manager used to do before the addresses were kept on a trie.
+ */
+public class WildcardAddressManagerPerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_DEVICES = 100000;
+
+   private static final int NUMBER_OF_REGIONS = 100;
+
+   @Test
+   public void testLinkAddresses() throws Exception {
+      WildcardAddressManager manager = new WildcardAddressManager(new BindingsFactory() {
+         @Override
+         public Bindings createBindings(SimpleString address) throws Exception {
+            return new BindingsImpl(address, null, null);
+         }
+      });
+
+      List<SimpleString> wildCards = new ArrayList<SimpleString>();
+
+      for (int region = 0; region < NUMBER_OF_REGIONS; region++) {
+         wildCards.add(new SimpleString("devices." + region + ".*.temperature"));
+         wildCards.add(new SimpleString("devices." + region + ".#"));
+      }
+      wildCards.add(new SimpleString("devices.*.*.alarm"));
+      wildCards.add(new SimpleString("#"));
+
+      long start = System.currentTimeMillis();
+
+      for (SimpleString wildCard : wildCards) {
+         manager.addBinding(new FakeBinding(wildCard, wildCard));
+      }
+
+      for (int device = 0; device < NUMBER_OF_DEVICES; device++) {
+         SimpleString address = deviceAddress(device, "status");
+         manager.addBinding(new FakeBinding(address, address));
+      }
+
+      long end = System.currentTimeMillis();
+
+      System.out.println("Added " + (wildCards.size() + NUMBER_OF_DEVICES) + " bindings in " + (end - start) + " milliseconds");
+
+      start = System.currentTimeMillis();
+
+      for (int device = 0; device < NUMBER_OF_DEVICES; device++) {
+         Bindings bindings = manager.getBindingsForRoutingAddress(deviceAddress(device, "temperature"));
+         assertEquals(3, bindings.getBindings().size());
+      }
+
+      end = System.currentTimeMillis();
+
+      System.out.println("Resolved " + NUMBER_OF_DEVICES + " new routing addresses on the trie in " + (end - start) + " milliseconds");
+
+      List<Address> wildCardAddresses = new ArrayList<Address>();
+      for (SimpleString wildCard : wildCards) {
+         wildCardAddresses.add(new AddressImpl(wildCard));
+      }
+
+      start = System.currentTimeMillis();
+
+      int matches = 0;
+
+      for (int device = 0; device < NUMBER_OF_DEVICES; device++) {
+         Address address = new AddressImpl(deviceAddress(device, "humidity"));
+         for (Address wildCard : wildCardAddresses) {
+            if (address.matches(wildCard)) {
+               matches++;
+            }
+         }
+      }
+
+      end = System.currentTimeMillis();
+
+      System.out.println("Matched " + NUMBER_OF_DEVICES + " new routing addresses linearly in " + (end - start) + " milliseconds, matches=" + matches);
+
+      start = System.currentTimeMillis();
+
+      for (SimpleString wildCard : wildCards) {
+         manager.removeBinding(wildCard, null);
+      }
+
+      end = System.currentTimeMillis();
+
+      System.out.println("Removed " + wildCards.size() + " wildcard bindings in " + (end - start) + " milliseconds");
+   }
+
+   private static SimpleString deviceAddress(final int device, final String measure) {
+      return new SimpleString("devices." + (device % NUMBER_OF_REGIONS) + "." + device + "." + measure);
+   }
+
+   private static final class FakeBinding implements Binding {
+
+      private final SimpleString address;
+
+      private final SimpleString uniqueName;
+
+      private FakeBinding(final SimpleString address, final SimpleString uniqueName) {
+         this.address = address;
+         this.uniqueName = uniqueName;
+      }
+
+      @Override
+      public void unproposed(SimpleString groupID) {
+      }
+
+      @Override
+      public SimpleString getAddress() {
+         return address;
+      }
+
+      @Override
+      public Bindable getBindable() {
+         return null;
+      }
+
+      @Override
+      public BindingType getType() {
+         return BindingType.LOCAL_QUEUE;
+      }
+
+      @Override
+      public SimpleString getUniqueName() {
+         return uniqueName;
+      }
+
+      @Override
+      public SimpleString getRoutingName() {
+         return uniqueName;
+      }
+
+      @Override
+      public SimpleString getClusterName() {
+         return uniqueName;
+      }
+
+      @Override
+      public Filter getFilter() {
+         return null;
+      }
+
+      @Override
+      public boolean isHighAcceptPriority(ServerMessage message) {
+         return false;
+      }
+
+      @Override
+      public boolean isExclusive() {
+         return false;
+      }
+
+      @Override
+      public long getID() {
+         return 0;
+      }
+
+      @Override
+      public int getDistance() {
+         return 0;
+      }
+
+      @Override
+      public void route(ServerMessage message, RoutingContext context) throws Exception {
+      }
+
+      @Override
+      public void routeWithAck(ServerMessage message, RoutingContext context) throws Exception {
+      }
+
+      @Override
+      public void close() throws Exception {
+      }
+
+      @Override
+      public String toManagementString() {
+         return "FakeBinding Address=" + address;
+      }
+
+      @Override
+      public boolean isConnected() {
+         return true;
+      }
+   }
+}
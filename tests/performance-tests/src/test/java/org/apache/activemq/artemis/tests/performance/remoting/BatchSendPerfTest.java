@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.remoting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of small durable messages sent to a persistent server one by one and in batches with
+ * {@link ClientProducer#sendBatch(List)}.
+ */
+public class BatchSendPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("batch");
+
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   private static final int MESSAGE_SIZE = 64;
+
+   private static final int BATCH_SIZE = 100;
+
+   @Test
+   public void testBatchSend() throws Exception {
+      for (int i = 0; i < 2; i++) {
+         System.out.println("single sends: " + throughput(false) + " messages per second");
+         System.out.println("batch sends: " + throughput(true) + " messages per second");
+      }
+   }
+
+   private long throughput(final boolean batch) throws Exception {
+      ActiveMQServer server = createServer(true, createDefaultNettyConfig());
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+      locator.setBlockOnDurableSend(true);
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, true);
+
+         ClientProducer producer = session.createProducer(QUEUE);
+         byte[] body = new byte[MESSAGE_SIZE];
+         List<ClientMessage> messages = new ArrayList<ClientMessage>(BATCH_SIZE);
+
+         long start = System.nanoTime();
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            ClientMessage message = session.createMessage(true);
+            message.getBodyBuffer().writeBytes(body);
+            if (batch) {
+               messages.add(message);
+               if (messages.size() == BATCH_SIZE) {
+                  producer.sendBatch(messages);
+                  messages.clear();
+               }
+            }
+            else {
+               producer.send(message);
+            }
+         }
+         if (!messages.isEmpty()) {
+            producer.sendBatch(messages);
+         }
+         long end = System.nanoTime();
+
+         session.close();
+
+         return NUMBER_OF_MESSAGES * TimeUnit.SECONDS.toNanos(1) / (end - start);
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+}
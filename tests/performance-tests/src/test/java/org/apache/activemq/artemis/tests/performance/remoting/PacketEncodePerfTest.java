@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.remoting;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.protocol.ClientPacketDecoder;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.RemotingConnectionImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionAcknowledgeMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionConsumerFlowCreditMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionReceiveMessage;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
+import org.apache.activemq.artemis.core.server.ActiveMQComponent;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
+import org.apache.activemq.artemis.spi.core.remoting.ConnectionLifeCycleListener;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the transport buffer bytes taken from the pool to encode the packets sent for every message, and the heap
+ * allocated by all the threads of a client and a server for steady state sends and deliveries.
+ */
+public class PacketEncodePerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("encode");
+
+   private static final int NUMBER_OF_WARMUP_MESSAGES = 20000;
+
+   private static final int NUMBER_OF_MESSAGES = 200000;
+
+   private static final int MESSAGE_SIZE = 100;
+
+   @Test
+   public void testEncode() throws Exception {
+      EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+      RemotingConnectionImpl connection = new RemotingConnectionImpl(ClientPacketDecoder.INSTANCE, new NettyConnection(Collections.<String, Object>emptyMap(), channel, new Listener(), false, false), -1, -1, Collections.<Interceptor>emptyList(), Collections.<Interceptor>emptyList());
+
+      ServerMessage message = new ServerMessageImpl(1, 1024);
+      message.setAddress(QUEUE);
+      message.getBodyBuffer().writeBytes(new byte[MESSAGE_SIZE]);
+
+      for (int i = 0; i < 2; i++) {
+         encode("ack", connection, new SessionAcknowledgeMessage(1, 1, false));
+         encode("flow credit", connection, new SessionConsumerFlowCreditMessage(1, 1024));
+         encode("receive", connection, new SessionReceiveMessage(1, message, 0));
+      }
+   }
+
+   @Test
+   public void testSendReceive() throws Exception {
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY)));
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, false);
+
+         ClientConsumer consumer = session.createConsumer(QUEUE);
+         session.start();
+
+         ClientProducer producer = session.createProducer(QUEUE);
+
+         byte[] body = new byte[MESSAGE_SIZE];
+
+         sendAndReceive(session, producer, consumer, body, NUMBER_OF_WARMUP_MESSAGES);
+
+         Map<Long, Long> allocatedBefore = allocatedBytes();
+         long start = System.nanoTime();
+
+         sendAndReceive(session, producer, consumer, body, NUMBER_OF_MESSAGES);
+
+         long end = System.nanoTime();
+         Map<Long, Long> allocatedAfter = allocatedBytes();
+
+         long allocated = 0;
+         for (Map.Entry<Long, Long> entry : allocatedAfter.entrySet()) {
+            Long before = allocatedBefore.get(entry.getKey());
+            allocated += entry.getValue() - (before == null ? 0 : before);
+         }
+
+         System.out.println("send/receive: " + allocated / NUMBER_OF_MESSAGES + " bytes allocated and " +
+                               (end - start) / NUMBER_OF_MESSAGES + " nanoseconds per message");
+
+         session.close();
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+
+   private static void encode(final String name, final RemotingConnectionImpl connection, final Packet packet) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long allocatedBefore = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      long transportBytes = 0;
+      long start = System.nanoTime();
+
+      for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+         ActiveMQBuffer buffer = packet.encode(connection);
+         transportBytes += buffer.capacity();
+         buffer.byteBuf().release();
+      }
+
+      long end = System.nanoTime();
+      long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+
+      System.out.println(name + ": " + transportBytes / NUMBER_OF_MESSAGES + " transport buffer bytes, " +
+                            allocated / NUMBER_OF_MESSAGES + " heap bytes and " + (end - start) / NUMBER_OF_MESSAGES +
+                            " nanoseconds per packet");
+   }
+
+   private static Map<Long, Long> allocatedBytes() {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long[] ids = threads.getAllThreadIds();
+      long[] allocated = threads.getThreadAllocatedBytes(ids);
+
+      Map<Long, Long> allocatedBytes = new HashMap<Long, Long>();
+      for (int i = 0; i < ids.length; i++) {
+         if (allocated[i] != -1) {
+            allocatedBytes.put(ids[i], allocated[i]);
+         }
+      }
+      return allocatedBytes;
+   }
+
+   private static void sendAndReceive(final ClientSession session,
+                                      final ClientProducer producer,
+                                      final ClientConsumer consumer,
+                                      final byte[] body,
+                                      final int messages) throws Exception {
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.getBodyBuffer().writeBytes(body);
+         producer.send(message);
+         message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+   }
+
+   private static final class Listener implements ConnectionLifeCycleListener {
+
+      @Override
+      public void connectionCreated(final ActiveMQComponent component,
+                                    final Connection connection,
+                                    final String protocol) {
+      }
+
+      @Override
+      public void connectionDestroyed(final Object connectionID) {
+      }
+
+      @Override
+      public void connectionException(final Object connectionID, final ActiveMQException me) {
+      }
+
+      @Override
+      public void connectionReadyForWrites(Object connectionID, boolean ready) {
+      }
+   }
+}
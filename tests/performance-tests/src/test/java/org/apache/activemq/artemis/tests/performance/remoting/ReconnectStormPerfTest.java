@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.remoting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.remoting.impl.netty.EpollSupport;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures how long it takes for many clients connecting at the same time, as after a failover, to be connected to an
+ * acceptor listening on one socket and on several sockets with SO_REUSEPORT.
+ */
+public class ReconnectStormPerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_CONNECTIONS = 2000;
+
+   private static final int NUMBER_OF_CLIENT_THREADS = 50;
+
+   @Test
+   public void testReconnectStorm() throws Exception {
+      if (!EpollSupport.isAvailable()) {
+         System.out.println("The native epoll transport is not available, SO_REUSEPORT can't be used");
+         return;
+      }
+
+      int listeners = Runtime.getRuntime().availableProcessors();
+
+      for (int reusePortListeners : new int[]{1, listeners, 1, listeners}) {
+         System.out.println(reusePortListeners + " listening sockets: " + connect(reusePortListeners) + " milliseconds to connect " +
+                               NUMBER_OF_CONNECTIONS + " clients");
+      }
+   }
+
+   private long connect(final int reusePortListeners) throws Exception {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.USE_EPOLL_PROP_NAME, true);
+      params.put(TransportConstants.REUSE_PORT_LISTENERS_PROP_NAME, reusePortListeners);
+
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY, params)));
+      server.start();
+
+      final ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+      final Queue<ClientSessionFactory> factories = new ConcurrentLinkedQueue<ClientSessionFactory>();
+      final AtomicInteger failures = new AtomicInteger();
+
+      try {
+         final CountDownLatch start = new CountDownLatch(1);
+         final CountDownLatch done = new CountDownLatch(NUMBER_OF_CLIENT_THREADS);
+
+         for (int i = 0; i < NUMBER_OF_CLIENT_THREADS; i++) {
+            new Thread() {
+               @Override
+               public void run() {
+                  try {
+                     start.await();
+                     for (int j = 0; j < NUMBER_OF_CONNECTIONS / NUMBER_OF_CLIENT_THREADS; j++) {
+                        factories.add(locator.createSessionFactory());
+                     }
+                  }
+                  catch (Exception e) {
+                     failures.incrementAndGet();
+                  }
+                  finally {
+                     done.countDown();
+                  }
+               }
+            }.start();
+         }
+
+         long begin = System.nanoTime();
+         start.countDown();
+         assertTrue(done.await(5, TimeUnit.MINUTES));
+         long end = System.nanoTime();
+
+         assertEquals(0, failures.get());
+
+         return TimeUnit.NANOSECONDS.toMillis(end - begin);
+      }
+      finally {
+         for (ClientSessionFactory factory : factories) {
+            factory.close();
+         }
+         locator.close();
+         server.stop();
+      }
+   }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.remoting;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of non blocking sends from many producer threads sharing one session, without and with a
+ * confirmation window.
+ */
+public class SharedSessionSendPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("shared");
+
+   private static final int NUMBER_OF_PRODUCERS = 16;
+
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   private static final int MESSAGE_SIZE = 100;
+
+   @Test
+   public void testSharedSession() throws Exception {
+      for (int i = 0; i < 2; i++) {
+         System.out.println("confirmationWindowSize=-1: " + throughput(-1) + " messages per second");
+         System.out.println("confirmationWindowSize=1MiB: " + throughput(1024 * 1024) + " messages per second");
+      }
+   }
+
+   private long throughput(final int confirmationWindowSize) throws Exception {
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY)));
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY));
+      locator.setConfirmationWindowSize(confirmationWindowSize);
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         final ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, false);
+
+         ClientConsumer consumer = session.createConsumer(QUEUE);
+         session.start();
+
+         final byte[] body = new byte[MESSAGE_SIZE];
+         final CountDownLatch start = new CountDownLatch(1);
+         final CountDownLatch done = new CountDownLatch(NUMBER_OF_PRODUCERS);
+         final AtomicInteger failures = new AtomicInteger();
+
+         for (int i = 0; i < NUMBER_OF_PRODUCERS; i++) {
+            new Thread() {
+               @Override
+               public void run() {
+                  try {
+                     ClientProducer producer = session.createProducer(QUEUE);
+                     start.await();
+                     for (int j = 0; j < NUMBER_OF_MESSAGES / NUMBER_OF_PRODUCERS; j++) {
+                        ClientMessage message = session.createMessage(false);
+                        message.getBodyBuffer().writeBytes(body);
+                        producer.send(message);
+                     }
+                  }
+                  catch (Exception e) {
+                     failures.incrementAndGet();
+                  }
+                  finally {
+                     done.countDown();
+                  }
+               }
+            }.start();
+         }
+
+         long begin = System.nanoTime();
+         start.countDown();
+         assertTrue(done.await(5, TimeUnit.MINUTES));
+
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            ClientMessage message = consumer.receive(5000);
+            assertNotNull(message);
+            message.acknowledge();
+         }
+         long throughput = NUMBER_OF_MESSAGES * 1000000000L / (System.nanoTime() - begin);
+
+         assertEquals(0, failures.get());
+
+         session.close();
+
+         return throughput;
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+}
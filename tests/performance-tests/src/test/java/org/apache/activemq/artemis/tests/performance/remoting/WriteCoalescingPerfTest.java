@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.remoting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of many small non blocking sends and their deliveries, with every write flushed, with
+ * coalesced flushes and with the writes batched for a fixed delay.
+ */
+public class WriteCoalescingPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("coalescing");
+
+   private static final int NUMBER_OF_WARMUP_MESSAGES = 20000;
+
+   private static final int NUMBER_OF_MESSAGES = 200000;
+
+   private static final int MESSAGE_SIZE = 10;
+
+   @Test
+   public void testSmallMessages() throws Exception {
+      for (int i = 0; i < 2; i++) {
+         System.out.println("flush every write: " + throughput(false, 0) + " messages per second");
+         System.out.println("coalesced flushes: " + throughput(true, 0) + " messages per second");
+         System.out.println("batchDelay=1: " + throughput(false, 1) + " messages per second");
+      }
+   }
+
+   private long throughput(final boolean writeCoalescing, final long batchDelay) throws Exception {
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.WRITE_COALESCING_PROP_NAME, writeCoalescing);
+      params.put(TransportConstants.BATCH_DELAY, batchDelay);
+
+      ActiveMQServer server = createServer(false, createBasicConfig().addAcceptorConfiguration(new TransportConfiguration(NETTY_ACCEPTOR_FACTORY, params)));
+      server.start();
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(NETTY_CONNECTOR_FACTORY, params));
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, true, true);
+         session.createQueue(QUEUE, QUEUE, null, false);
+
+         ClientConsumer consumer = session.createConsumer(QUEUE);
+         session.start();
+
+         ClientProducer producer = session.createProducer(QUEUE);
+
+         byte[] body = new byte[MESSAGE_SIZE];
+
+         sendAndReceive(session, producer, consumer, body, NUMBER_OF_WARMUP_MESSAGES);
+         long start = System.nanoTime();
+         sendAndReceive(session, producer, consumer, body, NUMBER_OF_MESSAGES);
+         long throughput = NUMBER_OF_MESSAGES * 1000000000L / (System.nanoTime() - start);
+
+         session.close();
+
+         return throughput;
+      }
+      finally {
+         locator.close();
+         server.stop();
+      }
+   }
+
+   private static void sendAndReceive(final ClientSession session,
+                                      final ClientProducer producer,
+                                      final ClientConsumer consumer,
+                                      final byte[] body,
+                                      final int messages) throws Exception {
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = session.createMessage(false);
+         message.getBodyBuffer().writeBytes(body);
+         producer.send(message);
+      }
+      for (int i = 0; i < messages; i++) {
+         ClientMessage message = consumer.receive(5000);
+         assertNotNull(message);
+         message.acknowledge();
+      }
+   }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.replication;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.PacketImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.ReplicationBatchMessage;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.spi.core.protocol.RemotingConnection;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.ReplicatedBackupUtils;
+import org.apache.activemq.artemis.tests.util.TransportConfigurationUtils;
+import org.junit.Test;
+
+/**
+ * Measures the throughput of durable messages sent by several blocking producers to a live server replicating to a
+ * backup over Netty, and the number of journal operations every replication packet carries.
+ */
+public class ReplicatedDurableSendPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("replicated");
+
+   private static final int NUMBER_OF_PRODUCERS = 16;
+
+   private static final int MESSAGES_PER_PRODUCER = 2000;
+
+   private static final int MESSAGE_SIZE = 256;
+
+   @Test
+   public void testReplicatedDurableSends() throws Exception {
+      TransportConfiguration liveConnector = TransportConfigurationUtils.getNettyConnector(true, 0);
+      TransportConfiguration liveAcceptor = TransportConfigurationUtils.getNettyAcceptor(true, 0);
+      TransportConfiguration backupConnector = TransportConfigurationUtils.getNettyConnector(false, 0);
+      TransportConfiguration backupAcceptor = TransportConfigurationUtils.getNettyAcceptor(false, 0);
+
+      Configuration liveConfig = createDefaultInVMConfig();
+
+      Configuration backupConfig = createDefaultInVMConfig().setBindingsDirectory(getBindingsDir(0, true)).setJournalDirectory(getJournalDir(0, true)).setPagingDirectory(getPageDir(0, true)).setLargeMessagesDirectory(getLargeMessagesDir(0, true)).setIncomingInterceptorClassNames(Collections.singletonList(ReplicationPacketCounter.class.getName()));
+
+      ReplicatedBackupUtils.configureReplicationPair(backupConfig, backupConnector, backupAcceptor, liveConfig, liveConnector, liveAcceptor);
+
+      ActiveMQServer live = createServer(true, liveConfig);
+      live.start();
+
+      ActiveMQServer backup = createServer(true, backupConfig);
+      backup.start();
+      waitForRemoteBackup(null, 30, true, backup);
+
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(liveConnector);
+      locator.setBlockOnDurableSend(true);
+
+      try {
+         final ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession();
+         session.createQueue(QUEUE, QUEUE, null, true);
+         session.close();
+
+         for (int i = 0; i < 2; i++) {
+            ReplicationPacketCounter.packets.set(0);
+            ReplicationPacketCounter.operations.set(0);
+
+            final CountDownLatch done = new CountDownLatch(NUMBER_OF_PRODUCERS);
+            final AtomicInteger errors = new AtomicInteger();
+
+            long start = System.nanoTime();
+            for (int p = 0; p < NUMBER_OF_PRODUCERS; p++) {
+               new Thread() {
+                  @Override
+                  public void run() {
+                     try {
+                        ClientSession producerSession = factory.createSession(true, true);
+                        ClientProducer producer = producerSession.createProducer(QUEUE);
+                        byte[] body = new byte[MESSAGE_SIZE];
+                        for (int m = 0; m < MESSAGES_PER_PRODUCER; m++) {
+                           producer.send(producerSession.createMessage(true).writeBodyBufferBytes(body));
+                        }
+                        producerSession.close();
+                     }
+                     catch (Exception e) {
+                        e.printStackTrace();
+                        errors.incrementAndGet();
+                     }
+                     finally {
+                        done.countDown();
+                     }
+                  }
+               }.start();
+            }
+            done.await();
+            long end = System.nanoTime();
+
+            assertEquals(0, errors.get());
+
+            int messages = NUMBER_OF_PRODUCERS * MESSAGES_PER_PRODUCER;
+            System.out.println("replicated durable sends: " + messages * TimeUnit.SECONDS.toNanos(1) / (end - start) +
+                                  " messages per second, " + ReplicationPacketCounter.packets.get() +
+                                  " replication packets for " + ReplicationPacketCounter.operations.get() +
+                                  " journal operations");
+         }
+      }
+      finally {
+         locator.close();
+         backup.stop();
+         live.stop();
+      }
+   }
+
+   public static final class ReplicationPacketCounter implements Interceptor {
+
+      static final AtomicInteger packets = new AtomicInteger();
+
+      static final AtomicInteger operations = new AtomicInteger();
+
+      public boolean intercept(final Packet packet, final RemotingConnection connection) throws ActiveMQException {
+         switch (packet.getType()) {
+            case PacketImpl.REPLICATION_BATCH:
+               packets.incrementAndGet();
+               operations.addAndGet(((ReplicationBatchMessage) packet).getCount());
+               break;
+            case PacketImpl.REPLICATION_APPEND:
+            case PacketImpl.REPLICATION_APPEND_TX:
+            case PacketImpl.REPLICATION_DELETE:
+            case PacketImpl.REPLICATION_DELETE_TX:
+            case PacketImpl.REPLICATION_PREPARE:
+            case PacketImpl.REPLICATION_COMMIT_ROLLBACK:
+               packets.incrementAndGet();
+               operations.incrementAndGet();
+               break;
+            default:
+               break;
+         }
+         return true;
+      }
+   }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.replication;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.replication.ReplicationManager;
+import org.apache.activemq.artemis.core.server.ActiveMQServer;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.apache.activemq.artemis.tests.util.ReplicatedBackupUtils;
+import org.apache.activemq.artemis.tests.util.TransportConfigurationUtils;
+import org.junit.Test;
+
+/**
+ * Measures the time a backup takes to synchronize the journal and large messages of its live server over Netty,
+ * with the files sent straight from the disk and read into buffers.
+ */
+public class ZeroCopySyncPerfTest extends ActiveMQTestBase {
+
+   private static final SimpleString QUEUE = new SimpleString("sync");
+
+   private static final int NUMBER_OF_LARGE_MESSAGES = 100;
+
+   private static final int LARGE_MESSAGE_SIZE = 2 * 1024 * 1024;
+
+   private static final int NUMBER_OF_MESSAGES = 20000;
+
+   private static final int MESSAGE_SIZE = 1024;
+
+   @Test
+   public void testSynchronizationTime() throws Exception {
+      TransportConfiguration liveConnector = TransportConfigurationUtils.getNettyConnector(true, 0);
+      TransportConfiguration liveAcceptor = TransportConfigurationUtils.getNettyAcceptor(true, 0);
+      TransportConfiguration backupConnector = TransportConfigurationUtils.getNettyConnector(false, 0);
+      TransportConfiguration backupAcceptor = TransportConfigurationUtils.getNettyAcceptor(false, 0);
+
+      Configuration liveConfig = createDefaultInVMConfig().setJournalFileSize(10 * 1024 * 1024);
+
+      ActiveMQServer live = null;
+
+      try {
+         for (int i = 0; i < 2; i++) {
+            for (boolean zeroCopy : new boolean[]{false, true}) {
+               System.setProperty(ReplicationManager.ZERO_COPY_SYNC_PROPERTY, Boolean.toString(zeroCopy));
+
+               clearDataRecreateServerDirs(getTestDir(), 0, true);
+
+               Configuration backupConfig = createDefaultInVMConfig().setJournalFileSize(10 * 1024 * 1024).setBindingsDirectory(getBindingsDir(0, true)).setJournalDirectory(getJournalDir(0, true)).setPagingDirectory(getPageDir(0, true)).setLargeMessagesDirectory(getLargeMessagesDir(0, true));
+
+               ReplicatedBackupUtils.configureReplicationPair(backupConfig, backupConnector, backupAcceptor, liveConfig, liveConnector, liveAcceptor);
+
+               if (live == null) {
+                  live = createServer(true, liveConfig);
+                  live.start();
+                  fill(liveConnector);
+               }
+
+               ActiveMQServer backup = createServer(true, backupConfig);
+
+               long start = System.nanoTime();
+               backup.start();
+               waitForRemoteBackup(null, 120, true, backup);
+               long end = System.nanoTime();
+
+               System.out.println((zeroCopy ? "zero copy" : "buffered") + " synchronization: " +
+                                     TimeUnit.NANOSECONDS.toMillis(end - start) + "ms");
+
+               backup.stop();
+            }
+         }
+      }
+      finally {
+         System.clearProperty(ReplicationManager.ZERO_COPY_SYNC_PROPERTY);
+      }
+   }
+
+   private void fill(final TransportConfiguration connector) throws Exception {
+      ServerLocator locator = ActiveMQClient.createServerLocatorWithoutHA(connector);
+
+      try {
+         ClientSessionFactory factory = createSessionFactory(locator);
+         ClientSession session = factory.createSession(false, false);
+         session.createQueue(QUEUE, QUEUE, null, true);
+
+         ClientProducer producer = session.createProducer(QUEUE);
+
+         for (int i = 0; i < NUMBER_OF_LARGE_MESSAGES; i++) {
+            ClientMessage message = session.createMessage(true);
+            message.setBodyInputStream(createFakeLargeStream(LARGE_MESSAGE_SIZE));
+            producer.send(message);
+            session.commit();
+         }
+
+         byte[] body = new byte[MESSAGE_SIZE];
+         for (int i = 0; i < NUMBER_OF_MESSAGES; i++) {
+            ClientMessage message = session.createMessage(true);
+            message.getBodyBuffer().writeBytes(body);
+            producer.send(message);
+            if (i % 1000 == 999) {
+               session.commit();
+            }
+         }
+         session.commit();
+
+         session.close();
+      }
+      finally {
+         locator.close();
+      }
+   }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.security;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.security.CheckType;
+import org.apache.activemq.artemis.core.security.Role;
+import org.apache.activemq.artemis.core.security.SecurityAuth;
+import org.apache.activemq.artemis.core.security.impl.SecurityStoreImpl;
+import org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository;
+import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManager;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the cached path of the security checks done on every send and consume, for many users and addresses.
+ * Each measurement runs a warm up iteration first and reports the average time of the measured iterations.
+ */
+public class SecurityStorePerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_USERS = 1000;
+
+   private static final int NUMBER_OF_ADDRESSES = 100;
+
+   private static final int NUMBER_OF_CHECKS = 10000000;
+
+   private static final int ITERATIONS = 5;
+
+   private static final int NUMBER_OF_THREADS = 8;
+
+   @Test
+   public void testCheck() throws Exception {
+      SecurityStoreImpl store = createStore();
+      SecurityAuth[] users = createUsers();
+      SimpleString[] addresses = createAddresses();
+
+      // warming up, which also fills the cache
+      run(store, users, addresses, NUMBER_OF_CHECKS, 0);
+
+      long total = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+         long start = System.nanoTime();
+         run(store, users, addresses, NUMBER_OF_CHECKS, i);
+         total += System.nanoTime() - start;
+      }
+
+      System.out.println(NUMBER_OF_USERS + " users on " + NUMBER_OF_ADDRESSES + " addresses: " +
+                            total / ITERATIONS / NUMBER_OF_CHECKS + " nanoseconds per check");
+   }
+
+   @Test
+   public void testCheckMultipleThreads() throws Exception {
+      final SecurityStoreImpl store = createStore();
+      final SecurityAuth[] users = createUsers();
+      final SimpleString[] addresses = createAddresses();
+
+      run(store, users, addresses, NUMBER_OF_CHECKS, 0);
+
+      final CountDownLatch latchStart = new CountDownLatch(1);
+
+      Thread[] threads = new Thread[NUMBER_OF_THREADS];
+
+      for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+         final int seed = i;
+         threads[i] = new Thread() {
+            @Override
+            public void run() {
+               try {
+                  latchStart.await();
+                  SecurityStorePerfTest.run(store, users, addresses, NUMBER_OF_CHECKS, seed);
+               }
+               catch (Exception e) {
+                  e.printStackTrace();
+               }
+            }
+         };
+         threads[i].start();
+      }
+
+      long start = System.currentTimeMillis();
+
+      latchStart.countDown();
+
+      for (Thread t : threads) {
+         t.join();
+      }
+
+      long end = System.currentTimeMillis();
+
+      System.out.println(NUMBER_OF_THREADS + " threads: " +
+                            (long) NUMBER_OF_CHECKS * NUMBER_OF_THREADS * 1000 / Math.max(1, end - start) +
+                            " checks per second");
+   }
+
+   private static void run(final SecurityStoreImpl store,
+                           final SecurityAuth[] users,
+                           final SimpleString[] addresses,
+                           final int checks,
+                           final int seed) throws Exception {
+      for (int i = 0; i < checks; i++) {
+         int user = (i + seed * 7919) % users.length;
+         // every user sends to and consumes from a handful of addresses
+         int address = (user + i % 5) % addresses.length;
+         store.check(addresses[address], (i & 1) == 0 ? CheckType.SEND : CheckType.CONSUME, users[user]);
+      }
+   }
+
+   private static SecurityStoreImpl createStore() {
+      HierarchicalObjectRepository<Set<Role>> securityRepository = new HierarchicalObjectRepository<Set<Role>>();
+      Set<Role> roles = new HashSet<Role>();
+      roles.add(new Role("all", true, true, true, true, true, true, true));
+      securityRepository.addMatch("#", roles);
+
+      ActiveMQSecurityManager securityManager = new ActiveMQSecurityManager() {
+         @Override
+         public boolean validateUser(final String user, final String password) {
+            return true;
+         }
+
+         @Override
+         public boolean validateUserAndRole(final String user,
+                                            final String password,
+                                            final Set<Role> roles,
+                                            final CheckType checkType) {
+            return true;
+         }
+      };
+
+      return new SecurityStoreImpl(securityRepository, securityManager, Long.MAX_VALUE, 100000, true, "cluster", "password", null);
+   }
+
+   private static SecurityAuth[] createUsers() {
+      SecurityAuth[] users = new SecurityAuth[NUMBER_OF_USERS];
+      for (int i = 0; i < NUMBER_OF_USERS; i++) {
+         final String user = "user" + i;
+         users[i] = new SecurityAuth() {
+            @Override
+            public String getUsername() {
+               return user;
+            }
+
+            @Override
+            public String getPassword() {
+               return "password";
+            }
+         };
+      }
+      return users;
+   }
+
+   private static SimpleString[] createAddresses() {
+      SimpleString[] addresses = new SimpleString[NUMBER_OF_ADDRESSES];
+      for (int i = 0; i < NUMBER_OF_ADDRESSES; i++) {
+         addresses[i] = new SimpleString("orders.region" + i);
+      }
+      return addresses;
+   }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.performance.settings;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.settings.impl.AddressSettings;
+import org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * Measures the address settings lookups done on the send path, resolved from the cache and resolved from the
+ * matches when the addresses don't fit in the cache.
+ * Each measurement runs a warm up iteration first and reports the average time of the measured iterations.
+ */
+public class AddressSettingsLookupPerfTest extends ActiveMQTestBase {
+
+   private static final int NUMBER_OF_MATCHES = 1000;
+
+   private static final int NUMBER_OF_ADDRESSES = 5000;
+
+   private static final int NUMBER_OF_LOOKUPS = 10000000;
+
+   private static final int NUMBER_OF_UNCACHED_LOOKUPS = 100000;
+
+   private static final int ITERATIONS = 5;
+
+   @Test
+   public void testCachedLookup() {
+      HierarchicalObjectRepository<AddressSettings> repository = createRepository(HierarchicalObjectRepository.DEFAULT_MAX_CACHE_SIZE);
+      SimpleString[] addresses = createAddresses();
+
+      run(repository, addresses, NUMBER_OF_LOOKUPS);
+
+      long total = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+         long start = System.nanoTime();
+         run(repository, addresses, NUMBER_OF_LOOKUPS);
+         total += System.nanoTime() - start;
+      }
+
+      System.out.println(NUMBER_OF_ADDRESSES + " cached addresses: " + total / ITERATIONS / NUMBER_OF_LOOKUPS + " nanoseconds per lookup");
+   }
+
+   @Test
+   public void testUncachedLookup() {
+      // a cache smaller than the addresses, so most lookups go through the matches
+      HierarchicalObjectRepository<AddressSettings> repository = createRepository(NUMBER_OF_ADDRESSES / 10);
+      SimpleString[] addresses = createAddresses();
+
+      run(repository, addresses, NUMBER_OF_UNCACHED_LOOKUPS);
+
+      long total = 0;
+      for (int i = 0; i < ITERATIONS; i++) {
+         long start = System.nanoTime();
+         run(repository, addresses, NUMBER_OF_UNCACHED_LOOKUPS);
+         total += System.nanoTime() - start;
+      }
+
+      System.out.println(NUMBER_OF_MATCHES + " matches: " + total / ITERATIONS / NUMBER_OF_UNCACHED_LOOKUPS + " nanoseconds per uncached lookup");
+   }
+
+   private static void run(final HierarchicalObjectRepository<AddressSettings> repository,
+                           final SimpleString[] addresses,
+                           final int lookups) {
+      long pageSize = 0;
+      for (int i = 0; i < lookups; i++) {
+         pageSize += repository.getMatch(addresses[i % addresses.length]).getPageSizeBytes();
+      }
+      if (pageSize == 0) {
+         System.out.println("no page size");
+      }
+   }
+
+   private static HierarchicalObjectRepository<AddressSettings> createRepository(final int maxCacheSize) {
+      HierarchicalObjectRepository<AddressSettings> repository = new HierarchicalObjectRepository<AddressSettings>(maxCacheSize);
+      repository.setDefault(new AddressSettings());
+      repository.addMatch("#", new AddressSettings());
+      for (int i = 0; i < NUMBER_OF_MATCHES; i++) {
+         AddressSettings settings = new AddressSettings();
+         settings.setPageSizeBytes(1024 + i);
+         if (i % 2 == 0) {
+            repository.addMatch("jms.queue.orders" + i + ".#", settings);
+         }
+         else {
+            repository.addMatch("jms.queue.orders" + i + ".*.eu", settings);
+         }
+      }
+      return repository;
+   }
+
+   private static SimpleString[] createAddresses() {
+      SimpleString[] addresses = new SimpleString[NUMBER_OF_ADDRESSES];
+      for (int i = 0; i < NUMBER_OF_ADDRESSES; i++) {
+         addresses[i] = new SimpleString("jms.queue.orders" + (i % NUMBER_OF_MATCHES) + ".region" + i + ".eu");
+      }
+      return addresses;
+   }
+}
@@ -309,6 +309,11 @@ public class PersistMultiThreadTest extends ActiveMQTestBase {
          return false;
       }
 
+      @Override
+      public boolean isSpilling() {
+         return false;
+      }
+
       @Override
       public void sync() throws Exception {
 
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.paging.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.activemq.artemis.core.paging.cursor.impl.PageSubscriptionWatermark;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+public class PageSubscriptionWatermarkTest extends ActiveMQTestBase {
+
+   @Test
+   public void testEmpty() {
+      PageSubscriptionWatermark watermark = new PageSubscriptionWatermark();
+      assertEquals(Long.MAX_VALUE, watermark.getMinPage());
+
+      // an empty subscription doesn't hold any page
+      watermark.update(1, -1);
+      assertEquals(Long.MAX_VALUE, watermark.getMinPage());
+      assertEquals(1, watermark.size());
+   }
+
+   @Test
+   public void testUpdateAndRemove() {
+      PageSubscriptionWatermark watermark = new PageSubscriptionWatermark();
+
+      watermark.update(1, 10);
+      watermark.update(2, 5);
+      watermark.update(3, 7);
+      assertEquals(5, watermark.getMinPage());
+
+      watermark.update(2, 11);
+      assertEquals(7, watermark.getMinPage());
+
+      watermark.remove(3);
+      assertEquals(10, watermark.getMinPage());
+
+      watermark.update(1, 3);
+      assertEquals(3, watermark.getMinPage());
+
+      watermark.remove(1);
+      watermark.remove(2);
+      assertEquals(0, watermark.size());
+      assertEquals(Long.MAX_VALUE, watermark.getMinPage());
+
+      // removing an unknown subscription is a no-op
+      watermark.remove(100);
+   }
+
+   @Test
+   public void testRandomOperations() {
+      PageSubscriptionWatermark watermark = new PageSubscriptionWatermark();
+      Map<Long, Long> expected = new HashMap<Long, Long>();
+      Random random = new Random(1);
+
+      for (int i = 0; i < 10000; i++) {
+         long id = random.nextInt(200);
+         if (random.nextInt(5) == 0) {
+            watermark.remove(id);
+            expected.remove(id);
+         }
+         else {
+            long page = random.nextInt(1000) - 1;
+            watermark.update(id, page);
+            expected.put(id, page);
+         }
+
+         long min = Long.MAX_VALUE;
+         for (long page : expected.values()) {
+            if (page >= 0 && page < min) {
+               min = page;
+            }
+         }
+         assertEquals(expected.size(), watermark.size());
+         assertEquals(min, watermark.getMinPage());
+      }
+   }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.postoffice.impl.AddressTrie;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AddressTrieTest extends ActiveMQTestBase {
+
+   @Test
+   public void testAddRemove() {
+      AddressTrie trie = new AddressTrie();
+
+      Assert.assertTrue(trie.add(new SimpleString("a.b.c")));
+      Assert.assertFalse(trie.add(new SimpleString("a.b.c")));
+      Assert.assertTrue(trie.add(new SimpleString("a.b")));
+      Assert.assertEquals(2, trie.size());
+
+      Assert.assertTrue(trie.contains(new SimpleString("a.b")));
+      Assert.assertFalse(trie.contains(new SimpleString("a")));
+
+      Assert.assertTrue(trie.remove(new SimpleString("a.b.c")));
+      Assert.assertFalse(trie.remove(new SimpleString("a.b.c")));
+      Assert.assertTrue(trie.contains(new SimpleString("a.b")));
+      Assert.assertFalse(trie.contains(new SimpleString("a.b.c")));
+
+      Assert.assertTrue(trie.remove(new SimpleString("a.b")));
+      Assert.assertTrue(trie.isEmpty());
+   }
+
+   @Test
+   public void testMatchWildcards() {
+      AddressTrie trie = new AddressTrie();
+      trie.add(new SimpleString("news.europe.#"));
+      trie.add(new SimpleString("news.*"));
+      trie.add(new SimpleString("news.*.sport"));
+      trie.add(new SimpleString("#"));
+      trie.add(new SimpleString("#.sport"));
+
+      assertWildcards(trie, "news.europe", "news.europe.#", "news.*", "#");
+      assertWildcards(trie, "news.europe.sport", "news.europe.#", "news.*.sport", "#", "#.sport");
+      assertWildcards(trie, "news.europe.politics.regional", "news.europe.#", "#");
+      assertWildcards(trie, "news.usa.sport", "news.*.sport", "#", "#.sport");
+      assertWildcards(trie, "sport", "#", "#.sport");
+      assertWildcards(trie, "entertainment", "#");
+   }
+
+   @Test
+   public void testMatchAddresses() {
+      AddressTrie trie = new AddressTrie();
+      trie.add(new SimpleString("news.europe"));
+      trie.add(new SimpleString("news.europe.sport"));
+      trie.add(new SimpleString("news.europe.politics.regional"));
+      trie.add(new SimpleString("news.usa.sport"));
+      trie.add(new SimpleString("entertainment"));
+
+      assertAddresses(trie, "news.europe.#", "news.europe", "news.europe.sport", "news.europe.politics.regional");
+      assertAddresses(trie, "news.*", "news.europe");
+      assertAddresses(trie, "news.*.sport", "news.europe.sport", "news.usa.sport");
+      assertAddresses(trie, "#.sport", "news.europe.sport", "news.usa.sport");
+      assertAddresses(trie, "*", "entertainment");
+      assertAddresses(trie, "news.#.regional", "news.europe.politics.regional");
+      assertAddresses(trie, "news.usa");
+   }
+
+   private void assertWildcards(AddressTrie trie, String address, String... expected) {
+      Set<SimpleString> result = new HashSet<SimpleString>();
+      trie.matchWildcards(new SimpleString(address), result);
+      Assert.assertEquals(toSet(expected), result);
+   }
+
+   private void assertAddresses(AddressTrie trie, String wildcard, String... expected) {
+      Set<SimpleString> result = new HashSet<SimpleString>();
+      trie.matchAddresses(new SimpleString(wildcard), result);
+      Assert.assertEquals(toSet(expected), result);
+   }
+
+   private Set<SimpleString> toSet(String... addresses) {
+      Set<SimpleString> set = new HashSet<SimpleString>();
+      for (String address : addresses) {
+         set.add(new SimpleString(address));
+      }
+      return set;
+   }
+}
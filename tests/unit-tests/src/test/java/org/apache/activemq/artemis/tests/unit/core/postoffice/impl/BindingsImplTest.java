@@ -29,6 +29,7 @@ import javax.transaction.xa.Xid;
 
 import org.apache.activemq.artemis.api.core.SimpleString;
 import org.apache.activemq.artemis.core.filter.Filter;
+import org.apache.activemq.artemis.core.filter.impl.FilterImpl;
 import org.apache.activemq.artemis.core.postoffice.Binding;
 import org.apache.activemq.artemis.core.postoffice.BindingType;
 import org.apache.activemq.artemis.core.postoffice.Bindings;
@@ -69,6 +70,96 @@ public class BindingsImplTest extends ActiveMQTestBase {
       }
    }
 
+   @Test
+   public void testRouteCacheInvalidation() throws Exception {
+      final Bindings bind = new BindingsImpl(null, null, null);
+
+      FakeBinding a = new FakeBinding(new SimpleString("a"), 1, false);
+      FakeBinding b = new FakeBinding(new SimpleString("b"), 2, false);
+      bind.addBinding(a);
+      bind.addBinding(b);
+
+      bind.route(new ServerMessageImpl(1, 100), new RoutingContextImpl(new FakeTransaction()));
+      assertEquals(1, a.routed);
+      assertEquals(1, b.routed);
+
+      // a new binding has to be taken by the next route
+      FakeBinding c = new FakeBinding(new SimpleString("c"), 3, false);
+      bind.addBinding(c);
+      bind.route(new ServerMessageImpl(2, 100), new RoutingContextImpl(new FakeTransaction()));
+      assertEquals(2, a.routed);
+      assertEquals(2, b.routed);
+      assertEquals(1, c.routed);
+
+      bind.removeBinding(b);
+      bind.route(new ServerMessageImpl(3, 100), new RoutingContextImpl(new FakeTransaction()));
+      assertEquals(3, a.routed);
+      assertEquals(2, b.routed);
+      assertEquals(2, c.routed);
+
+      // a filter rejecting every message is still applied
+      FakeBinding filtered = new FakeBinding(new SimpleString("d"), 4, true);
+      bind.addBinding(filtered);
+      bind.route(new ServerMessageImpl(4, 100), new RoutingContextImpl(new FakeTransaction()));
+      assertEquals(4, a.routed);
+      assertEquals(3, c.routed);
+      assertEquals(0, filtered.routed);
+
+      // two bindings with the same routing name are load balanced
+      FakeBinding balanced = new FakeBinding(new SimpleString("a"), 5, false);
+      bind.removeBinding(filtered);
+      bind.addBinding(balanced);
+      bind.route(new ServerMessageImpl(5, 100), new RoutingContextImpl(new FakeTransaction()));
+      bind.route(new ServerMessageImpl(6, 100), new RoutingContextImpl(new FakeTransaction()));
+      assertEquals(6, a.routed + balanced.routed);
+      assertEquals(5, c.routed);
+   }
+
+   @Test
+   public void testRouteIndexedFilters() throws Exception {
+      final Bindings bind = new BindingsImpl(null, null, null);
+
+      String[] types = {"order", "invoice", "refund"};
+      String[] regions = {"EMEA", "APAC"};
+
+      FakeBinding[] bindings = new FakeBinding[types.length * regions.length];
+      for (int i = 0; i < bindings.length; i++) {
+         String selector = "type = '" + types[i % types.length] + "' AND region = '" + regions[i / types.length] + "'";
+         bindings[i] = new FakeBinding(new SimpleString("q" + i), i, FilterImpl.createFilter(selector));
+         bind.addBinding(bindings[i]);
+      }
+
+      FakeBinding other = new FakeBinding(new SimpleString("other"), 100, FilterImpl.createFilter("type = 'order' OR amount > 10"));
+      bind.addBinding(other);
+
+      FakeBinding all = new FakeBinding(new SimpleString("all"), 101, (Filter) null);
+      bind.addBinding(all);
+
+      ServerMessage message = new ServerMessageImpl(1, 100);
+      message.putStringProperty(new SimpleString("type"), new SimpleString("invoice"));
+      message.putStringProperty(new SimpleString("region"), new SimpleString("APAC"));
+      message.putIntProperty(new SimpleString("amount"), 20);
+
+      bind.route(message, new RoutingContextImpl(new FakeTransaction()));
+
+      for (int i = 0; i < bindings.length; i++) {
+         assertEquals(bindings[i].toString(), i == 4 ? 1 : 0, bindings[i].routed);
+      }
+      assertEquals(1, other.routed);
+      assertEquals(1, all.routed);
+
+      message = new ServerMessageImpl(2, 100);
+      message.putIntProperty(new SimpleString("type"), 1);
+
+      bind.route(message, new RoutingContextImpl(new FakeTransaction()));
+
+      for (int i = 0; i < bindings.length; i++) {
+         assertEquals(i == 4 ? 1 : 0, bindings[i].routed);
+      }
+      assertEquals(1, other.routed);
+      assertEquals(2, all.routed);
+   }
+
    private void internalTest(final boolean route) throws Exception {
       final FakeBinding fake = new FakeBinding(new SimpleString("a"));
 
@@ -292,8 +383,24 @@ public class BindingsImplTest extends ActiveMQTestBase {
 
       final SimpleString name;
 
+      final long id;
+
+      final Filter filter;
+
+      int routed;
+
       FakeBinding(final SimpleString name) {
+         this(name, 0, true);
+      }
+
+      FakeBinding(final SimpleString name, final long id, final boolean filtered) {
+         this(name, id, filtered ? new FakeFilter() : null);
+      }
+
+      FakeBinding(final SimpleString name, final long id, final Filter filter) {
          this.name = name;
+         this.id = id;
+         this.filter = filter;
       }
 
       @Override
@@ -332,12 +439,12 @@ public class BindingsImplTest extends ActiveMQTestBase {
        */
       @Override
       public Filter getFilter() {
-         return new FakeFilter();
+         return filter;
       }
 
       @Override
       public long getID() {
-         return 0;
+         return id;
       }
 
       /* (non-Javadoc)
@@ -377,7 +484,7 @@ public class BindingsImplTest extends ActiveMQTestBase {
 
       @Override
       public void route(final ServerMessage message, final RoutingContext context) throws Exception {
-
+         routed++;
       }
 
       /* (non-Javadoc)
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
+
+import org.apache.activemq.artemis.core.postoffice.impl.CountingBloomFilter;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CountingBloomFilterTest extends ActiveMQTestBase {
+
+   @Test
+   public void testAddRemove() {
+      CountingBloomFilter filter = new CountingBloomFilter(1000);
+
+      for (int i = 0; i < 1000; i++) {
+         filter.add(i);
+      }
+
+      for (int i = 0; i < 1000; i++) {
+         Assert.assertTrue(filter.mightContain(i));
+      }
+
+      for (int i = 0; i < 500; i++) {
+         filter.remove(i);
+      }
+
+      // removing some hashes never hides the others
+      for (int i = 500; i < 1000; i++) {
+         Assert.assertTrue(filter.mightContain(i));
+      }
+
+      int falsePositives = 0;
+      for (int i = 1000; i < 11000; i++) {
+         if (filter.mightContain(i)) {
+            falsePositives++;
+         }
+      }
+      Assert.assertTrue("false positives: " + falsePositives, falsePositives < 500);
+
+      filter.clear();
+
+      for (int i = 0; i < 1000; i++) {
+         Assert.assertFalse(filter.mightContain(i));
+      }
+   }
+
+   @Test
+   public void testSameHash() {
+      CountingBloomFilter filter = new CountingBloomFilter(10);
+
+      filter.add(42);
+      filter.add(42);
+      filter.remove(42);
+
+      Assert.assertTrue(filter.mightContain(42));
+
+      filter.remove(42);
+
+      Assert.assertFalse(filter.mightContain(42));
+   }
+
+   @Test
+   public void testOverflow() {
+      CountingBloomFilter filter = new CountingBloomFilter(10);
+
+      for (int i = 0; i < 100; i++) {
+         filter.add(42);
+      }
+
+      for (int i = 0; i < 100; i++) {
+         filter.remove(42);
+      }
+
+      // an overflown counter is never decremented, so it can't hide a hash that is still there
+      Assert.assertTrue(filter.mightContain(42));
+   }
+}
@@ -34,7 +34,9 @@ import org.apache.activemq.artemis.core.persistence.GroupingInfo;
 import org.apache.activemq.artemis.core.persistence.QueueBindingInfo;
 import org.apache.activemq.artemis.core.persistence.impl.journal.JournalStorageManager;
 import org.apache.activemq.artemis.core.postoffice.PostOffice;
+import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
 import org.apache.activemq.artemis.core.postoffice.impl.DuplicateIDCacheImpl;
+import org.apache.activemq.artemis.core.postoffice.impl.StripedDuplicateIDCache;
 import org.apache.activemq.artemis.core.server.impl.PostOfficeJournalLoader;
 import org.apache.activemq.artemis.core.transaction.impl.ResourceManagerImpl;
 import org.apache.activemq.artemis.tests.util.RandomUtil;
@@ -157,4 +159,117 @@ public class DuplicateDetectionUnitTest extends ActiveMQTestBase {
       }
 
    }
+
+   @Test
+   public void testReloadDuplicationWithFilter() throws Exception {
+
+      JournalStorageManager journal = null;
+
+      try {
+         clearDataRecreateServerDirs();
+
+         SimpleString ADDRESS = new SimpleString("address");
+
+         Configuration configuration = createDefaultInVMConfig();
+
+         PostOffice postOffice = new FakePostOffice();
+
+         ScheduledExecutorService scheduledThreadPool = Executors.newScheduledThreadPool(ActiveMQDefaultConfiguration.getDefaultScheduledThreadPoolMaxSize());
+
+         journal = new JournalStorageManager(configuration, factory, null);
+
+         journal.start();
+         journal.loadBindingJournal(new ArrayList<QueueBindingInfo>(), new ArrayList<GroupingInfo>());
+
+         HashMap<SimpleString, List<Pair<byte[], Long>>> mapDups = new HashMap<SimpleString, List<Pair<byte[], Long>>>();
+
+         FakePagingManager pagingManager = new FakePagingManager();
+         journal.loadMessageJournal(postOffice, pagingManager, new ResourceManagerImpl(0, 0, scheduledThreadPool), null, mapDups, null, null, new PostOfficeJournalLoader(postOffice, pagingManager, null, null, null, null, null, null));
+
+         DuplicateIDCache cacheID = new StripedDuplicateIDCache(ADDRESS, 10, journal, true, -1, true);
+
+         List<byte[]> ids = new ArrayList<byte[]>();
+
+         for (int i = 0; i < 100; i++) {
+            byte[] id = RandomUtil.randomBytes();
+            ids.add(id);
+            cacheID.addToCache(id);
+         }
+
+         journal.stop();
+
+         journal = new JournalStorageManager(configuration, factory, null);
+         journal.start();
+         journal.loadBindingJournal(new ArrayList<QueueBindingInfo>(), new ArrayList<GroupingInfo>());
+
+         journal.loadMessageJournal(postOffice, pagingManager, new ResourceManagerImpl(0, 0, scheduledThreadPool), null, mapDups, null, null, new PostOfficeJournalLoader(postOffice, pagingManager, null, null, null, null, null, null));
+
+         List<Pair<byte[], Long>> values = mapDups.get(ADDRESS);
+
+         Assert.assertEquals(10, values.size());
+
+         cacheID = new StripedDuplicateIDCache(ADDRESS, 10, journal, true, -1, true);
+         cacheID.load(values);
+
+         // only the ids that were not evicted are found by the filter after the reload
+         for (int i = 0; i < 90; i++) {
+            Assert.assertFalse(cacheID.contains(ids.get(i)));
+         }
+
+         for (int i = 90; i < 100; i++) {
+            Assert.assertTrue(cacheID.contains(ids.get(i)));
+         }
+
+         for (int i = 0; i < 5; i++) {
+            byte[] id = RandomUtil.randomBytes();
+            ids.add(id);
+            Assert.assertTrue(cacheID.atomicVerify(id, null));
+         }
+
+         // the first half of the loaded ids were evicted from the filter as well
+         for (int i = 90; i < 95; i++) {
+            Assert.assertFalse(cacheID.contains(ids.get(i)));
+         }
+
+         for (int i = 95; i < 105; i++) {
+            Assert.assertTrue(cacheID.contains(ids.get(i)));
+            Assert.assertFalse(cacheID.atomicVerify(ids.get(i), null));
+         }
+
+         journal.stop();
+
+         mapDups.clear();
+
+         journal = new JournalStorageManager(configuration, factory, null);
+         journal.start();
+         journal.loadBindingJournal(new ArrayList<QueueBindingInfo>(), new ArrayList<GroupingInfo>());
+
+         journal.loadMessageJournal(postOffice, pagingManager, new ResourceManagerImpl(0, 0, scheduledThreadPool), null, mapDups, null, null, new PostOfficeJournalLoader(postOffice, pagingManager, null, null, null, null, null, null));
+
+         values = mapDups.get(ADDRESS);
+
+         Assert.assertEquals(10, values.size());
+
+         cacheID = new StripedDuplicateIDCache(ADDRESS, 10, journal, true, -1, true);
+         cacheID.load(values);
+
+         for (int i = 0; i < 95; i++) {
+            Assert.assertFalse(cacheID.contains(ids.get(i)));
+         }
+
+         for (int i = 95; i < 105; i++) {
+            Assert.assertTrue(cacheID.contains(ids.get(i)));
+         }
+      }
+      finally {
+         if (journal != null) {
+            try {
+               journal.stop();
+            }
+            catch (Throwable ignored) {
+            }
+         }
+      }
+
+   }
 }
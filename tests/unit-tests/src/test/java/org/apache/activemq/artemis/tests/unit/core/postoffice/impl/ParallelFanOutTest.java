@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.postoffice.impl.ParallelFanOut;
+import org.apache.activemq.artemis.core.server.MessageReference;
+import org.apache.activemq.artemis.core.server.ServerMessage;
+import org.apache.activemq.artemis.core.server.impl.ServerMessageImpl;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelFanOutTest extends ActiveMQTestBase {
+
+   private ParallelFanOut fanOut;
+
+   @Override
+   @After
+   public void tearDown() throws Exception {
+      if (fanOut != null) {
+         fanOut.stop();
+      }
+      super.tearDown();
+   }
+
+   @Test
+   public void testBelowThreshold() {
+      fanOut = new ParallelFanOut(1000, 4);
+      fanOut.start();
+
+      List<RecordingQueue> queues = createQueues(999);
+
+      fanOut.addReferences(createReferences(1, queues), false, false);
+
+      for (RecordingQueue queue : queues) {
+         Assert.assertEquals(1, queue.refs.size());
+         Assert.assertEquals(Collections.singleton(Thread.currentThread()), queue.threads);
+      }
+   }
+
+   @Test
+   public void testParallel() {
+      fanOut = new ParallelFanOut(1000, 4);
+      fanOut.start();
+
+      List<RecordingQueue> queues = createQueues(5000);
+
+      for (int i = 0; i < 100; i++) {
+         fanOut.addReferences(createReferences(i, queues), false, false);
+      }
+
+      Set<Thread> threads = new HashSet<>();
+
+      for (RecordingQueue queue : queues) {
+         Assert.assertEquals(100, queue.refs.size());
+         // every message was added to every queue before the next one was routed
+         for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, queue.refs.get(i).getMessage().getMessageID());
+         }
+         threads.addAll(queue.threads);
+      }
+
+      Assert.assertTrue(threads.contains(Thread.currentThread()));
+      Assert.assertTrue(threads.size() > 1);
+   }
+
+   @Test
+   public void testSkipAcked() {
+      fanOut = new ParallelFanOut(10, 4);
+      fanOut.start();
+
+      List<RecordingQueue> queues = createQueues(1000);
+      List<MessageReference> refs = createReferences(1, queues);
+      for (int i = 0; i < refs.size(); i += 2) {
+         refs.get(i).setAlreadyAcked();
+      }
+
+      fanOut.addReferences(refs, false, true);
+
+      for (int i = 0; i < queues.size(); i++) {
+         Assert.assertEquals(i % 2, queues.get(i).refs.size());
+      }
+   }
+
+   @Test
+   public void testNotStarted() {
+      fanOut = new ParallelFanOut(10, 4);
+
+      List<RecordingQueue> queues = createQueues(1000);
+
+      fanOut.addReferences(createReferences(1, queues), true, false);
+
+      for (RecordingQueue queue : queues) {
+         Assert.assertEquals(1, queue.refs.size());
+         Assert.assertEquals(Collections.singleton(Thread.currentThread()), queue.threads);
+      }
+   }
+
+   private static List<RecordingQueue> createQueues(final int number) {
+      List<RecordingQueue> queues = new ArrayList<>(number);
+      for (int i = 0; i < number; i++) {
+         queues.add(new RecordingQueue(new SimpleString("queue" + i), i));
+      }
+      return queues;
+   }
+
+   private static List<MessageReference> createReferences(final long messageID, final List<RecordingQueue> queues) {
+      ServerMessage message = new ServerMessageImpl(messageID, 100);
+      List<MessageReference> refs = new ArrayList<>(queues.size());
+      for (RecordingQueue queue : queues) {
+         refs.add(message.createReference(queue));
+      }
+      return refs;
+   }
+
+   private static final class RecordingQueue extends FakeQueue {
+
+      final List<MessageReference> refs = new ArrayList<>();
+
+      final Set<Thread> threads = new HashSet<>();
+
+      RecordingQueue(final SimpleString name, final long id) {
+         super(name, id);
+      }
+
+      @Override
+      public synchronized void addTail(final MessageReference ref, final boolean direct) {
+         refs.add(ref);
+         threads.add(Thread.currentThread());
+      }
+   }
+}
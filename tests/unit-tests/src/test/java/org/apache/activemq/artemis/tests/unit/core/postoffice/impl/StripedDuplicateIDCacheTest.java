@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.postoffice.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.activemq.artemis.api.core.Pair;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.persistence.impl.nullpm.NullStorageManager;
+import org.apache.activemq.artemis.core.postoffice.DuplicateIDCache;
+import org.apache.activemq.artemis.core.postoffice.impl.StripedDuplicateIDCache;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StripedDuplicateIDCacheTest extends ActiveMQTestBase {
+
+   private static final SimpleString ADDRESS = new SimpleString("address");
+
+   @Test
+   public void testEvictOldest() throws Exception {
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), false);
+
+      for (int i = 0; i < 15; i++) {
+         Assert.assertTrue(cache.atomicVerify(id(i), null));
+      }
+
+      for (int i = 0; i < 5; i++) {
+         Assert.assertFalse(cache.contains(id(i)));
+      }
+
+      for (int i = 5; i < 15; i++) {
+         Assert.assertTrue(cache.contains(id(i)));
+         Assert.assertFalse(cache.atomicVerify(id(i), null));
+      }
+
+      Assert.assertEquals(10, cache.getMap().size());
+   }
+
+   @Test
+   public void testStripedCapacity() throws Exception {
+      final int size = 20000;
+
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, size, new NullStorageManager(), false);
+
+      for (int i = 0; i < size * 3; i++) {
+         cache.addToCache(id(i));
+      }
+
+      List<Pair<byte[], Long>> ids = cache.getMap();
+
+      Assert.assertEquals(size, ids.size());
+
+      // the stripes have the same size, so the last ids are always kept
+      for (int i = size * 3 - size / 32; i < size * 3; i++) {
+         Assert.assertTrue(cache.contains(id(i)));
+      }
+   }
+
+   @Test
+   public void testTTL() throws Exception {
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), false, 60000, false);
+
+      for (int i = 0; i < 100; i++) {
+         cache.addToCache(id(i));
+      }
+
+      // none of them is older than the TTL
+      for (int i = 0; i < 100; i++) {
+         Assert.assertTrue(cache.contains(id(i)));
+      }
+
+      cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), false, 1, false);
+
+      for (int i = 0; i < 100; i++) {
+         cache.addToCache(id(i));
+      }
+
+      Thread.sleep(10);
+
+      cache.addToCache(id(100));
+
+      for (int i = 0; i < 91; i++) {
+         Assert.assertFalse(cache.contains(id(i)));
+      }
+
+      for (int i = 91; i <= 100; i++) {
+         Assert.assertTrue(cache.contains(id(i)));
+      }
+   }
+
+   @Test
+   public void testDeleteFromCache() throws Exception {
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), false);
+
+      cache.addToCache(id(1));
+      cache.addToCache(id(2));
+
+      cache.deleteFromCache(id(1));
+
+      Assert.assertFalse(cache.contains(id(1)));
+      Assert.assertTrue(cache.contains(id(2)));
+      Assert.assertEquals(1, cache.getMap().size());
+
+      Assert.assertTrue(cache.atomicVerify(id(1), null));
+   }
+
+   @Test
+   public void testAddAgain() throws Exception {
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 3, new NullStorageManager(), false);
+
+      cache.addToCache(id(1));
+      cache.addToCache(id(2));
+      cache.addToCache(id(1));
+      cache.addToCache(id(3));
+      cache.addToCache(id(4));
+
+      // evicting the first copy doesn't remove the second one
+      Assert.assertTrue(cache.contains(id(1)));
+      Assert.assertFalse(cache.contains(id(2)));
+      Assert.assertTrue(cache.contains(id(3)));
+   }
+
+   @Test
+   public void testLoad() throws Exception {
+      List<Pair<byte[], Long>> ids = new ArrayList<>();
+
+      for (int i = 0; i < 20; i++) {
+         ids.add(new Pair<>(id(i), (long) i));
+      }
+
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), true);
+
+      cache.load(ids);
+
+      for (int i = 0; i < 10; i++) {
+         Assert.assertFalse(cache.contains(id(i)));
+      }
+
+      for (int i = 10; i < 20; i++) {
+         Assert.assertTrue(cache.contains(id(i)));
+      }
+
+      Assert.assertEquals(10, cache.getMap().size());
+
+      cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), true, 60000, false);
+
+      cache.load(ids);
+
+      Assert.assertEquals(20, cache.getMap().size());
+   }
+
+   @Test
+   public void testClear() throws Exception {
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 20000, new NullStorageManager(), true);
+
+      for (int i = 0; i < 1000; i++) {
+         cache.addToCache(id(i));
+      }
+
+      cache.clear();
+
+      Assert.assertTrue(cache.getMap().isEmpty());
+      Assert.assertFalse(cache.contains(id(1)));
+   }
+
+   @Test
+   public void testFilterEviction() throws Exception {
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 10, new NullStorageManager(), true, -1, true);
+
+      for (int i = 0; i < 1000; i++) {
+         Assert.assertTrue(cache.atomicVerify(id(i), null));
+      }
+
+      for (int i = 990; i < 1000; i++) {
+         Assert.assertTrue(cache.contains(id(i)));
+         Assert.assertFalse(cache.atomicVerify(id(i), null));
+      }
+
+      // the evicted ids were removed from the filter as well
+      for (int i = 0; i < 990; i++) {
+         Assert.assertFalse(cache.contains(id(i)));
+      }
+
+      cache.deleteFromCache(id(995));
+      Assert.assertFalse(cache.contains(id(995)));
+      Assert.assertTrue(cache.atomicVerify(id(995), null));
+      Assert.assertTrue(cache.contains(id(995)));
+
+      cache.clear();
+
+      for (int i = 990; i < 1000; i++) {
+         Assert.assertFalse(cache.contains(id(i)));
+      }
+   }
+
+   @Test
+   public void testFilterLoad() throws Exception {
+      List<Pair<byte[], Long>> ids = new ArrayList<>();
+
+      for (int i = 0; i < 5000; i++) {
+         ids.add(new Pair<>(id(i), (long) i));
+      }
+
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 2048, new NullStorageManager(), true, -1, true);
+
+      cache.load(ids);
+
+      Assert.assertEquals(2048, cache.getMap().size());
+
+      for (Pair<byte[], Long> id : cache.getMap()) {
+         Assert.assertTrue(cache.contains(id.getA()));
+      }
+   }
+
+   @Test
+   public void testFilterSameAsCache() throws Exception {
+      Random random = new Random(1);
+
+      DuplicateIDCache filtered = new StripedDuplicateIDCache(ADDRESS, 4096, new NullStorageManager(), false, -1, true);
+      DuplicateIDCache cache = new StripedDuplicateIDCache(ADDRESS, 4096, new NullStorageManager(), false, -1, false);
+
+      for (int i = 0; i < 100000; i++) {
+         byte[] id = id(random.nextInt(20000));
+
+         switch (random.nextInt(4)) {
+            case 0:
+               filtered.deleteFromCache(id);
+               cache.deleteFromCache(id);
+               break;
+            case 1:
+               filtered.addToCache(id);
+               cache.addToCache(id);
+               break;
+            default:
+               Assert.assertEquals(cache.contains(id), filtered.contains(id));
+               Assert.assertEquals(cache.atomicVerify(id, null), filtered.atomicVerify(id, null));
+         }
+      }
+   }
+
+   private static byte[] id(final int i) {
+      return ("id-" + i).getBytes();
+   }
+}
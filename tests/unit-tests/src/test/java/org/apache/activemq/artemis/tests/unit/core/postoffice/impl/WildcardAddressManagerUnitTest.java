@@ -71,6 +71,33 @@ public class WildcardAddressManagerUnitTest extends ActiveMQTestBase {
       assertEquals("Exception happened during the process", 0, errors);
    }
 
+   @Test
+   public void testLinkWildCards() throws Exception {
+      WildcardAddressManager ad = new WildcardAddressManager(new BindingFactoryFake());
+      ad.addBinding(new BindingFake("news.europe.sport", "one"));
+      ad.addBinding(new BindingFake("news.*.sport", "two"));
+      ad.addBinding(new BindingFake("news.#", "three"));
+
+      assertEquals(3, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.europe.sport")).getBindings().size());
+
+      // a routing address without bindings gets the bindings of its wildcards
+      assertEquals(2, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.usa.sport")).getBindings().size());
+      assertEquals(1, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news")).getBindings().size());
+      assertNull(ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("sport")));
+
+      ad.removeBinding(SimpleString.toSimpleString("two"), null);
+      assertEquals(2, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.europe.sport")).getBindings().size());
+      assertEquals(1, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.usa.sport")).getBindings().size());
+
+      ad.removeBinding(SimpleString.toSimpleString("three"), null);
+      assertEquals(1, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.europe.sport")).getBindings().size());
+      assertNull(ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.usa.sport")));
+
+      // a wildcard added later is linked to the existing addresses
+      ad.addBinding(new BindingFake("*.europe.*", "four"));
+      assertEquals(2, ad.getBindingsForRoutingAddress(SimpleString.toSimpleString("news.europe.sport")).getBindings().size());
+   }
+
    class BindingFactoryFake implements BindingsFactory {
 
       public Bindings createBindings(SimpleString address) throws Exception {
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.remoting;
+
+import java.util.Collections;
+import java.util.Map;
+
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.Interceptor;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.protocol.ClientPacketDecoder;
+import org.apache.activemq.artemis.core.protocol.core.Packet;
+import org.apache.activemq.artemis.core.protocol.core.impl.RemotingConnectionImpl;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.NullResponseMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.PacketsConfirmedMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.Ping;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionAcknowledgeMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionConsumerFlowCreditMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionIndividualAcknowledgeMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionProducerCreditsMessage;
+import org.apache.activemq.artemis.core.protocol.core.impl.wireformat.SessionRequestProducerCreditsMessage;
+import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
+import org.apache.activemq.artemis.core.server.ActiveMQComponent;
+import org.apache.activemq.artemis.spi.core.remoting.Connection;
+import org.apache.activemq.artemis.spi.core.remoting.ConnectionLifeCycleListener;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Test;
+
+/**
+ * The packets sent for every message take a transport buffer of the size they encode to.
+ */
+public class PacketEncodeSizeTest extends ActiveMQTestBase {
+
+   private static final Map<String, Object> emptyMap = Collections.emptyMap();
+
+   @Test
+   public void testFixedSizePackets() throws Exception {
+      EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+      RemotingConnectionImpl connection = new RemotingConnectionImpl(ClientPacketDecoder.INSTANCE, new NettyConnection(emptyMap, channel, new Listener(), false, false), -1, -1, Collections.<Interceptor>emptyList(), Collections.<Interceptor>emptyList());
+
+      SimpleString address = new SimpleString("address");
+
+      assertEncodedToCapacity(connection, new SessionAcknowledgeMessage(1, 2, true));
+      assertEncodedToCapacity(connection, new SessionIndividualAcknowledgeMessage(1, 2, false));
+      assertEncodedToCapacity(connection, new SessionConsumerFlowCreditMessage(1, 1024));
+      assertEncodedToCapacity(connection, new SessionProducerCreditsMessage(1024, address));
+      assertEncodedToCapacity(connection, new SessionRequestProducerCreditsMessage(1024, address));
+      assertEncodedToCapacity(connection, new PacketsConfirmedMessage(10));
+      assertEncodedToCapacity(connection, new NullResponseMessage());
+      assertEncodedToCapacity(connection, new Ping(1000));
+   }
+
+   private static void assertEncodedToCapacity(final RemotingConnectionImpl connection, final Packet packet) {
+      ActiveMQBuffer buffer = packet.encode(connection);
+      try {
+         assertEquals(packet.toString(), buffer.capacity(), buffer.writerIndex());
+         assertEquals(packet.toString(), buffer.writerIndex(), packet.getPacketSize());
+      }
+      finally {
+         buffer.byteBuf().release();
+      }
+   }
+
+   private static final class Listener implements ConnectionLifeCycleListener {
+
+      @Override
+      public void connectionCreated(final ActiveMQComponent component,
+                                    final Connection connection,
+                                    final String protocol) {
+      }
+
+      @Override
+      public void connectionDestroyed(final Object connectionID) {
+      }
+
+      @Override
+      public void connectionException(final Object connectionID, final ActiveMQException me) {
+      }
+
+      @Override
+      public void connectionReadyForWrites(Object connectionID, boolean ready) {
+      }
+   }
+}
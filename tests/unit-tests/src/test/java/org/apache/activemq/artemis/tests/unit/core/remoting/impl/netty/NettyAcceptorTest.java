@@ -16,7 +16,10 @@
  */
 package org.apache.activemq.artemis.tests.unit.core.remoting.impl.netty;
 
+import java.net.Socket;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -108,4 +111,56 @@ public class NettyAcceptorTest extends ActiveMQTestBase {
       pool2.awaitTermination(1, TimeUnit.SECONDS);
    }
 
+   @Test
+   public void testReusePortListeners() throws Exception {
+      BufferHandler handler = new BufferHandler() {
+
+         public void bufferReceived(final Object connectionID, final ActiveMQBuffer buffer) {
+         }
+      };
+
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.USE_EPOLL_PROP_NAME, true);
+      params.put(TransportConstants.REUSE_PORT_LISTENERS_PROP_NAME, 4);
+      params.put(TransportConstants.NIO_REMOTING_THREADS_PROPNAME, 4);
+      ConnectionLifeCycleListener listener = new ConnectionLifeCycleListener() {
+
+         public void connectionException(final Object connectionID, final ActiveMQException me) {
+         }
+
+         public void connectionDestroyed(final Object connectionID) {
+         }
+
+         public void connectionCreated(final ActiveMQComponent component,
+                                       final Connection connection,
+                                       final String protocol) {
+         }
+
+         public void connectionReadyForWrites(Object connectionID, boolean ready) {
+         }
+      };
+      pool2 = Executors.newScheduledThreadPool(ActiveMQDefaultConfiguration.getDefaultScheduledThreadPoolMaxSize());
+      NettyAcceptor acceptor = new NettyAcceptor("netty", null, params, handler, listener, pool2, null);
+
+      addActiveMQComponent(acceptor);
+      // without the native epoll transport the acceptor listens on a single socket
+      acceptor.start();
+      Assert.assertTrue(acceptor.isStarted());
+
+      List<Socket> sockets = new ArrayList<Socket>();
+      try {
+         for (int i = 0; i < 16; i++) {
+            sockets.add(new Socket(TransportConstants.DEFAULT_HOST, TransportConstants.DEFAULT_PORT));
+         }
+      }
+      finally {
+         for (Socket socket : sockets) {
+            socket.close();
+         }
+      }
+
+      acceptor.stop();
+      Assert.assertFalse(acceptor.isStarted());
+      ActiveMQTestBase.checkFreePort(TransportConstants.DEFAULT_PORT);
+   }
 }
@@ -19,15 +19,28 @@ package org.apache.activemq.artemis.tests.unit.core.remoting.impl.netty;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalEventLoopGroup;
+import io.netty.channel.local.LocalServerChannel;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
 import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnection;
+import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
 import org.apache.activemq.artemis.spi.core.remoting.Connection;
 import org.apache.activemq.artemis.spi.core.remoting.ConnectionLifeCycleListener;
@@ -59,6 +72,101 @@ public class NettyConnectionTest extends ActiveMQTestBase {
       Assert.assertEquals(1, channel.outboundMessages().size());
    }
 
+   @Test
+   public void testWriteCoalescing() throws Exception {
+      FlushCounter counter = new FlushCounter();
+      EmbeddedChannel channel = new EmbeddedChannel(counter);
+
+      Map<String, Object> params = Collections.<String, Object>singletonMap(TransportConstants.WRITE_COALESCING_PROP_NAME, true);
+      NettyConnection conn = new NettyConnection(params, channel, new MyListener(), false, false);
+      for (int i = 0; i < 10; i++) {
+         conn.write(ActiveMQBuffers.wrappedBuffer(ByteBuffer.allocate(128)));
+      }
+      channel.runPendingTasks();
+      Assert.assertEquals(10, channel.outboundMessages().size());
+      Assert.assertEquals(1, counter.flushes);
+
+      // flushed right away when the unflushed bytes make the channel unwritable
+      channel.config().setWriteBufferLowWaterMark(128);
+      channel.config().setWriteBufferHighWaterMark(256);
+      for (int i = 0; i < 4; i++) {
+         conn.write(ActiveMQBuffers.wrappedBuffer(ByteBuffer.allocate(128)));
+      }
+      channel.runPendingTasks();
+      Assert.assertEquals(14, channel.outboundMessages().size());
+      Assert.assertEquals(3, counter.flushes);
+   }
+
+   @Test
+   public void testWriteCoalescingFromOtherThreads() throws Exception {
+      final int numberOfThreads = 4;
+      final int writesPerThread = 1000;
+      final int size = 128;
+
+      final AtomicInteger receivedBytes = new AtomicInteger();
+      final CountDownLatch received = new CountDownLatch(1);
+
+      LocalEventLoopGroup group = new LocalEventLoopGroup(1);
+      LocalAddress address = new LocalAddress("testWriteCoalescingFromOtherThreads");
+
+      try {
+         Channel server = new ServerBootstrap().group(group).channel(LocalServerChannel.class).childHandler(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+               ByteBuf buf = (ByteBuf) msg;
+               if (receivedBytes.addAndGet(buf.readableBytes()) == numberOfThreads * writesPerThread * size) {
+                  received.countDown();
+               }
+               buf.release();
+            }
+         }).bind(address).sync().channel();
+
+         Channel client = new Bootstrap().group(group).channel(LocalChannel.class).handler(new ChannelInboundHandlerAdapter()).connect(address).sync().channel();
+
+         Map<String, Object> params = Collections.<String, Object>singletonMap(TransportConstants.WRITE_COALESCING_PROP_NAME, true);
+         final NettyConnection conn = new NettyConnection(params, client, new MyListener(), false, false);
+
+         Thread[] threads = new Thread[numberOfThreads];
+         for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+               @Override
+               public void run() {
+                  for (int j = 0; j < writesPerThread; j++) {
+                     conn.write(ActiveMQBuffers.wrappedBuffer(ByteBuffer.allocate(size)));
+                  }
+               }
+            };
+            threads[i].start();
+         }
+         for (Thread thread : threads) {
+            thread.join();
+         }
+
+         // the last writes are flushed without any later write
+         Assert.assertTrue("received " + receivedBytes.get() + " bytes", received.await(10, TimeUnit.SECONDS));
+
+         client.close().sync();
+         server.close().sync();
+      }
+      finally {
+         group.shutdownGracefully();
+      }
+   }
+
+   @Test
+   public void testWriteCoalescingDisabled() throws Exception {
+      FlushCounter counter = new FlushCounter();
+      EmbeddedChannel channel = new EmbeddedChannel(counter);
+
+      NettyConnection conn = new NettyConnection(emptyMap, channel, new MyListener(), false, false);
+      for (int i = 0; i < 10; i++) {
+         conn.write(ActiveMQBuffers.wrappedBuffer(ByteBuffer.allocate(128)));
+      }
+      channel.runPendingTasks();
+      Assert.assertEquals(10, channel.outboundMessages().size());
+      Assert.assertEquals(10, counter.flushes);
+   }
+
    @Test
    public void testCreateBuffer() throws Exception {
       EmbeddedChannel channel = createChannel();
@@ -76,6 +184,17 @@ public class NettyConnectionTest extends ActiveMQTestBase {
       return new EmbeddedChannel(new ChannelInboundHandlerAdapter());
    }
 
+   static class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+      int flushes;
+
+      @Override
+      public void flush(final ChannelHandlerContext ctx) throws Exception {
+         flushes++;
+         super.flush(ctx);
+      }
+   }
+
    class MyListener implements ConnectionLifeCycleListener {
 
       public void connectionCreated(final ActiveMQComponent component,
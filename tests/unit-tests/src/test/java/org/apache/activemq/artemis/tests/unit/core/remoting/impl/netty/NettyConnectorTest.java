@@ -21,12 +21,16 @@ import org.apache.activemq.artemis.api.core.ActiveMQException;
 import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
 import org.junit.Test;
 
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executors;
 
 import org.junit.Assert;
 
+import org.apache.activemq.artemis.core.remoting.impl.netty.EpollSupport;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnector;
 import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
 import org.apache.activemq.artemis.core.server.ActiveMQComponent;
@@ -263,4 +267,43 @@ public class NettyConnectorTest extends ActiveMQTestBase {
       connector.close();
       Assert.assertFalse(connector.isStarted());
    }
+
+   @Test
+   public void testUseEpoll() throws Exception {
+      BufferHandler handler = new BufferHandler() {
+         public void bufferReceived(final Object connectionID, final ActiveMQBuffer buffer) {
+         }
+      };
+      Map<String, Object> params = new HashMap<String, Object>();
+      params.put(TransportConstants.USE_EPOLL_PROP_NAME, true);
+      ConnectionLifeCycleListener listener = new ConnectionLifeCycleListener() {
+         public void connectionException(final Object connectionID, final ActiveMQException me) {
+         }
+
+         public void connectionDestroyed(final Object connectionID) {
+         }
+
+         public void connectionCreated(final ActiveMQComponent component,
+                                       final Connection connection,
+                                       final String protocol) {
+         }
+
+         public void connectionReadyForWrites(Object connectionID, boolean ready) {
+         }
+      };
+
+      NettyConnector connector = new NettyConnector(params, handler, listener, Executors.newCachedThreadPool(), Executors.newCachedThreadPool(), Executors.newScheduledThreadPool(5));
+
+      connector.start();
+      Assert.assertTrue(connector.isStarted());
+      // falls back to NIO where the native transport isn't available
+      if (EpollSupport.isAvailable()) {
+         Assert.assertTrue(connector.getBootStrap().group() instanceof EpollEventLoopGroup);
+      }
+      else {
+         Assert.assertTrue(connector.getBootStrap().group() instanceof NioEventLoopGroup);
+      }
+      connector.close();
+      Assert.assertFalse(connector.isStarted());
+   }
 }
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.activemq.artemis.tests.unit.core.security.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.activemq.artemis.api.core.ActiveMQSecurityException;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.core.security.CheckType;
+import org.apache.activemq.artemis.core.security.Role;
+import org.apache.activemq.artemis.core.security.SecurityAuth;
+import org.apache.activemq.artemis.core.security.impl.SecurityStoreImpl;
+import org.apache.activemq.artemis.core.settings.impl.HierarchicalObjectRepository;
+import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManager;
+import org.apache.activemq.artemis.tests.util.ActiveMQTestBase;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SecurityStoreImplTest extends ActiveMQTestBase {
+
+   private HierarchicalObjectRepository<Set<Role>> securityRepository;
+
+   private CountingSecurityManager securityManager;
+
+   @Override
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+
+      securityRepository = new HierarchicalObjectRepository<Set<Role>>();
+      Set<Role> roles = new HashSet<Role>();
+      roles.add(new Role("all", true, true, true, true, true, true, true));
+      securityRepository.addMatch("#", roles);
+
+      securityManager = new CountingSecurityManager();
+   }
+
+   @Test
+   public void testCachedPermissions() throws Exception {
+      SecurityStoreImpl store = createStore(100);
+
+      SimpleString address = new SimpleString("address");
+
+      store.check(address, CheckType.SEND, auth("user"));
+      store.check(address, CheckType.SEND, auth("user"));
+      Assert.assertEquals(1, securityManager.checks);
+
+      // every permission is cached on its own
+      store.check(address, CheckType.CONSUME, auth("user"));
+      store.check(address, CheckType.CONSUME, auth("user"));
+      store.check(address, CheckType.SEND, auth("user"));
+      Assert.assertEquals(2, securityManager.checks);
+
+      store.check(address, CheckType.SEND, auth("other"));
+      store.check(new SimpleString("other"), CheckType.SEND, auth("user"));
+      Assert.assertEquals(4, securityManager.checks);
+
+      store.check(address, CheckType.SEND, auth(null));
+      store.check(address, CheckType.SEND, auth(null));
+      Assert.assertEquals(5, securityManager.checks);
+   }
+
+   @Test
+   public void testDeniedNotCached() throws Exception {
+      SecurityStoreImpl store = createStore(100);
+
+      SimpleString address = new SimpleString("address");
+
+      for (int i = 0; i < 2; i++) {
+         try {
+            store.check(address, CheckType.SEND, auth(CountingSecurityManager.DENIED));
+            Assert.fail("the user should be denied");
+         }
+         catch (ActiveMQSecurityException expected) {
+         }
+      }
+
+      Assert.assertEquals(2, securityManager.checks);
+   }
+
+   @Test
+   public void testInvalidateOnChange() throws Exception {
+      SecurityStoreImpl store = createStore(100);
+
+      SimpleString address = new SimpleString("address");
+
+      store.check(address, CheckType.SEND, auth("user"));
+      Assert.assertEquals(1, securityManager.checks);
+
+      securityRepository.addMatch("other.#", new HashSet<Role>());
+
+      store.check(address, CheckType.SEND, auth("user"));
+      store.check(address, CheckType.SEND, auth("user"));
+      Assert.assertEquals(2, securityManager.checks);
+   }
+
+   @Test
+   public void testMaxCacheSize() throws Exception {
+      SecurityStoreImpl store = createStore(10);
+
+      for (int i = 0; i < 100; i++) {
+         store.check(new SimpleString("address" + i), CheckType.SEND, auth("user"));
+      }
+
+      Assert.assertEquals(100, securityManager.checks);
+
+      // the first addresses were removed from the cache
+      store.check(new SimpleString("address0"), CheckType.SEND, auth("user"));
+      Assert.assertEquals(101, securityManager.checks);
+   }
+
+   private SecurityStoreImpl createStore(final int maxCacheSize) {
+      return new SecurityStoreImpl(securityRepository, securityManager, 60000, maxCacheSize, true, "cluster", "password", null);
+   }
+
+   private static SecurityAuth auth(final String user) {
+      return new SecurityAuth() {
+         @Override
+         public String getUsername() {
+            return user;
+         }
+
+         @Override
+         public String getPassword() {
+            return "password";
+         }
+      };
+   }
+
+   private static final class CountingSecurityManager implements ActiveMQSecurityManager {
+
+      static final String DENIED = "denied";
+
+      int checks;
+
+      @Override
+      public boolean validateUser(final String user, final String password) {
+         return true;
+      }
+
+      @Override
+      public boolean validateUserAndRole(final String user,
+                                         final String password,
+                                         final Set<Role> roles,
+                                         final CheckType checkType) {
+         checks++;
+         return !DENIED.equals(user);
+      }
+   }
+}